@@ -20,6 +20,8 @@
 package com.orientechnologies.orient.client.remote;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -48,9 +50,13 @@ public class ORemoteConnectionManager implements OChannelListener {
 
   protected final ConcurrentHashMap<String, OResourcePool<String, OChannelBinaryAsynchClient>> connections;
   protected final long                                                                         timeout;
+  // CHANNELS SHARED BY PIPELINED REQUESTS WITH THE THREADS WAITING FOR THE RESPONSES. THEY ARE TAKEN FROM THE POOL ONCE AND ARE
+  // NOT RETURNED TO IT UNTIL THEY ARE CLOSED
+  private final Map<OChannelBinaryAsynchClient, Set<Thread>>                                    pipelinedChannels;
 
   public ORemoteConnectionManager(final int iMaxConnectionPerURL, final long iTimeout) {
     connections = new ConcurrentHashMap<String, OResourcePool<String, OChannelBinaryAsynchClient>>();
+    pipelinedChannels = new HashMap<OChannelBinaryAsynchClient, Set<Thread>>();
     timeout = iTimeout;
   }
 
@@ -60,6 +66,10 @@ public class ORemoteConnectionManager implements OChannelListener {
     }
 
     connections.clear();
+
+    synchronized (pipelinedChannels) {
+      pipelinedChannels.clear();
+    }
   }
 
   public OChannelBinaryAsynchClient acquire(String iServerURL, final OContextConfiguration clientConfiguration,
@@ -111,7 +121,63 @@ public class ORemoteConnectionManager implements OChannelListener {
     return null;
   }
 
+  /**
+   * Acquires a channel which is shared by synchronous requests of different sessions. Requests are written one after another and
+   * responses are matched by the client tx id, so up to {@link OGlobalConfiguration#CLIENT_CHANNEL_MAX_PIPELINED_REQUESTS}
+   * requests wait for the responses on the same channel. The channel is not locked and it has to be released by the same thread.
+   */
+  public OChannelBinaryAsynchClient acquirePipelined(final String iServerURL, final OContextConfiguration clientConfiguration,
+      final Map<String, Object> iConfiguration, final ORemoteServerEventListener iListener) {
+    final int maxRequests = OGlobalConfiguration.CLIENT_CHANNEL_MAX_PIPELINED_REQUESTS.getValueAsInteger();
+    final Thread requester = Thread.currentThread();
+
+    synchronized (pipelinedChannels) {
+      // PICK THE LESS LOADED CHANNEL, BUT NEVER THE ONE THE CURRENT THREAD IS ALREADY WAITING ON
+      OChannelBinaryAsynchClient selected = null;
+      int selectedRequests = maxRequests;
+      for (Map.Entry<OChannelBinaryAsynchClient, Set<Thread>> entry : pipelinedChannels.entrySet()) {
+        final OChannelBinaryAsynchClient channel = entry.getKey();
+        final Set<Thread> requesters = entry.getValue();
+
+        if (requesters.size() < selectedRequests && !requesters.contains(requester) && iServerURL.equals(channel.getServerURL())
+            && channel.isConnected()) {
+          selected = channel;
+          selectedRequests = requesters.size();
+        }
+      }
+
+      if (selected != null) {
+        pipelinedChannels.get(selected).add(requester);
+        return selected;
+      }
+    }
+
+    // ALL THE CHANNELS ARE BUSY: TAKE ONE MORE FROM THE POOL
+    final OChannelBinaryAsynchClient channel = acquire(iServerURL, clientConfiguration, iConfiguration, iListener);
+    if (channel == null)
+      return null;
+
+    final Set<Thread> requesters = new HashSet<Thread>();
+    requesters.add(requester);
+
+    synchronized (pipelinedChannels) {
+      pipelinedChannels.put(channel, requesters);
+    }
+
+    return channel;
+  }
+
   public void release(final OChannelBinaryAsynchClient conn) {
+    synchronized (pipelinedChannels) {
+      final Set<Thread> requesters = pipelinedChannels.get(conn);
+      if (requesters != null) {
+        // SHARED CHANNEL: IT STAYS OUT OF THE POOL
+        requesters.remove(Thread.currentThread());
+        if (conn.isConnected())
+          return;
+      }
+    }
+
     final OResourcePool<String, OChannelBinaryAsynchClient> pool = connections.get(conn.getServerURL());
     if (pool != null) {
       if (!conn.isConnected()) {
@@ -124,6 +190,10 @@ public class ORemoteConnectionManager implements OChannelListener {
   }
 
   public void remove(final OChannelBinaryAsynchClient conn) {
+    synchronized (pipelinedChannels) {
+      pipelinedChannels.remove(conn);
+    }
+
     try {
       conn.unlock();
     } catch (Exception e) {
@@ -146,6 +216,10 @@ public class ORemoteConnectionManager implements OChannelListener {
   public void onChannelClose(final OChannel channel) {
     OChannelBinaryAsynchClient conn = (OChannelBinaryAsynchClient) channel;
 
+    synchronized (pipelinedChannels) {
+      pipelinedChannels.remove(conn);
+    }
+
     final OResourcePool<String, OChannelBinaryAsynchClient> pool = connections.get(conn.getServerURL());
     if (pool == null)
       throw new IllegalStateException("Connection cannot be released because the pool doesn't exist anymore");
@@ -306,7 +306,7 @@ public class OStorageRemote extends OStorageAbstract implements OStorageProxy {
     OChannelBinaryAsynchClient lastNetworkUsed = null;
     do {
       try {
-        final OChannelBinaryAsynchClient network = beginRequest(OChannelBinaryProtocol.REQUEST_RECORD_CREATE);
+        final OChannelBinaryAsynchClient network = beginRequest(OChannelBinaryProtocol.REQUEST_RECORD_CREATE, iMode);
         lastNetworkUsed = network;
 
         try {
@@ -468,6 +468,70 @@ public class OStorageRemote extends OStorageAbstract implements OStorageProxy {
     } while (true);
   }
 
+  public List<ORawBuffer> readRecords(final List<ORecordId> iRids, final String iFetchPlan, final boolean iIgnoreCache,
+      final boolean loadTombstones) {
+    if (OStorageRemoteThreadLocal.INSTANCE.get().commandExecuting)
+      // PENDING NETWORK OPERATION, CAN'T EXECUTE IT NOW
+      return new ArrayList<ORawBuffer>(Collections.<ORawBuffer> nCopies(iRids.size(), null));
+
+    OChannelBinaryAsynchClient network = null;
+    do {
+      try {
+        if (!isMultiLoadSupported()) {
+          // OLD SERVER: LOAD RECORDS ONE BY ONE
+          final List<ORawBuffer> result = new ArrayList<ORawBuffer>(iRids.size());
+          for (ORecordId rid : iRids)
+            result.add(readRecord(rid, iFetchPlan, iIgnoreCache, null, loadTombstones, LOCKING_STRATEGY.DEFAULT).getResult());
+
+          return result;
+        }
+
+        try {
+          network = beginRequest(OChannelBinaryProtocol.REQUEST_RECORD_LOAD_MULTI);
+          network.writeInt(iRids.size());
+          for (ORecordId rid : iRids)
+            network.writeRID(rid);
+
+          network.writeString(iFetchPlan != null ? iFetchPlan : "");
+          network.writeByte((byte) (iIgnoreCache ? 1 : 0));
+          network.writeByte(loadTombstones ? (byte) 1 : (byte) 0);
+        } finally {
+          endRequest(network);
+        }
+
+        try {
+          beginResponse(network);
+
+          final List<ORawBuffer> result = new ArrayList<ORawBuffer>(iRids.size());
+          for (int i = 0; i < iRids.size(); i++) {
+            if (network.readByte() == 0)
+              result.add(null);
+            else
+              result.add(new ORawBuffer(network.readBytes(), network.readVersion(), network.readByte()));
+          }
+
+          final ODatabaseDocument database = ODatabaseRecordThreadLocal.INSTANCE.getIfDefined();
+          ORecord record;
+          while (network.readByte() == 2) {
+            record = (ORecord) OChannelBinaryProtocol.readIdentifiable(network);
+
+            if (database != null)
+              // PUT IN THE CLIENT LOCAL CACHE
+              database.getLocalCache().updateRecord(record);
+          }
+          return result;
+
+        } finally {
+          endResponse(network);
+        }
+
+      } catch (Exception e) {
+        handleException(network, "Error on read of " + iRids.size() + " records", e);
+
+      }
+    } while (true);
+  }
+
   public OStorageOperationResult<ORecordVersion> updateRecord(final ORecordId iRid, boolean updateContent, final byte[] iContent,
       final ORecordVersion iVersion, final byte iRecordType, int iMode, final ORecordCallback<ORecordVersion> iCallback) {
 
@@ -478,7 +542,7 @@ public class OStorageRemote extends OStorageAbstract implements OStorageProxy {
     OChannelBinaryAsynchClient lastNetworkUsed = null;
     do {
       try {
-        final OChannelBinaryAsynchClient network = beginRequest(OChannelBinaryProtocol.REQUEST_RECORD_UPDATE);
+        final OChannelBinaryAsynchClient network = beginRequest(OChannelBinaryProtocol.REQUEST_RECORD_UPDATE, iMode);
         lastNetworkUsed = network;
 
         try {
@@ -555,7 +619,7 @@ public class OStorageRemote extends OStorageAbstract implements OStorageProxy {
     OChannelBinaryAsynchClient network = null;
     do {
       try {
-        network = beginRequest(OChannelBinaryProtocol.REQUEST_RECORD_DELETE);
+        network = beginRequest(OChannelBinaryProtocol.REQUEST_RECORD_DELETE, iMode);
         return new OStorageOperationResult<Boolean>(deleteRecord(iRid, iVersion, iMode, iCallback, network));
       } catch (OModificationOperationProhibitedException mope) {
         handleDBFreeze();
@@ -576,7 +640,7 @@ public class OStorageRemote extends OStorageAbstract implements OStorageProxy {
     OChannelBinaryAsynchClient network = null;
     do {
       try {
-        network = beginRequest(OChannelBinaryProtocol.REQUEST_RECORD_HIDE);
+        network = beginRequest(OChannelBinaryProtocol.REQUEST_RECORD_HIDE, mode);
         return new OStorageOperationResult<Boolean>(hideRecord(recordId, mode, callback, network));
       } catch (OModificationOperationProhibitedException mope) {
         handleDBFreeze();
@@ -597,7 +661,7 @@ public class OStorageRemote extends OStorageAbstract implements OStorageProxy {
     OChannelBinaryAsynchClient network = null;
     do {
       try {
-        network = beginRequest(OChannelBinaryProtocol.REQUEST_RECORD_CLEAN_OUT);
+        network = beginRequest(OChannelBinaryProtocol.REQUEST_RECORD_CLEAN_OUT, iMode);
         return deleteRecord(recordId, recordVersion, iMode, callback, network);
       } catch (OModificationOperationProhibitedException mope) {
         handleDBFreeze();
@@ -1719,7 +1783,7 @@ public class OStorageRemote extends OStorageAbstract implements OStorageProxy {
   }
 
   /**
-   * Acquire a network channel from the pool. Don't lock the write stream since the connection usage is exclusive.
+   * Acquire a network channel for a synchronous request.
    * 
    * @param iCommand
    *          id. Ids described at {@link OChannelBinaryProtocol}
@@ -1727,13 +1791,46 @@ public class OStorageRemote extends OStorageAbstract implements OStorageProxy {
    * @throws IOException
    */
   protected OChannelBinaryAsynchClient beginRequest(final byte iCommand) throws IOException {
-    final OChannelBinaryAsynchClient network = getAvailableNetwork(getCurrentServerURL());
+    return beginRequest(iCommand, 0);
+  }
+
+  /**
+   * Acquire a network channel for the request. Synchronous requests of opened sessions share the channel with requests of other
+   * sessions if {@link OGlobalConfiguration#CLIENT_CHANNEL_MAX_PIPELINED_REQUESTS} is greater than 1, because the response is read
+   * by the same thread and matched by session id.
+   * 
+   * @param iCommand
+   *          id. Ids described at {@link OChannelBinaryProtocol}
+   * @param iMode
+   *          0 = synchronous, 1 = asynchronous, 2 = no response
+   * @return connection to server
+   * @throws IOException
+   */
+  protected OChannelBinaryAsynchClient beginRequest(final byte iCommand, final int iMode) throws IOException {
+    final boolean pipelined = iMode == 0 && getSessionId() >= 0
+        && OGlobalConfiguration.CLIENT_CHANNEL_MAX_PIPELINED_REQUESTS.getValueAsInteger() > 1;
+
+    final OChannelBinaryAsynchClient network = getAvailableNetwork(getCurrentServerURL(), pipelined);
     network.writeByte(iCommand);
     network.writeInt(getSessionId());
 
     return network;
   }
 
+  /**
+   * @return <code>true</code> if server supports loading of several records in single request.
+   */
+  protected boolean isMultiLoadSupported() throws IOException {
+    final OChannelBinaryAsynchClient network = getAvailableNetwork(getCurrentServerURL());
+    try {
+      return network.getSrvProtocolVersion() > OChannelBinaryProtocol.PROTOCOL_VERSION_26;
+    } finally {
+      // CHANNEL IS LOCKED FOR WRITING BY getAvailableNetwork() EVEN IF NO REQUEST IS SENT
+      network.releaseWriteLock();
+      engine.getConnectionManager().release(network);
+    }
+  }
+
   protected String getCurrentServerURL() {
     if (serverURLs.isEmpty()) {
       parseServerURLs();
@@ -1745,12 +1842,20 @@ public class OStorageRemote extends OStorageAbstract implements OStorageProxy {
   }
 
   protected OChannelBinaryAsynchClient getAvailableNetwork(final String iCurrentURL) throws IOException {
+    return getAvailableNetwork(iCurrentURL, false);
+  }
+
+  private OChannelBinaryAsynchClient getAvailableNetwork(final String iCurrentURL, final boolean iPipelined) throws IOException {
     OChannelBinaryAsynchClient network;
 
     String lastURL = iCurrentURL;
     do {
       try {
-        network = engine.getConnectionManager().acquire(lastURL, clientConfiguration, connectionOptions, asynchEventListener);
+        if (iPipelined)
+          network = engine.getConnectionManager().acquirePipelined(lastURL, clientConfiguration, connectionOptions,
+              asynchEventListener);
+        else
+          network = engine.getConnectionManager().acquire(lastURL, clientConfiguration, connectionOptions, asynchEventListener);
       } catch (Exception e) {
         // CATCH ANY EXCEPTION AND TRY WITH A NEXT ONE IF ANY
         network = null;
@@ -1767,6 +1872,9 @@ public class OStorageRemote extends OStorageAbstract implements OStorageProxy {
         OLogManager.instance().error(this, "Removing disconnected network channel '%s'...", lastURL);
         engine.getConnectionManager().remove(network);
         network = null;
+      } else if (iPipelined) {
+        // SHARED CHANNEL: WAIT FOR THE OTHER REQUESTS TO BE WRITTEN
+        network.beginRequest();
       } else if (!network.tryLock()) {
         // CANNOT LOCK IT, MAYBE HASN'T BE CORRECTLY UNLOCKED BY PREVIOUS USER
         OLogManager.instance().error(this, "Removing locked network channel '%s'...", lastURL);
@@ -48,6 +48,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.Callable;
@@ -254,6 +255,16 @@ public class OStorageRemoteThread implements OStorageProxy {
     }
   }
 
+  public List<ORawBuffer> readRecords(final List<ORecordId> iRids, final String iFetchPlan, final boolean iIgnoreCache,
+      final boolean loadTombstones) {
+    pushSession();
+    try {
+      return delegate.readRecords(iRids, iFetchPlan, iIgnoreCache, loadTombstones);
+    } finally {
+      popSession();
+    }
+  }
+
   public OStorageOperationResult<ORecordVersion> updateRecord(final ORecordId iRid, boolean updateContent, final byte[] iContent,
       final ORecordVersion iVersion, final byte iRecordType, final int iMode, ORecordCallback<ORecordVersion> iCallback) {
     pushSession();
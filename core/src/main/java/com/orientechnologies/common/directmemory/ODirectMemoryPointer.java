@@ -20,6 +20,10 @@
 
 package com.orientechnologies.common.directmemory;
 
+import java.lang.reflect.Field;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+
 import com.orientechnologies.common.serialization.types.OByteSerializer;
 import com.orientechnologies.common.serialization.types.OCharSerializer;
 import com.orientechnologies.common.serialization.types.OIntegerSerializer;
@@ -47,6 +51,8 @@ import com.orientechnologies.orient.core.config.OGlobalConfiguration;
  * @since 10/19/13
  */
 public class ODirectMemoryPointer {
+  private static final Field  BUFFER_ADDRESS_FIELD = findBufferAddressField();
+
   private final boolean       SAFE_MODE    = OGlobalConfiguration.DIRECT_MEMORY_SAFE_MODE.getValueAsBoolean();
 
   private final ODirectMemory directMemory = ODirectMemoryFactory.INSTANCE.directMemory();
@@ -93,6 +99,51 @@ public class ODirectMemoryPointer {
     directMemory.set(dataPointer + offset, content, arrayOffset, length);
   }
 
+  /**
+   * Copies <code>length</code> bytes from pointed memory to the passed in buffer starting from its current position. If buffer is
+   * direct, data are copied directly between native memory areas without any intermediate heap array.
+   */
+  public void get(final long offset, final ByteBuffer buffer, final int length) {
+    if (SAFE_MODE)
+      rangeCheck(offset, length);
+
+    final long bufferAddress = bufferAddress(buffer);
+    if (bufferAddress == ODirectMemory.NULL_POINTER) {
+      buffer.put(directMemory.get(dataPointer + offset, length));
+      return;
+    }
+
+    if (buffer.remaining() < length)
+      throw new ODirectMemoryViolationException("Buffer does not have enough space to copy " + length + " bytes");
+
+    directMemory.moveData(dataPointer + offset, bufferAddress + buffer.position(), length);
+    buffer.position(buffer.position() + length);
+  }
+
+  /**
+   * Copies <code>length</code> bytes from the passed in buffer starting from its current position to pointed memory.
+   * 
+   * @see #get(long, java.nio.ByteBuffer, int)
+   */
+  public void set(final long offset, final ByteBuffer buffer, final int length) {
+    if (SAFE_MODE)
+      rangeCheck(offset, length);
+
+    final long bufferAddress = bufferAddress(buffer);
+    if (bufferAddress == ODirectMemory.NULL_POINTER) {
+      final byte[] content = new byte[length];
+      buffer.get(content);
+      directMemory.set(dataPointer + offset, content, 0, length);
+      return;
+    }
+
+    if (buffer.remaining() < length)
+      throw new ODirectMemoryViolationException("Buffer does not contain " + length + " bytes");
+
+    directMemory.moveData(bufferAddress + buffer.position(), dataPointer + offset, length);
+    buffer.position(buffer.position() + length);
+  }
+
   public int getInt(final long offset) {
     if (SAFE_MODE)
       rangeCheck(offset, OIntegerSerializer.INT_SIZE);
@@ -204,6 +255,28 @@ public class ODirectMemoryPointer {
     return result;
   }
 
+  private static long bufferAddress(ByteBuffer buffer) {
+    if (BUFFER_ADDRESS_FIELD == null || !buffer.isDirect())
+      return ODirectMemory.NULL_POINTER;
+
+    try {
+      return BUFFER_ADDRESS_FIELD.getLong(buffer);
+    } catch (IllegalAccessException e) {
+      return ODirectMemory.NULL_POINTER;
+    }
+  }
+
+  private static Field findBufferAddressField() {
+    try {
+      final Field field = Buffer.class.getDeclaredField("address");
+      field.setAccessible(true);
+      return field;
+    } catch (Exception e) {
+      // direct buffers are accessed through heap arrays if address of buffer can not be read
+      return null;
+    }
+  }
+
   private void rangeCheck(final long offset, final long size) {
     if (offset < 0)
       throw new ODirectMemoryViolationException("Negative offset was provided");
@@ -0,0 +1,51 @@
+/*
+  *
+  *  *  Copyright 2014 Orient Technologies LTD (info(at)orientechnologies.com)
+  *  *
+  *  *  Licensed under the Apache License, Version 2.0 (the "License");
+  *  *  you may not use this file except in compliance with the License.
+  *  *  You may obtain a copy of the License at
+  *  *
+  *  *       http://www.apache.org/licenses/LICENSE-2.0
+  *  *
+  *  *  Unless required by applicable law or agreed to in writing, software
+  *  *  distributed under the License is distributed on an "AS IS" BASIS,
+  *  *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  *  *  See the License for the specific language governing permissions and
+  *  *  limitations under the License.
+  *  *
+  *  * For more information: http://www.orientechnologies.com
+  *
+  */
+
+package com.orientechnologies.common.serialization.types;
+
+import com.orientechnologies.common.directmemory.ODirectMemoryPointer;
+
+/**
+ * Serializer which is able to compare object stored in direct memory with passed in object without deserialization of stored
+ * object. It is used during search of keys in index pages, so only key which is found is deserialized.
+ */
+public interface OComparableBinarySerializer<T> extends OBinarySerializer<T> {
+  /**
+   * @param object
+   *          Object which is going to be compared with stored objects.
+   * @return <code>true</code> if passed in object can be compared with stored objects by
+   *         {@link #compareInDirectMemory(ODirectMemoryPointer, long, Object)} method.
+   */
+  boolean isComparableInDirectMemory(Object object);
+
+  /**
+   * Compares object serialized by {@link #serializeInDirectMemoryObject(Object, ODirectMemoryPointer, long, Object...)} method with
+   * passed in object.
+   *
+   * @param pointer
+   *          Pointer to the direct memory where object is stored.
+   * @param offset
+   *          Offset of stored object.
+   * @param object
+   *          Object to compare with, {@link #isComparableInDirectMemory(Object)} should return <code>true</code> for it.
+   * @return The same result as {@link Comparable#compareTo(Object)} call of deserialized object with passed in object would return.
+   */
+  int compareInDirectMemory(ODirectMemoryPointer pointer, long offset, T object);
+}
@@ -31,7 +31,7 @@ import com.orientechnologies.common.directmemory.ODirectMemoryPointer;
  * @author ibershadskiy <a href="mailto:ibersh20@gmail.com">Ilya Bershadskiy</a>
  * @since 20.01.12
  */
-public class ODateSerializer implements OBinarySerializer<Date> {
+public class ODateSerializer implements OComparableBinarySerializer<Date> {
 
   public static final byte      ID       = 4;
   public static ODateSerializer INSTANCE = new ODateSerializer();
@@ -108,6 +108,16 @@ public class ODateSerializer implements OBinarySerializer<Date> {
     return OLongSerializer.LONG_SIZE;
   }
 
+  @Override
+  public boolean isComparableInDirectMemory(Object object) {
+    return ODateTimeSerializer.INSTANCE.isComparableInDirectMemory(object);
+  }
+
+  @Override
+  public int compareInDirectMemory(final ODirectMemoryPointer pointer, final long offset, final Date object) {
+    return ODateTimeSerializer.INSTANCE.compareInDirectMemory(pointer, offset, object);
+  }
+
   public boolean isFixedLength() {
     return true;
   }
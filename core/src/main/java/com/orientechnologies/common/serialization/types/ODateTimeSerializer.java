@@ -31,7 +31,7 @@ import com.orientechnologies.common.directmemory.ODirectMemoryPointer;
   * @author ibershadskiy <a href="mailto:ibersh20@gmail.com">Ilya Bershadskiy</a>
   * @since 20.01.12
   */
- public class ODateTimeSerializer implements OBinarySerializer<Date> {
+ public class ODateTimeSerializer implements OComparableBinarySerializer<Date> {
    public static final byte          ID       = 5;
    public static ODateTimeSerializer INSTANCE = new ODateTimeSerializer();
 
@@ -96,6 +96,20 @@ import com.orientechnologies.common.directmemory.ODirectMemoryPointer;
      return OLongSerializer.LONG_SIZE;
    }
 
+   @Override
+   public boolean isComparableInDirectMemory(Object object) {
+     // SUBCLASSES LIKE java.sql.Timestamp HAVE THEIR OWN COMPARISON RULES
+     return object != null && object.getClass() == Date.class;
+   }
+
+   @Override
+   public int compareInDirectMemory(ODirectMemoryPointer pointer, long offset, Date object) {
+     final long value = OLongSerializer.INSTANCE.deserializeFromDirectMemory(pointer, offset);
+     final long other = object.getTime();
+
+     return value < other ? -1 : (value == other ? 0 : 1);
+   }
+
    public boolean isFixedLength() {
      return true;
    }
@@ -32,7 +32,7 @@ import java.nio.ByteOrder;
  * @author ibershadskiy <a href="mailto:ibersh20@gmail.com">Ilya Bershadskiy</a>
  * @since 17.01.12
  */
-public class OIntegerSerializer implements OBinarySerializer<Integer> {
+public class OIntegerSerializer implements OComparableBinarySerializer<Integer> {
   public static final byte              ID        = 8;
   /**
    * size of int value in bytes
@@ -120,6 +120,19 @@ public class OIntegerSerializer implements OBinarySerializer<Integer> {
     return INT_SIZE;
   }
 
+  @Override
+  public boolean isComparableInDirectMemory(Object object) {
+    return object instanceof Integer;
+  }
+
+  @Override
+  public int compareInDirectMemory(final ODirectMemoryPointer pointer, final long offset, final Integer object) {
+    final int value = pointer.getInt(offset);
+    final int other = object;
+
+    return value < other ? -1 : (value == other ? 0 : 1);
+  }
+
   public boolean isFixedLength() {
     return true;
   }
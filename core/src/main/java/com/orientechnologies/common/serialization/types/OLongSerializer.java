@@ -32,7 +32,7 @@ import java.nio.ByteOrder;
  * @author ibershadskiy <a href="mailto:ibersh20@gmail.com">Ilya Bershadskiy</a>
  * @since 18.01.12
  */
-public class OLongSerializer implements OBinarySerializer<Long> {
+public class OLongSerializer implements OComparableBinarySerializer<Long> {
   public static final byte              ID        = 10;
   /**
    * size of long value in bytes
@@ -125,6 +125,19 @@ public class OLongSerializer implements OBinarySerializer<Long> {
     return LONG_SIZE;
   }
 
+  @Override
+  public boolean isComparableInDirectMemory(Object object) {
+    return object instanceof Long;
+  }
+
+  @Override
+  public int compareInDirectMemory(final ODirectMemoryPointer pointer, final long offset, final Long object) {
+    final long value = pointer.getLong(offset);
+    final long other = object;
+
+    return value < other ? -1 : (value == other ? 0 : 1);
+  }
+
   public boolean isFixedLength() {
     return true;
   }
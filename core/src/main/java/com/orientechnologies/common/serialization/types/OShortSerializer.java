@@ -32,7 +32,7 @@ import java.nio.ByteOrder;
  * @author ibershadskiy <a href="mailto:ibersh20@gmail.com">Ilya Bershadskiy</a>
  * @since 18.01.12
  */
-public class OShortSerializer implements OBinarySerializer<Short> {
+public class OShortSerializer implements OComparableBinarySerializer<Short> {
   public static final byte              ID         = 12;
   /**
    * size of short value in bytes
@@ -115,6 +115,16 @@ public class OShortSerializer implements OBinarySerializer<Short> {
     return SHORT_SIZE;
   }
 
+  @Override
+  public boolean isComparableInDirectMemory(Object object) {
+    return object instanceof Short;
+  }
+
+  @Override
+  public int compareInDirectMemory(ODirectMemoryPointer pointer, long offset, Short object) {
+    return pointer.getShort(offset) - object;
+  }
+
   public boolean isFixedLength() {
     return true;
   }
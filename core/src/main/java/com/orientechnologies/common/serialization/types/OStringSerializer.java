@@ -28,7 +28,7 @@ import com.orientechnologies.common.directmemory.ODirectMemoryPointer;
  * @author ibershadskiy <a href="mailto:ibersh20@gmail.com">Ilya Bershadskiy</a>
  * @since 18.01.12
  */
-public class OStringSerializer implements OBinarySerializer<String> {
+public class OStringSerializer implements OComparableBinarySerializer<String> {
   public static final OStringSerializer INSTANCE = new OStringSerializer();
   public static final byte              ID       = 13;
 
@@ -157,6 +157,32 @@ public class OStringSerializer implements OBinarySerializer<String> {
     return pointer.getInt(offset) * 2 + OIntegerSerializer.INT_SIZE;
   }
 
+  @Override
+  public boolean isComparableInDirectMemory(Object object) {
+    return object instanceof String;
+  }
+
+  @Override
+  public int compareInDirectMemory(ODirectMemoryPointer pointer, long offset, String object) {
+    final int len = pointer.getInt(offset);
+    final int otherLen = object.length();
+    final int minLen = Math.min(len, otherLen);
+
+    offset += OIntegerSerializer.INT_SIZE;
+
+    for (int i = 0; i < minLen; i++) {
+      final char character = (char) ((0xFF & pointer.getByte(offset)) | ((0xFF & pointer.getByte(offset + 1)) << 8));
+      final char otherCharacter = object.charAt(i);
+
+      if (character != otherCharacter)
+        return character - otherCharacter;
+
+      offset += 2;
+    }
+
+    return len - otherLen;
+  }
+
   public boolean isFixedLength() {
     return false;
   }
@@ -78,6 +78,15 @@ public enum OGlobalConfiguration {
 
   DISK_WRITE_CACHE_PART("storage.diskCache.writeCachePart", "Percent of disk cache which is use as write cache", Integer.class, 30),
 
+  DISK_CACHE_TYPE("storage.diskCache.type",
+      "Type of read cache. Possible values : 2q - 2Q cache protected by single lock, striped - cache split on independently"
+          + " locked segments with CLOCK eviction policy, scales better if pages are loaded by many threads. Default is 2q.",
+      String.class, "2q"),
+
+  DISK_CACHE_READ_AHEAD_PAGES("storage.diskCache.readAheadPages",
+      "Maximum amount of pages which are loaded in background ahead of sequential reader like cluster scan or index cursor,"
+          + " 0 disables read ahead.", Integer.class, 64),
+
   DISK_WRITE_CACHE_PAGE_TTL("storage.diskCache.writeCachePageTTL",
       "Max time till page will be flushed from write cache in seconds", Long.class, 24 * 60 * 60),
 
@@ -126,12 +135,22 @@ public enum OGlobalConfiguration {
 
   WAL_COMMIT_TIMEOUT("storage.wal.commitTimeout", "Maximum interval between WAL commits (in ms.)", Integer.class, 1000),
 
+  WAL_GROUP_COMMIT("storage.wal.groupCommit", "Indicates whether transaction commit should wait till its WAL records are forced "
+      + "to the disk. Transactions which are committed concurrently share single WAL write and fsync", Boolean.class, false),
+
   WAL_SHUTDOWN_TIMEOUT("storage.wal.shutdownTimeout", "Maximum wait interval between events when background flush thread"
       + " will receive shutdown command and when background flush will be stopped (in ms.)", Integer.class, 10000),
 
   WAL_FUZZY_CHECKPOINT_INTERVAL("storage.wal.fuzzyCheckpointInterval", "Interval between fuzzy checkpoints (in seconds)",
       Integer.class, 2592000),
 
+  WAL_FUZZY_CHECKPOINT_SIZE_THRESHOLD("storage.wal.fuzzyCheckpointSizeThreshold", "Size of WAL in percents of "
+      + "storage.wal.maxSize after which fuzzy checkpoint is started in background. 0 or negative value means that checkpoint is "
+      + "not started because of WAL size", Integer.class, 50),
+
+  WAL_FUZZY_CHECKPOINT_FLUSH_RATE("storage.wal.fuzzyCheckpointFlushRate", "Maximum amount of pages which are flushed by fuzzy "
+      + "checkpoint per second. 0 or negative value means that pages are flushed without limit", Integer.class, 2000),
+
   WAL_REPORT_AFTER_OPERATIONS_DURING_RESTORE(
       "storage.wal.reportAfterOperationsDuringRestore",
       "Amount of processed log operations, after which status of data restore procedure will be printed 0 or negative value, means that status will not be printed",
@@ -140,6 +159,10 @@ public enum OGlobalConfiguration {
   WAL_RESTORE_BATCH_SIZE("storage.wal.restore.batchSize",
       "Amount of wal records are read at once in single batch during restore procedure", Integer.class, 1000),
 
+  WAL_RESTORE_THREADS("storage.wal.restore.threads", "Amount of threads which apply page changes read from WAL during data "
+      + "restore. Changes of the same page are always applied by the same thread. 1 means that changes are applied by the thread "
+      + "which reads WAL", Integer.class, 1),
+
   WAL_READ_CACHE_SIZE("storage.wal.readCacheSize", "Size of WAL read cache in amount of pages", Integer.class, 1000),
 
   WAL_FUZZY_CHECKPOINT_SHUTDOWN_TIMEOUT("storage.wal.fuzzyCheckpointShutdownWait",
@@ -171,6 +194,10 @@ public enum OGlobalConfiguration {
   STORAGE_RECORD_LOCK_TIMEOUT("storage.record.lockTimeout", "Maximum timeout in milliseconds to lock a shared record",
       Integer.class, 100),
 
+  STORAGE_CONCURRENT_TX_COMMIT("storage.concurrentTxCommit",
+      "Indicates whether transactions which touch different clusters and indexes may be committed in parallel. "
+          + "If false whole storage is locked exclusively during commit", Boolean.class, false),
+
   STORAGE_USE_TOMBSTONES("storage.useTombstones", "When record will be deleted its cluster"
       + " position will not be freed but tombstone will be placed instead", Boolean.class, false),
 
@@ -250,6 +277,19 @@ public enum OGlobalConfiguration {
 
   INDEX_FLUSH_AFTER_CREATE("index.flushAfterCreate", "Flush storage buffer after index creation", Boolean.class, true),
 
+  INDEX_ONLINE_BUILD("index.onlineBuild",
+      "Indicates whether automatic indexes are built and rebuilt without blocking of modifications of indexed records. Changes done "
+          + "during build are applied when all clusters are indexed, queries do not use index till build is completed",
+      Boolean.class, false),
+
+  INDEX_BULK_LOAD("index.bulkLoad",
+      "Indicates whether empty indexes are populated during rebuild and import by bulk load of sorted entries instead of insertion "
+          + "of entries one by one, if index engine supports it", Boolean.class, true),
+
+  INDEX_BULK_LOAD_SORT_BUFFER_SIZE("index.bulkLoad.sortBufferSize",
+      "Maximum amount of index entries which are sorted in memory during bulk load, the rest of entries is sorted using "
+          + "temporary files", Integer.class, 500000),
+
   INDEX_MANUAL_LAZY_UPDATES("index.manual.lazyUpdates",
       "Configure the TreeMaps for manual indexes as buffered or not. -1 means buffered until tx.commit() or db.close() are called",
       Integer.class, 1),
@@ -319,6 +359,10 @@ public enum OGlobalConfiguration {
       "Maximum size of value which can be put in SBTree without creation link to standalone page in bytes (40960 by default)",
       Integer.class, 40960),
 
+  SBTREE_BULK_LOAD_FILL_FACTOR("sbtree.bulkLoadFillFactor",
+      "Part of page space which is filled by entries during bulk load of SBTree, the rest of space is left for entries which are "
+          + "added later", Float.class, 0.9f),
+
   SBTREEBONSAI_BUCKET_SIZE("sbtreebonsai.bucketSize",
       "Size of bucket in OSBTreeBonsai in kB. Contract: bucketSize < storagePageSize, storagePageSize % bucketSize == 0.",
       Integer.class, 2),
@@ -394,11 +438,22 @@ public enum OGlobalConfiguration {
 
   NETWORK_BINARY_DEBUG("network.binary.debug", "Debug mode: print all data incoming on the binary channel", Boolean.class, false),
 
+  NETWORK_BINARY_NIO("network.binary.nio",
+      "Serves connections of binary protocol by single selector thread and pool of workers instead of thread per connection",
+      Boolean.class, false),
+
+  NETWORK_BINARY_NIO_WORKERS("network.binary.nio.workers",
+      "Number of threads which execute requests of binary connections served by selector thread", Integer.class, 64),
+
   NETWORK_HTTP_MAX_CONTENT_LENGTH("network.http.maxLength", "TCP/IP max content length in bytes for HTTP requests", Integer.class,
       1000000),
 
   NETWORK_HTTP_CONTENT_CHARSET("network.http.charset", "Http response charset", String.class, "utf-8"),
 
+  NETWORK_HTTP_STREAMING("network.http.streaming",
+      "Send records of JSON responses to HTTP/1.1 clients in chunks while they are serialized instead of buffering the whole "
+          + "response", Boolean.class, false),
+
   NETWORK_HTTP_SESSION_EXPIRE_TIMEOUT("network.http.sessionExpireTimeout",
       "Timeout after which an http session is considered tp have expired (seconds)", Integer.class, 300),
 
@@ -444,11 +499,46 @@ public enum OGlobalConfiguration {
   // COMMAND
   COMMAND_TIMEOUT("command.timeout", "Default timeout for commands expressed in milliseconds", Long.class, 0),
 
+  QUERY_PARALLEL_PARTITION_SIZE("query.parallel.partitionSize",
+      "Amount of cluster positions which are scanned by single task of query executed in PARALLEL mode", Integer.class, 10000),
+
+  QUERY_PARALLEL_RESULT_QUEUE_SIZE("query.parallel.resultQueueSize",
+      "Maximum amount of matched records which are waiting to be consumed by query executed in PARALLEL mode", Integer.class, 1000),
+
+  QUERY_ORDER_BY_SORT_BUFFER_SIZE("query.orderBy.sortBufferSize",
+      "Maximum amount of query results which are sorted in memory by ORDER BY clause, the rest of results is sorted using "
+          + "temporary files", Integer.class, 100000),
+
+  QUERY_GROUP_BY_GROUP_BUFFER_SIZE("query.groupBy.groupBufferSize",
+      "Maximum amount of groups which are aggregated in memory by GROUP BY clause, records of other groups are written to "
+          + "temporary files and aggregated after the rest of groups", Integer.class, 100000),
+
+  QUERY_SCAN_BATCH_SIZE("query.scan.batchSize",
+      "Amount of records which are read at once by iterators of clusters and classes, records which are stored on the same page "
+          + "are read while page is loaded only once. 0 means that records are read one by one", Integer.class, 64),
+
+  QUERY_BINARY_FILTER("query.binaryFilter",
+      "Evaluates simple conditions of WHERE clause on the content of records serialized in binary format while clusters are scanned, "
+          + "so documents are created only for records which can match the condition", Boolean.class, true),
+
+  QUERY_COMPILE_FILTER("query.compileFilter",
+      "Compiles WHERE clause of queries before records are browsed, comparisons of fields with constants are evaluated by nodes "
+          + "specialized by the type of constant", Boolean.class, true),
+
+  QUERY_STATEMENT_CACHE_SIZE("query.statementCache.size",
+      "Maximum amount of parsed SELECT statements per database which are reused by following executions of commands with the same "
+          + "text, statements are dropped as soon as the schema is changed. 0 means that statements are parsed on every execution",
+      Integer.class, 500),
+
   // CLIENT
   CLIENT_CHANNEL_MIN_POOL("client.channel.minPool", "Minimum pool size", Integer.class, 1),
 
   CLIENT_CHANNEL_MAX_POOL("client.channel.maxPool", "Maximum channel pool size", Integer.class, 100),
 
+  CLIENT_CHANNEL_MAX_PIPELINED_REQUESTS("client.channel.maxPipelinedRequests",
+      "Maximum number of synchronous requests of different sessions which are sent through the same channel without waiting "
+          + "for the responses. 1 means that channel is used by one request at a time", Integer.class, 1),
+
   CLIENT_CONNECT_POOL_WAIT_TIMEOUT("client.connectionPool.waitTimeout",
       "Maximum time which client should wait connection from the pool", Integer.class, 5000),
 
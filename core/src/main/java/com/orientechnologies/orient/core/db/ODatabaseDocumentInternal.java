@@ -20,8 +20,11 @@
 
 package com.orientechnologies.orient.core.db;
 
+import java.util.List;
+
 import com.orientechnologies.orient.core.db.document.ODatabaseDocument;
 import com.orientechnologies.orient.core.db.record.OCurrentStorageComponentsFactory;
+import com.orientechnologies.orient.core.db.record.OIdentifiable;
 import com.orientechnologies.orient.core.db.record.ridbag.sbtree.OSBTreeCollectionManager;
 import com.orientechnologies.orient.core.record.ORecord;
 import com.orientechnologies.orient.core.serialization.serializer.binary.OBinarySerializerFactory;
@@ -51,4 +54,11 @@ public interface ODatabaseDocumentInternal extends ODatabaseDocument, ODatabaseI
    */
   public ORecordSerializer getSerializer();
 
+  /**
+   * Loads several records at once, remote databases load all records which are not cached in single network request.
+   * 
+   * @return Loaded records in the same order as their identities, <code>null</code> for records which do not exist.
+   */
+  public List<ORecord> load(List<? extends OIdentifiable> iRecordIds, String iFetchPlan);
+
 }
@@ -239,6 +239,10 @@ public abstract class ODatabaseRecordWrapperAbstract<DB extends ODatabaseDocumen
     return (RET) underlying.load(iRecordId, iFetchPlan);
   }
 
+  public List<ORecord> load(final List<? extends OIdentifiable> iRecordIds, final String iFetchPlan) {
+    return underlying.load(iRecordIds, iFetchPlan);
+  }
+
   public <RET extends ORecord> RET load(final ORID iRecordId, final String iFetchPlan, final boolean iIgnoreCache) {
     return (RET) underlying.load(iRecordId, iFetchPlan, iIgnoreCache);
   }
@@ -1449,6 +1449,20 @@ public class ODatabaseDocumentTx extends OListenerManger<ODatabaseListener> impl
 
   public <RET extends ORecord> RET executeReadRecord(final ORecordId rid, ORecord iRecord, final String iFetchPlan,
       final boolean iIgnoreCache, final boolean loadTombstones, final OStorage.LOCKING_STRATEGY iLockingStrategy) {
+    return (RET) executeReadRecord(rid, iRecord, iFetchPlan, iIgnoreCache, loadTombstones, iLockingStrategy, null);
+  }
+
+  /**
+   * Reads record in the same way as {@link #executeReadRecord(ORecordId, ORecord, String, boolean, boolean, OStorage.LOCKING_STRATEGY)}
+   * , but if record is not found in current transaction or in local cache its content is taken from passed in buffer instead of
+   * reading it from storage. It is used by iterators which read several records of cluster at once.
+   * 
+   * @param iRecordBuffer
+   *          Content of record which was already read from storage, if <code>null</code> record is read from storage.
+   */
+  public <RET extends ORecord> RET executeReadRecord(final ORecordId rid, ORecord iRecord, final String iFetchPlan,
+      final boolean iIgnoreCache, final boolean loadTombstones, final OStorage.LOCKING_STRATEGY iLockingStrategy,
+      final ORawBuffer iRecordBuffer) {
     checkOpeness();
 
     getMetadata().makeThreadLocalSchemaSnapshot();
@@ -1494,46 +1508,119 @@ public class ODatabaseDocumentTx extends OListenerManger<ODatabaseListener> impl
         recordBuffer = null;
       else {
         OFetchHelper.checkFetchPlanValid(iFetchPlan);
-        recordBuffer = storage.readRecord(rid, iFetchPlan, iIgnoreCache, null, loadTombstones, iLockingStrategy).getResult();
+        if (iRecordBuffer != null)
+          recordBuffer = iRecordBuffer;
+        else
+          recordBuffer = storage.readRecord(rid, iFetchPlan, iIgnoreCache, null, loadTombstones, iLockingStrategy).getResult();
       }
 
       if (recordBuffer == null)
         return null;
 
-      if (iRecord == null || ORecordInternal.getRecordType(iRecord) != recordBuffer.recordType)
-        // NO SAME RECORD TYPE: CAN'T REUSE OLD ONE BUT CREATE A NEW ONE FOR IT
-        iRecord = Orient.instance().getRecordFactoryManager().newInstance(recordBuffer.recordType);
+      return (RET) fillRecord(rid, iRecord, recordBuffer, iIgnoreCache);
+    } catch (OOfflineClusterException t) {
+      throw t;
+    } catch (Throwable t) {
+      if (rid.isTemporary())
+        throw new ODatabaseException("Error on retrieving record using temporary RecordId: " + rid, t);
+      else
+        throw new ODatabaseException("Error on retrieving record " + rid + " (cluster: "
+            + storage.getPhysicalClusterNameById(rid.clusterId) + ")", t);
+    } finally {
+      ORecordSerializationContext.pullContext();
+      getMetadata().clearThreadLocalSchemaSnapshot();
+    }
+  }
 
-      ORecordInternal.fill(iRecord, rid, recordBuffer.version, recordBuffer.buffer, false);
+  /**
+   * Loads records with given identities. Records which are not found in current transaction or in local cache are read from remote
+   * storage in single request.
+   * 
+   * @param iRecordIds
+   *          Identities of records to load.
+   * @param iFetchPlan
+   *          Fetch plan to use.
+   * @return Loaded records in the same order as their identities, <code>null</code> for records which do not exist.
+   */
+  public List<ORecord> load(final List<? extends OIdentifiable> iRecordIds, final String iFetchPlan) {
+    checkOpeness();
 
-      if (iRecord.getRecordVersion().isTombstone())
-        return (RET) iRecord;
+    final Map<ORID, ORecord> loaded = new HashMap<ORID, ORecord>();
+    if (storage instanceof OStorageProxy) {
+      final List<ORecordId> toLoad = new ArrayList<ORecordId>();
+      for (OIdentifiable identifiable : iRecordIds) {
+        final ORecordId rid = (ORecordId) identifiable.getIdentity();
+        if (rid.isPersistent() && !loaded.containsKey(rid) && currentTx.getRecord(rid) == null
+            && getLocalCache().findRecord(rid) == null) {
+          loaded.put(rid, null);
+          toLoad.add(rid);
+        }
+      }
 
-      if (callbackHooks(ORecordHook.TYPE.BEFORE_READ, iRecord) == ORecordHook.RESULT.SKIP)
-        return null;
+      if (!toLoad.isEmpty())
+        executeReadRecords(toLoad, iFetchPlan, loaded);
+    }
 
-      iRecord.fromStream(recordBuffer.buffer);
+    final List<ORecord> result = new ArrayList<ORecord>(iRecordIds.size());
+    for (OIdentifiable identifiable : iRecordIds) {
+      final ORID rid = identifiable.getIdentity();
+      if (loaded.containsKey(rid))
+        result.add(loaded.get(rid));
+      else
+        result.add(load(rid, iFetchPlan));
+    }
 
-      callbackHooks(ORecordHook.TYPE.AFTER_READ, iRecord);
+    return result;
+  }
 
-      if (!iIgnoreCache)
-        getLocalCache().updateRecord(iRecord);
+  private void executeReadRecords(final List<ORecordId> rids, final String iFetchPlan, final Map<ORID, ORecord> loaded) {
+    getMetadata().makeThreadLocalSchemaSnapshot();
+    ORecordSerializationContext.pushContext();
+    try {
+      for (ORecordId rid : rids)
+        checkSecurity(ORule.ResourceGeneric.CLUSTER, ORole.PERMISSION_READ, getClusterNameById(rid.getClusterId()));
+
+      OFetchHelper.checkFetchPlanValid(iFetchPlan);
+      final List<ORawBuffer> recordBuffers = ((OStorageProxy) storage).readRecords(rids, iFetchPlan, false, false);
 
-      return (RET) iRecord;
+      for (int i = 0; i < rids.size(); i++) {
+        final ORawBuffer recordBuffer = recordBuffers.get(i);
+        if (recordBuffer != null)
+          loaded.put(rids.get(i), fillRecord(rids.get(i), null, recordBuffer, false));
+      }
     } catch (OOfflineClusterException t) {
       throw t;
     } catch (Throwable t) {
-      if (rid.isTemporary())
-        throw new ODatabaseException("Error on retrieving record using temporary RecordId: " + rid, t);
-      else
-        throw new ODatabaseException("Error on retrieving record " + rid + " (cluster: "
-            + storage.getPhysicalClusterNameById(rid.clusterId) + ")", t);
+      throw new ODatabaseException("Error on retrieving of " + rids.size() + " records", t);
     } finally {
       ORecordSerializationContext.pullContext();
       getMetadata().clearThreadLocalSchemaSnapshot();
     }
   }
 
+  private ORecord fillRecord(final ORecordId rid, ORecord iRecord, final ORawBuffer recordBuffer, final boolean iIgnoreCache) {
+    if (iRecord == null || ORecordInternal.getRecordType(iRecord) != recordBuffer.recordType)
+      // NO SAME RECORD TYPE: CAN'T REUSE OLD ONE BUT CREATE A NEW ONE FOR IT
+      iRecord = Orient.instance().getRecordFactoryManager().newInstance(recordBuffer.recordType);
+
+    ORecordInternal.fill(iRecord, rid, recordBuffer.version, recordBuffer.buffer, false);
+
+    if (iRecord.getRecordVersion().isTombstone())
+      return iRecord;
+
+    if (callbackHooks(ORecordHook.TYPE.BEFORE_READ, iRecord) == ORecordHook.RESULT.SKIP)
+      return null;
+
+    iRecord.fromStream(recordBuffer.buffer);
+
+    callbackHooks(ORecordHook.TYPE.AFTER_READ, iRecord);
+
+    if (!iIgnoreCache)
+      getLocalCache().updateRecord(iRecord);
+
+    return iRecord;
+  }
+
   public <RET extends ORecord> RET executeSaveRecord(final ORecord record, String iClusterName, final ORecordVersion iVersion,
       boolean iCallTriggers, final OPERATION_MODE iMode, boolean iForceCreate,
       final ORecordCallback<? extends Number> iRecordCreatedCallback, ORecordCallback<ORecordVersion> iRecordUpdatedCallback) {
@@ -19,6 +19,7 @@
   */
 package com.orientechnologies.orient.core.db.record;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
@@ -28,6 +29,8 @@ import com.orientechnologies.common.collection.OLazyIterator;
 import com.orientechnologies.common.collection.OLazyIteratorListWrapper;
 import com.orientechnologies.common.collection.OMultiValue;
 import com.orientechnologies.orient.core.config.OGlobalConfiguration;
+import com.orientechnologies.orient.core.db.ODatabaseDocumentInternal;
+import com.orientechnologies.orient.core.db.ODatabaseRecordThreadLocal;
 import com.orientechnologies.orient.core.db.record.ORecordMultiValueHelper.MULTIVALUE_CONTENT_TYPE;
 import com.orientechnologies.orient.core.exception.ORecordNotFoundException;
 import com.orientechnologies.orient.core.id.ORID;
@@ -312,6 +315,8 @@ public class ORecordLazyList extends ORecordTrackedList implements ORecordLazyMu
       // PRECONDITIONS
       return;
 
+    loadLinks();
+
     for (int i = 0; i < size(); ++i) {
       try {
         convertLink2Record(i);
@@ -457,6 +462,45 @@ public class ORecordLazyList extends ORecordTrackedList implements ORecordLazyMu
       super.fireCollectionChangedEvent(event);
   }
 
+  /**
+   * Loads all linked records at once, so remote database reads them in single request instead of request per link. Links to records
+   * which are not found are left as is.
+   */
+  private void loadLinks() {
+    if (ridOnly)
+      return;
+
+    final List<Integer> positions = new ArrayList<Integer>();
+    final List<ORecordId> rids = new ArrayList<ORecordId>();
+    for (int i = 0; i < size(); i++) {
+      final OIdentifiable o = super.get(i);
+      if (o instanceof ORecordId && ((ORecordId) o).isPersistent()) {
+        positions.add(i);
+        rids.add((ORecordId) o);
+      }
+    }
+
+    if (rids.size() < 2)
+      return;
+
+    final ODatabaseDocumentInternal database = ODatabaseRecordThreadLocal.INSTANCE.getIfDefined();
+    if (database == null)
+      return;
+
+    final List<ORecord> records = database.load(rids, null);
+
+    marshalling = true;
+    try {
+      for (int i = 0; i < records.size(); i++) {
+        final ORecord record = records.get(i);
+        if (record != null)
+          super.set(positions.get(i), record);
+      }
+    } finally {
+      marshalling = false;
+    }
+  }
+
   /**
    * Convert the item requested from link to record.
    * 
@@ -19,7 +19,13 @@
  */
 package com.orientechnologies.orient.core.db.record.ridbag.embedded;
 
+import static com.orientechnologies.orient.core.serialization.OBinaryProtocol.bytes2long;
+import static com.orientechnologies.orient.core.serialization.OBinaryProtocol.bytes2short;
+import static com.orientechnologies.orient.core.serialization.OBinaryProtocol.long2bytes;
+import static com.orientechnologies.orient.core.serialization.OBinaryProtocol.short2bytes;
+
 import com.orientechnologies.common.serialization.types.OIntegerSerializer;
+import com.orientechnologies.common.serialization.types.OShortSerializer;
 import com.orientechnologies.common.util.OResettable;
 import com.orientechnologies.common.util.OSizeable;
 import com.orientechnologies.orient.core.config.OGlobalConfiguration;
@@ -28,6 +34,7 @@ import com.orientechnologies.orient.core.db.record.OMultiValueChangeEvent;
 import com.orientechnologies.orient.core.db.record.OMultiValueChangeListener;
 import com.orientechnologies.orient.core.db.record.ridbag.ORidBagDelegate;
 import com.orientechnologies.orient.core.id.ORID;
+import com.orientechnologies.orient.core.id.ORecordId;
 import com.orientechnologies.orient.core.record.ORecord;
 import com.orientechnologies.orient.core.serialization.serializer.binary.impl.OLinkSerializer;
 
@@ -41,13 +48,26 @@ import java.util.Set;
 import java.util.UUID;
 import java.util.WeakHashMap;
 
+/**
+ * Keeps links in the same document. Persistent links are stored in parallel arrays of cluster ids and cluster positions and
+ * {@link ORecordId} instances are created only when bag is iterated, so every link takes 12 bytes of heap instead of 28 bytes of
+ * reference and {@link ORecordId} instance (measured on 64-bit JVM with compressed references). Records and links to records
+ * which are not saved yet are kept as objects in separate array which is allocated only when first such entry is added, because
+ * identity of such entries is changed once they are saved.
+ */
 public class OEmbeddedRidBag implements ORidBagDelegate {
+  // VALUES OF CLUSTER ID WHICH MARK REMOVED ENTRIES AND ENTRIES WHICH ARE STORED AS OBJECTS
+  private static final int                                             TOMBSTONE         = -1;
+  private static final int                                             OBJECT_ENTRY      = -2;
+
   private byte[]                                                       serializedContent = null;
 
   private boolean                                                      contentWasChanged = false;
   private boolean                                                      deserialized      = true;
 
-  private Object[]                                                     entries           = {};
+  private int[]                                                        clusterIds        = {};
+  private long[]                                                       clusterPositions  = {};
+  private OIdentifiable[]                                              objects           = null;
   private int                                                          entriesLength     = 0;
 
   private boolean                                                      convertToRecord   = true;
@@ -58,10 +78,6 @@ public class OEmbeddedRidBag implements ORidBagDelegate {
   private Set<OMultiValueChangeListener<OIdentifiable, OIdentifiable>> changeListeners   = Collections
                                                                                              .newSetFromMap(new WeakHashMap<OMultiValueChangeListener<OIdentifiable, OIdentifiable>, Boolean>());
 
-  private static enum Tombstone {
-    TOMBSTONE
-  }
-
   private final class EntriesIterator implements Iterator<OIdentifiable>, OResettable, OSizeable {
     private final boolean convertToRecord;
     private int           currentIndex = -1;
@@ -86,7 +102,7 @@ public class OEmbeddedRidBag implements ORidBagDelegate {
       if (currentIndex == -1)
         throw new NoSuchElementException();
 
-      final OIdentifiable nextValue = (OIdentifiable) entries[currentIndex];
+      final OIdentifiable nextValue = getEntry(currentIndex);
       nextIndex = nextIndex();
 
       if (convertToRecord)
@@ -105,8 +121,8 @@ public class OEmbeddedRidBag implements ORidBagDelegate {
 
       currentRemoved = true;
 
-      final OIdentifiable nextValue = (OIdentifiable) entries[currentIndex];
-      entries[currentIndex] = Tombstone.TOMBSTONE;
+      final OIdentifiable nextValue = getEntry(currentIndex);
+      markRemoved(currentIndex);
 
       size--;
       contentWasChanged = true;
@@ -132,8 +148,7 @@ public class OEmbeddedRidBag implements ORidBagDelegate {
 
     private int nextIndex() {
       for (int i = currentIndex + 1; i < entriesLength; i++) {
-        Object entry = entries[i];
-        if (entry instanceof OIdentifiable)
+        if (clusterIds[i] != TOMBSTONE)
           return i;
       }
 
@@ -178,7 +193,9 @@ public class OEmbeddedRidBag implements ORidBagDelegate {
     copy.serializedContent = serializedContent;
     copy.contentWasChanged = contentWasChanged;
     copy.deserialized = deserialized;
-    copy.entries = entries;
+    copy.clusterIds = clusterIds;
+    copy.clusterPositions = clusterPositions;
+    copy.objects = objects;
     copy.entriesLength = entriesLength;
     copy.convertToRecord = convertToRecord;
     copy.size = size;
@@ -224,11 +241,10 @@ public class OEmbeddedRidBag implements ORidBagDelegate {
     doDeserialization();
 
     for (int i = 0; i < entriesLength; i++) {
-      final Object entry = entries[i];
-
-      if (entry instanceof OIdentifiable) {
-        final OIdentifiable identifiable = (OIdentifiable) entry;
-        entries[i] = identifiable.getRecord();
+      if (clusterIds[i] != TOMBSTONE) {
+        final ORecord record = getEntry(i).getRecord();
+        if (record != null)
+          setEntry(i, record);
       }
     }
   }
@@ -236,18 +252,13 @@ public class OEmbeddedRidBag implements ORidBagDelegate {
   @Override
   public boolean convertRecords2Links() {
     for (int i = 0; i < entriesLength; i++) {
-      final Object entry = entries[i];
-
-      if (entry instanceof OIdentifiable) {
-        final OIdentifiable identifiable = (OIdentifiable) entry;
-        if (identifiable instanceof ORecord) {
-          final ORecord record = (ORecord) identifiable;
-          if (record.getIdentity().isNew()) {
-            record.save();
-          }
-
-          entries[i] = record.getIdentity();
+      if (clusterIds[i] == OBJECT_ENTRY && objects[i] instanceof ORecord) {
+        final ORecord record = (ORecord) objects[i];
+        if (record.getIdentity().isNew()) {
+          record.save();
         }
+
+        setEntry(i, record.getIdentity());
       }
     }
 
@@ -354,15 +365,10 @@ public class OEmbeddedRidBag implements ORidBagDelegate {
   @Override
   public int serialize(byte[] stream, int offset, UUID ownerUuid) {
     for (int i = 0; i < entriesLength; i++) {
-      final Object entry = entries[i];
-
-      if (entry instanceof OIdentifiable) {
-        final OIdentifiable identifiable = (OIdentifiable) entry;
-        if (identifiable instanceof ORecord) {
-          final ORecord record = (ORecord) identifiable;
-          if (record.isDirty() || record.getIdentity().isNew()) {
-            record.save();
-          }
+      if (clusterIds[i] == OBJECT_ENTRY && objects[i] instanceof ORecord) {
+        final ORecord record = (ORecord) objects[i];
+        if (record.isDirty() || record.getIdentity().isNew()) {
+          record.save();
         }
       }
     }
@@ -383,11 +389,19 @@ public class OEmbeddedRidBag implements ORidBagDelegate {
       offset += OIntegerSerializer.INT_SIZE;
     }
 
-    for (Object entry : entries) {
-      if (entry instanceof OIdentifiable) {
-        OLinkSerializer.INSTANCE.serialize((OIdentifiable) entry, stream, offset);
-        offset += OLinkSerializer.RID_SIZE;
+    for (int i = 0; i < entriesLength; i++) {
+      final int clusterId = clusterIds[i];
+      if (clusterId == TOMBSTONE)
+        continue;
+
+      if (clusterId == OBJECT_ENTRY)
+        OLinkSerializer.INSTANCE.serialize(objects[i], stream, offset);
+      else {
+        short2bytes((short) clusterId, stream, offset);
+        long2bytes(clusterPositions[i], stream, offset + OShortSerializer.SHORT_SIZE);
       }
+
+      offset += OLinkSerializer.RID_SIZE;
     }
 
     return offset;
@@ -428,32 +442,99 @@ public class OEmbeddedRidBag implements ORidBagDelegate {
   }
 
   private void addEntry(OIdentifiable identifiable) {
-    if (entries.length == entriesLength) {
+    ensureCapacity();
+
+    setEntry(entriesLength, identifiable);
+    entriesLength++;
+  }
+
+  private void addEntry(int clusterId, long clusterPosition) {
+    ensureCapacity();
+
+    clusterIds[entriesLength] = clusterId;
+    clusterPositions[entriesLength] = clusterPosition;
+    entriesLength++;
+  }
+
+  private void ensureCapacity() {
+    if (clusterIds.length == entriesLength) {
+      final int newLength;
       if (entriesLength == 0) {
         int defaultSize = (Integer) OGlobalConfiguration.RID_BAG_EMBEDDED_DEFAULT_SIZE.getValue();
-        entries = new Object[defaultSize > 0 ? defaultSize : 4];
-      }else {
-        final Object[] oldEntries = entries;
-        entries = new Object[entries.length << 1];
-        System.arraycopy(oldEntries, 0, entries, 0, oldEntries.length);
+        newLength = defaultSize > 0 ? defaultSize : 4;
+      } else
+        newLength = clusterIds.length << 1;
+
+      final int[] oldClusterIds = clusterIds;
+      clusterIds = new int[newLength];
+      System.arraycopy(oldClusterIds, 0, clusterIds, 0, entriesLength);
+
+      final long[] oldClusterPositions = clusterPositions;
+      clusterPositions = new long[newLength];
+      System.arraycopy(oldClusterPositions, 0, clusterPositions, 0, entriesLength);
+
+      if (objects != null) {
+        final OIdentifiable[] oldObjects = objects;
+        objects = new OIdentifiable[newLength];
+        System.arraycopy(oldObjects, 0, objects, 0, entriesLength);
       }
     }
+  }
 
-    entries[entriesLength] = identifiable;
-    entriesLength++;
+  private OIdentifiable getEntry(int index) {
+    final int clusterId = clusterIds[index];
+    if (clusterId == OBJECT_ENTRY)
+      return objects[index];
+
+    return new ORecordId(clusterId, clusterPositions[index]);
+  }
+
+  private void setEntry(int index, OIdentifiable identifiable) {
+    // ONLY PERSISTENT LINKS ARE STORED AS PRIMITIVES, IDENTITY OF RECORDS AND NEW LINKS IS CHANGED WHEN RECORD IS SAVED
+    if (identifiable instanceof ORID && ((ORID) identifiable).isPersistent()) {
+      final ORID rid = (ORID) identifiable;
+      clusterIds[index] = rid.getClusterId();
+      clusterPositions[index] = rid.getClusterPosition();
+
+      if (objects != null)
+        objects[index] = null;
+    } else {
+      if (objects == null)
+        objects = new OIdentifiable[clusterIds.length];
+
+      clusterIds[index] = OBJECT_ENTRY;
+      objects[index] = identifiable;
+    }
+  }
+
+  private void markRemoved(int index) {
+    clusterIds[index] = TOMBSTONE;
+
+    if (objects != null)
+      objects[index] = null;
   }
 
   private boolean removeEntry(OIdentifiable identifiable) {
-    int i = 0;
-    for (; i < entriesLength; i++) {
-      final Object entry = entries[i];
-      if (entry.equals(identifiable)) {
-        entries[i] = Tombstone.TOMBSTONE;
-        break;
+    final ORID rid = identifiable.getIdentity();
+
+    for (int i = 0; i < entriesLength; i++) {
+      final int clusterId = clusterIds[i];
+      if (clusterId == TOMBSTONE)
+        continue;
+
+      final boolean found;
+      if (clusterId == OBJECT_ENTRY)
+        found = objects[i].equals(identifiable);
+      else
+        found = clusterId == rid.getClusterId() && clusterPositions[i] == rid.getClusterPosition();
+
+      if (found) {
+        markRemoved(i);
+        return true;
       }
     }
 
-    return i < entriesLength;
+    return false;
   }
 
   private void doDeserialization() {
@@ -465,16 +546,23 @@ public class OEmbeddedRidBag implements ORidBagDelegate {
     offset += OIntegerSerializer.INT_SIZE;
 
     for (int i = 0; i < entriesSize; i++) {
-      ORID rid = OLinkSerializer.INSTANCE.deserialize(serializedContent, offset);
+      final int clusterId = bytes2short(serializedContent, offset);
+      final long clusterPosition = bytes2long(serializedContent, offset + OShortSerializer.SHORT_SIZE);
       offset += OLinkSerializer.RID_SIZE;
 
-      OIdentifiable identifiable;
-      if (rid.isTemporary())
-        identifiable = rid.getRecord();
-      else
-        identifiable = rid;
+      if (clusterId > -1 && ORecordId.isPersistent(clusterPosition))
+        addEntry(clusterId, clusterPosition);
+      else {
+        final ORID rid = new ORecordId(clusterId, clusterPosition);
 
-      addEntry(identifiable);
+        OIdentifiable identifiable;
+        if (rid.isTemporary())
+          identifiable = rid.getRecord();
+        else
+          identifiable = rid;
+
+        addEntry(identifiable);
+      }
     }
 
     deserialized = true;
@@ -72,13 +72,16 @@ import java.io.StringWriter;
 import java.lang.reflect.InvocationTargetException;
 import java.text.ParseException;
 import java.util.AbstractList;
+import java.util.AbstractMap;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Set;
 import java.util.zip.GZIPInputStream;
 
@@ -351,6 +354,88 @@ public class ODatabaseImport extends ODatabaseImpExpAbstract {
     }
   }
 
+  /**
+   * Reads entries of manual index from exported data while they are iterated.
+   */
+  private final class ManualIndexEntries implements Iterator<Map.Entry<Object, OIdentifiable>> {
+    private final OIndex<?>                    index;
+    private final String                       indexName;
+    private ODocument                          doc = new ODocument();
+    private Map.Entry<Object, OIdentifiable>   nextEntry;
+    private boolean                            completed;
+
+    private ManualIndexEntries(OIndex<?> index, String indexName) {
+      this.index = index;
+      this.indexName = indexName;
+    }
+
+    @Override
+    public boolean hasNext() {
+      if (nextEntry == null && !completed)
+        nextEntry = readEntry();
+
+      return nextEntry != null;
+    }
+
+    @Override
+    public Map.Entry<Object, OIdentifiable> next() {
+      if (!hasNext())
+        throw new NoSuchElementException();
+
+      final Map.Entry<Object, OIdentifiable> entry = nextEntry;
+      nextEntry = null;
+      return entry;
+    }
+
+    @Override
+    public void remove() {
+      throw new UnsupportedOperationException("remove");
+    }
+
+    private Map.Entry<Object, OIdentifiable> readEntry() {
+      try {
+        while (!completed) {
+          final String value = jsonReader.readString(OJSONReader.NEXT_IN_ARRAY).trim();
+          completed = jsonReader.lastChar() != ',';
+
+          if (!value.isEmpty() && !indexName.equalsIgnoreCase(EXPORT_IMPORT_MAP_NAME)) {
+            doc = (ODocument) ORecordSerializerJSON.INSTANCE.fromString(value, doc, null);
+            doc.setLazyLoad(false);
+
+            final OIdentifiable oldRid = doc.<OIdentifiable> field("rid");
+            final OIdentifiable newRid;
+            if (!doc.<Boolean> field("binary")) {
+              if (exportImportHashTable != null)
+                newRid = exportImportHashTable.get(oldRid);
+              else
+                newRid = oldRid;
+
+              return new AbstractMap.SimpleImmutableEntry<Object, OIdentifiable>(doc.field("key"), newRid != null ? newRid
+                  .getIdentity() : oldRid.getIdentity());
+            } else {
+              ORuntimeKeyIndexDefinition<?> runtimeKeyIndexDefinition = (ORuntimeKeyIndexDefinition<?>) index.getDefinition();
+              OBinarySerializer<?> binarySerializer = runtimeKeyIndexDefinition.getSerializer();
+
+              if (exportImportHashTable != null)
+                newRid = exportImportHashTable.get(doc.<OIdentifiable> field("rid")).getIdentity();
+              else
+                newRid = doc.<OIdentifiable> field("rid");
+
+              return new AbstractMap.SimpleImmutableEntry<Object, OIdentifiable>(binarySerializer.deserialize(
+                  doc.<byte[]> field("key"), 0), newRid != null ? newRid : oldRid);
+            }
+          }
+        }
+
+        return null;
+      } catch (IOException e) {
+        throw new ODatabaseExportException("Error on importing entries of index '" + indexName + "'", e);
+      } catch (ParseException e) {
+        throw new ODatabaseExportException("Error on importing entries of index '" + indexName + "'", e);
+      }
+    }
+  }
+
   public ODatabaseImport(final ODatabaseDocumentInternal database, final String iFileName, final OCommandOutputListener iListener)
       throws IOException {
     super(database, iFileName, iListener);
@@ -660,8 +745,6 @@ public class ODatabaseImport extends ODatabaseImpExpAbstract {
   private void importManualIndexes() throws IOException, ParseException {
     listener.onMessage("\nImporting manual index entries...");
 
-    ODocument doc = new ODocument();
-
     OIndexManagerProxy indexManager = database.getMetadata().getIndexManager();
     // FORCE RELOADING
     indexManager.reload();
@@ -684,36 +767,17 @@ public class ODatabaseImport extends ODatabaseImpExpAbstract {
 
       jsonReader.readNext(OJSONReader.BEGIN_COLLECTION);
 
-      do {
-        final String value = jsonReader.readString(OJSONReader.NEXT_IN_ARRAY).trim();
-
-        if (!value.isEmpty() && !indexName.equalsIgnoreCase(EXPORT_IMPORT_MAP_NAME)) {
-          doc = (ODocument) ORecordSerializerJSON.INSTANCE.fromString(value, doc, null);
-          doc.setLazyLoad(false);
-
-          final OIdentifiable oldRid = doc.<OIdentifiable> field("rid");
-          final OIdentifiable newRid;
-          if (!doc.<Boolean> field("binary")) {
-            if (exportImportHashTable != null)
-              newRid = exportImportHashTable.get(oldRid);
-            else
-              newRid = oldRid;
-
-            index.put(doc.field("key"), newRid != null ? newRid.getIdentity() : oldRid.getIdentity());
-          } else {
-            ORuntimeKeyIndexDefinition<?> runtimeKeyIndexDefinition = (ORuntimeKeyIndexDefinition<?>) index.getDefinition();
-            OBinarySerializer<?> binarySerializer = runtimeKeyIndexDefinition.getSerializer();
-
-            if (exportImportHashTable != null)
-              newRid = exportImportHashTable.get(doc.<OIdentifiable> field("rid")).getIdentity();
-            else
-              newRid = doc.<OIdentifiable> field("rid");
-
-            index.put(binarySerializer.deserialize(doc.<byte[]> field("key"), 0), newRid != null ? newRid : oldRid);
-          }
+      final Iterator<Map.Entry<Object, OIdentifiable>> entries = new ManualIndexEntries(index, indexName);
+      if (index != null && index.getInternal() != null)
+        // INDEX IS CREATED EMPTY, SO ENTRIES ARE SORTED AND BULK LOADED IF INDEX ENGINE SUPPORTS IT
+        tot = index.getInternal().bulkLoad(entries);
+      else {
+        while (entries.hasNext()) {
+          final Map.Entry<Object, OIdentifiable> entry = entries.next();
+          index.put(entry.getKey(), entry.getValue());
           tot++;
         }
-      } while (jsonReader.lastChar() == ',');
+      }
 
       if (index != null) {
         listener.onMessage("OK (" + tot + " entries)");
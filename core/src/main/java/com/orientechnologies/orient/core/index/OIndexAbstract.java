@@ -22,9 +22,14 @@ package com.orientechnologies.orient.core.index;
 import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import com.orientechnologies.common.concur.lock.OModificationLock;
 import com.orientechnologies.common.concur.resource.OSharedResourceAdaptiveExternal;
+import com.orientechnologies.common.exception.OException;
 import com.orientechnologies.common.listener.OProgressListener;
 import com.orientechnologies.common.log.OLogManager;
 import com.orientechnologies.orient.core.annotation.ODocumentInstance;
@@ -49,6 +54,7 @@ import com.orientechnologies.orient.core.serialization.serializer.OStringSeriali
 import com.orientechnologies.orient.core.serialization.serializer.record.string.ORecordSerializerSchemaAware2CSV;
 import com.orientechnologies.orient.core.serialization.serializer.stream.OStreamSerializer;
 import com.orientechnologies.orient.core.serialization.serializer.stream.OStreamSerializerAnyStreamable;
+import com.orientechnologies.orient.core.storage.ORecordDuplicatedException;
 import com.orientechnologies.orient.core.storage.OStorage;
 import com.orientechnologies.orient.core.storage.OStorageEmbedded;
 import com.orientechnologies.orient.core.storage.impl.local.OAbstractPaginatedStorage;
@@ -78,7 +84,28 @@ public abstract class OIndexAbstract<T> extends OSharedResourceAdaptiveExternal
   private volatile OIndexDefinition    indexDefinition;
   private volatile boolean             rebuilding       = false;
 
-  private Thread                       rebuildThread    = null;
+  private volatile Thread              rebuildThread    = null;
+
+  /**
+   * Changes which are done by other threads during online build of index. They are applied by rebuild thread when all clusters are
+   * indexed. Is not <code>null</code> only during online build.
+   * 
+   * @see OGlobalConfiguration#INDEX_ONLINE_BUILD
+   */
+  private volatile Queue<IndexChange>  rebuildChanges   = null;
+
+  /**
+   * Protects removal of change log when online build is completed. Only change log is accessed under this lock, so it can be
+   * acquired when index or storage locks are held.
+   */
+  private final ReadWriteLock          rebuildLock      = new ReentrantReadWriteLock();
+
+  /**
+   * Collects entries of index during rebuild if index is populated by bulk load. Is accessed only by rebuild thread.
+   * 
+   * @see #isBulkLoadSupported()
+   */
+  private OIndexEntriesSorter          bulkLoadSorter   = null;
 
   private ThreadLocal<IndexTxSnapshot> txSnapshot       = new ThreadLocal<IndexTxSnapshot>() {
                                                           @Override
@@ -92,8 +119,31 @@ public abstract class OIndexAbstract<T> extends OSharedResourceAdaptiveExternal
   }
 
   protected static final class IndexTxSnapshot {
-    public Map<Object, Object> indexSnapshot = new HashMap<Object, Object>();
-    public boolean             clear         = false;
+    public Map<Object, Object> indexSnapshot   = new HashMap<Object, Object>();
+    public boolean             clear           = false;
+
+    /**
+     * Changes of transaction in order in which they were done. They are put in change log of online build if transaction is
+     * committed during build.
+     */
+    public List<IndexChange>   changes         = new ArrayList<IndexChange>();
+
+    /**
+     * Whether snapshot was not filled because changes were added during online build.
+     */
+    public boolean             snapshotSkipped = false;
+  }
+
+  protected static final class IndexChange {
+    final OPERATION     operation;
+    final Object        key;
+    final OIdentifiable value;
+
+    private IndexChange(OPERATION operation, Object key, OIdentifiable value) {
+      this.operation = operation;
+      this.key = key;
+      this.value = value;
+    }
   }
 
   public OIndexAbstract(final String type, String algorithm, final OIndexEngine<T> indexEngine, String valueContainerAlgorithm,
@@ -312,7 +362,15 @@ public abstract class OIndexAbstract<T> extends OSharedResourceAdaptiveExternal
 
   @Override
   public void setRebuildingFlag() {
-    rebuilding = true;
+    acquireExclusiveLock();
+    try {
+      if (isOnlineBuildSupported() && rebuildChanges == null)
+        rebuildChanges = new ConcurrentLinkedQueue<IndexChange>();
+
+      rebuilding = true;
+    } finally {
+      releaseExclusiveLock();
+    }
   }
 
   @Override
@@ -349,6 +407,9 @@ public abstract class OIndexAbstract<T> extends OSharedResourceAdaptiveExternal
    * Populates the index with all the existent records. Uses the massive insert intent to speed up and keep the consumed memory low.
    */
   public long rebuild(final OProgressListener iProgressListener) {
+    if (isOnlineBuildSupported())
+      return rebuildOnline(iProgressListener);
+
     long documentIndexed = 0;
 
     final boolean intentInstalled = getDatabase().declareIntent(new OIntentMassiveInsert());
@@ -370,6 +431,9 @@ public abstract class OIndexAbstract<T> extends OSharedResourceAdaptiveExternal
 
         removeValuesContainer();
 
+        if (isBulkLoadSupported())
+          bulkLoadSorter = new OIndexEntriesSorter(name);
+
         int documentNum = 0;
         long documentTotal = 0;
 
@@ -386,6 +450,9 @@ public abstract class OIndexAbstract<T> extends OSharedResourceAdaptiveExternal
           documentIndexed += metrics[1];
         }
 
+        if (bulkLoadSorter != null)
+          bulkLoad(bulkLoadSorter);
+
         if (iProgressListener != null)
           iProgressListener.onCompletition(this, true);
 
@@ -402,6 +469,8 @@ public abstract class OIndexAbstract<T> extends OSharedResourceAdaptiveExternal
         throw new OIndexException("Error on rebuilding the index for clusters: " + clustersToIndex, e);
 
       } finally {
+        closeBulkLoadSorter();
+
         rebuilding = false;
         rebuildThread = null;
 
@@ -417,11 +486,180 @@ public abstract class OIndexAbstract<T> extends OSharedResourceAdaptiveExternal
     return documentIndexed;
   }
 
+  /**
+   * Populates the index with all the existent records without blocking of modifications of indexed records. Clusters are scanned
+   * without index lock, changes which are done by other threads during the scan are put in change log and applied when all clusters
+   * are indexed. Changes which are done while change log is applied are applied under exclusive storage lock, so index is switched
+   * in only when it contains all the changes.
+   */
+  private long rebuildOnline(final OProgressListener iProgressListener) {
+    long documentIndexed = 0;
+
+    final boolean intentInstalled = getDatabase().declareIntent(new OIntentMassiveInsert());
+
+    modificationLock.requestModificationLock();
+    try {
+      acquireExclusiveLock();
+      try {
+        markStorageDirty();
+
+        if (rebuildChanges == null)
+          rebuildChanges = new ConcurrentLinkedQueue<IndexChange>();
+
+        rebuildThread = Thread.currentThread();
+        rebuilding = true;
+
+        try {
+          indexEngine.clear();
+        } catch (Exception e) {
+          // IGNORE EXCEPTION: IF THE REBUILD WAS LAUNCHED IN CASE OF RID INVALID CLEAR ALWAYS GOES IN ERROR
+        }
+
+        removeValuesContainer();
+
+        if (isBulkLoadSupported())
+          bulkLoadSorter = new OIndexEntriesSorter(name);
+      } finally {
+        releaseExclusiveLock();
+      }
+
+      try {
+        int documentNum = 0;
+        long documentTotal = 0;
+
+        for (final String cluster : clustersToIndex)
+          documentTotal += getDatabase().countClusterElements(cluster);
+
+        if (iProgressListener != null)
+          iProgressListener.onBegin(this, documentTotal, true);
+
+        // INDEX ALL CLUSTERS
+        for (final String clusterName : clustersToIndex) {
+          final long[] metrics = indexCluster(clusterName, iProgressListener, documentNum, documentIndexed, documentTotal);
+          documentNum += metrics[0];
+          documentIndexed += metrics[1];
+        }
+
+        if (bulkLoadSorter != null) {
+          acquireExclusiveLock();
+          try {
+            bulkLoad(bulkLoadSorter);
+          } finally {
+            releaseExclusiveLock();
+          }
+        }
+
+        // CHANGES WHICH ARE DONE DURING THE SCAN ARE APPLIED WITHOUT LOCK, MODIFICATIONS ARE STOPPED ONLY TO APPLY THE REST OF THEM
+        applyRebuildChanges(rebuildChanges.size());
+
+        getDatabase().getStorage().callInLock(new Callable<Void>() {
+          @Override
+          public Void call() throws Exception {
+            rebuildLock.writeLock().lock();
+            try {
+              applyRebuildChanges(Integer.MAX_VALUE);
+              completeOnlineRebuild();
+            } finally {
+              rebuildLock.writeLock().unlock();
+            }
+
+            return null;
+          }
+        }, true);
+
+        if (iProgressListener != null)
+          iProgressListener.onCompletition(this, true);
+
+      } catch (final Exception e) {
+        if (iProgressListener != null)
+          iProgressListener.onCompletition(this, false);
+
+        acquireExclusiveLock();
+        try {
+          try {
+            indexEngine.clear();
+          } catch (Exception e2) {
+            // IGNORE EXCEPTION: IF THE REBUILD WAS LAUNCHED IN CASE OF RID INVALID CLEAR ALWAYS GOES IN ERROR
+          }
+
+          rebuildLock.writeLock().lock();
+          try {
+            completeOnlineRebuild();
+          } finally {
+            rebuildLock.writeLock().unlock();
+          }
+        } finally {
+          releaseExclusiveLock();
+        }
+
+        throw new OIndexException("Error on rebuilding the index for clusters: " + clustersToIndex, e);
+      } finally {
+        closeBulkLoadSorter();
+
+        if (intentInstalled)
+          getDatabase().declareIntent(null);
+      }
+    } finally {
+      modificationLock.releaseModificationLock();
+    }
+
+    return documentIndexed;
+  }
+
+  public long bulkLoad(final Iterator<? extends Map.Entry<Object, ? extends OIdentifiable>> entries) {
+    long loaded = 0;
+
+    modificationLock.requestModificationLock();
+    try {
+      acquireExclusiveLock();
+      try {
+        checkForRebuild();
+
+        if (!isBulkLoadSupported() || indexEngine.size(null) > 0) {
+          while (entries.hasNext()) {
+            final Map.Entry<Object, ? extends OIdentifiable> entry = entries.next();
+            put(entry.getKey(), entry.getValue());
+            loaded++;
+          }
+
+          return loaded;
+        }
+
+        markStorageDirty();
+
+        final OIndexEntriesSorter sorter = new OIndexEntriesSorter(name);
+        try {
+          while (entries.hasNext()) {
+            final Map.Entry<Object, ? extends OIdentifiable> entry = entries.next();
+            if (entry.getKey() != null)
+              checkForKeyType(entry.getKey());
+
+            sorter.add(indexEngine.preprocessKey(getCollatingValue(entry.getKey())), entry.getValue().getIdentity());
+            loaded++;
+          }
+
+          bulkLoad(sorter);
+        } finally {
+          sorter.close();
+        }
+
+        return loaded;
+      } finally {
+        releaseExclusiveLock();
+      }
+    } finally {
+      modificationLock.releaseModificationLock();
+    }
+  }
+
   public boolean remove(Object key, final OIdentifiable value) {
     return remove(key);
   }
 
   public boolean remove(Object key) {
+    if (logRebuildChange(OPERATION.REMOVE, key, null))
+      return true;
+
     checkForRebuild();
 
     key = getCollatingValue(key);
@@ -605,28 +843,26 @@ public abstract class OIndexAbstract<T> extends OSharedResourceAdaptiveExternal
 
   @SuppressWarnings("unchecked")
   public void addTxOperation(final ODocument operationDocument) {
-    checkForRebuild();
+    checkForModification();
 
     if (operationDocument == null)
       return;
 
-    acquireExclusiveLock();
-    try {
-      final IndexTxSnapshot indexTxSnapshot = txSnapshot.get();
+    final IndexTxSnapshot indexTxSnapshot = txSnapshot.get();
 
-      final Boolean clearAll = operationDocument.field("clear");
-      if (clearAll != null && clearAll) {
-        indexTxSnapshot.clear = true;
-        indexTxSnapshot.indexSnapshot.clear();
-      }
+    // INDEX CONTENT IS NOT COMPLETE DURING ONLINE BUILD, SO SNAPSHOT CAN NOT BE CALCULATED AND INDEX LOCK IS NOT NEEDED
+    if (isOnlineRebuildInProgress()) {
+      indexTxSnapshot.snapshotSkipped = true;
+      addTxOperation(indexTxSnapshot, operationDocument);
+      return;
+    }
 
-      final Collection<ODocument> entries = operationDocument.field("entries");
-      final Map<Object, Object> snapshot = indexTxSnapshot.indexSnapshot;
-      for (final ODocument entry : entries)
-        applyIndexTxEntry(snapshot, entry);
+    acquireExclusiveLock();
+    try {
+      if (isOnlineRebuildInProgress())
+        indexTxSnapshot.snapshotSkipped = true;
 
-      final ODocument nullIndexEntry = operationDocument.field("nullEntries");
-      applyIndexTxEntry(snapshot, nullIndexEntry);
+      addTxOperation(indexTxSnapshot, operationDocument);
     } finally {
       releaseExclusiveLock();
     }
@@ -634,16 +870,27 @@ public abstract class OIndexAbstract<T> extends OSharedResourceAdaptiveExternal
 
   @Override
   public void commit() {
+    final IndexTxSnapshot indexTxSnapshot = txSnapshot.get();
+
+    if (isOnlineRebuildInProgress()) {
+      commitDuringOnlineRebuild(indexTxSnapshot);
+      return;
+    }
+
     acquireExclusiveLock();
     try {
-      final IndexTxSnapshot indexTxSnapshot = txSnapshot.get();
-      if (indexTxSnapshot.clear)
-        clear();
+      if (!isOnlineRebuildInProgress() && !indexTxSnapshot.snapshotSkipped) {
+        if (indexTxSnapshot.clear)
+          clear();
 
-      commitSnapshot(indexTxSnapshot.indexSnapshot);
+        commitSnapshot(indexTxSnapshot.indexSnapshot);
+        return;
+      }
     } finally {
       releaseExclusiveLock();
     }
+
+    commitDuringOnlineRebuild(indexTxSnapshot);
   }
 
   @Override
@@ -799,12 +1046,25 @@ public abstract class OIndexAbstract<T> extends OSharedResourceAdaptiveExternal
   protected void populateIndex(ODocument doc, Object fieldValue) {
     if (fieldValue instanceof Collection) {
       for (final Object fieldValueItem : (Collection<?>) fieldValue) {
-        put(fieldValueItem, doc);
+        populateIndexEntry(fieldValueItem, doc);
       }
     } else
-      put(fieldValue, doc);
+      populateIndexEntry(fieldValue, doc);
   }
 
+  /**
+   * @return <code>true</code> if empty index can be populated by {@link OIndexEngine#bulkLoad(Iterator)} and values of index can be
+   *         created by {@link #createBulkLoadValue(Object, List)}.
+   */
+  protected boolean isBulkLoadSupported() {
+    return OGlobalConfiguration.INDEX_BULK_LOAD.getValueAsBoolean() && indexEngine.hasBulkLoadSupport();
+  }
+
+  /**
+   * Creates value of index engine from all the values which were put for single key during bulk load, in order of their addition.
+   */
+  protected abstract T createBulkLoadValue(Object key, List<ORID> values);
+
   protected Object getCollatingValue(final Object key) {
     if (key != null && getDefinition() != null)
       return getDefinition().getCollate().transform(key);
@@ -845,6 +1105,156 @@ public abstract class OIndexAbstract<T> extends OSharedResourceAdaptiveExternal
     }
   }
 
+  /**
+   * Checks whether index can be modified by current thread. Unlike {@link #checkForRebuild()} allows modifications during online
+   * build, they are put in change log by {@link #logRebuildChange(OPERATION, Object, OIdentifiable)}.
+   */
+  protected void checkForModification() {
+    if (!isOnlineRebuildInProgress())
+      checkForRebuild();
+  }
+
+  /**
+   * @return <code>true</code> if online build of index is in progress and current thread is not the thread which builds index.
+   */
+  protected boolean isOnlineRebuildInProgress() {
+    return rebuildChanges != null && !Thread.currentThread().equals(rebuildThread);
+  }
+
+  /**
+   * Puts change of index in change log if online build of index is in progress and change is done not by thread which builds index.
+   * 
+   * @return <code>true</code> if change was put in change log and should not be applied to the index.
+   */
+  protected boolean logRebuildChange(final OPERATION operation, final Object key, final OIdentifiable value) {
+    return logRebuildChanges(Collections.singletonList(new IndexChange(operation, key, value)));
+  }
+
+  /**
+   * Puts changes in change log as a whole, so changes of transaction are either logged or rejected together.
+   * 
+   * @see #logRebuildChange(OPERATION, Object, OIdentifiable)
+   */
+  private boolean logRebuildChanges(final List<IndexChange> changes) {
+    if (!isOnlineRebuildInProgress())
+      return false;
+
+    rebuildLock.readLock().lock();
+    try {
+      final Queue<IndexChange> changeLog = rebuildChanges;
+      if (changeLog == null)
+        return false;
+
+      final List<IndexChange> loggedChanges = new ArrayList<IndexChange>(changes.size());
+      for (IndexChange change : changes)
+        loggedChanges.add(new IndexChange(change.operation, change.key, change.value != null ? change.value.getIdentity() : null));
+
+      synchronized (changeLog) {
+        checkRebuildChanges(loggedChanges);
+        changeLog.addAll(loggedChanges);
+      }
+
+      return true;
+    } finally {
+      rebuildLock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Checks changes which are done by other threads during online build before they are put in change log. Changes are checked and
+   * logged atomically, so implementation sees all the changes which were logged before. Index lock should not be held by caller.
+   */
+  protected void checkRebuildChanges(final List<IndexChange> changes) {
+  }
+
+  /**
+   * Is called when change log of online build can not be applied to the index because key is duplicated.
+   * 
+   * @return <code>true</code> if key is assigned to other record by one of following changes, so change can be skipped.
+   */
+  protected boolean isRebuildChangeOverridden(final IndexChange change) {
+    return false;
+  }
+
+  /**
+   * Is called when online build is completed or failed, change log is not accessed by other threads at this moment.
+   */
+  protected void onOnlineRebuildCompleted() {
+  }
+
+  protected boolean isOnlineBuildSupported() {
+    return isAutomatic() && OGlobalConfiguration.INDEX_ONLINE_BUILD.getValueAsBoolean();
+  }
+
+  private void populateIndexEntry(final Object key, final ODocument doc) {
+    if (bulkLoadSorter != null)
+      bulkLoadSorter.add(indexEngine.preprocessKey(getCollatingValue(key)), doc.getIdentity());
+    else
+      put(key, doc);
+  }
+
+  /**
+   * Loads sorted entries into empty index engine. Duplicated key of unique index fails the whole build, the same as when entries
+   * are put one by one: {@link ORecordDuplicatedException} is not an {@link OIndexException}, so
+   * {@link #indexCluster(String, OProgressListener, long, long, long)} does not skip it. Index is left empty in such case.
+   */
+  private long bulkLoad(final OIndexEntriesSorter sorter) {
+    final Iterator<Map.Entry<Object, List<ORID>>> sortedEntries = sorter.iterator();
+
+    // NULL KEY IS THE FIRST ONE IN SORT ORDER, IT IS NOT SUPPORTED BY BULK LOAD AND IS PUT SEPARATELY
+    Map.Entry<Object, List<ORID>> nullEntry = null;
+    Map.Entry<Object, List<ORID>> firstEntry = null;
+    if (sortedEntries.hasNext()) {
+      firstEntry = sortedEntries.next();
+      if (firstEntry.getKey() == null) {
+        nullEntry = firstEntry;
+        firstEntry = null;
+      }
+    }
+
+    final Map.Entry<Object, List<ORID>> first = firstEntry;
+    long loaded = indexEngine.bulkLoad(new Iterator<Map.Entry<Object, T>>() {
+      private Map.Entry<Object, List<ORID>> next = first;
+
+      @Override
+      public boolean hasNext() {
+        return next != null || sortedEntries.hasNext();
+      }
+
+      @Override
+      public Map.Entry<Object, T> next() {
+        final Map.Entry<Object, List<ORID>> entry;
+        if (next != null) {
+          entry = next;
+          next = null;
+        } else
+          entry = sortedEntries.next();
+
+        return new AbstractMap.SimpleImmutableEntry<Object, T>(entry.getKey(), createBulkLoadValue(entry.getKey(),
+            entry.getValue()));
+      }
+
+      @Override
+      public void remove() {
+        throw new UnsupportedOperationException("remove");
+      }
+    });
+
+    if (nullEntry != null) {
+      indexEngine.put(null, createBulkLoadValue(null, nullEntry.getValue()));
+      loaded++;
+    }
+
+    return loaded;
+  }
+
+  private void closeBulkLoadSorter() {
+    if (bulkLoadSorter != null) {
+      bulkLoadSorter.close();
+      bulkLoadSorter = null;
+    }
+  }
+
   protected long[] indexCluster(final String clusterName, final OProgressListener iProgressListener, long documentNum,
       long documentIndexed, long documentTotal) {
     try {
@@ -908,7 +1318,72 @@ public abstract class OIndexAbstract<T> extends OSharedResourceAdaptiveExternal
     }
   }
 
-  private void applyIndexTxEntry(Map<Object, Object> snapshot, ODocument entry) {
+  private void completeOnlineRebuild() {
+    rebuildChanges = null;
+    rebuilding = false;
+    rebuildThread = null;
+
+    onOnlineRebuildCompleted();
+  }
+
+  private void addTxOperation(IndexTxSnapshot indexTxSnapshot, ODocument operationDocument) {
+    final Boolean clearAll = operationDocument.field("clear");
+    if (clearAll != null && clearAll) {
+      indexTxSnapshot.clear = true;
+      indexTxSnapshot.indexSnapshot.clear();
+    }
+
+    final Collection<ODocument> entries = operationDocument.field("entries");
+    for (final ODocument entry : entries)
+      applyIndexTxEntry(indexTxSnapshot, entry);
+
+    final ODocument nullIndexEntry = operationDocument.field("nullEntries");
+    applyIndexTxEntry(indexTxSnapshot, nullIndexEntry);
+  }
+
+  /**
+   * Puts changes of transaction in change log of online build. If build is already completed changes are applied to the index
+   * directly. Should be called without index lock because changes are checked before they are logged.
+   */
+  private void commitDuringOnlineRebuild(IndexTxSnapshot indexTxSnapshot) {
+    if (indexTxSnapshot.clear)
+      clear();
+
+    if (!logRebuildChanges(indexTxSnapshot.changes))
+      for (IndexChange change : indexTxSnapshot.changes)
+        applyChange(change);
+  }
+
+  private void applyRebuildChanges(int limit) {
+    IndexChange change;
+    for (int i = 0; i < limit && (change = rebuildChanges.poll()) != null; i++) {
+      try {
+        applyChange(change);
+      } catch (ORecordDuplicatedException e) {
+        // DUPLICATED KEY WHICH IS NOT REASSIGNED BY FOLLOWING CHANGES WAS COMMITTED, SO INDEX CAN NOT BE BUILT
+        if (!isRebuildChangeOverridden(change))
+          throw e;
+      } catch (OException e) {
+        OLogManager.instance().error(
+            this,
+            "Exception during index rebuild. Exception was caused by following key/ value pair - key %s, value %s."
+                + " Rebuild will continue from this point.", e, change.key, change.value);
+      }
+    }
+  }
+
+  private void applyChange(final IndexChange change) {
+    if (change.operation == OPERATION.PUT)
+      put(change.key, change.value);
+    else if (change.value == null)
+      remove(change.key);
+    else
+      remove(change.key, change.value);
+  }
+
+  private void applyIndexTxEntry(IndexTxSnapshot indexTxSnapshot, ODocument entry) {
+    final Map<Object, Object> snapshot = indexTxSnapshot.indexSnapshot;
+
     final Object key;
     if (entry.field("k") != null) {
       Object serKey = entry.field("k");
@@ -944,6 +1419,10 @@ public abstract class OIndexAbstract<T> extends OSharedResourceAdaptiveExternal
         final int operation = (Integer) op.rawField("o");
         final OIdentifiable value = op.field("v");
 
+        indexTxSnapshot.changes.add(new IndexChange(OPERATION.values()[operation], key, value));
+        if (indexTxSnapshot.snapshotSkipped)
+          continue;
+
         if (operation == OPERATION.PUT.ordinal())
           putInSnapshot(key, value, snapshot);
         else if (operation == OPERATION.REMOVE.ordinal()) {
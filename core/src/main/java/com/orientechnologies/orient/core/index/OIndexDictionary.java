@@ -20,8 +20,11 @@
 package com.orientechnologies.orient.core.index;
 
 import com.orientechnologies.orient.core.db.record.OIdentifiable;
+import com.orientechnologies.orient.core.id.ORID;
 import com.orientechnologies.orient.core.record.impl.ODocument;
+import com.orientechnologies.orient.core.tx.OTransactionIndexChanges.OPERATION;
 
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -39,6 +42,9 @@ public class OIndexDictionary extends OIndexOneValue {
   }
 
   public OIndexOneValue put(Object key, final OIdentifiable value) {
+    if (logRebuildChange(OPERATION.PUT, key, value))
+      return this;
+
     modificationLock.requestModificationLock();
 
     key = getCollatingValue(key);
@@ -75,6 +81,12 @@ public class OIndexDictionary extends OIndexOneValue {
     return false;
   }
 
+  @Override
+  protected OIdentifiable createBulkLoadValue(Object key, List<ORID> values) {
+    // THE LAST PUT VALUE REPLACES THE PREVIOUS ONES
+    return values.get(values.size() - 1);
+  }
+
   @Override
   protected void putInSnapshot(Object key, OIdentifiable value, Map<Object, Object> snapshot) {
     key = getCollatingValue(key);
@@ -84,6 +84,23 @@ public interface OIndexEngine<V> {
 
   boolean hasRangeQuerySupport();
 
+  boolean hasBulkLoadSupport();
+
+  /**
+   * Converts key to the form in which it is stored by index engine, for example cuts time part of dates. Keys which are different
+   * before conversion may become equal after it, so keys passed to {@link #bulkLoad(Iterator)} should be converted before sorting.
+   */
+  Object preprocessKey(Object key);
+
+  /**
+   * Loads entries into empty index engine. Is supported only if {@link #hasBulkLoadSupport()} returns <code>true</code>.
+   * 
+   * @param entries
+   *          Entries sorted by key in ascending order, keys should be unique and not null.
+   * @return Amount of loaded entries.
+   */
+  long bulkLoad(Iterator<? extends Map.Entry<Object, V>> entries);
+
   interface ValuesTransformer<V> {
     Collection<OIdentifiable> transformFromValue(V value);
   }
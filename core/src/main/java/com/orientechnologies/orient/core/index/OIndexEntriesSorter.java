@@ -0,0 +1,318 @@
+/*
+ *
+ *  *  Copyright 2014 Orient Technologies LTD (info(at)orientechnologies.com)
+ *  *
+ *  *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  *  you may not use this file except in compliance with the License.
+ *  *  You may obtain a copy of the License at
+ *  *
+ *  *       http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *  Unless required by applicable law or agreed to in writing, software
+ *  *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *  See the License for the specific language governing permissions and
+ *  *  limitations under the License.
+ *  *
+ *  * For more information: http://www.orientechnologies.com
+ *
+ */
+package com.orientechnologies.orient.core.index;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+
+import com.orientechnologies.common.comparator.ODefaultComparator;
+import com.orientechnologies.common.log.OLogManager;
+import com.orientechnologies.orient.core.config.OGlobalConfiguration;
+import com.orientechnologies.orient.core.id.ORID;
+import com.orientechnologies.orient.core.id.ORecordId;
+import com.orientechnologies.orient.core.serialization.serializer.binary.impl.index.OCompositeKeySerializer;
+
+/**
+ * Sorts entries which are bulk loaded into index. Entries are sorted in memory, if their amount exceeds
+ * {@link OGlobalConfiguration#INDEX_BULK_LOAD_SORT_BUFFER_SIZE} sorted entries are written to temporary file and all such files are
+ * merged when entries are iterated.
+ *
+ * Values of the same key are returned in the same order in which they were added.
+ */
+public class OIndexEntriesSorter {
+  private static final byte           NULL_KEY      = 0;
+  private static final byte           COMPOSITE_KEY = 1;
+  private static final byte           SIMPLE_KEY    = 2;
+
+  private final Comparator<Object>    comparator    = ODefaultComparator.INSTANCE;
+  private final String                indexName;
+  private final int                   bufferSize;
+  private final List<Entry>           buffer        = new ArrayList<Entry>();
+  private final List<SortedRun>       runs          = new ArrayList<SortedRun>();
+  private final List<DataInputStream> openedRuns    = new ArrayList<DataInputStream>();
+
+  public OIndexEntriesSorter(String indexName) {
+    this(indexName, OGlobalConfiguration.INDEX_BULK_LOAD_SORT_BUFFER_SIZE.getValueAsInteger());
+  }
+
+  public OIndexEntriesSorter(String indexName, int bufferSize) {
+    this.indexName = indexName;
+    this.bufferSize = bufferSize;
+  }
+
+  public void add(Object key, ORID value) {
+    buffer.add(new Entry(key, value));
+
+    if (buffer.size() >= bufferSize)
+      writeSortedRun();
+  }
+
+  /**
+   * @return Keys in ascending order together with all values which were added for each key. Can be called only once.
+   */
+  public Iterator<Map.Entry<Object, List<ORID>>> iterator() {
+    // SORT IS STABLE, SO VALUES OF THE SAME KEY KEEP ORDER OF ADDITION
+    Collections.sort(buffer);
+
+    final PriorityQueue<RunCursor> cursors = new PriorityQueue<RunCursor>();
+    try {
+      for (int i = 0; i < runs.size(); i++) {
+        final SortedRun run = runs.get(i);
+        final DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(run.file)));
+        openedRuns.add(in);
+
+        final RunCursor cursor = new FileRunCursor(i, in, run.size);
+        if (cursor.advance())
+          cursors.add(cursor);
+      }
+    } catch (IOException e) {
+      throw new OIndexException("Error during reading of sorted entries of index " + indexName, e);
+    }
+
+    final RunCursor bufferCursor = new BufferRunCursor(runs.size(), buffer.iterator());
+    if (bufferCursor.advance())
+      cursors.add(bufferCursor);
+
+    return new Iterator<Map.Entry<Object, List<ORID>>>() {
+      @Override
+      public boolean hasNext() {
+        return !cursors.isEmpty();
+      }
+
+      @Override
+      public Map.Entry<Object, List<ORID>> next() {
+        if (cursors.isEmpty())
+          throw new NoSuchElementException();
+
+        final Object key = cursors.peek().current.key;
+        final List<ORID> values = new ArrayList<ORID>();
+
+        while (!cursors.isEmpty() && comparator.compare(cursors.peek().current.key, key) == 0) {
+          final RunCursor cursor = cursors.poll();
+          values.add(cursor.current.value);
+
+          if (cursor.advance())
+            cursors.add(cursor);
+        }
+
+        return new AbstractMap.SimpleImmutableEntry<Object, List<ORID>>(key, values);
+      }
+
+      @Override
+      public void remove() {
+        throw new UnsupportedOperationException("remove");
+      }
+    };
+  }
+
+  /**
+   * Removes temporary files which are used to sort entries.
+   */
+  public void close() {
+    for (DataInputStream in : openedRuns) {
+      try {
+        in.close();
+      } catch (IOException e) {
+        OLogManager.instance().error(this, "Error during closing of sorted entries of index " + indexName, e);
+      }
+    }
+
+    for (SortedRun run : runs) {
+      if (!run.file.delete())
+        OLogManager.instance().warn(this, "Can not delete file %s with sorted entries of index %s", run.file, indexName);
+    }
+
+    openedRuns.clear();
+    runs.clear();
+    buffer.clear();
+  }
+
+  private void writeSortedRun() {
+    Collections.sort(buffer);
+
+    try {
+      final File file = File.createTempFile("orient-index-", ".srt");
+      file.deleteOnExit();
+
+      final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
+      try {
+        for (Entry entry : buffer) {
+          writeKey(out, entry.key);
+
+          out.writeInt(entry.value.getClusterId());
+          out.writeLong(entry.value.getClusterPosition());
+        }
+      } finally {
+        out.close();
+      }
+
+      runs.add(new SortedRun(file, buffer.size()));
+      buffer.clear();
+    } catch (IOException e) {
+      throw new OIndexException("Error during writing of sorted entries of index " + indexName, e);
+    }
+  }
+
+  private static void writeKey(DataOutputStream out, Object key) throws IOException {
+    if (key == null) {
+      out.writeByte(NULL_KEY);
+      return;
+    }
+
+    final OCompositeKey compositeKey;
+    if (key instanceof OCompositeKey) {
+      compositeKey = (OCompositeKey) key;
+      out.writeByte(COMPOSITE_KEY);
+    } else {
+      compositeKey = new OCompositeKey();
+      compositeKey.addKey(key);
+      out.writeByte(SIMPLE_KEY);
+    }
+
+    final byte[] serializedKey = new byte[OCompositeKeySerializer.INSTANCE.getObjectSize(compositeKey)];
+    OCompositeKeySerializer.INSTANCE.serialize(compositeKey, serializedKey, 0);
+
+    out.writeInt(serializedKey.length);
+    out.write(serializedKey);
+  }
+
+  private static Object readKey(DataInputStream in) throws IOException {
+    final byte keyType = in.readByte();
+    if (keyType == NULL_KEY)
+      return null;
+
+    final byte[] serializedKey = new byte[in.readInt()];
+    in.readFully(serializedKey);
+
+    final OCompositeKey compositeKey = OCompositeKeySerializer.INSTANCE.deserialize(serializedKey, 0);
+    if (keyType == COMPOSITE_KEY)
+      return compositeKey;
+
+    return compositeKey.getKeys().get(0);
+  }
+
+  private final class Entry implements Comparable<Entry> {
+    private final Object key;
+    private final ORID   value;
+
+    private Entry(Object key, ORID value) {
+      this.key = key;
+      this.value = value;
+    }
+
+    @Override
+    public int compareTo(Entry other) {
+      return comparator.compare(key, other.key);
+    }
+  }
+
+  private static final class SortedRun {
+    private final File file;
+    private final int  size;
+
+    private SortedRun(File file, int size) {
+      this.file = file;
+      this.size = size;
+    }
+  }
+
+  private abstract class RunCursor implements Comparable<RunCursor> {
+    private final int order;
+    protected Entry   current;
+
+    protected RunCursor(int order) {
+      this.order = order;
+    }
+
+    public abstract boolean advance();
+
+    @Override
+    public int compareTo(RunCursor other) {
+      final int result = comparator.compare(current.key, other.current.key);
+      if (result != 0)
+        return result;
+
+      // RUNS ARE ORDERED BY TIME OF THEIR CREATION, SO VALUES OF THE SAME KEY ARE RETURNED IN ORDER OF ADDITION
+      return order < other.order ? -1 : (order == other.order ? 0 : 1);
+    }
+  }
+
+  private final class BufferRunCursor extends RunCursor {
+    private final Iterator<Entry> iterator;
+
+    private BufferRunCursor(int order, Iterator<Entry> iterator) {
+      super(order);
+      this.iterator = iterator;
+    }
+
+    @Override
+    public boolean advance() {
+      if (!iterator.hasNext())
+        return false;
+
+      current = iterator.next();
+      return true;
+    }
+  }
+
+  private final class FileRunCursor extends RunCursor {
+    private final DataInputStream in;
+    private int                   left;
+
+    private FileRunCursor(int order, DataInputStream in, int size) {
+      super(order);
+      this.in = in;
+      this.left = size;
+    }
+
+    @Override
+    public boolean advance() {
+      if (left == 0)
+        return false;
+
+      try {
+        final Object key = readKey(in);
+        final ORID value = new ORecordId(in.readInt(), in.readLong());
+
+        current = new Entry(key, value);
+        left--;
+
+        return true;
+      } catch (IOException e) {
+        throw new OIndexException("Error during reading of sorted entries of index " + indexName, e);
+      }
+    }
+  }
+}
@@ -26,6 +26,7 @@ import com.orientechnologies.orient.core.db.record.ridbag.sbtree.OIndexRIDContai
 import com.orientechnologies.orient.core.record.impl.ODocument;
 import com.orientechnologies.orient.core.serialization.serializer.OStringSerializerHelper;
 import com.orientechnologies.orient.core.serialization.serializer.stream.OStreamSerializer;
+import com.orientechnologies.orient.core.tx.OTransactionIndexChanges.OPERATION;
 import com.orientechnologies.orient.core.type.tree.OMVRBTreeRIDSet;
 
 import java.util.ArrayList;
@@ -75,6 +76,9 @@ public class OIndexFullText extends OIndexMultiValues {
    */
   @Override
   public OIndexFullText put(Object key, final OIdentifiable iSingleValue) {
+    if (logRebuildChange(OPERATION.PUT, key, iSingleValue))
+      return this;
+
     checkForRebuild();
 
     if (key == null)
@@ -143,6 +147,9 @@ public class OIndexFullText extends OIndexMultiValues {
    */
   @Override
   public boolean remove(Object key, final OIdentifiable value) {
+    if (logRebuildChange(OPERATION.REMOVE, key, value))
+      return true;
+
     checkForRebuild();
 
     key = getCollatingValue(key);
@@ -229,6 +236,12 @@ public class OIndexFullText extends OIndexMultiValues {
     return false;
   }
 
+  @Override
+  protected boolean isBulkLoadSupported() {
+    // KEYS ARE SPLIT INTO WORDS ONLY WHEN THEY ARE PUT ONE BY ONE
+    return false;
+  }
+
   protected void configWithMetadata(ODocument metadata) {
     if (metadata != null) {
       if (metadata.containsField(CONFIG_IGNORE_CHARS))
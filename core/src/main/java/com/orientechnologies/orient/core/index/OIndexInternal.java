@@ -19,10 +19,12 @@
   */
 package com.orientechnologies.orient.core.index;
 
+import java.util.Iterator;
 import java.util.Map.Entry;
 import java.util.Set;
 
 import com.orientechnologies.orient.core.db.ODatabaseListener;
+import com.orientechnologies.orient.core.db.record.OIdentifiable;
 import com.orientechnologies.orient.core.record.impl.ODocument;
 
 /**
@@ -120,6 +122,16 @@ public interface OIndexInternal<T> extends OIndex<T> {
 
   public void setRebuildingFlag();
 
+  /**
+   * Puts entries into index. If index is empty and its engine supports bulk load, entries are sorted and loaded into index at once
+   * instead of insertion one by one.
+   * 
+   * @param entries
+   *          Entries to put, are not required to be sorted.
+   * @return Amount of entries which were put into index.
+   */
+  public long bulkLoad(Iterator<? extends Entry<Object, ? extends OIdentifiable>> entries);
+
   public void close();
 
   public String getAlgorithm();
@@ -311,6 +311,21 @@ public interface OIndexManager {
    */
   public <RET extends ODocumentWrapper> RET save();
 
+  /**
+   * Returns counter which is incremented each time when index is added. Transactions calculate index changes of records when
+   * records are saved, so they use this counter to detect indexes which were added after that.
+   * 
+   * IMPORTANT! Only for internal usage.
+   */
+  public long getAddedIndexesCounter();
+
+  /**
+   * Returns value of added indexes counter after index with given name was added, or -1 if there is no such index.
+   * 
+   * IMPORTANT! Only for internal usage.
+   */
+  public long getIndexAddedCounter(String iIndexName);
+
   /**
    * Removes index from class-property map.
    * 
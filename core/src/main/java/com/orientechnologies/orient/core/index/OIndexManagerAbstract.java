@@ -57,6 +57,8 @@ public abstract class OIndexManagerAbstract extends ODocumentWrapperNoClass impl
   protected Map<String, OIndex<?>>                            indexes            = new ConcurrentHashMap<String, OIndex<?>>();
   protected String                                            defaultClusterName = OMetadataDefault.CLUSTER_INDEX_NAME;
   protected String                                            manualClusterName  = OMetadataDefault.CLUSTER_MANUAL_INDEX_NAME;
+  protected final Map<String, Long>                           indexAddedCounters = new ConcurrentHashMap<String, Long>();
+  private volatile long                                       addedIndexesCounter;
 
   protected ReadWriteLock                                     lock               = new ReentrantReadWriteLock();
 
@@ -405,6 +407,7 @@ public abstract class OIndexManagerAbstract extends ODocumentWrapperNoClass impl
   protected void addIndexInternal(final OIndex<?> index) {
     acquireExclusiveLock();
     try {
+      indexAddedCounters.put(index.getName().toLowerCase(), addedIndexesCounter + 1);
       indexes.put(index.getName().toLowerCase(), index);
 
       final OIndexDefinition indexDefinition = index.getDefinition();
@@ -430,10 +433,24 @@ public abstract class OIndexManagerAbstract extends ODocumentWrapperNoClass impl
         propertyIndex.put(multiKey, indexSet);
       }
     } finally {
+      // COUNTER IS CHANGED ONLY WHEN INDEX IS VISIBLE, SO TRANSACTIONS WHICH READ IT SEE THE INDEX IN RECORD HOOKS
+      addedIndexesCounter++;
       releaseExclusiveLock();
     }
   }
 
+  public long getAddedIndexesCounter() {
+    return addedIndexesCounter;
+  }
+
+  public long getIndexAddedCounter(final String iIndexName) {
+    final Long counter = indexAddedCounters.get(iIndexName.toLowerCase());
+    if (counter == null)
+      return -1;
+
+    return counter;
+  }
+
   protected List<String> normalizeFieldNames(final Collection<String> fieldNames) {
     final ArrayList<String> result = new ArrayList<String>(fieldNames.size());
     for (final String fieldName : fieldNames)
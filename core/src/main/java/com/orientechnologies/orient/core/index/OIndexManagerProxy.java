@@ -170,4 +170,12 @@ public class OIndexManagerProxy extends OProxedResource<OIndexManager> implement
   public void removeClassPropertyIndex(final OIndex<?> idx) {
     delegate.removeClassPropertyIndex(idx);
   }
+
+  public long getAddedIndexesCounter() {
+    return delegate.getAddedIndexesCounter();
+  }
+
+  public long getIndexAddedCounter(final String iIndexName) {
+    return delegate.getIndexAddedCounter(iIndexName);
+  }
 }
@@ -89,6 +89,7 @@ public class OIndexManagerRemote extends OIndexManagerAbstract {
 
       // REMOVE THE INDEX LOCALLY
       indexes.remove(iIndexName.toLowerCase());
+      indexAddedCounters.remove(iIndexName.toLowerCase());
       reload();
 
       return this;
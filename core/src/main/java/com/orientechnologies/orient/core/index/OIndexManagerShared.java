@@ -127,6 +127,10 @@ public class OIndexManagerShared extends OIndexManagerAbstract implements OIndex
     final String valueContainerAlgorithm = chooseContainerAlgorithm(iType);
 
     final OIndexInternal<?> index;
+    final boolean automatic = indexDefinition != null && indexDefinition.getClassName() != null;
+    // DURING ONLINE BUILD INDEX IS ALREADY REGISTERED, SO CHANGES OF INDEXED RECORDS ARE TRACKED WHILE CLUSTERS ARE SCANNED
+    final boolean onlineBuild = automatic && OGlobalConfiguration.INDEX_ONLINE_BUILD.getValueAsBoolean();
+
     acquireExclusiveLock();
     try {
       if (indexes.containsKey(iName.toLowerCase()))
@@ -147,8 +151,7 @@ public class OIndexManagerShared extends OIndexManagerAbstract implements OIndex
       index = OIndexes.createIndex(getDatabase(), iType, algorithm, valueContainerAlgorithm, metadata);
 
       // decide which cluster to use ("index" - for automatic and "manindex" for manual)
-      final String clusterName = indexDefinition != null && indexDefinition.getClassName() != null ? defaultClusterName
-          : manualClusterName;
+      final String clusterName = automatic ? defaultClusterName : manualClusterName;
 
       if (progressListener == null)
         // ASSIGN DEFAULT PROGRESS LISTENER
@@ -159,7 +162,10 @@ public class OIndexManagerShared extends OIndexManagerAbstract implements OIndex
       if (metadata != null && Boolean.FALSE.equals(metadata.field("ignoreNullValues")) && indexDefinition != null)
         indexDefinition.setNullValuesIgnored(false);
 
-      index.create(iName, indexDefinition, clusterName, clustersToIndex, true, progressListener);
+      index.create(iName, indexDefinition, clusterName, clustersToIndex, !onlineBuild, progressListener);
+      if (onlineBuild)
+        index.setRebuildingFlag();
+
       addIndexInternal(index);
 
       if (metadata != null) {
@@ -173,6 +179,15 @@ public class OIndexManagerShared extends OIndexManagerAbstract implements OIndex
       releaseExclusiveLock();
     }
 
+    if (onlineBuild) {
+      try {
+        index.rebuild(progressListener);
+      } catch (RuntimeException e) {
+        dropIndex(iName);
+        throw e;
+      }
+    }
+
     if (OGlobalConfiguration.INDEX_FLUSH_AFTER_CREATE.getValueAsBoolean())
       storage.synch();
 
@@ -218,6 +233,7 @@ public class OIndexManagerShared extends OIndexManagerAbstract implements OIndex
     acquireExclusiveLock();
     try {
       final OIndex<?> idx = indexes.remove(iIndexName.toLowerCase());
+      indexAddedCounters.remove(iIndexName.toLowerCase());
       if (idx != null) {
         removeClassPropertyIndex(idx);
 
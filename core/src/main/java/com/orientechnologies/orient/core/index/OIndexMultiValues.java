@@ -24,12 +24,14 @@ import com.orientechnologies.common.listener.OProgressListener;
 import com.orientechnologies.orient.core.config.OGlobalConfiguration;
 import com.orientechnologies.orient.core.db.record.OIdentifiable;
 import com.orientechnologies.orient.core.db.record.ridbag.sbtree.OIndexRIDContainer;
+import com.orientechnologies.orient.core.id.ORID;
 import com.orientechnologies.orient.core.iterator.OEmptyIterator;
 import com.orientechnologies.orient.core.record.ORecord;
 import com.orientechnologies.orient.core.record.impl.ODocument;
 import com.orientechnologies.orient.core.serialization.serializer.stream.OStreamSerializer;
 import com.orientechnologies.orient.core.serialization.serializer.stream.OStreamSerializerListRID;
 import com.orientechnologies.orient.core.serialization.serializer.stream.OStreamSerializerSBTreeIndexRIDContainer;
+import com.orientechnologies.orient.core.tx.OTransactionIndexChanges.OPERATION;
 import com.orientechnologies.orient.core.type.tree.OMVRBTreeRIDSet;
 
 import java.util.ArrayList;
@@ -95,6 +97,9 @@ public abstract class OIndexMultiValues extends OIndexAbstract<Set<OIdentifiable
   }
 
   public OIndexMultiValues put(Object key, final OIdentifiable iSingleValue) {
+    if (logRebuildChange(OPERATION.PUT, key, iSingleValue))
+      return this;
+
     checkForRebuild();
 
     key = getCollatingValue(key);
@@ -107,18 +112,8 @@ public abstract class OIndexMultiValues extends OIndexAbstract<Set<OIdentifiable
       try {
         Set<OIdentifiable> values = indexEngine.get(key);
 
-        if (values == null) {
-          if (ODefaultIndexFactory.SBTREEBONSAI_VALUE_CONTAINER.equals(valueContainerAlgorithm)) {
-            boolean durable = false;
-            if (metadata != null && Boolean.TRUE.equals(metadata.field("durableInNonTxMode")))
-              durable = true;
-
-            values = new OIndexRIDContainer(getName(), durable);
-          } else {
-            values = new OMVRBTreeRIDSet(OGlobalConfiguration.MVRBTREE_RID_BINARY_THRESHOLD.getValueAsInteger());
-            ((OMVRBTreeRIDSet) values).setAutoConvertToRecord(false);
-          }
-        }
+        if (values == null)
+          values = createValuesContainer();
 
         if (!iSingleValue.getIdentity().isValid())
           ((ORecord) iSingleValue).save();
@@ -155,17 +150,7 @@ public abstract class OIndexMultiValues extends OIndexAbstract<Set<OIdentifiable
       values = (Set<OIdentifiable>) snapshotValue;
 
     if (values == null) {
-      if (ODefaultIndexFactory.SBTREEBONSAI_VALUE_CONTAINER.equals(valueContainerAlgorithm)) {
-        boolean durable = false;
-        if (metadata != null && Boolean.TRUE.equals(metadata.field("durableInNonTxMode")))
-          durable = true;
-
-        values = new OIndexRIDContainer(getName(), durable);
-      } else {
-        values = new OMVRBTreeRIDSet(OGlobalConfiguration.MVRBTREE_RID_BINARY_THRESHOLD.getValueAsInteger());
-        ((OMVRBTreeRIDSet) values).setAutoConvertToRecord(false);
-      }
-
+      values = createValuesContainer();
       snapshot.put(key, values);
     }
 
@@ -173,8 +158,34 @@ public abstract class OIndexMultiValues extends OIndexAbstract<Set<OIdentifiable
     snapshot.put(key, values);
   }
 
+  @Override
+  protected Set<OIdentifiable> createBulkLoadValue(Object key, List<ORID> values) {
+    final Set<OIdentifiable> container = createValuesContainer();
+    for (ORID value : values)
+      container.add(value);
+
+    return container;
+  }
+
+  private Set<OIdentifiable> createValuesContainer() {
+    if (ODefaultIndexFactory.SBTREEBONSAI_VALUE_CONTAINER.equals(valueContainerAlgorithm)) {
+      boolean durable = false;
+      if (metadata != null && Boolean.TRUE.equals(metadata.field("durableInNonTxMode")))
+        durable = true;
+
+      return new OIndexRIDContainer(getName(), durable);
+    }
+
+    final OMVRBTreeRIDSet values = new OMVRBTreeRIDSet(OGlobalConfiguration.MVRBTREE_RID_BINARY_THRESHOLD.getValueAsInteger());
+    values.setAutoConvertToRecord(false);
+    return values;
+  }
+
   @Override
   public boolean remove(Object key, final OIdentifiable value) {
+    if (logRebuildChange(OPERATION.REMOVE, key, value))
+      return true;
+
     checkForRebuild();
 
     key = getCollatingValue(key);
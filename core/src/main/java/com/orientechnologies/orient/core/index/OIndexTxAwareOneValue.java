@@ -209,6 +209,10 @@ public class OIndexTxAwareOneValue extends OIndexTxAware<OIdentifiable> {
     // CHECK IF ALREADY EXISTS IN TX
     String storageType = database.getStorage().getType();
     if (!database.getTransaction().isActive()) {
+      // INDEX IS INCOMPLETE DURING ONLINE BUILD, SO UNDERLYING INDEX CHECKS ENTRY AGAINST CHANGE LOG OF THE BUILD
+      if (delegate.isRebuiding())
+        return super.checkEntry(iRecord, iKey);
+
       final OIdentifiable previousRecord = get(iKey);
       if (previousRecord != null && !previousRecord.equals(iRecord)) {
         final ODocument metadata = getMetadata();
@@ -20,12 +20,16 @@
 package com.orientechnologies.orient.core.index;
 
 import com.orientechnologies.orient.core.db.record.OIdentifiable;
+import com.orientechnologies.orient.core.id.ORID;
 import com.orientechnologies.orient.core.record.ORecord;
 import com.orientechnologies.orient.core.record.impl.ODocument;
 import com.orientechnologies.orient.core.storage.ORecordDuplicatedException;
+import com.orientechnologies.orient.core.tx.OTransactionIndexChanges.OPERATION;
 
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -36,6 +40,13 @@ import java.util.Set;
  * 
  */
 public class OIndexUnique extends OIndexOneValue {
+  /**
+   * Records which own keys after the last change of every key in change log of online build, keys which are removed by the last
+   * change are mapped to {@link RemovedValue#INSTANCE}. Keys which are not changed since build was started are owned by records
+   * which are found in the index. Is guarded by its own monitor.
+   */
+  private final Map<Object, Object> rebuildKeyOwners = new HashMap<Object, Object>();
+
   public OIndexUnique(String typeId, String algorithm, OIndexEngine<OIdentifiable> engine, String valueContainerAlgorithm,
       ODocument metadata) {
     super(typeId, algorithm, engine, valueContainerAlgorithm, metadata);
@@ -43,6 +54,9 @@ public class OIndexUnique extends OIndexOneValue {
 
   @Override
   public OIndexOneValue put(Object key, final OIdentifiable iSingleValue) {
+    if (logRebuildChange(OPERATION.PUT, key, iSingleValue))
+      return this;
+
     checkForRebuild();
 
     key = getCollatingValue(key);
@@ -85,6 +99,95 @@ public class OIndexUnique extends OIndexOneValue {
     }
   }
 
+  @Override
+  public ODocument checkEntry(final OIdentifiable record, Object key) {
+    if (!isOnlineRebuildInProgress())
+      return super.checkEntry(record, key);
+
+    key = getCollatingValue(key);
+
+    // KEY IS CHECKED ONCE AGAIN WHEN IT IS PUT IN CHANGE LOG
+    final Object owner;
+    synchronized (rebuildKeyOwners) {
+      owner = getRebuildKeyOwner(key);
+    }
+
+    if (owner instanceof OIdentifiable && !owner.equals(record.getIdentity())) {
+      final Boolean mergeSameKey = metadata != null && (Boolean) metadata.field(OIndex.MERGE_KEYS);
+      if (mergeSameKey != null && mergeSameKey)
+        return ((OIdentifiable) owner).getRecord();
+      else
+        throw new OIndexException("Cannot index record : " + record + " found duplicated key '" + key + "' in index " + getName()
+            + " previously assigned to the record " + owner);
+    }
+    return null;
+  }
+
+  @Override
+  protected void checkRebuildChanges(final List<IndexChange> changes) {
+    final Boolean mergeSameKey = metadata != null ? (Boolean) metadata.field(OIndex.MERGE_KEYS) : Boolean.FALSE;
+
+    synchronized (rebuildKeyOwners) {
+      // CHANGES ARE CHECKED AGAINST EACH OTHER BEFORE ANY OF THEM IS ACCEPTED
+      final Map<Object, Object> owners = new HashMap<Object, Object>();
+
+      for (IndexChange change : changes) {
+        final Object key = getCollatingValue(change.key);
+        final Object owner = owners.containsKey(key) ? owners.get(key) : getRebuildKeyOwner(key);
+
+        if (change.operation == OPERATION.PUT) {
+          if (owner instanceof OIdentifiable && !owner.equals(change.value)) {
+            if (mergeSameKey != null && mergeSameKey)
+              // IGNORE IT, THE EXISTENT KEY HAS BEEN MERGED
+              continue;
+
+            throw new ORecordDuplicatedException(String.format(
+                "Cannot index record %s: found duplicated key '%s' in index '%s' previously assigned to the record %s",
+                change.value, key, getName(), owner), ((OIdentifiable) owner).getIdentity());
+          }
+
+          owners.put(key, change.value);
+        } else if (change.value == null || change.value.equals(owner))
+          owners.put(key, RemovedValue.INSTANCE);
+      }
+
+      rebuildKeyOwners.putAll(owners);
+    }
+  }
+
+  @Override
+  protected boolean isRebuildChangeOverridden(final IndexChange change) {
+    final Object key = getCollatingValue(change.key);
+
+    synchronized (rebuildKeyOwners) {
+      return rebuildKeyOwners.containsKey(key) && !change.value.equals(rebuildKeyOwners.get(key));
+    }
+  }
+
+  @Override
+  protected void onOnlineRebuildCompleted() {
+    synchronized (rebuildKeyOwners) {
+      rebuildKeyOwners.clear();
+    }
+  }
+
+  /**
+   * @return Owner of the key according to change log or, if key was not changed during online build, according to partially built
+   *         index.
+   */
+  private Object getRebuildKeyOwner(final Object key) {
+    if (rebuildKeyOwners.containsKey(key))
+      return rebuildKeyOwners.get(key);
+
+    acquireSharedLock();
+    try {
+      final OIdentifiable value = indexEngine.get(key);
+      return value != null ? value.getIdentity() : null;
+    } finally {
+      releaseSharedLock();
+    }
+  }
+
   @Override
   public boolean canBeUsedInEqualityOperators() {
     return true;
@@ -95,6 +198,26 @@ public class OIndexUnique extends OIndexOneValue {
     return indexEngine.hasRangeQuerySupport();
   }
 
+  @Override
+  protected OIdentifiable createBulkLoadValue(Object key, List<ORID> values) {
+    final ORID value = values.get(0);
+
+    for (ORID duplicate : values) {
+      if (!duplicate.equals(value)) {
+        final Boolean mergeSameKey = metadata != null ? (Boolean) metadata.field(OIndex.MERGE_KEYS) : Boolean.FALSE;
+        if (mergeSameKey != null && mergeSameKey)
+          // IGNORE IT, THE EXISTENT KEY HAS BEEN MERGED
+          break;
+
+        throw new ORecordDuplicatedException(String.format(
+            "Cannot index record %s: found duplicated key '%s' in index '%s' previously assigned to the record %s", duplicate, key,
+            getName(), value), value);
+      }
+    }
+
+    return value;
+  }
+
   @Override
   protected void putInSnapshot(Object key, OIdentifiable value, Map<Object, Object> snapshot) {
     key = getCollatingValue(key);
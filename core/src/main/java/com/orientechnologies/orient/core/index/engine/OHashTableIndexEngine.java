@@ -193,6 +193,21 @@ public final class OHashTableIndexEngine<V> implements OIndexEngine<V> {
     return false;
   }
 
+  @Override
+  public boolean hasBulkLoadSupport() {
+    return false;
+  }
+
+  @Override
+  public Object preprocessKey(Object key) {
+    return key;
+  }
+
+  @Override
+  public long bulkLoad(Iterator<? extends Map.Entry<Object, V>> entries) {
+    throw new UnsupportedOperationException("bulkLoad");
+  }
+
   @Override
   public OIndexCursor iterateEntriesBetween(Object rangeFrom, boolean fromInclusive, Object rangeTo, boolean toInclusive,
       boolean ascSortOrder, ValuesTransformer<V> transformer) {
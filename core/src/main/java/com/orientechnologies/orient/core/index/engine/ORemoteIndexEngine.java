@@ -19,6 +19,7 @@
   */
 package com.orientechnologies.orient.core.index.engine;
 
+import java.util.Iterator;
 import java.util.Map;
 
 import com.orientechnologies.orient.core.db.record.OIdentifiable;
@@ -140,6 +141,21 @@ public class ORemoteIndexEngine implements OIndexEngine {
     return false;
   }
 
+  @Override
+  public boolean hasBulkLoadSupport() {
+    return false;
+  }
+
+  @Override
+  public Object preprocessKey(Object key) {
+    return key;
+  }
+
+  @Override
+  public long bulkLoad(Iterator entries) {
+    throw new UnsupportedOperationException("bulkLoad");
+  }
+
   @Override
   public OIndexCursor cursor(ValuesTransformer valuesTransformer) {
     throw new UnsupportedOperationException("cursor");
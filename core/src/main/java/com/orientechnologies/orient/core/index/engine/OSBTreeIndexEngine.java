@@ -383,6 +383,31 @@ public class OSBTreeIndexEngine<V> extends OSharedResourceAdaptiveExternal imple
     return true;
   }
 
+  @Override
+  public boolean hasBulkLoadSupport() {
+    return true;
+  }
+
+  @Override
+  public Object preprocessKey(Object key) {
+    acquireSharedLock();
+    try {
+      return sbTree.preprocessKey(key);
+    } finally {
+      releaseSharedLock();
+    }
+  }
+
+  @Override
+  public long bulkLoad(Iterator<? extends Map.Entry<Object, V>> entries) {
+    acquireSharedLock();
+    try {
+      return sbTree.bulkLoad(entries, OGlobalConfiguration.SBTREE_BULK_LOAD_FILL_FACTOR.getValueAsFloat());
+    } finally {
+      releaseSharedLock();
+    }
+  }
+
   private ODatabaseDocumentInternal getDatabase() {
     return ODatabaseRecordThreadLocal.INSTANCE.get();
   }
@@ -170,6 +170,33 @@ public class OHashIndexBucket<K, V> extends ODurablePage implements Iterable<OHa
         + (MAX_BUCKET_SIZE_BYTES - getIntValue(FREE_POINTER_OFFSET));
   }
 
+  /**
+   * @return Size of content which is left in bucket after deletion of entry with given index.
+   */
+  public int getContentSizeAfterDeletion(int index) {
+    return getContentSize() - getEntrySize(index) - OIntegerSerializer.INT_SIZE;
+  }
+
+  /**
+   * Checks whether entry with given key and value can replace entry with given index, so bucket does not need to be split.
+   */
+  public boolean canReplaceEntry(int index, K key, V value) {
+    final int entreeSize = keySerializer.getObjectSize(key, (Object[]) keyTypes) + valueSerializer.getObjectSize(value)
+        + OLongSerializer.LONG_SIZE;
+    final int freePointer = getIntValue(FREE_POINTER_OFFSET) + getEntrySize(index);
+
+    return freePointer - entreeSize >= POSITIONS_ARRAY_OFFSET + size() * OIntegerSerializer.INT_SIZE;
+  }
+
+  private int getEntrySize(int index) {
+    final int entryPosition = getIntValue(POSITIONS_ARRAY_OFFSET + index * OIntegerSerializer.INT_SIZE);
+
+    final int keySize = getObjectSizeInDirectMemory(keySerializer, entryPosition + OLongSerializer.LONG_SIZE);
+    final int valueSize = getObjectSizeInDirectMemory(valueSerializer, entryPosition + keySize + OLongSerializer.LONG_SIZE);
+
+    return keySize + valueSize + OLongSerializer.LONG_SIZE;
+  }
+
   public int updateEntry(int index, V value) throws IOException {
     int entryPosition = getIntValue(POSITIONS_ARRAY_OFFSET + index * OIntegerSerializer.INT_SIZE);
     entryPosition += OLongSerializer.LONG_SIZE;
@@ -112,6 +112,9 @@ public class OLocalHashTable<K, V> extends ODurableComponent {
 
   public static final int                LEVEL_MASK          = Integer.MAX_VALUE >>> (31 - MAX_LEVEL_DEPTH);
 
+  private static final int               BUCKET_LOCKS_COUNT  = 64;
+  private static final Object            MERGE_REQUIRED      = new Object();
+
   private OAbstractPaginatedStorage      storage;
 
   private String                         name;
@@ -138,6 +141,9 @@ public class OLocalHashTable<K, V> extends ODurableComponent {
   private final boolean                  durableInNonTxMode;
   private final ODurablePage.TrackMode   trackMode;
 
+  private final Object[]                 bucketLocks         = new Object[BUCKET_LOCKS_COUNT];
+  private final Object                   sizeLock            = new Object();
+
   public OLocalHashTable(String metadataConfigurationFileExtension, String treeStateFileExtension, String bucketFileExtension,
       String nullBucketFileExtension, OHashFunction<K> keyHashFunction, boolean durableInNonTxMode, ODurablePage.TrackMode trackMode) {
     super(OGlobalConfiguration.ENVIRONMENT_CONCURRENT.getValueAsBoolean());
@@ -150,6 +156,9 @@ public class OLocalHashTable<K, V> extends ODurableComponent {
 
     this.comparator = new KeyHashCodeComparator<K>(this.keyHashFunction);
 
+    for (int i = 0; i < bucketLocks.length; i++)
+      bucketLocks[i] = new Object();
+
     if (trackMode == null)
       this.trackMode = ODurablePage.TrackMode.valueOf(OGlobalConfiguration.INDEX_TX_MODE.getValueAsString().toUpperCase());
     else
@@ -401,7 +410,7 @@ public class OLocalHashTable<K, V> extends ODurableComponent {
         long pageIndex = getPageIndex(bucketPointer);
         int fileLevel = getFileLevel(bucketPointer);
 
-        OCacheEntry cacheEntry = loadPageEntry(pageIndex, fileLevel);
+        OCacheEntry cacheEntry = loadPageForRead(pageIndex, fileLevel);
         try {
           final OHashIndexBucket<K, V> bucket = new OHashIndexBucket<K, V>(cacheEntry, keySerializer, valueSerializer, keyTypes,
               ODurablePage.TrackMode.NONE);
@@ -412,7 +421,7 @@ public class OLocalHashTable<K, V> extends ODurableComponent {
 
           return entry.value;
         } finally {
-          diskCache.release(cacheEntry);
+          releasePageForRead(cacheEntry);
         }
       }
     } catch (IOException e) {
@@ -423,6 +432,11 @@ public class OLocalHashTable<K, V> extends ODurableComponent {
   }
 
   public void put(K key, V value) {
+    // ENTRIES WHICH FIT IN THEIR BUCKET ARE ADDED UNDER SHARED LOCK, ATOMIC OPERATIONS WHICH SPAN SEVERAL COMPONENTS STILL USE
+    // EXCLUSIVE LOCK TO AVOID DEADLOCKS BETWEEN BUCKET AND RECORDS COUNTER LOCKS
+    if (key != null && !isInsideAtomicOperation() && putInBucket(key, value))
+      return;
+
     acquireExclusiveLock();
     try {
       startAtomicOperation();
@@ -445,7 +459,14 @@ public class OLocalHashTable<K, V> extends ODurableComponent {
     }
   }
 
+  @SuppressWarnings("unchecked")
   public V remove(K key) {
+    if (key != null && !isInsideAtomicOperation()) {
+      final Object removed = removeFromBucket(key);
+      if (removed != MERGE_REQUIRED)
+        return (V) removed;
+    }
+
     acquireExclusiveLock();
     try {
       startAtomicOperation();
@@ -538,6 +559,169 @@ public class OLocalHashTable<K, V> extends ODurableComponent {
     }
   }
 
+  /**
+   * Adds or updates entry under shared lock of hash table, so entries of different buckets can be changed concurrently. Directory of
+   * hash table is changed only under exclusive lock, so bucket can not be split or merged while it is changed.
+   *
+   * @return <code>false</code> if entry does not fit in bucket and bucket should be split, hash table is not changed in such case.
+   */
+  private boolean putInBucket(K key, V value) {
+    acquireSharedLock();
+    try {
+      startAtomicOperation();
+
+      key = keySerializer.preprocess(key, (Object[]) keyTypes);
+      final long hashCode = keyHashFunction.hashCode(key);
+
+      final BucketPath bucketPath = getBucket(hashCode);
+      final long bucketPointer = directory.getNodePointer(bucketPath.nodeIndex, bucketPath.itemIndex + bucketPath.hashMapOffset);
+      if (bucketPointer == 0)
+        throw new IllegalStateException("In this version of hash table buckets are added through split only.");
+
+      int sizeDiff = 0;
+
+      final OCacheEntry cacheEntry = loadBucketForUpdate(bucketPointer);
+      cacheEntry.acquireExclusiveLock();
+      try {
+        final OHashIndexBucket<K, V> bucket = new OHashIndexBucket<K, V>(cacheEntry, keySerializer, valueSerializer, keyTypes,
+            getTrackMode());
+        final int index = bucket.getIndex(hashCode, key);
+
+        if (index > -1) {
+          final int updateResult = bucket.updateEntry(index, value);
+          if (updateResult == 0) {
+            endAtomicOperation(false);
+            return true;
+          }
+
+          if (updateResult == -1) {
+            if (!bucket.canReplaceEntry(index, key, value)) {
+              endAtomicOperation(false);
+              return false;
+            }
+
+            bucket.deleteEntry(index);
+            bucket.addEntry(hashCode, key, value);
+          }
+        } else {
+          if (!bucket.addEntry(hashCode, key, value)) {
+            endAtomicOperation(false);
+            return false;
+          }
+
+          sizeDiff++;
+        }
+
+        cacheEntry.markDirty();
+        logPageChanges(bucket, cacheEntry.getFileId(), cacheEntry.getPageIndex(), false);
+      } finally {
+        cacheEntry.releaseExclusiveLock();
+        diskCache.release(cacheEntry);
+      }
+
+      changeSizeConcurrently(sizeDiff);
+
+      endAtomicOperation(false);
+      return true;
+    } catch (IOException e) {
+      rollback();
+      throw new OIndexException("Error during index update", e);
+    } catch (Throwable e) {
+      rollback();
+      throw new OStorageException(null, e);
+    } finally {
+      releaseSharedLock();
+    }
+  }
+
+  /**
+   * Removes entry under shared lock of hash table if bucket does not need to be merged with its neighbour after removal.
+   *
+   * @return Removed value or {@link #MERGE_REQUIRED} if bucket should be merged, hash table is not changed in such case.
+   */
+  private Object removeFromBucket(K key) {
+    acquireSharedLock();
+    try {
+      startAtomicOperation();
+
+      key = keySerializer.preprocess(key, (Object[]) keyTypes);
+      final long hashCode = keyHashFunction.hashCode(key);
+
+      final BucketPath bucketPath = getBucket(hashCode);
+      final long bucketPointer = directory.getNodePointer(bucketPath.nodeIndex, bucketPath.itemIndex + bucketPath.hashMapOffset);
+
+      final V removed;
+
+      final OCacheEntry cacheEntry = loadBucketForUpdate(bucketPointer);
+      cacheEntry.acquireExclusiveLock();
+      try {
+        final OHashIndexBucket<K, V> bucket = new OHashIndexBucket<K, V>(cacheEntry, keySerializer, valueSerializer, keyTypes,
+            getTrackMode());
+        final int positionIndex = bucket.getIndex(hashCode, key);
+        if (positionIndex < 0) {
+          endAtomicOperation(false);
+          return null;
+        }
+
+        // THE SAME CONDITIONS AS IN mergeBucketsAfterDeletion
+        if (bucket.getContentSizeAfterDeletion(positionIndex) <= OHashIndexBucket.MAX_BUCKET_SIZE_BYTES * MERGE_THRESHOLD
+            && bucket.getDepth() - MAX_LEVEL_DEPTH >= 1) {
+          endAtomicOperation(false);
+          return MERGE_REQUIRED;
+        }
+
+        removed = bucket.deleteEntry(positionIndex).value;
+
+        cacheEntry.markDirty();
+        logPageChanges(bucket, cacheEntry.getFileId(), cacheEntry.getPageIndex(), false);
+      } finally {
+        cacheEntry.releaseExclusiveLock();
+        diskCache.release(cacheEntry);
+      }
+
+      changeSizeConcurrently(-1);
+
+      endAtomicOperation(false);
+      return removed;
+    } catch (IOException e) {
+      rollback();
+      throw new OIndexException("Error during index removal", e);
+    } catch (Throwable e) {
+      rollback();
+      throw new OStorageException(null, e);
+    } finally {
+      releaseSharedLock();
+    }
+  }
+
+  /**
+   * Loads bucket which is going to be changed under shared lock of hash table. Bucket is locked till the end of atomic operation,
+   * otherwise rollback of its changes could revert changes of other operations done in the same page.
+   */
+  private OCacheEntry loadBucketForUpdate(long bucketPointer) throws IOException {
+    final long pageIndex = getPageIndex(bucketPointer);
+    final int fileLevel = getFileLevel(bucketPointer);
+
+    if (isInsideAtomicOperation())
+      lockTillAtomicOperationCompletes(bucketLocks[(int) ((pageIndex * 31 + fileLevel) & (BUCKET_LOCKS_COUNT - 1))]);
+
+    return loadPageEntry(pageIndex, fileLevel);
+  }
+
+  /**
+   * Changes records counter under shared lock of hash table. Counter is locked after bucket, so it is always locked the last and
+   * such locks can not be acquired in different order.
+   */
+  private void changeSizeConcurrently(int sizeDiff) throws IOException {
+    if (sizeDiff == 0)
+      return;
+
+    if (isInsideAtomicOperation())
+      lockTillAtomicOperationCompletes(sizeLock);
+
+    changeSize(sizeDiff);
+  }
+
   private void changeSize(int sizeDiff) throws IOException {
     if (sizeDiff != 0) {
       diskCache.loadPinnedPage(hashStateEntry);
@@ -614,7 +798,7 @@ public class OLocalHashTable<K, V> extends ODurableComponent {
       int fileLevel = getFileLevel(bucketPointer);
       long pageIndex = getPageIndex(bucketPointer);
 
-      OCacheEntry cacheEntry = loadPageEntry(pageIndex, fileLevel);
+      OCacheEntry cacheEntry = loadPageForRead(pageIndex, fileLevel);
       try {
         OHashIndexBucket<K, V> bucket = new OHashIndexBucket<K, V>(cacheEntry, keySerializer, valueSerializer, keyTypes,
             ODurablePage.TrackMode.NONE);
@@ -624,14 +808,14 @@ public class OLocalHashTable<K, V> extends ODurableComponent {
           if (bucketPath == null)
             return new OHashIndexBucket.Entry[0];
 
-          diskCache.release(cacheEntry);
+          releasePageForRead(cacheEntry);
 
           final long nextPointer = directory.getNodePointer(bucketPath.nodeIndex, bucketPath.itemIndex + bucketPath.hashMapOffset);
 
           fileLevel = getFileLevel(nextPointer);
           pageIndex = getPageIndex(nextPointer);
 
-          cacheEntry = loadPageEntry(pageIndex, fileLevel);
+          cacheEntry = loadPageForRead(pageIndex, fileLevel);
           bucket = new OHashIndexBucket<K, V>(cacheEntry, keySerializer, valueSerializer, keyTypes, ODurablePage.TrackMode.NONE);
         }
 
@@ -650,7 +834,7 @@ public class OLocalHashTable<K, V> extends ODurableComponent {
 
         return convertBucketToEntries(bucket, startIndex, endIndex);
       } finally {
-        diskCache.release(cacheEntry);
+        releasePageForRead(cacheEntry);
       }
     } catch (IOException ioe) {
       throw new OIndexException("Exception during data retrieval", ioe);
@@ -863,7 +1047,7 @@ public class OLocalHashTable<K, V> extends ODurableComponent {
       int fileLevel = getFileLevel(bucketPointer);
       long pageIndex = getPageIndex(bucketPointer);
 
-      OCacheEntry cacheEntry = loadPageEntry(pageIndex, fileLevel);
+      OCacheEntry cacheEntry = loadPageForRead(pageIndex, fileLevel);
       try {
         OHashIndexBucket<K, V> bucket = new OHashIndexBucket<K, V>(cacheEntry, keySerializer, valueSerializer, keyTypes,
             ODurablePage.TrackMode.NONE);
@@ -872,13 +1056,13 @@ public class OLocalHashTable<K, V> extends ODurableComponent {
           if (bucketPath == null)
             return new OHashIndexBucket.Entry[0];
 
-          diskCache.release(cacheEntry);
+          releasePageForRead(cacheEntry);
           final long nextPointer = directory.getNodePointer(bucketPath.nodeIndex, bucketPath.itemIndex + bucketPath.hashMapOffset);
 
           fileLevel = getFileLevel(nextPointer);
           pageIndex = getPageIndex(nextPointer);
 
-          cacheEntry = loadPageEntry(pageIndex, fileLevel);
+          cacheEntry = loadPageForRead(pageIndex, fileLevel);
           bucket = new OHashIndexBucket<K, V>(cacheEntry, keySerializer, valueSerializer, keyTypes, ODurablePage.TrackMode.NONE);
         }
 
@@ -892,7 +1076,7 @@ public class OLocalHashTable<K, V> extends ODurableComponent {
         final int endIndex = bucket.size();
         return convertBucketToEntries(bucket, startIndex, endIndex);
       } finally {
-        diskCache.release(cacheEntry);
+        releasePageForRead(cacheEntry);
       }
 
     } catch (IOException ioe) {
@@ -911,7 +1095,7 @@ public class OLocalHashTable<K, V> extends ODurableComponent {
       int fileLevel = getFileLevel(bucketPointer);
       long pageIndex = getPageIndex(bucketPointer);
 
-      OCacheEntry cacheEntry = loadPageEntry(pageIndex, fileLevel);
+      OCacheEntry cacheEntry = loadPageForRead(pageIndex, fileLevel);
       try {
         OHashIndexBucket<K, V> bucket = new OHashIndexBucket<K, V>(cacheEntry, keySerializer, valueSerializer, keyTypes,
             ODurablePage.TrackMode.NONE);
@@ -921,19 +1105,19 @@ public class OLocalHashTable<K, V> extends ODurableComponent {
           if (bucketPath == null)
             return null;
 
-          diskCache.release(cacheEntry);
+          releasePageForRead(cacheEntry);
           final long nextPointer = directory.getNodePointer(bucketPath.nodeIndex, bucketPath.itemIndex + bucketPath.hashMapOffset);
 
           fileLevel = getFileLevel(nextPointer);
           pageIndex = getPageIndex(nextPointer);
 
-          cacheEntry = loadPageEntry(pageIndex, fileLevel);
+          cacheEntry = loadPageForRead(pageIndex, fileLevel);
           bucket = new OHashIndexBucket<K, V>(cacheEntry, keySerializer, valueSerializer, keyTypes, ODurablePage.TrackMode.NONE);
         }
 
         return bucket.getEntry(0);
       } finally {
-        diskCache.release(cacheEntry);
+        releasePageForRead(cacheEntry);
       }
 
     } catch (IOException ioe) {
@@ -952,7 +1136,7 @@ public class OLocalHashTable<K, V> extends ODurableComponent {
       int fileLevel = getFileLevel(bucketPointer);
       long pageIndex = getPageIndex(bucketPointer);
 
-      OCacheEntry cacheEntry = loadPageEntry(pageIndex, fileLevel);
+      OCacheEntry cacheEntry = loadPageForRead(pageIndex, fileLevel);
       try {
         OHashIndexBucket<K, V> bucket = new OHashIndexBucket<K, V>(cacheEntry, keySerializer, valueSerializer, keyTypes,
             ODurablePage.TrackMode.NONE);
@@ -962,14 +1146,14 @@ public class OLocalHashTable<K, V> extends ODurableComponent {
           if (prevBucketPath == null)
             return null;
 
-          diskCache.release(cacheEntry);
+          releasePageForRead(cacheEntry);
           final long prevPointer = directory.getNodePointer(prevBucketPath.nodeIndex, prevBucketPath.itemIndex
               + prevBucketPath.hashMapOffset);
 
           fileLevel = getFileLevel(prevPointer);
           pageIndex = getPageIndex(prevPointer);
 
-          cacheEntry = loadPageEntry(pageIndex, fileLevel);
+          cacheEntry = loadPageForRead(pageIndex, fileLevel);
           bucket = new OHashIndexBucket<K, V>(cacheEntry, keySerializer, valueSerializer, keyTypes, ODurablePage.TrackMode.NONE);
 
           bucketPath = prevBucketPath;
@@ -977,7 +1161,7 @@ public class OLocalHashTable<K, V> extends ODurableComponent {
 
         return bucket.getEntry(bucket.size() - 1);
       } finally {
-        diskCache.release(cacheEntry);
+        releasePageForRead(cacheEntry);
       }
     } catch (IOException ioe) {
       throw new OIndexException("Exception during data read", ioe);
@@ -999,7 +1183,7 @@ public class OLocalHashTable<K, V> extends ODurableComponent {
       int fileLevel = getFileLevel(bucketPointer);
       long pageIndex = getPageIndex(bucketPointer);
 
-      OCacheEntry cacheEntry = loadPageEntry(pageIndex, fileLevel);
+      OCacheEntry cacheEntry = loadPageForRead(pageIndex, fileLevel);
       try {
         OHashIndexBucket<K, V> bucket = new OHashIndexBucket<K, V>(cacheEntry, keySerializer, valueSerializer, keyTypes,
             ODurablePage.TrackMode.NONE);
@@ -1008,7 +1192,7 @@ public class OLocalHashTable<K, V> extends ODurableComponent {
           if (prevBucketPath == null)
             return new OHashIndexBucket.Entry[0];
 
-          diskCache.release(cacheEntry);
+          releasePageForRead(cacheEntry);
 
           final long prevPointer = directory.getNodePointer(prevBucketPath.nodeIndex, prevBucketPath.itemIndex
               + prevBucketPath.hashMapOffset);
@@ -1016,7 +1200,7 @@ public class OLocalHashTable<K, V> extends ODurableComponent {
           fileLevel = getFileLevel(prevPointer);
           pageIndex = getPageIndex(prevPointer);
 
-          cacheEntry = loadPageEntry(pageIndex, fileLevel);
+          cacheEntry = loadPageForRead(pageIndex, fileLevel);
           bucket = new OHashIndexBucket<K, V>(cacheEntry, keySerializer, valueSerializer, keyTypes, ODurablePage.TrackMode.NONE);
 
           bucketPath = prevBucketPath;
@@ -1033,7 +1217,7 @@ public class OLocalHashTable<K, V> extends ODurableComponent {
 
         return convertBucketToEntries(bucket, startIndex, endIndex);
       } finally {
-        diskCache.release(cacheEntry);
+        releasePageForRead(cacheEntry);
       }
     } catch (IOException ioe) {
       throw new OIndexException("Exception during data read", ioe);
@@ -1055,7 +1239,7 @@ public class OLocalHashTable<K, V> extends ODurableComponent {
       int fileLevel = getFileLevel(bucketPointer);
       long pageIndex = getPageIndex(bucketPointer);
 
-      OCacheEntry cacheEntry = loadPageEntry(pageIndex, fileLevel);
+      OCacheEntry cacheEntry = loadPageForRead(pageIndex, fileLevel);
       try {
         OHashIndexBucket<K, V> bucket = new OHashIndexBucket<K, V>(cacheEntry, keySerializer, valueSerializer, keyTypes,
             ODurablePage.TrackMode.NONE);
@@ -1064,7 +1248,7 @@ public class OLocalHashTable<K, V> extends ODurableComponent {
           if (prevBucketPath == null)
             return new OHashIndexBucket.Entry[0];
 
-          diskCache.release(cacheEntry);
+          releasePageForRead(cacheEntry);
 
           final long prevPointer = directory.getNodePointer(prevBucketPath.nodeIndex, prevBucketPath.itemIndex
               + prevBucketPath.hashMapOffset);
@@ -1072,7 +1256,7 @@ public class OLocalHashTable<K, V> extends ODurableComponent {
           fileLevel = getFileLevel(prevPointer);
           pageIndex = getPageIndex(prevPointer);
 
-          cacheEntry = loadPageEntry(pageIndex, fileLevel);
+          cacheEntry = loadPageForRead(pageIndex, fileLevel);
 
           bucket = new OHashIndexBucket<K, V>(cacheEntry, keySerializer, valueSerializer, keyTypes, ODurablePage.TrackMode.NONE);
 
@@ -1090,7 +1274,7 @@ public class OLocalHashTable<K, V> extends ODurableComponent {
 
         return convertBucketToEntries(bucket, startIndex, endIndex);
       } finally {
-        diskCache.release(cacheEntry);
+        releasePageForRead(cacheEntry);
       }
     } catch (IOException ioe) {
       throw new OIndexException("Exception during data read", ioe);
@@ -1194,11 +1378,13 @@ public class OLocalHashTable<K, V> extends ODurableComponent {
     acquireSharedLock();
     try {
       diskCache.loadPinnedPage(hashStateEntry);
+      hashStateEntry.acquireSharedLock();
       try {
         OHashIndexFileLevelMetadataPage metadataPage = new OHashIndexFileLevelMetadataPage(hashStateEntry,
             ODurablePage.TrackMode.NONE, false);
         return metadataPage.getRecordsCount();
       } finally {
+        hashStateEntry.releaseSharedLock();
         diskCache.release(hashStateEntry);
       }
     } catch (IOException e) {
@@ -2072,6 +2258,20 @@ public class OLocalHashTable<K, V> extends ODurableComponent {
     return (int) (bucketPointer & 0xFF);
   }
 
+  /**
+   * Loads bucket page and acquires shared latch on it, buckets may be changed by other threads under shared lock of hash table.
+   */
+  private OCacheEntry loadPageForRead(long pageIndex, int fileLevel) throws IOException {
+    final OCacheEntry cacheEntry = loadPageEntry(pageIndex, fileLevel);
+    cacheEntry.acquireSharedLock();
+    return cacheEntry;
+  }
+
+  private void releasePageForRead(OCacheEntry cacheEntry) {
+    cacheEntry.releaseSharedLock();
+    diskCache.release(cacheEntry);
+  }
+
   private OCacheEntry loadPageEntry(long pageIndex, int fileLevel) throws IOException {
     final long fileId;
     diskCache.loadPinnedPage(hashStateEntry);
@@ -21,8 +21,11 @@ package com.orientechnologies.orient.core.index.hashindex.local.cache;
 
 import com.orientechnologies.orient.core.command.OCommandOutputListener;
 import com.orientechnologies.orient.core.storage.impl.local.paginated.wal.ODirtyPage;
+import com.orientechnologies.orient.core.storage.impl.local.paginated.wal.OLogSequenceNumber;
 
 import java.io.IOException;
+import java.util.Collection;
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -72,6 +75,14 @@ public interface ODiskCache {
 
   OCacheEntry load(long fileId, long pageIndex, boolean checkPinnedPages) throws IOException;
 
+  /**
+   * Creates read ahead for single reader of file, reader should notify it about each page which it is going to load.
+   *
+   * @return Read ahead which loads pages of file in background if sequential access is detected, or
+   *         {@link OPageReadAhead#DISABLED} if cache does not support read ahead.
+   */
+  OPageReadAhead readAhead(long fileId);
+
   void pinPage(OCacheEntry cacheEntry) throws IOException;
 
   void loadPinnedPage(OCacheEntry cacheEntry) throws IOException;
@@ -110,6 +121,27 @@ public interface ODiskCache {
 
   Set<ODirtyPage> logDirtyPagesTable() throws IOException;
 
+  /**
+   * Flushes passed in pages if they are still present in write cache.
+   *
+   * @return Pages which were not flushed because they were in use, caller should try to flush them later.
+   */
+  Set<ODirtyPage> flushDirtyPages(Collection<ODirtyPage> dirtyPages) throws IOException;
+
+  /**
+   * @return Names and ids of all files which are handled by cache.
+   */
+  Map<String, Long> files();
+
+  /**
+   * Finds pages of file which were changed after passed in LSN, pages are not loaded in cache to be checked.
+   *
+   * @param lsn
+   *          LSN after which pages were changed, all pages of file are returned if it is <code>null</code>.
+   * @return Sorted indexes of changed pages, pages which are changed in cache but are not flushed yet are returned too.
+   */
+  long[] findChangedPages(long fileId, OLogSequenceNumber lsn) throws IOException;
+
   boolean isOpen(long fileId);
 
   boolean exists(String name);
@@ -0,0 +1,122 @@
+/*
+ *
+ *  *  Copyright 2014 Orient Technologies LTD (info(at)orientechnologies.com)
+ *  *
+ *  *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  *  you may not use this file except in compliance with the License.
+ *  *  You may obtain a copy of the License at
+ *  *
+ *  *       http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *  Unless required by applicable law or agreed to in writing, software
+ *  *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *  See the License for the specific language governing permissions and
+ *  *  limitations under the License.
+ *  *
+ *  * For more information: http://www.orientechnologies.com
+ *
+ */
+
+package com.orientechnologies.orient.core.index.hashindex.local.cache;
+
+import com.orientechnologies.orient.core.config.OGlobalConfiguration;
+
+/**
+ * Detects sequential access to the pages of single file and asks disk cache to load pages which follow the last accessed one in
+ * background. Reader calls {@link #pageRead(long)} before each load of page from {@link ODiskCache}, pages may be accessed both
+ * in forward and backward direction.
+ *
+ * Amount of pages which are read ahead starts from {@link #INITIAL_WINDOW} and is doubled, up to the value of
+ * {@link OGlobalConfiguration#DISK_CACHE_READ_AHEAD_PAGES}, each time reader reaches the second half of pages which are read
+ * ahead. As soon as sequence of pages is broken read ahead is stopped and window size is reset.
+ *
+ * Instance is used by single cursor or iterator and is not thread safe.
+ *
+ * @see ODiskCache#readAhead(long)
+ */
+public class OPageReadAhead {
+  /**
+   * Instance which does nothing, it is returned by caches which do not support read ahead.
+   */
+  public static final OPageReadAhead DISABLED           = new OPageReadAhead(null, -1, 0);
+
+  static final int                   INITIAL_WINDOW     = 4;
+
+  /**
+   * Amount of adjacent pages which should be accessed in the same direction till read ahead is started.
+   */
+  private static final int           SEQUENCE_THRESHOLD = 2;
+
+  private final OReadAheadPrefetcher prefetcher;
+  private final long                 fileId;
+  private final int                  maxWindow;
+
+  private long                       lastPage           = -1;
+  private int                        direction;
+  private int                        sequenceLength;
+
+  /**
+   * Size of the last requested portion of pages, 0 if nothing is read ahead.
+   */
+  private int                        window;
+  private long                       firstPrefetchedPage;
+  private long                       lastPrefetchedPage;
+
+  OPageReadAhead(final OReadAheadPrefetcher prefetcher, final long fileId, final int maxWindow) {
+    this.prefetcher = prefetcher;
+    this.fileId = fileId;
+    this.maxWindow = maxWindow;
+  }
+
+  /**
+   * Notifies that page is going to be loaded by reader.
+   */
+  public void pageRead(final long pageIndex) {
+    if (prefetcher == null || pageIndex == lastPage)
+      return;
+
+    if (window > 0 && isPrefetched(pageIndex))
+      prefetcher.hit();
+
+    final long step = pageIndex - lastPage;
+    if (lastPage >= 0 && (step == 1 || step == -1)) {
+      if (step != direction) {
+        direction = (int) step;
+        sequenceLength = 1;
+        window = 0;
+      } else
+        sequenceLength++;
+    } else {
+      direction = 0;
+      sequenceLength = 0;
+      window = 0;
+    }
+
+    lastPage = pageIndex;
+
+    if (sequenceLength < SEQUENCE_THRESHOLD)
+      return;
+
+    if (window == 0) {
+      window = Math.min(INITIAL_WINDOW, maxWindow);
+      firstPrefetchedPage = pageIndex + direction;
+      prefetch(firstPrefetchedPage);
+    } else if ((lastPrefetchedPage - pageIndex) * direction < window / 2) {
+      window = Math.min(window * 2, maxWindow);
+      prefetch(lastPrefetchedPage + direction);
+    }
+  }
+
+  private void prefetch(final long startPage) {
+    lastPrefetchedPage = startPage + (long) (window - 1) * direction;
+    prefetcher.prefetch(fileId, startPage, window, direction);
+  }
+
+  private boolean isPrefetched(final long pageIndex) {
+    if (direction > 0)
+      return pageIndex >= firstPrefetchedPage && pageIndex <= lastPrefetchedPage;
+
+    return pageIndex <= firstPrefetchedPage && pageIndex >= lastPrefetchedPage;
+  }
+}
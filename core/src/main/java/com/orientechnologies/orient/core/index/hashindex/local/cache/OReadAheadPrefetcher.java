@@ -0,0 +1,197 @@
+/*
+ *
+ *  *  Copyright 2014 Orient Technologies LTD (info(at)orientechnologies.com)
+ *  *
+ *  *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  *  you may not use this file except in compliance with the License.
+ *  *  You may obtain a copy of the License at
+ *  *
+ *  *       http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *  Unless required by applicable law or agreed to in writing, software
+ *  *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *  See the License for the specific language governing permissions and
+ *  *  limitations under the License.
+ *  *
+ *  * For more information: http://www.orientechnologies.com
+ *
+ */
+
+package com.orientechnologies.orient.core.index.hashindex.local.cache;
+
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.orientechnologies.common.exception.OException;
+import com.orientechnologies.common.log.OLogManager;
+import com.orientechnologies.common.profiler.OAbstractProfiler.OProfilerHookValue;
+import com.orientechnologies.common.profiler.OProfilerMBean;
+import com.orientechnologies.common.profiler.OProfilerMBean.METRIC_TYPE;
+import com.orientechnologies.orient.core.Orient;
+import com.orientechnologies.orient.core.config.OGlobalConfiguration;
+
+/**
+ * Loads pages requested by {@link OPageReadAhead} instances of single disk cache in background. All requests are served by single
+ * daemon thread which is stopped when it is idle, if queue of requests is full new requests are dropped, so read ahead never
+ * slows down reader itself.
+ *
+ * @see OPageReadAhead
+ */
+final class OReadAheadPrefetcher {
+  /**
+   * Loads single page into the cache if it is absent there.
+   */
+  interface PageLoader {
+    /**
+     * @return <code>true</code> if page was read from disk and added to the cache.
+     */
+    boolean prefetchPage(long fileId, long pageIndex) throws IOException;
+  }
+
+  private static final int         MAX_QUEUED_REQUESTS = 256;
+
+  private final PageLoader         pageLoader;
+  private final int                maxWindow;
+  private final ThreadPoolExecutor executor;
+
+  private volatile boolean         closed;
+
+  private final AtomicLong         requestedPages      = new AtomicLong();
+  private final AtomicLong         loadedPages         = new AtomicLong();
+  private final AtomicLong         hitPages            = new AtomicLong();
+
+  private OReadAheadPrefetcher(final String storageName, final PageLoader pageLoader, final int maxWindow) {
+    this.pageLoader = pageLoader;
+    this.maxWindow = maxWindow;
+
+    executor = new ThreadPoolExecutor(1, 1, 60, TimeUnit.SECONDS, new ArrayBlockingQueue<Runnable>(MAX_QUEUED_REQUESTS),
+        new ThreadFactory() {
+          @Override
+          public Thread newThread(Runnable r) {
+            final Thread thread = new Thread(r);
+            thread.setDaemon(true);
+            thread.setName("OrientDB Read Ahead (" + storageName + ")");
+            return thread;
+          }
+        }, new ThreadPoolExecutor.DiscardPolicy());
+    executor.allowCoreThreadTimeOut(true);
+
+    if (storageName != null)
+      initProfiler(storageName);
+  }
+
+  /**
+   * @return Prefetcher which serves given cache or <code>null</code> if read ahead is switched off by
+   *         {@link OGlobalConfiguration#DISK_CACHE_READ_AHEAD_PAGES}.
+   */
+  static OReadAheadPrefetcher create(final String storageName, final PageLoader pageLoader) {
+    final int maxWindow = OGlobalConfiguration.DISK_CACHE_READ_AHEAD_PAGES.getValueAsInteger();
+    if (maxWindow <= 0)
+      return null;
+
+    return new OReadAheadPrefetcher(storageName, pageLoader, maxWindow);
+  }
+
+  static OPageReadAhead readAhead(final OReadAheadPrefetcher prefetcher, final long fileId) {
+    if (prefetcher == null)
+      return OPageReadAhead.DISABLED;
+
+    return new OPageReadAhead(prefetcher, fileId, prefetcher.maxWindow);
+  }
+
+  /**
+   * Schedules load of <code>count</code> pages starting from <code>startPage</code> in given direction.
+   */
+  void prefetch(final long fileId, final long startPage, final int count, final int direction) {
+    if (closed)
+      return;
+
+    executor.execute(new Runnable() {
+      @Override
+      public void run() {
+        requestedPages.addAndGet(count);
+
+        for (int i = 0; i < count && !closed; i++) {
+          final long pageIndex = startPage + (long) i * direction;
+          if (pageIndex < 0)
+            break;
+
+          try {
+            if (pageLoader.prefetchPage(fileId, pageIndex))
+              loadedPages.incrementAndGet();
+          } catch (Exception e) {
+            OLogManager.instance().debug(this, "Page " + pageIndex + " of file " + fileId + " can not be read ahead", e);
+            break;
+          }
+        }
+      }
+    });
+  }
+
+  void hit() {
+    hitPages.incrementAndGet();
+  }
+
+  long getRequestedPages() {
+    return requestedPages.get();
+  }
+
+  long getLoadedPages() {
+    return loadedPages.get();
+  }
+
+  long getHitPages() {
+    return hitPages.get();
+  }
+
+  /**
+   * Stops background thread, should be called before cache content is cleared.
+   */
+  void shutdown() {
+    closed = true;
+    executor.shutdown();
+
+    try {
+      if (!executor.awaitTermination(5, TimeUnit.MINUTES))
+        throw new OException("Background read ahead task can not be stopped.");
+    } catch (InterruptedException e) {
+      OLogManager.instance().error(this, "Read ahead thread was interrupted");
+
+      Thread.interrupted();
+      throw new OException("Read ahead thread was interrupted", e);
+    }
+  }
+
+  private void initProfiler(final String storageName) {
+    final OProfilerMBean profiler = Orient.instance().getProfiler();
+
+    profiler.registerHookValue(profiler.getDatabaseMetric(storageName, "diskCache.readAheadPages"),
+        "Pages requested to be read ahead by Disk Cache", METRIC_TYPE.COUNTER, new OProfilerHookValue() {
+          @Override
+          public Object getValue() {
+            return requestedPages.get();
+          }
+        }, profiler.getDatabaseMetric(null, "diskCache.readAheadPages"));
+
+    profiler.registerHookValue(profiler.getDatabaseMetric(storageName, "diskCache.readAheadLoadedPages"),
+        "Pages read from disk by read ahead of Disk Cache", METRIC_TYPE.COUNTER, new OProfilerHookValue() {
+          @Override
+          public Object getValue() {
+            return loadedPages.get();
+          }
+        }, profiler.getDatabaseMetric(null, "diskCache.readAheadLoadedPages"));
+
+    profiler.registerHookValue(profiler.getDatabaseMetric(storageName, "diskCache.readAheadHits"),
+        "Read ahead pages which were accessed by readers of Disk Cache", METRIC_TYPE.COUNTER, new OProfilerHookValue() {
+          @Override
+          public Object getValue() {
+            return hitPages.get();
+          }
+        }, profiler.getDatabaseMetric(null, "diskCache.readAheadHits"));
+  }
+}
@@ -44,6 +44,7 @@ import com.orientechnologies.orient.core.exception.OStorageException;
 import com.orientechnologies.orient.core.storage.impl.local.paginated.OLocalPaginatedStorage;
 import com.orientechnologies.orient.core.storage.impl.local.paginated.base.ODurablePage;
 import com.orientechnologies.orient.core.storage.impl.local.paginated.wal.ODirtyPage;
+import com.orientechnologies.orient.core.storage.impl.local.paginated.wal.OLogSequenceNumber;
 import com.orientechnologies.orient.core.storage.impl.local.paginated.wal.OWriteAheadLog;
 
 /**
@@ -80,6 +81,8 @@ public class OReadWriteDiskCache implements ODiskCache {
 
   private final AtomicBoolean                         coldPagesRemovalInProgress = new AtomicBoolean();
 
+  private final OReadAheadPrefetcher                  readAheadPrefetcher;
+
   private static String                               METRIC_HITS;
   private static String                               METRIC_HITS_METADATA;
   private static String                               METRIC_MISSED;
@@ -117,6 +120,13 @@ public class OReadWriteDiskCache implements ODiskCache {
       am = new ConcurrentLRUList();
       a1out = new ConcurrentLRUList();
       a1in = new ConcurrentLRUList();
+
+      readAheadPrefetcher = OReadAheadPrefetcher.create(storageName, new OReadAheadPrefetcher.PageLoader() {
+        @Override
+        public boolean prefetchPage(long fileId, long pageIndex) throws IOException {
+          return OReadWriteDiskCache.this.prefetchPage(fileId, pageIndex);
+        }
+      });
     } finally {
       cacheLock.releaseWriteLock();
     }
@@ -316,6 +326,61 @@ public class OReadWriteDiskCache implements ODiskCache {
     return new UpdateCacheResult(removeColdPages, cacheEntry);
   }
 
+  @Override
+  public OPageReadAhead readAhead(final long fileId) {
+    return OReadAheadPrefetcher.readAhead(readAheadPrefetcher, fileId);
+  }
+
+  /**
+   * Loads page which is read ahead into a1in queue without acquiring it. Page is skipped if it is already in cache or if it was
+   * recently removed from a1in queue, so read ahead does not change state of the pages which were really accessed.
+   *
+   * @return <code>true</code> if page was read from disk.
+   */
+  private boolean prefetchPage(final long fileId, final long pageIndex) throws IOException {
+    Lock fileLock;
+    Lock pageLock;
+
+    cacheLock.acquireReadLock();
+    try {
+      fileLock = fileLockManager.acquireSharedLock(fileId);
+      try {
+        if (!writeCache.isOpen(fileId) || pageIndex >= writeCache.getFilledUpTo(fileId))
+          return false;
+
+        pageLock = pageLockManager.acquireExclusiveLock(new PageKey(fileId, pageIndex));
+        try {
+          if (pinnedPages.containsKey(new PinnedPage(fileId, pageIndex)) || get(fileId, pageIndex, true) != null)
+            return false;
+
+          final OCachePointer dataPointer = writeCache.load(fileId, pageIndex);
+
+          final OCacheEntry cacheEntry = new OCacheEntry(fileId, pageIndex, dataPointer, false);
+          a1in.putToMRU(cacheEntry);
+
+          Set<Long> pages = filePages.get(fileId);
+          if (pages == null) {
+            pages = Collections.newSetFromMap(new ConcurrentHashMap<Long, Boolean>());
+            final Set<Long> oldPages = filePages.putIfAbsent(fileId, pages);
+            if (oldPages != null)
+              pages = oldPages;
+          }
+
+          pages.add(pageIndex);
+        } finally {
+          pageLockManager.releaseLock(pageLock);
+        }
+      } finally {
+        fileLockManager.releaseLock(fileLock);
+      }
+    } finally {
+      cacheLock.releaseReadLock();
+    }
+
+    removeColdestPagesIfNeeded();
+    return true;
+  }
+
   @Override
   public OCacheEntry allocateNewPage(final long fileId) throws IOException {
     UpdateCacheResult cacheResult;
@@ -589,6 +654,9 @@ public class OReadWriteDiskCache implements ODiskCache {
 
   @Override
   public void close() throws IOException {
+    if (readAheadPrefetcher != null)
+      readAheadPrefetcher.shutdown();
+
     cacheLock.acquireWriteLock();
     try {
       clear();
@@ -876,8 +944,26 @@ public class OReadWriteDiskCache implements ODiskCache {
     return writeCache.logDirtyPagesTable();
   }
 
+  @Override
+  public Set<ODirtyPage> flushDirtyPages(Collection<ODirtyPage> dirtyPages) throws IOException {
+    return writeCache.flushDirtyPages(dirtyPages);
+  }
+
+  @Override
+  public Map<String, Long> files() {
+    return writeCache.files();
+  }
+
+  @Override
+  public long[] findChangedPages(long fileId, OLogSequenceNumber lsn) throws IOException {
+    return writeCache.findChangedPages(fileId, lsn);
+  }
+
   @Override
   public void delete() throws IOException {
+    if (readAheadPrefetcher != null)
+      readAheadPrefetcher.shutdown();
+
     cacheLock.acquireWriteLock();
     try {
       writeCache.delete();
@@ -0,0 +1,926 @@
+/*
+ *
+ *  *  Copyright 2014 Orient Technologies LTD (info(at)orientechnologies.com)
+ *  *
+ *  *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  *  you may not use this file except in compliance with the License.
+ *  *  You may obtain a copy of the License at
+ *  *
+ *  *       http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *  Unless required by applicable law or agreed to in writing, software
+ *  *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *  See the License for the specific language governing permissions and
+ *  *  limitations under the License.
+ *  *
+ *  * For more information: http://www.orientechnologies.com
+ *
+ */
+
+package com.orientechnologies.orient.core.index.hashindex.local.cache;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.orientechnologies.common.concur.lock.ONewLockManager;
+import com.orientechnologies.common.exception.OException;
+import com.orientechnologies.common.log.OLogManager;
+import com.orientechnologies.common.profiler.OAbstractProfiler.OProfilerHookValue;
+import com.orientechnologies.common.profiler.OProfilerMBean;
+import com.orientechnologies.common.profiler.OProfilerMBean.METRIC_TYPE;
+import com.orientechnologies.orient.core.Orient;
+import com.orientechnologies.orient.core.command.OCommandOutputListener;
+import com.orientechnologies.orient.core.config.OGlobalConfiguration;
+import com.orientechnologies.orient.core.exception.OAllCacheEntriesAreUsedException;
+import com.orientechnologies.orient.core.exception.OStorageException;
+import com.orientechnologies.orient.core.storage.impl.local.paginated.OLocalPaginatedStorage;
+import com.orientechnologies.orient.core.storage.impl.local.paginated.base.ODurablePage;
+import com.orientechnologies.orient.core.storage.impl.local.paginated.wal.ODirtyPage;
+import com.orientechnologies.orient.core.storage.impl.local.paginated.wal.OLogSequenceNumber;
+import com.orientechnologies.orient.core.storage.impl.local.paginated.wal.OWriteAheadLog;
+
+/**
+ * Read cache which is split on segments by hash of file id and page index. Each segment has its own lock and its own CLOCK
+ * eviction policy, so page loads do not serialize on single cache lock as it happens in {@link OReadWriteDiskCache}.
+ *
+ * Pages which are already in cache are found without any segment lock, only usage counter of found page is changed under monitor
+ * of the page itself. Segment lock is acquired only if page is absent in the cache, in such case it is loaded from
+ * {@link OWOWCache} and one of the pages of this segment which is not used and was not accessed since previous pass of the clock
+ * hand is removed.
+ *
+ * Cache is used instead of 2Q cache if {@link OGlobalConfiguration#DISK_CACHE_TYPE} is set to "striped".
+ *
+ * @see OReadWriteDiskCache
+ */
+public class OStripedDiskCache implements ODiskCache {
+  public static final String                        TYPE             = "striped";
+
+  private static final int                          MIN_SEGMENT_SIZE = 16;
+
+  private final OWOWCache                           writeCache;
+  private final int                                 pageSize;
+  private final String                              storageName;
+
+  private final Segment[]                           segments;
+  private final int                                 segmentMask;
+  private final AtomicInteger                       cacheSize        = new AtomicInteger();
+  private volatile int                              maxSize;
+
+  /**
+   * Contains all pages in cache for given file.
+   */
+  private final ConcurrentMap<Long, Set<Long>>      filePages        = new ConcurrentHashMap<Long, Set<Long>>();
+  private final ConcurrentMap<PageKey, OCacheEntry> pinnedPages      = new ConcurrentHashMap<PageKey, OCacheEntry>();
+
+  private final Lock                                fileOpenLock     = new ReentrantLock();
+  private final ONewLockManager                     fileLockManager  = new ONewLockManager(true);
+
+  private final OReadAheadPrefetcher                readAheadPrefetcher;
+
+  private String                                    METRIC_HITS;
+  private String                                    METRIC_HITS_METADATA;
+  private String                                    METRIC_MISSED;
+  private String                                    METRIC_MISSED_METADATA;
+
+  public OStripedDiskCache(final String storageName, final long readCacheMaxMemory, final long writeCacheMaxMemory,
+      final int pageSize, final long writeGroupTTL, final int pageFlushInterval, final OLocalPaginatedStorage storageLocal,
+      final OWriteAheadLog writeAheadLog, final boolean syncOnPageFlush, final boolean checkMinSize) {
+    this.storageName = storageName;
+    this.pageSize = pageSize;
+
+    int maxSize = normalizeMemory(readCacheMaxMemory, pageSize);
+    if (checkMinSize && maxSize < OReadWriteDiskCache.MIN_CACHE_SIZE)
+      maxSize = OReadWriteDiskCache.MIN_CACHE_SIZE;
+
+    this.maxSize = maxSize;
+
+    this.writeCache = new OWOWCache(syncOnPageFlush, pageSize, writeGroupTTL, writeAheadLog, pageFlushInterval, normalizeMemory(
+        writeCacheMaxMemory, pageSize), storageLocal, checkMinSize);
+
+    final int segmentsCount = segmentsCount(maxSize);
+    segmentMask = segmentsCount - 1;
+    segments = new Segment[segmentsCount];
+
+    final int segmentSize = Math.max(1, (maxSize + segmentsCount - 1) / segmentsCount);
+    for (int i = 0; i < segmentsCount; i++)
+      segments[i] = new Segment(segmentSize);
+
+    initProfiler();
+
+    readAheadPrefetcher = OReadAheadPrefetcher.create(storageName, new OReadAheadPrefetcher.PageLoader() {
+      @Override
+      public boolean prefetchPage(long fileId, long pageIndex) throws IOException {
+        return OStripedDiskCache.this.prefetchPage(fileId, pageIndex);
+      }
+    });
+  }
+
+  @Override
+  public long openFile(final String fileName) throws IOException {
+    fileOpenLock.lock();
+    try {
+      long fileId = writeCache.isOpen(fileName);
+      if (fileId >= 0)
+        return fileId;
+
+      fileId = writeCache.openFile(fileName);
+      filePages.put(fileId, Collections.newSetFromMap(new ConcurrentHashMap<Long, Boolean>()));
+
+      return fileId;
+    } finally {
+      fileOpenLock.unlock();
+    }
+  }
+
+  @Override
+  public void openFile(final long fileId) throws IOException {
+    final Lock fileLock = fileLockManager.acquireExclusiveLock(fileId);
+    try {
+      if (writeCache.isOpen(fileId))
+        return;
+
+      writeCache.openFile(fileId);
+      filePages.put(fileId, Collections.newSetFromMap(new ConcurrentHashMap<Long, Boolean>()));
+    } finally {
+      fileLockManager.releaseLock(fileLock);
+    }
+  }
+
+  @Override
+  public void openFile(final String fileName, final long fileId) throws IOException {
+    fileOpenLock.lock();
+    try {
+      long existingFileId = writeCache.isOpen(fileName);
+
+      if (fileId == existingFileId)
+        return;
+      else if (existingFileId >= 0)
+        throw new OStorageException("File with given name already exists but has different id " + existingFileId + " vs. proposed "
+            + fileId);
+
+      writeCache.openFile(fileName, fileId);
+      filePages.put(fileId, Collections.newSetFromMap(new ConcurrentHashMap<Long, Boolean>()));
+    } finally {
+      fileOpenLock.unlock();
+    }
+  }
+
+  @Override
+  public OCacheEntry load(final long fileId, final long pageIndex, final boolean checkPinnedPages) throws IOException {
+    final Lock fileLock = fileLockManager.acquireSharedLock(fileId);
+    try {
+      return doLoad(fileId, pageIndex, checkPinnedPages);
+    } finally {
+      fileLockManager.releaseLock(fileLock);
+    }
+  }
+
+  @Override
+  public OPageReadAhead readAhead(final long fileId) {
+    return OReadAheadPrefetcher.readAhead(readAheadPrefetcher, fileId);
+  }
+
+  @Override
+  public void pinPage(final OCacheEntry cacheEntry) throws IOException {
+    final Lock fileLock = fileLockManager.acquireSharedLock(cacheEntry.fileId);
+    try {
+      final PageKey pageKey = new PageKey(cacheEntry.fileId, cacheEntry.pageIndex);
+      final Segment segment = segment(pageKey);
+
+      segment.lock.lock();
+      try {
+        segment.remove(pageKey);
+        pinnedPages.put(pageKey, cacheEntry);
+      } finally {
+        segment.lock.unlock();
+      }
+    } finally {
+      fileLockManager.releaseLock(fileLock);
+    }
+  }
+
+  @Override
+  public void loadPinnedPage(final OCacheEntry cacheEntry) throws IOException {
+    final Lock fileLock = fileLockManager.acquireSharedLock(cacheEntry.fileId);
+    try {
+      synchronized (cacheEntry) {
+        cacheEntry.usagesCount++;
+      }
+    } finally {
+      fileLockManager.releaseLock(fileLock);
+    }
+  }
+
+  @Override
+  public OCacheEntry allocateNewPage(final long fileId) throws IOException {
+    final Lock fileLock = fileLockManager.acquireExclusiveLock(fileId);
+    try {
+      final long filledUpTo = getFilledUpTo(fileId);
+      return doLoad(fileId, filledUpTo, false);
+    } finally {
+      fileLockManager.releaseLock(fileLock);
+    }
+  }
+
+  @Override
+  public void release(final OCacheEntry cacheEntry) {
+    Future<?> flushFuture = null;
+
+    final Lock fileLock = fileLockManager.acquireSharedLock(cacheEntry.fileId);
+    try {
+      synchronized (cacheEntry) {
+        cacheEntry.usagesCount--;
+
+        assert cacheEntry.usagesCount >= 0;
+
+        if (cacheEntry.usagesCount == 0 && cacheEntry.isDirty) {
+          flushFuture = writeCache.store(cacheEntry.fileId, cacheEntry.pageIndex, cacheEntry.dataPointer);
+          cacheEntry.isDirty = false;
+        }
+      }
+    } finally {
+      fileLockManager.releaseLock(fileLock);
+    }
+
+    if (flushFuture != null) {
+      try {
+        flushFuture.get();
+      } catch (InterruptedException e) {
+        Thread.interrupted();
+        throw new OException("File flush was interrupted", e);
+      } catch (Exception e) {
+        throw new OException("File flush was abnormally terminated", e);
+      }
+    }
+  }
+
+  @Override
+  public long getFilledUpTo(final long fileId) throws IOException {
+    return writeCache.getFilledUpTo(fileId);
+  }
+
+  @Override
+  public void flushFile(final long fileId) throws IOException {
+    writeCache.flush(fileId);
+  }
+
+  @Override
+  public void closeFile(final long fileId) throws IOException {
+    closeFile(fileId, true);
+  }
+
+  @Override
+  public void closeFile(final long fileId, final boolean flush) throws IOException {
+    final Lock fileLock = fileLockManager.acquireExclusiveLock(fileId);
+    try {
+      writeCache.close(fileId, flush);
+
+      final Set<Long> pageIndexes = filePages.get(fileId);
+      if (pageIndexes == null)
+        return;
+
+      for (Long pageIndex : pageIndexes) {
+        final OCacheEntry cacheEntry = removePage(fileId, pageIndex, true);
+        if (cacheEntry == null)
+          throw new OStorageException("Page with index " + pageIndex + " for file with id " + fileId + " was not found in cache");
+      }
+
+      pageIndexes.clear();
+    } finally {
+      fileLockManager.releaseLock(fileLock);
+    }
+  }
+
+  @Override
+  public void deleteFile(final long fileId) throws IOException {
+    final Lock fileLock = fileLockManager.acquireExclusiveLock(fileId);
+    try {
+      if (isOpen(fileId))
+        truncateFile(fileId);
+
+      writeCache.deleteFile(fileId);
+      filePages.remove(fileId);
+    } finally {
+      fileLockManager.releaseLock(fileLock);
+    }
+  }
+
+  @Override
+  public void renameFile(final long fileId, final String oldFileName, final String newFileName) throws IOException {
+    final Lock fileLock = fileLockManager.acquireExclusiveLock(fileId);
+    try {
+      writeCache.renameFile(fileId, oldFileName, newFileName);
+    } finally {
+      fileLockManager.releaseLock(fileLock);
+    }
+  }
+
+  @Override
+  public void truncateFile(final long fileId) throws IOException {
+    final Lock fileLock = fileLockManager.acquireExclusiveLock(fileId);
+    try {
+      writeCache.truncateFile(fileId);
+
+      final Set<Long> pageIndexes = filePages.get(fileId);
+      if (pageIndexes == null)
+        return;
+
+      for (Long pageIndex : pageIndexes) {
+        final OCacheEntry cacheEntry = removePage(fileId, pageIndex, false);
+        if (cacheEntry == null)
+          throw new OStorageException("Page with index " + pageIndex + " was  not found in cache for file with id " + fileId);
+      }
+
+      pageIndexes.clear();
+    } finally {
+      fileLockManager.releaseLock(fileLock);
+    }
+  }
+
+  @Override
+  public boolean wasSoftlyClosed(final long fileId) throws IOException {
+    return writeCache.wasSoftlyClosed(fileId);
+  }
+
+  @Override
+  public void setSoftlyClosed(final long fileId, final boolean softlyClosed) throws IOException {
+    writeCache.setSoftlyClosed(fileId, softlyClosed);
+  }
+
+  @Override
+  public void setSoftlyClosed(final boolean softlyClosed) throws IOException {
+    writeCache.setSoftlyClosed(softlyClosed);
+  }
+
+  @Override
+  public void flushBuffer() throws IOException {
+    writeCache.flush();
+  }
+
+  public void clear() throws IOException {
+    writeCache.flush();
+
+    clearCacheContent();
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (readAheadPrefetcher != null)
+      readAheadPrefetcher.shutdown();
+
+    clear();
+    writeCache.close();
+  }
+
+  @Override
+  public void delete() throws IOException {
+    if (readAheadPrefetcher != null)
+      readAheadPrefetcher.shutdown();
+
+    writeCache.delete();
+
+    clearCacheContent();
+  }
+
+  @Override
+  public OPageDataVerificationError[] checkStoredPages(final OCommandOutputListener commandOutputListener) {
+    return writeCache.checkStoredPages(commandOutputListener);
+  }
+
+  @Override
+  public Set<ODirtyPage> logDirtyPagesTable() throws IOException {
+    return writeCache.logDirtyPagesTable();
+  }
+
+  @Override
+  public Set<ODirtyPage> flushDirtyPages(Collection<ODirtyPage> dirtyPages) throws IOException {
+    return writeCache.flushDirtyPages(dirtyPages);
+  }
+
+  @Override
+  public Map<String, Long> files() {
+    return writeCache.files();
+  }
+
+  @Override
+  public long[] findChangedPages(long fileId, OLogSequenceNumber lsn) throws IOException {
+    return writeCache.findChangedPages(fileId, lsn);
+  }
+
+  @Override
+  public boolean isOpen(final long fileId) {
+    return writeCache.isOpen(fileId);
+  }
+
+  @Override
+  public boolean exists(final String name) {
+    return writeCache.exists(name);
+  }
+
+  @Override
+  public boolean exists(final long fileId) {
+    return writeCache.exists(fileId);
+  }
+
+  @Override
+  public String fileNameById(final long fileId) {
+    return writeCache.fileNameById(fileId);
+  }
+
+  @Override
+  public void lock() throws IOException {
+    writeCache.lock();
+  }
+
+  @Override
+  public void unlock() throws IOException {
+    writeCache.unlock();
+  }
+
+  @Override
+  public void addLowDiskSpaceListener(final OWOWCache.LowDiskSpaceListener listener) {
+    writeCache.addLowDiskSpaceListener(listener);
+  }
+
+  @Override
+  public void removeLowDiskSpaceListener(final OWOWCache.LowDiskSpaceListener listener) {
+    writeCache.removeLowDiskSpaceListener(listener);
+  }
+
+  @Override
+  public long getUsedMemory() {
+    return ((long) cacheSize.get() + writeCache.getAllocatedPages()) * (2 * ODurablePage.PAGE_PADDING + pageSize);
+  }
+
+  int getMaxSize() {
+    return maxSize;
+  }
+
+  int getSize() {
+    return cacheSize.get();
+  }
+
+  int getSegmentsCount() {
+    return segments.length;
+  }
+
+  private OCacheEntry doLoad(final long fileId, final long pageIndex, final boolean checkPinnedPages) throws IOException {
+    final PageKey pageKey = new PageKey(fileId, pageIndex);
+
+    if (checkPinnedPages) {
+      final OCacheEntry pinnedEntry = pinnedPages.get(pageKey);
+      if (pinnedEntry != null) {
+        synchronized (pinnedEntry) {
+          pinnedEntry.usagesCount++;
+        }
+
+        return pinnedEntry;
+      }
+    }
+
+    final OProfilerMBean profiler = storageName != null ? Orient.instance().getProfiler() : null;
+    final long startTime = storageName != null ? System.currentTimeMillis() : 0;
+
+    final Segment segment = segment(pageKey);
+
+    // fast path, page is acquired without segment lock
+    ClockEntry clockEntry = segment.entries.get(pageKey);
+    if (clockEntry != null && clockEntry.acquire()) {
+      if (profiler != null && profiler.isRecording())
+        profiler.stopChrono(METRIC_HITS, "Requested item was found in Disk Cache", startTime, METRIC_HITS_METADATA);
+
+      return clockEntry.cacheEntry;
+    }
+
+    segment.lock.lock();
+    try {
+      clockEntry = segment.entries.get(pageKey);
+      if (clockEntry != null && clockEntry.acquire())
+        return clockEntry.cacheEntry;
+
+      if (profiler != null && profiler.isRecording())
+        profiler.stopChrono(METRIC_MISSED, "Requested item was not found in Disk Cache", startTime, METRIC_MISSED_METADATA);
+
+      segment.evictIfNeeded(true);
+
+      final OCachePointer dataPointer = writeCache.load(fileId, pageIndex);
+      final OCacheEntry cacheEntry = new OCacheEntry(fileId, pageIndex, dataPointer, false);
+      cacheEntry.usagesCount = 1;
+
+      segment.add(pageKey, new ClockEntry(cacheEntry));
+      addFilePage(fileId, pageIndex);
+
+      return cacheEntry;
+    } finally {
+      segment.lock.unlock();
+    }
+  }
+
+  /**
+   * Loads page which is read ahead without acquiring it, so it is the first candidate for eviction till it is accessed by reader.
+   * Cache is never enlarged to hold page which is read ahead, page is skipped instead.
+   *
+   * @return <code>true</code> if page was read from disk.
+   */
+  private boolean prefetchPage(final long fileId, final long pageIndex) throws IOException {
+    final Lock fileLock = fileLockManager.acquireSharedLock(fileId);
+    try {
+      if (!writeCache.isOpen(fileId) || pageIndex >= writeCache.getFilledUpTo(fileId))
+        return false;
+
+      final PageKey pageKey = new PageKey(fileId, pageIndex);
+      if (pinnedPages.containsKey(pageKey))
+        return false;
+
+      final Segment segment = segment(pageKey);
+      if (segment.entries.containsKey(pageKey))
+        return false;
+
+      segment.lock.lock();
+      try {
+        if (segment.entries.containsKey(pageKey) || !segment.evictIfNeeded(false))
+          return false;
+
+        final OCachePointer dataPointer = writeCache.load(fileId, pageIndex);
+        final OCacheEntry cacheEntry = new OCacheEntry(fileId, pageIndex, dataPointer, false);
+
+        segment.add(pageKey, new ClockEntry(cacheEntry));
+        addFilePage(fileId, pageIndex);
+
+        return true;
+      } finally {
+        segment.lock.unlock();
+      }
+    } finally {
+      fileLockManager.releaseLock(fileLock);
+    }
+  }
+
+  private void addFilePage(final long fileId, final long pageIndex) {
+    Set<Long> pages = filePages.get(fileId);
+    if (pages == null) {
+      pages = Collections.newSetFromMap(new ConcurrentHashMap<Long, Boolean>());
+      final Set<Long> oldPages = filePages.putIfAbsent(fileId, pages);
+      if (oldPages != null)
+        pages = oldPages;
+    }
+
+    pages.add(pageIndex);
+  }
+
+  /**
+   * Removes page from the cache and frees its memory. Should be called under exclusive lock of the file.
+   *
+   * @param failIfUsed
+   *          If <code>true</code> exception is thrown if page is used, otherwise used page is left in the cache.
+   * @return Removed or left entry or <code>null</code> if page is absent in the cache.
+   */
+  private OCacheEntry removePage(final long fileId, final long pageIndex, final boolean failIfUsed) {
+    final PageKey pageKey = new PageKey(fileId, pageIndex);
+    final Segment segment = segment(pageKey);
+
+    segment.lock.lock();
+    try {
+      OCacheEntry cacheEntry;
+      final ClockEntry clockEntry = segment.entries.get(pageKey);
+      if (clockEntry != null)
+        cacheEntry = clockEntry.cacheEntry;
+      else
+        cacheEntry = pinnedPages.get(pageKey);
+
+      if (cacheEntry == null)
+        return null;
+
+      synchronized (cacheEntry) {
+        if (cacheEntry.usagesCount > 0) {
+          if (failIfUsed)
+            throw new OStorageException("Page with index " + pageIndex + " for file with id " + fileId
+                + " can not be freed because it is used.");
+
+          return cacheEntry;
+        }
+
+        if (clockEntry != null)
+          segment.remove(pageKey);
+        else
+          pinnedPages.remove(pageKey);
+
+        freePage(cacheEntry);
+      }
+
+      return cacheEntry;
+    } finally {
+      segment.lock.unlock();
+    }
+  }
+
+  private void clearCacheContent() {
+    for (Segment segment : segments) {
+      segment.lock.lock();
+      try {
+        for (ClockEntry clockEntry : segment.entries.values()) {
+          final OCacheEntry cacheEntry = clockEntry.cacheEntry;
+          synchronized (cacheEntry) {
+            if (cacheEntry.usagesCount > 0)
+              throw new OStorageException("Page with index " + cacheEntry.pageIndex + " for file id " + cacheEntry.fileId
+                  + " is used and can not be removed");
+
+            freePage(cacheEntry);
+          }
+        }
+
+        cacheSize.addAndGet(-segment.entries.size());
+        segment.clear();
+      } finally {
+        segment.lock.unlock();
+      }
+    }
+
+    for (OCacheEntry pinnedEntry : pinnedPages.values()) {
+      synchronized (pinnedEntry) {
+        if (pinnedEntry.usagesCount > 0)
+          throw new OStorageException("Page with index " + pinnedEntry.pageIndex + " for file with id " + pinnedEntry.fileId
+              + "can not be freed because it is used.");
+
+        freePage(pinnedEntry);
+      }
+    }
+
+    pinnedPages.clear();
+
+    for (Set<Long> pages : filePages.values())
+      pages.clear();
+  }
+
+  private static void freePage(final OCacheEntry cacheEntry) {
+    if (cacheEntry.dataPointer != null) {
+      cacheEntry.dataPointer.decrementReferrer();
+      cacheEntry.dataPointer = null;
+    }
+  }
+
+  private void increaseCacheSize(final Segment segment) {
+    final String message = "All pages in segment of striped disk cache are used!";
+    OLogManager.instance().warn(this, message);
+    if (OGlobalConfiguration.SERVER_CACHE_INCREASE_ON_DEMAND.getValueAsBoolean()) {
+      OLogManager.instance().warn(this, "Cache size will be increased.");
+
+      final int newSegmentSize = (int) Math.ceil(segment.maxSize
+          * (1 + OGlobalConfiguration.SERVER_CACHE_INCREASE_STEP.getValueAsFloat()));
+      final int diff = Math.max(newSegmentSize - segment.maxSize, 1);
+
+      segment.maxSize += diff;
+      maxSize += diff;
+    } else {
+      throw new OAllCacheEntriesAreUsedException(message);
+    }
+  }
+
+  private Segment segment(final PageKey pageKey) {
+    int hash = pageKey.hashCode();
+    hash ^= (hash >>> 20) ^ (hash >>> 12);
+    hash ^= (hash >>> 7) ^ (hash >>> 4);
+
+    return segments[hash & segmentMask];
+  }
+
+  private static int segmentsCount(final int maxSize) {
+    final int maxSegments = Math.max(1, maxSize / MIN_SEGMENT_SIZE);
+    final int requestedSegments = Math.min(Runtime.getRuntime().availableProcessors() * 4, maxSegments);
+
+    int segmentsCount = 1;
+    while (segmentsCount * 2 <= requestedSegments)
+      segmentsCount *= 2;
+
+    return segmentsCount;
+  }
+
+  private static int normalizeMemory(final long maxSize, final int pageSize) {
+    long tmpMaxSize = maxSize / (pageSize + 2 * OWOWCache.PAGE_PADDING);
+    if (tmpMaxSize >= Integer.MAX_VALUE) {
+      return Integer.MAX_VALUE;
+    } else {
+      return (int) tmpMaxSize;
+    }
+  }
+
+  private void initProfiler() {
+    if (storageName != null) {
+      final OProfilerMBean profiler = Orient.instance().getProfiler();
+
+      METRIC_HITS = profiler.getDatabaseMetric(storageName, "diskCache.hits");
+      METRIC_HITS_METADATA = profiler.getDatabaseMetric(null, "diskCache.hits");
+      METRIC_MISSED = profiler.getDatabaseMetric(storageName, "diskCache.missed");
+      METRIC_MISSED_METADATA = profiler.getDatabaseMetric(null, "diskCache.missed");
+
+      profiler.registerHookValue(profiler.getDatabaseMetric(storageName, "diskCache.totalMemory"),
+          "Total memory used by Disk Cache", METRIC_TYPE.SIZE, new OProfilerHookValue() {
+            @Override
+            public Object getValue() {
+              return (long) cacheSize.get() * pageSize;
+            }
+          }, profiler.getDatabaseMetric(null, "diskCache.totalMemory"));
+
+      profiler.registerHookValue(profiler.getDatabaseMetric(storageName, "diskCache.maxMemory"),
+          "Maximum memory used by Disk Cache", METRIC_TYPE.SIZE, new OProfilerHookValue() {
+            @Override
+            public Object getValue() {
+              return (long) maxSize * pageSize;
+            }
+          }, profiler.getDatabaseMetric(null, "diskCache.maxMemory"));
+    }
+  }
+
+  /**
+   * Part of the cache which contains pages with the same hash of page key. Map of entries may be read without lock, but all
+   * modifications of segment are performed under segment lock.
+   */
+  private final class Segment {
+    private final ReentrantLock                       lock    = new ReentrantLock();
+    private final ConcurrentMap<PageKey, ClockEntry> entries = new ConcurrentHashMap<PageKey, ClockEntry>();
+
+    /**
+     * Clock hand, points to the next candidate for eviction in the circular list of entries.
+     */
+    private ClockEntry                                hand;
+    private int                                       maxSize;
+
+    private Segment(int maxSize) {
+      this.maxSize = maxSize;
+    }
+
+    private void add(PageKey pageKey, ClockEntry clockEntry) {
+      entries.put(pageKey, clockEntry);
+
+      if (hand == null) {
+        clockEntry.next = clockEntry;
+        clockEntry.prev = clockEntry;
+        hand = clockEntry;
+      } else {
+        // new entry is inserted just behind of the hand so it will be checked last
+        clockEntry.next = hand;
+        clockEntry.prev = hand.prev;
+        hand.prev.next = clockEntry;
+        hand.prev = clockEntry;
+      }
+
+      cacheSize.incrementAndGet();
+    }
+
+    private ClockEntry remove(PageKey pageKey) {
+      final ClockEntry clockEntry = entries.remove(pageKey);
+      if (clockEntry == null)
+        return null;
+
+      unlink(clockEntry);
+      cacheSize.decrementAndGet();
+
+      return clockEntry;
+    }
+
+    private void unlink(ClockEntry clockEntry) {
+      if (clockEntry.next == clockEntry) {
+        hand = null;
+      } else {
+        clockEntry.prev.next = clockEntry.next;
+        clockEntry.next.prev = clockEntry.prev;
+
+        if (hand == clockEntry)
+          hand = clockEntry.next;
+      }
+
+      clockEntry.next = null;
+      clockEntry.prev = null;
+    }
+
+    private void clear() {
+      entries.clear();
+      hand = null;
+    }
+
+    /**
+     * Removes pages till there is a room for new one. Page which is used or was accessed since previous pass of the clock hand is
+     * skipped, in the latter case its reference flag is cleared.
+     *
+     * @param increaseIfNeeded
+     *          If <code>true</code> segment is enlarged when all its pages are used, otherwise <code>false</code> is returned.
+     * @return <code>true</code> if there is a room for new page.
+     */
+    private boolean evictIfNeeded(boolean increaseIfNeeded) {
+      while (entries.size() >= maxSize) {
+        final int entriesToCheck = 2 * entries.size();
+
+        boolean evicted = false;
+        for (int i = 0; i < entriesToCheck && !evicted; i++) {
+          final ClockEntry candidate = hand;
+          hand = candidate.next;
+
+          if (candidate.referenced) {
+            candidate.referenced = false;
+            continue;
+          }
+
+          final OCacheEntry cacheEntry = candidate.cacheEntry;
+          synchronized (cacheEntry) {
+            if (cacheEntry.usagesCount > 0)
+              continue;
+
+            assert !cacheEntry.isDirty;
+
+            freePage(cacheEntry);
+          }
+
+          remove(new PageKey(cacheEntry.fileId, cacheEntry.pageIndex));
+
+          final Set<Long> pages = filePages.get(cacheEntry.fileId);
+          if (pages != null)
+            pages.remove(cacheEntry.pageIndex);
+
+          evicted = true;
+        }
+
+        if (!evicted) {
+          if (!increaseIfNeeded)
+            return false;
+
+          increaseCacheSize(this);
+        }
+      }
+
+      return true;
+    }
+  }
+
+  private static final class ClockEntry {
+    private final OCacheEntry cacheEntry;
+    private volatile boolean  referenced;
+
+    private ClockEntry        next;
+    private ClockEntry        prev;
+
+    private ClockEntry(OCacheEntry cacheEntry) {
+      this.cacheEntry = cacheEntry;
+    }
+
+    /**
+     * Increments usage counter of page if it was not removed from the cache concurrently.
+     *
+     * @return <code>true</code> if page is acquired.
+     */
+    private boolean acquire() {
+      synchronized (cacheEntry) {
+        if (cacheEntry.dataPointer == null)
+          return false;
+
+        cacheEntry.usagesCount++;
+      }
+
+      referenced = true;
+      return true;
+    }
+  }
+
+  private static final class PageKey {
+    private final long fileId;
+    private final long pageIndex;
+
+    private PageKey(long fileId, long pageIndex) {
+      this.fileId = fileId;
+      this.pageIndex = pageIndex;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o)
+        return true;
+      if (o == null || getClass() != o.getClass())
+        return false;
+
+      PageKey pageKey = (PageKey) o;
+
+      if (fileId != pageKey.fileId)
+        return false;
+      if (pageIndex != pageKey.pageIndex)
+        return false;
+
+      return true;
+    }
+
+    @Override
+    public int hashCode() {
+      int result = (int) (fileId ^ (fileId >>> 32));
+      result = 31 * result + (int) (pageIndex ^ (pageIndex >>> 32));
+      return result;
+    }
+  }
+}
@@ -46,8 +46,13 @@ import java.io.File;
 import java.io.IOException;
 import java.io.RandomAccessFile;
 import java.lang.ref.WeakReference;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
@@ -76,6 +81,17 @@ public class OWOWCache {
 
   public static final long                                  MAGIC_NUMBER            = 0xFACB03FEL;
 
+  /**
+   * Direct buffers which are used to transfer pages between files and cache memory without allocation of heap arrays.
+   */
+  private static final ThreadLocal<PageTransferBuffer>      PAGE_TRANSFER_BUFFER    = new ThreadLocal<PageTransferBuffer>();
+
+  /**
+   * <code>CRC32.update(ByteBuffer)</code> is available since Java 8 only, if it is absent page content is copied to the heap
+   * array to calculate CRC.
+   */
+  private static final Method                               CRC_UPDATE_BY_BUFFER    = findCrcUpdateByBuffer();
+
   private final long                                        freeSpaceLimit          = (OGlobalConfiguration.DISK_CACHE_FREE_SPACE_LIMIT
                                                                                         .getValueAsLong() + OGlobalConfiguration.WAL_MAX_SIZE
                                                                                         .getValueAsLong()) * 1024L * 1024L;
@@ -219,7 +235,11 @@ public class OWOWCache {
     });
   }
 
-  private static int calculatePageCrc(byte[] pageData) {
+  /**
+   * Calculates CRC of page content which is stored on disk, the first bytes of page which contain magic number and CRC itself are
+   * not taken into account.
+   */
+  public static int calculatePageCrc(byte[] pageData) {
     int systemSize = OLongSerializer.LONG_SIZE + OIntegerSerializer.INT_SIZE;
 
     final CRC32 crc32 = new CRC32();
@@ -228,6 +248,51 @@ public class OWOWCache {
     return (int) crc32.getValue();
   }
 
+  private static int calculatePageCrc(PageTransferBuffer transferBuffer) {
+    final int systemSize = OLongSerializer.LONG_SIZE + OIntegerSerializer.INT_SIZE;
+    final ByteBuffer pageData = transferBuffer.buffer;
+
+    final CRC32 crc32 = new CRC32();
+    pageData.position(systemSize);
+
+    if (CRC_UPDATE_BY_BUFFER != null) {
+      try {
+        CRC_UPDATE_BY_BUFFER.invoke(crc32, pageData);
+        return (int) crc32.getValue();
+      } catch (Exception e) {
+        throw new OStorageException("Error during calculation of page CRC", e);
+      }
+    }
+
+    final byte[] content = transferBuffer.content();
+    final int length = pageData.remaining();
+    pageData.get(content, 0, length);
+    crc32.update(content, 0, length);
+
+    return (int) crc32.getValue();
+  }
+
+  private static Method findCrcUpdateByBuffer() {
+    try {
+      return CRC32.class.getMethod("update", ByteBuffer.class);
+    } catch (NoSuchMethodException e) {
+      return null;
+    }
+  }
+
+  private PageTransferBuffer pageTransferBuffer() {
+    PageTransferBuffer transferBuffer = PAGE_TRANSFER_BUFFER.get();
+    if (transferBuffer == null || transferBuffer.buffer.capacity() < pageSize) {
+      transferBuffer = new PageTransferBuffer(pageSize);
+      PAGE_TRANSFER_BUFFER.set(transferBuffer);
+    }
+
+    transferBuffer.buffer.clear();
+    transferBuffer.buffer.limit(pageSize);
+
+    return transferBuffer;
+  }
+
   public long openFile(String fileName) throws IOException {
     filesLock.acquireWriteLock();
     try {
@@ -453,6 +518,99 @@ public class OWOWCache {
     return cacheSize.get();
   }
 
+  public Map<String, Long> files() {
+    filesLock.acquireReadLock();
+    try {
+      final Map<String, Long> result = new HashMap<String, Long>();
+      for (Map.Entry<String, Long> entry : nameIdMap.entrySet()) {
+        if (files.containsKey(entry.getValue()))
+          result.put(entry.getKey(), entry.getValue());
+      }
+
+      return result;
+    } finally {
+      filesLock.releaseReadLock();
+    }
+  }
+
+  /**
+   * Finds pages which LSN is bigger than passed in one. LSNs of pages which are not flushed yet are read from write cache, LSNs of
+   * the rest of pages are read from disk, so pages are not loaded into cache.
+   */
+  public long[] findChangedPages(long fileId, OLogSequenceNumber lsn) throws IOException {
+    filesLock.acquireReadLock();
+    try {
+      final OFileClassic fileClassic = files.get(fileId);
+      final long pagesCount = fileClassic.getFilledUpTo() / pageSize;
+
+      final byte[] lsnContent = new byte[2 * OLongSerializer.LONG_SIZE];
+      final ByteBuffer lsnBuffer = ByteBuffer.wrap(lsnContent);
+
+      long[] pages = new long[16];
+      int size = 0;
+
+      for (long pageIndex = 0; pageIndex < pagesCount; pageIndex++) {
+        boolean changed = lsn == null;
+
+        if (!changed) {
+          OLogSequenceNumber pageLSN = getWriteCachePageLSN(fileId, pageIndex);
+
+          if (pageLSN == null) {
+            lsnBuffer.clear();
+            fileClassic.read(pageIndex * pageSize + ODurablePage.WAL_SEGMENT_OFFSET, lsnBuffer);
+
+            pageLSN = new OLogSequenceNumber(OLongSerializer.INSTANCE.deserializeNative(lsnContent, 0),
+                OLongSerializer.INSTANCE.deserializeNative(lsnContent, OLongSerializer.LONG_SIZE));
+          }
+
+          changed = pageLSN.compareTo(lsn) > 0;
+        }
+
+        if (changed) {
+          if (size == pages.length) {
+            final long[] newPages = new long[pages.length << 1];
+            System.arraycopy(pages, 0, newPages, 0, size);
+            pages = newPages;
+          }
+
+          pages[size++] = pageIndex;
+        }
+      }
+
+      final long[] result = new long[size];
+      System.arraycopy(pages, 0, result, 0, size);
+      return result;
+    } finally {
+      filesLock.releaseReadLock();
+    }
+  }
+
+  private OLogSequenceNumber getWriteCachePageLSN(long fileId, long pageIndex) {
+    final GroupKey groupKey = new GroupKey(fileId, pageIndex >>> 4);
+    Lock groupLock = lockManager.acquireSharedLock(groupKey);
+    try {
+      final WriteGroup writeGroup = writeGroups.get(groupKey);
+      if (writeGroup == null)
+        return null;
+
+      final OCachePointer pagePointer = writeGroup.pages[(int) (pageIndex & 15)];
+      if (pagePointer == null)
+        return null;
+
+      // PAGE IS CHANGED RIGHT NOW, SO IT IS TREATED AS THE NEWEST ONE
+      if (!pagePointer.tryAcquireSharedLock())
+        return new OLogSequenceNumber(Long.MAX_VALUE, Long.MAX_VALUE);
+
+      try {
+        return ODurablePage.getLogSequenceNumberFromPage(pagePointer.getDataPointer());
+      } finally {
+        pagePointer.releaseSharedLock();
+      }
+    } finally {
+      lockManager.releaseLock(groupLock);
+    }
+  }
+
   public boolean isOpen(long fileId) {
     filesLock.acquireReadLock();
     try {
@@ -634,6 +792,24 @@ public class OWOWCache {
     }
   }
 
+  /**
+   * Flushes write groups which contain passed in pages. Pages are flushed by background flush thread, so they are not flushed
+   * concurrently with periodic flush. Pages which are not present in write cache any more are skipped.
+   *
+   * @return Pages which were not flushed because they were locked by other threads during flush.
+   */
+  public Set<ODirtyPage> flushDirtyPages(Collection<ODirtyPage> dirtyPages) {
+    final Future<Set<ODirtyPage>> future = commitExecutor.submit(new DirtyPagesFlushTask(dirtyPages));
+    try {
+      return future.get();
+    } catch (InterruptedException e) {
+      Thread.interrupted();
+      throw new OException("Flush of dirty pages was interrupted", e);
+    } catch (Exception e) {
+      throw new OException("Flush of dirty pages was abnormally terminated", e);
+    }
+  }
+
   public void close(long fileId, boolean flush) throws IOException {
     filesLock.acquireWriteLock();
     try {
@@ -904,26 +1080,37 @@ public class OWOWCache {
     final long startPosition = pageIndex * pageSize;
     final long endPosition = startPosition + pageSize;
 
-    byte[] content = new byte[pageSize + 2 * PAGE_PADDING];
     OCachePointer dataPointer;
     final OFileClassic fileClassic = files.get(fileId);
 
     if (fileClassic == null)
       throw new IllegalArgumentException("File with id " + fileId + " not found in WOW Cache");
 
-    if (fileClassic.getFilledUpTo() >= endPosition) {
-      fileClassic.read(startPosition, content, content.length - 2 * PAGE_PADDING, PAGE_PADDING);
-      final ODirectMemoryPointer pointer = new ODirectMemoryPointer(content);
+    final long space;
+    // PAGES WHICH FOLLOW THE END OF FILE MAY BE LOADED BY SEVERAL THREADS AT ONCE, SO FILE IS ENLARGED ONLY BY MISSED SPACE
+    synchronized (fileClassic) {
+      final long filledUpTo = fileClassic.getFilledUpTo();
+      space = filledUpTo >= endPosition ? 0 : endPosition - filledUpTo;
+      if (space > 0)
+        fileClassic.allocateSpace(space);
+    }
+
+    if (space == 0) {
+      final ByteBuffer buffer = pageTransferBuffer().buffer;
+      fileClassic.read(startPosition, buffer);
+      buffer.flip();
+
+      final ODirectMemoryPointer pointer = new ODirectMemoryPointer(pageSize + 2 * PAGE_PADDING);
+      pointer.setLong(0, 0);
+      pointer.set(PAGE_PADDING, buffer, pageSize);
+      pointer.setLong(PAGE_PADDING + pageSize, 0);
 
       final OLogSequenceNumber storedLSN = ODurablePage.getLogSequenceNumberFromPage(pointer);
       dataPointer = new OCachePointer(pointer, storedLSN);
     } else {
-      final int space = (int) (endPosition - fileClassic.getFilledUpTo());
-      fileClassic.allocateSpace(space);
-
       addAllocatedSpace(space);
 
-      final ODirectMemoryPointer pointer = new ODirectMemoryPointer(content);
+      final ODirectMemoryPointer pointer = new ODirectMemoryPointer(new byte[pageSize + 2 * PAGE_PADDING]);
       dataPointer = new OCachePointer(pointer, new OLogSequenceNumber(0, -1));
     }
 
@@ -938,14 +1125,18 @@ public class OWOWCache {
         writeAheadLog.flush();
     }
 
-    final byte[] content = dataPointer.get(PAGE_PADDING, pageSize);
-    OLongSerializer.INSTANCE.serializeNative(MAGIC_NUMBER, content, 0);
+    final PageTransferBuffer transferBuffer = pageTransferBuffer();
+    final ByteBuffer content = transferBuffer.buffer;
+
+    dataPointer.get(PAGE_PADDING, content, pageSize);
+    content.putLong(0, MAGIC_NUMBER);
 
-    final int crc32 = calculatePageCrc(content);
-    OIntegerSerializer.INSTANCE.serializeNative(crc32, content, OLongSerializer.LONG_SIZE);
+    final int crc32 = calculatePageCrc(transferBuffer);
+    content.putInt(OLongSerializer.LONG_SIZE, crc32);
 
     final OFileClassic fileClassic = files.get(fileId);
 
+    content.rewind();
     final long spaceDiff = fileClassic.write(pageIndex * pageSize, content);
 
     assert spaceDiff >= 0;
@@ -956,6 +1147,22 @@ public class OWOWCache {
       fileClassic.synch();
   }
 
+  private static final class PageTransferBuffer {
+    private final ByteBuffer buffer;
+    private byte[]           content;
+
+    private PageTransferBuffer(int pageSize) {
+      buffer = ByteBuffer.allocateDirect(pageSize).order(ByteOrder.nativeOrder());
+    }
+
+    private byte[] content() {
+      if (content == null || content.length < buffer.capacity())
+        content = new byte[buffer.capacity()];
+
+      return content;
+    }
+  }
+
   private static final class NameFileIdEntry {
     private final String name;
     private final long   fileId;
@@ -1225,6 +1432,84 @@ public class OWOWCache {
     }
   }
 
+  private final class DirtyPagesFlushTask implements Callable<Set<ODirtyPage>> {
+    private final Collection<ODirtyPage> dirtyPages;
+
+    private DirtyPagesFlushTask(Collection<ODirtyPage> dirtyPages) {
+      this.dirtyPages = dirtyPages;
+    }
+
+    @Override
+    public Set<ODirtyPage> call() throws Exception {
+      final Map<String, Long> fileIds = new HashMap<String, Long>();
+      for (Map.Entry<Long, OFileClassic> entry : files.entrySet())
+        fileIds.put(entry.getValue().getName(), entry.getKey());
+
+      final Set<ODirtyPage> notFlushedPages = new HashSet<ODirtyPage>();
+      final Set<Long> flushedFiles = new HashSet<Long>();
+
+      for (ODirtyPage dirtyPage : dirtyPages) {
+        final Long fileId = fileIds.get(dirtyPage.getFileName());
+        // FILE WAS DELETED AFTER DIRTY PAGES TABLE WAS LOGGED
+        if (fileId == null)
+          continue;
+
+        if (flushWriteGroup(new GroupKey(fileId, dirtyPage.getPageIndex() >>> 4)))
+          flushedFiles.add(fileId);
+        else
+          notFlushedPages.add(dirtyPage);
+      }
+
+      for (long fileId : flushedFiles) {
+        final OFileClassic fileClassic = files.get(fileId);
+        if (fileClassic != null)
+          fileClassic.synch();
+      }
+
+      return notFlushedPages;
+    }
+
+    private boolean flushWriteGroup(GroupKey groupKey) throws IOException {
+      Lock groupLock = lockManager.acquireExclusiveLock(groupKey);
+      try {
+        final WriteGroup writeGroup = writeGroups.get(groupKey);
+        if (writeGroup == null)
+          return true;
+
+        int flushedPages = 0;
+
+        for (int i = 0; i < 16; i++) {
+          final OCachePointer pagePointer = writeGroup.pages[i];
+          if (pagePointer != null) {
+            if (!pagePointer.tryAcquireSharedLock())
+              return false;
+
+            try {
+              flushPage(groupKey.fileId, (groupKey.groupIndex << 4) + i, pagePointer.getDataPointer());
+              flushedPages++;
+
+              final OLogSequenceNumber flushedLSN = ODurablePage.getLogSequenceNumberFromPage(pagePointer.getDataPointer());
+              pagePointer.setLastFlushedLsn(flushedLSN);
+            } finally {
+              pagePointer.releaseSharedLock();
+            }
+          }
+        }
+
+        for (OCachePointer pagePointer : writeGroup.pages)
+          if (pagePointer != null)
+            pagePointer.decrementReferrer();
+
+        writeGroups.remove(groupKey);
+        cacheSize.addAndGet(-flushedPages);
+
+        return true;
+      } finally {
+        lockManager.releaseLock(groupLock);
+      }
+    }
+  }
+
   private final class RemoveFilePagesTask implements Callable<Void> {
     private final long fileId;
 
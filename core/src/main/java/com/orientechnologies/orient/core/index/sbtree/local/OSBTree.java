@@ -29,6 +29,7 @@ import com.orientechnologies.orient.core.index.OAlwaysLessKey;
 import com.orientechnologies.orient.core.index.OCompositeKey;
 import com.orientechnologies.orient.core.index.hashindex.local.cache.OCacheEntry;
 import com.orientechnologies.orient.core.index.hashindex.local.cache.ODiskCache;
+import com.orientechnologies.orient.core.index.hashindex.local.cache.OPageReadAhead;
 import com.orientechnologies.orient.core.iterator.OEmptyIterator;
 import com.orientechnologies.orient.core.iterator.OEmptyMapEntryIterator;
 import com.orientechnologies.orient.core.metadata.schema.OType;
@@ -375,6 +376,71 @@ public class OSBTree<K, V> extends ODurableComponent {
     }
   }
 
+  /**
+   * Loads entries into empty tree. Unlike {@link #put(Object, Object)} tree is built bottom-up: leaf buckets are filled one by one
+   * till passed in fill factor is reached, then non-leaf levels are built from the first keys of buckets of previous level. So
+   * neither root-to-leaf descents nor bucket splits are performed.
+   * 
+   * Root page of empty tree is reused, all page changes are logged in WAL, so failed load is rolled back like any other operation.
+   * If load fails tree is left empty.
+   * 
+   * @param entries
+   *          Entries sorted by key in ascending order, keys should be unique and not null.
+   * @param fillFactor
+   *          Part of bucket space which is filled by entries, the rest of space is left for entries which will be added later.
+   * @return Amount of loaded entries.
+   */
+  public long bulkLoad(Iterator<? extends Map.Entry<K, V>> entries, float fillFactor) {
+    acquireExclusiveLock();
+    final OStorageTransaction transaction = storage.getStorageTransaction();
+    try {
+      final long treeSize = size();
+      if (treeSize > 0)
+        throw new OSBTreeException("Bulk load can be performed only on empty sbtree, but sbtree " + name + " contains " + treeSize
+            + " entries");
+
+      startAtomicOperation();
+      try {
+        final List<Long> leafPages = new ArrayList<Long>();
+        final List<K> leafFirstKeys = new ArrayList<K>();
+
+        final long loaded = bulkLoadLeaves(entries, fillFactor, leafPages, leafFirstKeys);
+        if (leafPages.size() > 1)
+          bulkLoadNonLeafLevels(leafPages, leafFirstKeys, fillFactor);
+
+        setSize(loaded);
+
+        endAtomicOperation(false);
+        return loaded;
+      } catch (Throwable e) {
+        // PAGES WHICH ARE FILLED BY NOW ARE NOT REFERENCED BY EMPTY ROOT ANY MORE
+        try {
+          resetRoot();
+        } catch (Throwable re) {
+          OLogManager.instance().error(this, "Error during reset of root of sbtree with name %s after failed bulk load", re, name);
+        }
+
+        rollback(transaction);
+        throw new OSBTreeException("Error during bulk load of sbtree with name " + name, e);
+      }
+    } catch (IOException e) {
+      rollback(transaction);
+      throw new OSBTreeException("Error during bulk load of sbtree with name " + name, e);
+    } finally {
+      releaseExclusiveLock();
+    }
+  }
+
+  /**
+   * @return Key in the form in which it is stored in tree.
+   */
+  public K preprocessKey(K key) {
+    if (key == null)
+      return null;
+
+    return keySerializer.preprocess(key, (Object[]) keyTypes);
+  }
+
   public void close(boolean flush) {
     acquireExclusiveLock();
     try {
@@ -1506,6 +1572,247 @@ public class OSBTree<K, V> extends ODurableComponent {
     return new BucketSearchResult(keyIndex - indexToSplit - 1, resultPath);
   }
 
+  private long bulkLoadLeaves(Iterator<? extends Map.Entry<K, V>> entries, float fillFactor, List<Long> leafPages,
+      List<K> leafFirstKeys) throws IOException {
+    long loaded = 0;
+    K prevKey = null;
+
+    // FIRST LEAF IS PLACED IN ROOT PAGE, IT IS MOVED TO SEPARATE PAGE ONLY IF TREE CONTAINS MORE THAN ONE LEAF
+    OCacheEntry cacheEntry = diskCache.load(fileId, ROOT_INDEX, false);
+    cacheEntry.acquireExclusiveLock();
+    OSBTreeBucket<K, V> bucket = null;
+    try {
+      bucket = new OSBTreeBucket<K, V>(cacheEntry, true, keySerializer, keyTypes, valueSerializer, getTrackMode());
+      leafPages.add(ROOT_INDEX);
+
+      while (entries.hasNext()) {
+        final Map.Entry<K, V> entry = entries.next();
+        K key = entry.getKey();
+        final V value = entry.getValue();
+
+        if (key == null)
+          throw new OSBTreeException("Null keys can not be bulk loaded into sbtree " + name);
+
+        final int keySize = keySerializer.getObjectSize(key, (Object[]) keyTypes);
+        if (keySize > MAX_KEY_SIZE)
+          throw new OSBTreeException("Key size is more than allowed, operation was canceled. Current key size " + keySize
+              + ", allowed  " + MAX_KEY_SIZE);
+
+        key = keySerializer.preprocess(key, (Object[]) keyTypes);
+        if (prevKey != null && comparator.compare(prevKey, key) >= 0)
+          throw new OSBTreeException("Keys of bulk loaded entries should be unique and sorted in ascending order, but key " + key
+              + " follows key " + prevKey);
+
+        final boolean createLinkToTheValue = valueSerializer.getObjectSize(value) > MAX_EMBEDDED_VALUE_SIZE;
+        long valueLink = -1;
+        if (createLinkToTheValue)
+          valueLink = createLinkToTheValue(value);
+
+        final OSBTreeBucket.SBTreeEntry<K, V> treeEntry = new OSBTreeBucket.SBTreeEntry<K, V>(-1, -1, key, new OSBTreeValue<V>(
+            createLinkToTheValue, valueLink, createLinkToTheValue ? null : value));
+
+        if (bucket.isEmpty())
+          leafFirstKeys.add(key);
+        else if (bucket.getFillFactor() >= fillFactor || !bucket.addEntry(bucket.size(), treeEntry, false)) {
+          final long prevPageIndex;
+          final OCacheEntry nextCacheEntry;
+
+          if (cacheEntry.getPageIndex() == ROOT_INDEX) {
+            final OCacheEntry firstLeafCacheEntry = diskCache.allocateNewPage(fileId);
+            nextCacheEntry = diskCache.allocateNewPage(fileId);
+
+            firstLeafCacheEntry.acquireExclusiveLock();
+            try {
+              final OSBTreeBucket<K, V> firstLeaf = new OSBTreeBucket<K, V>(firstLeafCacheEntry, true, keySerializer, keyTypes,
+                  valueSerializer, getTrackMode());
+              for (int i = 0; i < bucket.size(); i++)
+                firstLeaf.addEntry(i, bucket.getEntry(i), false);
+
+              firstLeaf.setRightSibling(nextCacheEntry.getPageIndex());
+
+              logPageChanges(firstLeaf, fileId, firstLeafCacheEntry.getPageIndex(), true);
+              firstLeafCacheEntry.markDirty();
+            } finally {
+              firstLeafCacheEntry.releaseExclusiveLock();
+              diskCache.release(firstLeafCacheEntry);
+            }
+
+            // ROOT PAGE CONTENT IS REPLACED BY NON-LEAF ENTRIES LATER, BUT IT IS LOGGED ANYWAY TO KEEP CHAIN OF ITS CHANGES COMPLETE
+            logPageChanges(bucket, fileId, ROOT_INDEX, false);
+            cacheEntry.markDirty();
+
+            prevPageIndex = firstLeafCacheEntry.getPageIndex();
+            leafPages.set(0, prevPageIndex);
+          } else {
+            nextCacheEntry = diskCache.allocateNewPage(fileId);
+            bucket.setRightSibling(nextCacheEntry.getPageIndex());
+
+            prevPageIndex = cacheEntry.getPageIndex();
+            logPageChanges(bucket, fileId, prevPageIndex, true);
+            cacheEntry.markDirty();
+          }
+
+          cacheEntry.releaseExclusiveLock();
+          diskCache.release(cacheEntry);
+
+          cacheEntry = nextCacheEntry;
+          cacheEntry.acquireExclusiveLock();
+
+          bucket = new OSBTreeBucket<K, V>(cacheEntry, true, keySerializer, keyTypes, valueSerializer, getTrackMode());
+          bucket.setLeftSibling(prevPageIndex);
+
+          leafPages.add(cacheEntry.getPageIndex());
+          leafFirstKeys.add(key);
+        } else {
+          loaded++;
+          prevKey = key;
+          continue;
+        }
+
+        if (!bucket.addEntry(bucket.size(), treeEntry, false))
+          throw new OSBTreeException("Entry with key " + key + " can not be placed in empty bucket of sbtree " + name);
+
+        loaded++;
+        prevKey = key;
+      }
+    } finally {
+      // CHANGES ARE LOGGED EVEN IF LOAD FAILS, OTHERWISE FOLLOWING CHANGES OF THE SAME PAGE COULD NOT BE REVERTED
+      try {
+        if (bucket != null) {
+          logPageChanges(bucket, fileId, cacheEntry.getPageIndex(), cacheEntry.getPageIndex() != ROOT_INDEX);
+          cacheEntry.markDirty();
+        }
+      } finally {
+        cacheEntry.releaseExclusiveLock();
+        diskCache.release(cacheEntry);
+      }
+    }
+
+    return loaded;
+  }
+
+  private void bulkLoadNonLeafLevels(List<Long> childPages, List<K> childFirstKeys, float fillFactor) throws IOException {
+    while (!bulkLoadRoot(childPages, childFirstKeys)) {
+      final List<Long> parentPages = new ArrayList<Long>();
+      final List<K> parentFirstKeys = new ArrayList<K>();
+
+      OCacheEntry cacheEntry = diskCache.allocateNewPage(fileId);
+      cacheEntry.acquireExclusiveLock();
+      try {
+        OSBTreeBucket<K, V> bucket = new OSBTreeBucket<K, V>(cacheEntry, false, keySerializer, keyTypes, valueSerializer,
+            getTrackMode());
+        parentPages.add(cacheEntry.getPageIndex());
+        parentFirstKeys.add(childFirstKeys.get(0));
+
+        int firstChild = 0;
+        for (int i = 1; i < childPages.size(); i++) {
+          final OSBTreeBucket.SBTreeEntry<K, V> treeEntry = new OSBTreeBucket.SBTreeEntry<K, V>(childPages.get(i - 1),
+              childPages.get(i), childFirstKeys.get(i), null);
+
+          // LAST CHILD IS ADDED EVEN IF FILL FACTOR IS REACHED, OTHERWISE IT WOULD BE THE ONLY CHILD OF LAST BUCKET
+          if ((bucket.isEmpty() || i == childPages.size() - 1 || bucket.getFillFactor() < fillFactor)
+              && bucket.addEntry(bucket.size(), treeEntry, false))
+            continue;
+
+          if (bucket.isEmpty())
+            throw new OSBTreeException("Entry with key " + treeEntry.key + " can not be placed in empty bucket of sbtree " + name);
+
+          // SEPARATION KEY IS MOVED TO PARENT LEVEL, CURRENT CHILD BECOMES THE LEFTMOST CHILD OF NEXT BUCKET
+          logPageChanges(bucket, fileId, cacheEntry.getPageIndex(), true);
+          cacheEntry.markDirty();
+          cacheEntry.releaseExclusiveLock();
+          diskCache.release(cacheEntry);
+
+          cacheEntry = diskCache.allocateNewPage(fileId);
+          cacheEntry.acquireExclusiveLock();
+
+          bucket = new OSBTreeBucket<K, V>(cacheEntry, false, keySerializer, keyTypes, valueSerializer, getTrackMode());
+          parentPages.add(cacheEntry.getPageIndex());
+          parentFirstKeys.add(childFirstKeys.get(i));
+
+          firstChild = i;
+        }
+
+        if (bucket.isEmpty()) {
+          // LAST CHILD DID NOT FIT INTO PREVIOUS BUCKET, SO LAST ENTRY OF PREVIOUS BUCKET IS MOVED TO CURRENT ONE
+          final long prevPageIndex = parentPages.get(parentPages.size() - 2);
+          final OCacheEntry prevCacheEntry = diskCache.load(fileId, prevPageIndex, false);
+          prevCacheEntry.acquireExclusiveLock();
+          try {
+            final OSBTreeBucket<K, V> prevBucket = new OSBTreeBucket<K, V>(prevCacheEntry, keySerializer, keyTypes,
+                valueSerializer, getTrackMode());
+            assert prevBucket.size() > 1;
+
+            prevBucket.shrink(prevBucket.size() - 1);
+
+            logPageChanges(prevBucket, fileId, prevPageIndex, false);
+            prevCacheEntry.markDirty();
+          } finally {
+            prevCacheEntry.releaseExclusiveLock();
+            diskCache.release(prevCacheEntry);
+          }
+
+          bucket.addEntry(0, new OSBTreeBucket.SBTreeEntry<K, V>(childPages.get(firstChild - 1), childPages.get(firstChild),
+              childFirstKeys.get(firstChild), null), false);
+          parentFirstKeys.set(parentFirstKeys.size() - 1, childFirstKeys.get(firstChild - 1));
+        }
+
+        logPageChanges(bucket, fileId, cacheEntry.getPageIndex(), true);
+        cacheEntry.markDirty();
+      } finally {
+        cacheEntry.releaseExclusiveLock();
+        diskCache.release(cacheEntry);
+      }
+
+      childPages = parentPages;
+      childFirstKeys = parentFirstKeys;
+    }
+  }
+
+  private boolean bulkLoadRoot(List<Long> childPages, List<K> childFirstKeys) throws IOException {
+    final OCacheEntry rootCacheEntry = diskCache.load(fileId, ROOT_INDEX, false);
+    rootCacheEntry.acquireExclusiveLock();
+    try {
+      final OSBTreeBucket<K, V> rootBucket = new OSBTreeBucket<K, V>(rootCacheEntry, false, keySerializer, keyTypes,
+          valueSerializer, getTrackMode());
+
+      try {
+        for (int i = 1; i < childPages.size(); i++) {
+          if (!rootBucket.addEntry(i - 1, new OSBTreeBucket.SBTreeEntry<K, V>(childPages.get(i - 1), childPages.get(i),
+              childFirstKeys.get(i), null), false))
+            return false;
+        }
+
+        return true;
+      } finally {
+        // ROOT IS CHANGED EVEN IF NOT ALL CHILDREN FIT IN IT
+        logPageChanges(rootBucket, fileId, ROOT_INDEX, false);
+        rootCacheEntry.markDirty();
+      }
+    } finally {
+      rootCacheEntry.releaseExclusiveLock();
+      diskCache.release(rootCacheEntry);
+    }
+  }
+
+  /**
+   * Makes root page an empty leaf, pages of the tree which are not referenced by root any more are not reused.
+   */
+  private void resetRoot() throws IOException {
+    final OCacheEntry rootCacheEntry = diskCache.load(fileId, ROOT_INDEX, false);
+    rootCacheEntry.acquireExclusiveLock();
+    try {
+      final OSBTreeBucket<K, V> rootBucket = new OSBTreeBucket<K, V>(rootCacheEntry, true, keySerializer, keyTypes,
+          valueSerializer, getTrackMode());
+
+      logPageChanges(rootBucket, fileId, ROOT_INDEX, false);
+      rootCacheEntry.markDirty();
+    } finally {
+      rootCacheEntry.releaseExclusiveLock();
+      diskCache.release(rootCacheEntry);
+    }
+  }
+
   private BucketSearchResult findBucket(K key) throws IOException {
     long pageIndex = ROOT_INDEX;
     final ArrayList<Long> path = new ArrayList<Long>();
@@ -1671,11 +1978,13 @@ public class OSBTree<K, V> extends ODurableComponent {
   }
 
   public class OSBTreeFullKeyCursor implements OSBTreeKeyCursor<K> {
-    private long        pageIndex;
-    private int         itemIndex;
+    private long                 pageIndex;
+    private int                  itemIndex;
 
-    private List<K>     keysCache    = new ArrayList<K>();
-    private Iterator<K> keysIterator = new OEmptyIterator<K>();
+    private List<K>              keysCache    = new ArrayList<K>();
+    private Iterator<K>          keysIterator = new OEmptyIterator<K>();
+
+    private final OPageReadAhead readAhead    = diskCache.readAhead(fileId);
 
     public OSBTreeFullKeyCursor(long startPageIndex) {
       pageIndex = startPageIndex;
@@ -1709,6 +2018,8 @@ public class OSBTree<K, V> extends ODurableComponent {
             break;
           }
 
+          readAhead.pageRead(pageIndex);
+
           final OCacheEntry cacheEntry = diskCache.load(fileId, pageIndex, false);
           try {
             final OSBTreeBucket<K, V> bucket = new OSBTreeBucket<K, V>(cacheEntry, keySerializer, keyTypes, valueSerializer,
@@ -1756,6 +2067,8 @@ public class OSBTree<K, V> extends ODurableComponent {
     private List<Map.Entry<K, V>>     dataCache         = new ArrayList<Map.Entry<K, V>>();
     private Iterator<Map.Entry<K, V>> dataCacheIterator = OEmptyMapEntryIterator.INSTANCE;
 
+    private final OPageReadAhead      readAhead         = diskCache.readAhead(fileId);
+
     private OSBTreeCursorForward(long startPageIndex, int startItemIndex, K fromKey, K toKey, boolean fromKeyInclusive,
         boolean toKeyInclusive) {
       this.fromKey = fromKey;
@@ -1793,6 +2106,8 @@ public class OSBTree<K, V> extends ODurableComponent {
             break;
           }
 
+          readAhead.pageRead(pageIndex);
+
           final OCacheEntry cacheEntry = diskCache.load(fileId, pageIndex, false);
           try {
             final OSBTreeBucket<K, V> bucket = new OSBTreeBucket<K, V>(cacheEntry, keySerializer, keyTypes, valueSerializer,
@@ -1852,6 +2167,8 @@ public class OSBTree<K, V> extends ODurableComponent {
     private List<Map.Entry<K, V>>     dataCache         = new ArrayList<Map.Entry<K, V>>();
     private Iterator<Map.Entry<K, V>> dataCacheIterator = OEmptyMapEntryIterator.INSTANCE;
 
+    private final OPageReadAhead      readAhead         = diskCache.readAhead(fileId);
+
     private OSBTreeCursorBackward(long endPageIndex, int endItemIndex, K fromKey, K toKey, boolean fromKeyInclusive,
         boolean toKeyInclusive) {
       this.fromKey = fromKey;
@@ -1884,6 +2201,8 @@ public class OSBTree<K, V> extends ODurableComponent {
           if (pageIndex == -1)
             break;
 
+          readAhead.pageRead(pageIndex);
+
           final OCacheEntry cacheEntry = diskCache.load(fileId, pageIndex, false);
           try {
             final OSBTreeBucket<K, V> bucket = new OSBTreeBucket<K, V>(cacheEntry, keySerializer, keyTypes, valueSerializer,
@@ -29,6 +29,7 @@ import com.orientechnologies.common.comparator.ODefaultComparator;
 import com.orientechnologies.common.directmemory.ODirectMemoryPointer;
 import com.orientechnologies.common.serialization.types.OBinarySerializer;
 import com.orientechnologies.common.serialization.types.OByteSerializer;
+import com.orientechnologies.common.serialization.types.OComparableBinarySerializer;
 import com.orientechnologies.common.serialization.types.OIntegerSerializer;
 import com.orientechnologies.common.serialization.types.OLongSerializer;
 import com.orientechnologies.orient.core.index.hashindex.local.cache.OCacheEntry;
@@ -123,13 +124,24 @@ public class OSBTreeBucket<K, V> extends ODurablePage {
   }
 
   public int find(K key) {
+    // KEYS ARE COMPARED IN PAGE WITHOUT DESERIALIZATION IF SERIALIZER SUPPORTS IT
+    final OComparableBinarySerializer<K> comparableSerializer;
+    if (keySerializer instanceof OComparableBinarySerializer
+        && ((OComparableBinarySerializer<K>) keySerializer).isComparableInDirectMemory(key))
+      comparableSerializer = (OComparableBinarySerializer<K>) keySerializer;
+    else
+      comparableSerializer = null;
+
     int low = 0;
     int high = size() - 1;
 
     while (low <= high) {
       int mid = (low + high) >>> 1;
-      K midVal = getKey(mid);
-      int cmp = comparator.compare(midVal, key);
+      int cmp;
+      if (comparableSerializer != null)
+        cmp = compareInDirectMemory(comparableSerializer, getKeyPosition(mid), key);
+      else
+        cmp = comparator.compare(getKey(mid), key);
 
       if (cmp < 0)
         low = mid + 1;
@@ -197,6 +209,14 @@ public class OSBTreeBucket<K, V> extends ODurablePage {
     return getIntValue(SIZE_OFFSET);
   }
 
+  /**
+   * @return Part of bucket space which is occupied by entries and their positions, in range [0, 1].
+   */
+  public float getFillFactor() {
+    final int freeSpace = getIntValue(FREE_POINTER_OFFSET) - size() * OIntegerSerializer.INT_SIZE - POSITIONS_ARRAY_OFFSET;
+    return 1 - (float) freeSpace / (MAX_PAGE_SIZE_BYTES - POSITIONS_ARRAY_OFFSET);
+  }
+
   public SBTreeEntry<K, V> getEntry(int entryIndex) {
     int entryPosition = getIntValue(entryIndex * OIntegerSerializer.INT_SIZE + POSITIONS_ARRAY_OFFSET);
 
@@ -228,12 +248,16 @@ public class OSBTreeBucket<K, V> extends ODurablePage {
   }
 
   public K getKey(int index) {
+    return deserializeFromDirectMemory(keySerializer, getKeyPosition(index));
+  }
+
+  private int getKeyPosition(int index) {
     int entryPosition = getIntValue(index * OIntegerSerializer.INT_SIZE + POSITIONS_ARRAY_OFFSET);
 
     if (!isLeaf)
       entryPosition += 2 * OLongSerializer.LONG_SIZE;
 
-    return deserializeFromDirectMemory(keySerializer, entryPosition);
+    return entryPosition;
   }
 
   public boolean isLeaf() {
@@ -29,6 +29,7 @@ import java.util.Map;
 import com.orientechnologies.common.comparator.ODefaultComparator;
 import com.orientechnologies.common.serialization.types.OBinarySerializer;
 import com.orientechnologies.common.serialization.types.OByteSerializer;
+import com.orientechnologies.common.serialization.types.OComparableBinarySerializer;
 import com.orientechnologies.common.serialization.types.OIntegerSerializer;
 import com.orientechnologies.common.serialization.types.OLongSerializer;
 import com.orientechnologies.orient.core.config.OGlobalConfiguration;
@@ -194,13 +195,24 @@ public class OSBTreeBonsaiBucket<K, V> extends OBonsaiBucketAbstract {
   }
 
   public int find(K key) {
+    // KEYS ARE COMPARED IN PAGE WITHOUT DESERIALIZATION IF SERIALIZER SUPPORTS IT
+    final OComparableBinarySerializer<K> comparableSerializer;
+    if (keySerializer instanceof OComparableBinarySerializer
+        && ((OComparableBinarySerializer<K>) keySerializer).isComparableInDirectMemory(key))
+      comparableSerializer = (OComparableBinarySerializer<K>) keySerializer;
+    else
+      comparableSerializer = null;
+
     int low = 0;
     int high = size() - 1;
 
     while (low <= high) {
       int mid = (low + high) >>> 1;
-      K midVal = getKey(mid);
-      int cmp = comparator.compare(midVal, key);
+      int cmp;
+      if (comparableSerializer != null)
+        cmp = compareInDirectMemory(comparableSerializer, getKeyPosition(mid), key);
+      else
+        cmp = comparator.compare(getKey(mid), key);
 
       if (cmp < 0)
         low = mid + 1;
@@ -276,12 +288,16 @@ public class OSBTreeBonsaiBucket<K, V> extends OBonsaiBucketAbstract {
   }
 
   public K getKey(int index) {
+    return deserializeFromDirectMemory(keySerializer, getKeyPosition(index));
+  }
+
+  private int getKeyPosition(int index) {
     int entryPosition = getIntValue(offset + index * OIntegerSerializer.INT_SIZE + POSITIONS_ARRAY_OFFSET);
 
     if (!isLeaf)
       entryPosition += 2 * (OLongSerializer.LONG_SIZE + OIntegerSerializer.INT_SIZE);
 
-    return deserializeFromDirectMemory(keySerializer, offset + entryPosition);
+    return offset + entryPosition;
   }
 
   public boolean isLeaf() {
@@ -183,6 +183,14 @@ public class OSBTreeBonsaiLocal<K, V> extends ODurableComponent implements OSBTr
     init(storageLocal);
   }
 
+  /**
+   * Several trees are stored in the same file and share its system bucket, so all of them should be isolated together.
+   */
+  @Override
+  protected Object getComponentLockObject() {
+    return fileId;
+  }
+
   public String getName() {
     acquireSharedLock();
     try {
@@ -24,16 +24,24 @@ import java.util.List;
 import java.util.NoSuchElementException;
 
 import com.orientechnologies.common.log.OLogManager;
+import com.orientechnologies.orient.core.config.OGlobalConfiguration;
 import com.orientechnologies.orient.core.db.ODatabaseDocumentInternal;
+import com.orientechnologies.orient.core.db.document.ODatabaseDocumentTx;
 import com.orientechnologies.orient.core.db.record.OIdentifiable;
 import com.orientechnologies.orient.core.db.record.ORecordOperation;
 import com.orientechnologies.orient.core.exception.ODatabaseException;
 import com.orientechnologies.orient.core.id.ORID;
 import com.orientechnologies.orient.core.id.ORecordId;
+import com.orientechnologies.orient.core.index.hashindex.local.cache.OPageReadAhead;
 import com.orientechnologies.orient.core.record.ORecord;
 import com.orientechnologies.orient.core.record.ORecordInternal;
+import com.orientechnologies.orient.core.record.impl.ODocument;
+import com.orientechnologies.orient.core.storage.OCluster;
 import com.orientechnologies.orient.core.storage.OPhysicalPosition;
+import com.orientechnologies.orient.core.storage.ORawBuffer;
 import com.orientechnologies.orient.core.storage.OStorage;
+import com.orientechnologies.orient.core.storage.impl.local.OAbstractPaginatedStorage;
+import com.orientechnologies.orient.core.storage.impl.local.paginated.OPaginatedCluster;
 
 /**
  * Iterator class to browse forward and backward the records of a cluster. Once browsed in a direction, the iterator cannot change
@@ -52,7 +60,6 @@ public abstract class OIdentifiableIterator<REC extends OIdentifiable> implement
   protected long                            limit                  = -1;
   protected long                            browsedRecords         = 0;
   protected OStorage.LOCKING_STRATEGY       lockingStrategy        = OStorage.LOCKING_STRATEGY.DEFAULT;
-  protected long                            totalAvailableRecords;
   protected List<ORecordOperation>          txEntries;
   protected int                             currentTxEntryPosition = -1;
   protected long                            firstClusterEntry      = 0;
@@ -65,6 +72,26 @@ public abstract class OIdentifiableIterator<REC extends OIdentifiable> implement
   private int                               currentEntryPosition   = -1;
   private OPhysicalPosition[]               positionsToProcess     = null;
 
+  /**
+   * Content of records which are read from storage at once, records which are stored on the same page are read while page is loaded
+   * only once. Read records are dropped as soon as any record of cluster is changed.
+   */
+  private final int                         maxBatchSize;
+  private int                               batchSize;
+  private ORawBuffer[]                      batch                  = null;
+  private OPhysicalPosition[]               batchPositions         = null;
+  private int                               batchFrom              = -1;
+  private boolean                           batchForward;
+  private long                              batchModificationsCount;
+
+  /**
+   * Pages of cluster which follow pages of read batches are loaded in background.
+   */
+  private OPageReadAhead                    readAhead              = null;
+  private int                               readAheadClusterId     = -1;
+
+  private ORecordContentFilter              contentFilter          = null;
+
   public OIdentifiableIterator(final ODatabaseDocumentInternal iDatabase, final ODatabaseDocumentInternal iLowLevelDatabase,
       final boolean useCache, final boolean iterateThroughTombstones, final OStorage.LOCKING_STRATEGY iLockingStrategy) {
     database = iDatabase;
@@ -75,6 +102,9 @@ public abstract class OIdentifiableIterator<REC extends OIdentifiable> implement
 
     dbStorage = lowLevelDatabase.getStorage();
     current.clusterPosition = ORID.CLUSTER_POS_INVALID; // DEFAULT = START FROM THE BEGIN
+
+    maxBatchSize = OGlobalConfiguration.QUERY_SCAN_BATCH_SIZE.getValueAsInteger();
+    batchSize = maxBatchSize;
   }
 
   public boolean isIterateThroughTombstones() {
@@ -191,6 +221,23 @@ public abstract class OIdentifiableIterator<REC extends OIdentifiable> implement
     return this;
   }
 
+  public ORecordContentFilter getContentFilter() {
+    return contentFilter;
+  }
+
+  /**
+   * Sets the filter which is applied to the content of records read from storage before records are created. Records rejected by the
+   * filter are skipped, records which are in transaction or in local cache are never filtered because their content in storage may be
+   * outdated.
+   * 
+   * @param iContentFilter
+   *          filter to apply or <code>null</code> to browse all the records
+   */
+  public OIdentifiableIterator<REC> setContentFilter(final ORecordContentFilter iContentFilter) {
+    this.contentFilter = iContentFilter;
+    return this;
+  }
+
   protected ORecord getTransactionEntry() {
     boolean noPhysicalRecordToBrowse;
 
@@ -271,7 +318,18 @@ public abstract class OIdentifiableIterator<REC extends OIdentifiable> implement
         return null;
 
       try {
-        if (iRecord != null) {
+        final ORawBuffer recordBuffer = readBatch();
+        if (recordBuffer != null) {
+          if (!acceptContent(recordBuffer))
+            // RECORD DOES NOT MATCH: SKIP IT WITHOUT CREATION
+            continue;
+
+          if (iRecord != null)
+            ORecordInternal.setIdentity(iRecord, new ORecordId(current.clusterId, current.clusterPosition));
+
+          iRecord = ((ODatabaseDocumentTx) lowLevelDatabase).executeReadRecord(iRecord != null ? (ORecordId) iRecord.getIdentity()
+              : current, iRecord, fetchPlan, !useCache, iterateThroughTombstones, lockingStrategy, recordBuffer);
+        } else if (iRecord != null) {
           ORecordInternal.setIdentity(iRecord, new ORecordId(current.clusterId, current.clusterPosition));
           iRecord = lowLevelDatabase.load(iRecord, fetchPlan, !useCache, iterateThroughTombstones, lockingStrategy);
         } else
@@ -371,12 +429,101 @@ public abstract class OIdentifiableIterator<REC extends OIdentifiable> implement
     currentEntry = ORID.CLUSTER_POS_INVALID;
     positionsToProcess = null;
     currentEntryPosition = -1;
+    batch = null;
+    batchPositions = null;
   }
 
   protected long currentPosition() {
     return currentEntry;
   }
 
+  /**
+   * Returns content of current record if it can be read together with the records which follow it in direction of browsing. If
+   * any record of cluster was changed after the batch was read, the rest of the batch is dropped and the size of next batches is
+   * reduced, so records which are modified while they are browsed are read one by one.
+   * 
+   * @return content of current record or <code>null</code> if record should be loaded from database as usual.
+   */
+  private ORawBuffer readBatch() {
+    if (maxBatchSize <= 0 || !(dbStorage instanceof OAbstractPaginatedStorage) || !(lowLevelDatabase instanceof ODatabaseDocumentTx))
+      return null;
+
+    if (lockingStrategy != OStorage.LOCKING_STRATEGY.DEFAULT && lockingStrategy != OStorage.LOCKING_STRATEGY.NONE)
+      // RECORDS HAVE TO BE LOCKED ONE BY ONE
+      return null;
+
+    if (lowLevelDatabase.getTransaction().isActive())
+      return null;
+
+    if (positionsToProcess == null || currentEntryPosition < 0 || currentEntryPosition >= positionsToProcess.length
+        || positionsToProcess[currentEntryPosition].clusterPosition != current.clusterPosition)
+      return null;
+
+    final OCluster cluster = dbStorage.getClusterById(current.clusterId);
+    if (!(cluster instanceof OPaginatedCluster))
+      return null;
+
+    final long modificationsCount = ((OPaginatedCluster) cluster).getModificationsCount();
+    if (batch != null && batchPositions == positionsToProcess && currentEntryPosition >= batchFrom
+        && currentEntryPosition < batchFrom + batch.length) {
+      if (modificationsCount == batchModificationsCount)
+        return takeFromBatch();
+
+      // RECORDS WERE CHANGED WHILE THEY WERE BROWSED
+      batchSize = Math.max(batchSize / 2, 1);
+    } else if (batch != null && modificationsCount == batchModificationsCount)
+      batchSize = Math.min(batchSize * 2, maxBatchSize);
+
+    final boolean forward = directionForward == null || directionForward;
+    final int from;
+    final int to;
+    if (forward) {
+      from = currentEntryPosition;
+      to = Math.min(currentEntryPosition + batchSize, positionsToProcess.length);
+    } else {
+      from = Math.max(currentEntryPosition - batchSize + 1, 0);
+      to = currentEntryPosition + 1;
+    }
+
+    // POSITIONS ARE PASSED IN DIRECTION OF BROWSING, SO PAGES ARE LOADED IN THE SAME ORDER AND CAN BE READ AHEAD
+    final long[] clusterPositions = new long[to - from];
+    for (int i = 0; i < clusterPositions.length; i++)
+      clusterPositions[i] = positionsToProcess[forward ? from + i : to - 1 - i].clusterPosition;
+
+    if (readAhead == null || readAheadClusterId != current.clusterId) {
+      readAhead = ((OPaginatedCluster) cluster).readAhead();
+      readAheadClusterId = current.clusterId;
+    }
+
+    batchModificationsCount = modificationsCount;
+    batch = ((OAbstractPaginatedStorage) dbStorage).readRecords(current.clusterId, clusterPositions, readAhead);
+    batchPositions = positionsToProcess;
+    batchFrom = from;
+    batchForward = forward;
+
+    return takeFromBatch();
+  }
+
+  private boolean acceptContent(final ORawBuffer recordBuffer) {
+    if (contentFilter == null || recordBuffer.recordType != ODocument.RECORD_TYPE)
+      return true;
+
+    if (useCache && lowLevelDatabase.getLocalCache().findRecord(current) != null)
+      // RECORD CAN BE CHANGED BUT NOT SAVED YET
+      return true;
+
+    return contentFilter.accept(recordBuffer);
+  }
+
+  private ORawBuffer takeFromBatch() {
+    // CONTENT IS RETURNED ONLY ONCE TO BE NOT SHARED BETWEEN SEVERAL RECORDS
+    final int index = batchForward ? currentEntryPosition - batchFrom : batchFrom + batch.length - 1 - currentEntryPosition;
+
+    final ORawBuffer recordBuffer = batch[index];
+    batch[index] = null;
+    return recordBuffer;
+  }
+
   private void decrementEntreePosition() {
     if (positionsToProcess.length > 0)
       if (iterateThroughTombstones)
@@ -0,0 +1,38 @@
+/*
+ *
+ *  *  Copyright 2014 Orient Technologies LTD (info(at)orientechnologies.com)
+ *  *
+ *  *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  *  you may not use this file except in compliance with the License.
+ *  *  You may obtain a copy of the License at
+ *  *
+ *  *       http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *  Unless required by applicable law or agreed to in writing, software
+ *  *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *  See the License for the specific language governing permissions and
+ *  *  limitations under the License.
+ *  *
+ *  * For more information: http://www.orientechnologies.com
+ *
+ */
+package com.orientechnologies.orient.core.iterator;
+
+import com.orientechnologies.orient.core.storage.ORawBuffer;
+
+/**
+ * Filter which is applied by {@link OIdentifiableIterator} to the serialized content of browsed records before records are
+ * created, records which are rejected by filter are skipped.
+ * 
+ * @see OIdentifiableIterator#setContentFilter(ORecordContentFilter)
+ */
+public interface ORecordContentFilter {
+  /**
+   * @param iContent
+   *          serialized content of record as it is stored in the cluster.
+   * @return <code>false</code> only if record surely does not satisfy the filter, <code>true</code> if record matches or it can not
+   *         be decided without creation of record.
+   */
+  public boolean accept(ORawBuffer iContent);
+}
@@ -21,7 +21,6 @@ package com.orientechnologies.orient.core.iterator;
 
 import com.orientechnologies.orient.core.db.ODatabaseDocumentInternal;
 import com.orientechnologies.orient.core.db.document.ODatabaseDocumentTx;
-import com.orientechnologies.orient.core.db.record.ORecordOperation;
 import com.orientechnologies.orient.core.id.ORID;
 import com.orientechnologies.orient.core.record.ORecord;
 import com.orientechnologies.orient.core.storage.OStorage;
@@ -62,24 +61,8 @@ public class ORecordIteratorCluster<REC extends ORecord> extends OIdentifiableIt
     else
       this.lastClusterEntry = lastClusterEntry < range[1] ? lastClusterEntry : range[1];
 
-    totalAvailableRecords = database.countClusterElements(current.clusterId, iterateThroughTombstones);
-
     txEntries = iDatabase.getTransaction().getNewRecordEntriesByClusterIds(new int[] { iClusterId });
 
-    if (txEntries != null)
-      // ADJUST TOTAL ELEMENT BASED ON CURRENT TRANSACTION'S ENTRIES
-      for (ORecordOperation entry : txEntries) {
-        switch (entry.type) {
-        case ORecordOperation.CREATED:
-          totalAvailableRecords++;
-          break;
-
-        case ORecordOperation.DELETED:
-          totalAvailableRecords--;
-          break;
-        }
-      }
-
     begin();
   }
 
@@ -124,9 +107,7 @@ public class ORecordIteratorCluster<REC extends ORecord> extends OIdentifiableIt
       // LIMIT REACHED
       return false;
 
-    if (browsedRecords >= totalAvailableRecords)
-      return false;
-
+    // RECORDS CREATED DURING BROWSING MAY BE PLACED BETWEEN BROWSED ONES, SO BROWSING IS LIMITED BY RANGE OF POSITIONS ONLY
     if (!(current.clusterPosition < ORID.CLUSTER_POS_INVALID) && getCurrentEntry() < lastClusterEntry) {
       ORecord record = getRecord();
       currentRecord = readCurrentRecord(record, +1);
@@ -256,8 +237,6 @@ public class ORecordIteratorCluster<REC extends ORecord> extends OIdentifiableIt
       lastClusterEntry = range[1];
     }
 
-    totalAvailableRecords = database.countClusterElements(current.clusterId, isIterateThroughTombstones());
-
     return this;
   }
 
@@ -23,7 +23,6 @@ import java.util.Arrays;
 import java.util.NoSuchElementException;
 
 import com.orientechnologies.orient.core.db.ODatabaseDocumentInternal;
-import com.orientechnologies.orient.core.db.record.ORecordOperation;
 import com.orientechnologies.orient.core.id.ORID;
 import com.orientechnologies.orient.core.record.ORecord;
 import com.orientechnologies.orient.core.storage.OStorage;
@@ -60,6 +59,18 @@ public class ORecordIteratorClusters<REC extends ORecord> extends OIdentifiableI
     super(iDatabase, iLowLevelDatabase, iUseCache, iterateThroughTombstones, iLockingStrategy);
   }
 
+  public int[] getClusterIds() {
+    return clusterIds;
+  }
+
+  public ORID getBeginRange() {
+    return beginRange;
+  }
+
+  public ORID getEndRange() {
+    return endRange;
+  }
+
   public ORecordIteratorClusters<REC> setRange(final ORID iBegin, final ORID iEnd) {
     beginRange = iBegin;
     endRange = iEnd;
@@ -83,9 +94,6 @@ public class ORecordIteratorClusters<REC extends ORecord> extends OIdentifiableI
       // LIMIT REACHED
       return false;
 
-    if (browsedRecords >= totalAvailableRecords)
-      return false;
-
     if (liveUpdated)
       updateClusterRange();
 
@@ -104,6 +112,8 @@ public class ORecordIteratorClusters<REC extends ORecord> extends OIdentifiableI
 
       // CLUSTER EXHAUSTED, TRY WITH THE PREVIOUS ONE
       currentClusterIdx--;
+      if (currentClusterIdx < 0)
+        break;
 
       updateClusterRange();
     }
@@ -129,9 +139,6 @@ public class ORecordIteratorClusters<REC extends ORecord> extends OIdentifiableI
       // LIMIT REACHED
       return false;
 
-    if (browsedRecords >= totalAvailableRecords)
-      return false;
-
     // COMPUTE THE NUMBER OF RECORDS TO BROWSE
     if (liveUpdated)
       updateClusterRange();
@@ -356,7 +363,8 @@ public class ORecordIteratorClusters<REC extends ORecord> extends OIdentifiableI
   }
 
   protected void updateClusterRange() {
-    if (clusterIds.length == 0)
+    // ALL CLUSTERS ARE ALREADY BROWSED
+    if (currentClusterIdx < 0 || currentClusterIdx >= clusterIds.length)
       return;
 
     current.clusterId = clusterIds[currentClusterIdx];
@@ -383,19 +391,8 @@ public class ORecordIteratorClusters<REC extends ORecord> extends OIdentifiableI
 
     updateClusterRange();
 
-    totalAvailableRecords = database.countClusterElements(clusterIds, isIterateThroughTombstones());
-
     txEntries = database.getTransaction().getNewRecordEntriesByClusterIds(clusterIds);
 
-    if (txEntries != null)
-      // ADJUST TOTAL ELEMENT BASED ON CURRENT TRANSACTION'S ENTRIES
-      for (ORecordOperation entry : txEntries) {
-        if (entry.getRecord().getIdentity().isTemporary() && entry.type != ORecordOperation.DELETED)
-          totalAvailableRecords++;
-        else if (entry.type == ORecordOperation.DELETED)
-          totalAvailableRecords--;
-      }
-
     begin();
   }
 
@@ -57,9 +57,9 @@ public class ODocumentComparator implements Comparator<OIdentifiable> {
       final String fieldName = field.getKey();
       final String ordering = field.getValue();
 
-      fieldValue1 = ((ODocument) iDoc1.getRecord()).field(fieldName);
+      fieldValue1 = field(iDoc1, fieldName);
 
-      fieldValue2 = ((ODocument) iDoc2.getRecord()).field(fieldName);
+      fieldValue2 = field(iDoc2, fieldName);
 
       if (fieldValue1 == null && fieldValue2 == null) {
           continue;
@@ -93,6 +93,17 @@ public class ODocumentComparator implements Comparator<OIdentifiable> {
     return partialResult;
   }
 
+  /**
+   * @return Value of the field or <code>null</code> if the record is not a document, so records without fields are sorted first.
+   */
+  private static Object field(final OIdentifiable iRecord, final String iFieldName) {
+    final Object record = iRecord.getRecord();
+    if (record instanceof ODocument)
+      return ((ODocument) record).field(iFieldName);
+
+    return null;
+  }
+
   private int factor(final int partialResult, final String iOrdering) {
     if (iOrdering.equals(OCommandExecutorSQLSelect.KEYWORD_DESC))
       // INVERT THE ORDERING
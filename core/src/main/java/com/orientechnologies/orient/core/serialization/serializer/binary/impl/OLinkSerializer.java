@@ -26,7 +26,7 @@ import static com.orientechnologies.orient.core.serialization.OBinaryProtocol.lo
 import static com.orientechnologies.orient.core.serialization.OBinaryProtocol.short2bytes;
 
 import com.orientechnologies.common.directmemory.ODirectMemoryPointer;
-import com.orientechnologies.common.serialization.types.OBinarySerializer;
+import com.orientechnologies.common.serialization.types.OComparableBinarySerializer;
 import com.orientechnologies.common.serialization.types.OLongSerializer;
 import com.orientechnologies.common.serialization.types.OShortSerializer;
 import com.orientechnologies.orient.core.db.record.OIdentifiable;
@@ -39,7 +39,7 @@ import com.orientechnologies.orient.core.id.ORecordId;
  * @author ibershadskiy <a href="mailto:ibersh20@gmail.com">Ilya Bershadskiy</a>
  * @since 07.02.12
  */
-public class OLinkSerializer implements OBinarySerializer<OIdentifiable> {
+public class OLinkSerializer implements OComparableBinarySerializer<OIdentifiable> {
   public static final byte      ID               = 9;
   private static final int      CLUSTER_POS_SIZE = OLongSerializer.LONG_SIZE;
   public static final int       RID_SIZE         = OShortSerializer.SHORT_SIZE + CLUSTER_POS_SIZE;
@@ -117,6 +117,28 @@ public class OLinkSerializer implements OBinarySerializer<OIdentifiable> {
     return RID_SIZE;
   }
 
+  @Override
+  public boolean isComparableInDirectMemory(Object object) {
+    return object instanceof OIdentifiable;
+  }
+
+  @Override
+  public int compareInDirectMemory(ODirectMemoryPointer pointer, long offset, OIdentifiable object) {
+    final ORID rid = object.getIdentity();
+
+    final int clusterId = OShortSerializer.INSTANCE.deserializeFromDirectMemory(pointer, offset);
+    if (clusterId != rid.getClusterId())
+      return clusterId > rid.getClusterId() ? 1 : -1;
+
+    // CLUSTER POSITION IS STORED IN BIG ENDIAN ORDER, SEE serializeInDirectMemoryObject
+    long clusterPosition = 0;
+    for (int i = 0; i < CLUSTER_POS_SIZE; i++)
+      clusterPosition = (clusterPosition << 8) | (0xFF & pointer.getByte(offset + OShortSerializer.SHORT_SIZE + i));
+
+    final long otherClusterPosition = rid.getClusterPosition();
+    return clusterPosition < otherClusterPosition ? -1 : (clusterPosition == otherClusterPosition ? 0 : 1);
+  }
+
   public boolean isFixedLength() {
     return true;
   }
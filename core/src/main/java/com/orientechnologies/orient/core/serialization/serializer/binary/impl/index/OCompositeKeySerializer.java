@@ -20,10 +20,14 @@
 
 package com.orientechnologies.orient.core.serialization.serializer.binary.impl.index;
 
+import com.orientechnologies.common.comparator.ODefaultComparator;
 import com.orientechnologies.common.directmemory.ODirectMemoryPointer;
 import com.orientechnologies.common.serialization.types.OBinarySerializer;
+import com.orientechnologies.common.serialization.types.OComparableBinarySerializer;
 import com.orientechnologies.common.serialization.types.OIntegerSerializer;
 import com.orientechnologies.common.serialization.types.ONullSerializer;
+import com.orientechnologies.orient.core.index.OAlwaysGreaterKey;
+import com.orientechnologies.orient.core.index.OAlwaysLessKey;
 import com.orientechnologies.orient.core.index.OCompositeKey;
 import com.orientechnologies.orient.core.metadata.schema.OType;
 import com.orientechnologies.orient.core.serialization.OBinaryProtocol;
@@ -41,7 +45,7 @@ import java.util.List;
  * @author Andrey Lomakin
  * @since 29.07.11
  */
-public class OCompositeKeySerializer implements OBinarySerializer<OCompositeKey>, OStreamSerializer {
+public class OCompositeKeySerializer implements OComparableBinarySerializer<OCompositeKey>, OStreamSerializer {
 
   public static final String                  NAME     = "cks";
 
@@ -320,6 +324,56 @@ public class OCompositeKeySerializer implements OBinarySerializer<OCompositeKey>
     return pointer.getInt(offset);
   }
 
+  @Override
+  public boolean isComparableInDirectMemory(Object object) {
+    return object instanceof OCompositeKey;
+  }
+
+  /**
+   * Compares stored key with passed in key item by item using the same rules as {@link OCompositeKey#compareTo(OCompositeKey)}.
+   * Items which can not be compared in direct memory are deserialized one by one.
+   */
+  @Override
+  public int compareInDirectMemory(ODirectMemoryPointer pointer, long offset, OCompositeKey compositeKey) {
+    offset += OIntegerSerializer.INT_SIZE;
+
+    final int keysSize = pointer.getInt(offset);
+    offset += OIntegerSerializer.INT_SIZE;
+
+    final List<Object> otherKeys = compositeKey.getKeys();
+    final int size = Math.min(keysSize, otherKeys.size());
+
+    final OBinarySerializerFactory factory = OBinarySerializerFactory.getInstance();
+    for (int i = 0; i < size; i++) {
+      final Object otherKey = otherKeys.get(i);
+
+      if (otherKey instanceof OAlwaysGreaterKey)
+        return -1;
+
+      if (otherKey instanceof OAlwaysLessKey)
+        return 1;
+
+      final byte serializerId = pointer.getByte(offset);
+      offset += OBinarySerializerFactory.TYPE_IDENTIFIER_SIZE;
+
+      final OBinarySerializer<Object> binarySerializer = (OBinarySerializer<Object>) factory.getObjectSerializer(serializerId);
+
+      final int result;
+      if (binarySerializer instanceof OComparableBinarySerializer
+          && ((OComparableBinarySerializer<Object>) binarySerializer).isComparableInDirectMemory(otherKey))
+        result = ((OComparableBinarySerializer<Object>) binarySerializer).compareInDirectMemory(pointer, offset, otherKey);
+      else
+        result = ODefaultComparator.INSTANCE.compare(binarySerializer.deserializeFromDirectMemoryObject(pointer, offset), otherKey);
+
+      if (result != 0)
+        return result;
+
+      offset += binarySerializer.getObjectSizeInDirectMemory(pointer, offset);
+    }
+
+    return 0;
+  }
+
   public boolean isFixedLength() {
     return false;
   }
@@ -20,6 +20,8 @@
 
 package com.orientechnologies.orient.core.serialization.serializer.record.binary;
 
+import com.orientechnologies.orient.core.metadata.schema.OSchema;
+import com.orientechnologies.orient.core.metadata.schema.OType;
 import com.orientechnologies.orient.core.record.impl.ODocument;
 
 public interface ODocumentSerializer {
@@ -28,4 +30,29 @@ public interface ODocumentSerializer {
 
   public void deserialize(ODocument document, BytesContainer bytes, String[] iFields);
 
+  /**
+   * Reads the name of class of serialized document.
+   * 
+   * @return Name of the class or <code>null</code> if document has no class.
+   */
+  public String readClassName(BytesContainer bytes);
+
+  /**
+   * Looks for the field in the header of serialized document without deserialization of other fields. If the field is found and its
+   * value is not null, the offset of the container is moved to the serialized value.
+   * 
+   * @param iFieldNameBytes
+   *          Name of the field encoded in UTF-8.
+   * @param iSchema
+   *          Schema used to resolve names of fields which are stored as ids of global properties.
+   * @return Type of the value or <code>null</code> if the document does not contain the field or its value is null.
+   */
+  public OType seekField(BytesContainer bytes, String iFieldName, byte[] iFieldNameBytes, OSchema iSchema);
+
+  /**
+   * Reads the value located at the offset of the container. Only values which do not need owner document can be read, that is values
+   * of all types except embedded documents, collections, maps and ridbags.
+   */
+  public Object deserializeValue(BytesContainer bytes, OType type);
+
 }
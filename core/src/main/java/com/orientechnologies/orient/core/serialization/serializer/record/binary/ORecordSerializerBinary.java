@@ -55,6 +55,16 @@ public class ORecordSerializerBinary implements ORecordSerializer {
     return NAME;
   }
 
+  /**
+   * @return Serializer of documents written in given version of format or <code>null</code> if version is not supported.
+   */
+  public ODocumentSerializer getSerializer(final int iVersion) {
+    if (iVersion < 0 || iVersion >= serializerByVersion.length)
+      return null;
+
+    return serializerByVersion[iVersion];
+  }
+
   @Override
   public ORecord fromStream(final byte[] iSource, ORecord iRecord, final String[] iFields) {
     if (iSource.length == 0)
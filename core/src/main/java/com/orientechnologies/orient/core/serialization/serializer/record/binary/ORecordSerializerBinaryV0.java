@@ -43,6 +43,7 @@ import com.orientechnologies.orient.core.id.ORecordId;
 import com.orientechnologies.orient.core.metadata.schema.OClass;
 import com.orientechnologies.orient.core.metadata.schema.OGlobalProperty;
 import com.orientechnologies.orient.core.metadata.schema.OProperty;
+import com.orientechnologies.orient.core.metadata.schema.OSchema;
 import com.orientechnologies.orient.core.metadata.schema.OType;
 import com.orientechnologies.orient.core.record.ORecord;
 import com.orientechnologies.orient.core.record.ORecordInternal;
@@ -149,6 +150,81 @@ public class ORecordSerializerBinaryV0 implements ODocumentSerializer {
       bytes.offset = last;
   }
 
+  @Override
+  public String readClassName(final BytesContainer bytes) {
+    final String className = readString(bytes);
+    return className.length() != 0 ? className : null;
+  }
+
+  @Override
+  public OType seekField(final BytesContainer bytes, final String iFieldName, final byte[] iFieldNameBytes, final OSchema iSchema) {
+    // SKIP CLASS NAME
+    bytes.skip(OVarIntSerializer.readAsInteger(bytes));
+
+    while (true) {
+      final int len = OVarIntSerializer.readAsInteger(bytes);
+
+      final boolean found;
+      OType type = null;
+      if (len == 0) {
+        // SCAN COMPLETED
+        return null;
+      } else if (len > 0) {
+        found = len == iFieldNameBytes.length && equals(bytes.bytes, bytes.offset, iFieldNameBytes);
+        bytes.skip(len);
+      } else {
+        final OGlobalProperty prop = iSchema.getGlobalPropertyById((len * -1) - 1);
+        found = prop.getName().equals(iFieldName);
+        if (prop.getType() != OType.ANY)
+          type = prop.getType();
+      }
+
+      if (!found) {
+        // SKIP POINTER AND TYPE OF THE VALUE
+        if (type != null)
+          bytes.skip(OIntegerSerializer.INT_SIZE);
+        else
+          bytes.skip(OIntegerSerializer.INT_SIZE + 1);
+        continue;
+      }
+
+      final int valuePos = readInteger(bytes);
+      if (type == null)
+        type = readOType(bytes);
+
+      if (valuePos == 0)
+        return null;
+
+      bytes.offset = valuePos;
+      return type;
+    }
+  }
+
+  @Override
+  public Object deserializeValue(final BytesContainer bytes, final OType type) {
+    switch (type) {
+    case EMBEDDED:
+    case EMBEDDEDSET:
+    case EMBEDDEDLIST:
+    case LINKSET:
+    case LINKLIST:
+    case LINKMAP:
+    case EMBEDDEDMAP:
+    case LINKBAG:
+      throw new OSerializationException("Value of type " + type + " can not be deserialized without owner document");
+    default:
+      return readSingleValue(bytes, type, null);
+    }
+  }
+
+  private static boolean equals(final byte[] bytes, final int offset, final byte[] value) {
+    for (int i = 0; i < value.length; i++)
+      if (bytes[offset + i] != value[i])
+        return false;
+
+    return true;
+  }
+
   @SuppressWarnings("unchecked")
   @Override
   public void serialize(final ODocument document, final BytesContainer bytes) {
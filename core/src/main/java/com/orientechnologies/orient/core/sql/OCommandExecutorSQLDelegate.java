@@ -45,15 +45,33 @@ public class OCommandExecutorSQLDelegate extends OCommandExecutorSQLAbstract {
       if (text == null)
         throw new IllegalArgumentException("Command text is null");
 
-      final String textUpperCase = text.toUpperCase(Locale.ENGLISH);
+      final OSQLStatementCache statementCache = OSQLStatementCache.instance(getDatabase());
+      // VERSION IS READ BEFORE PARSING, SO THE STATEMENT IS DROPPED IF SCHEMA IS CHANGED MEANWHILE
+      final int schemaVersion = statementCache != null ? getDatabase().getMetadata().getSchema().getVersion() : -1;
+      final OCommandExecutorSQLSelect template = statementCache != null ? statementCache.get(text, schemaVersion) : null;
 
-      delegate = (OCommandExecutorSQLAbstract) OSQLEngine.getInstance().getCommand(textUpperCase);
-      if (delegate == null)
-        throw new OCommandExecutorNotFoundException("Cannot find a command executor for the command request: " + iCommand);
+      if (template != null) {
+        final OCommandExecutorSQLSelect select = new OCommandExecutorSQLSelect();
+        select.setContext(context);
+        select.setLimit(iCommand.getLimit());
+        delegate = select.parse(iCommand, template);
+      } else {
+        final String textUpperCase = text.toUpperCase(Locale.ENGLISH);
+
+        delegate = (OCommandExecutorSQLAbstract) OSQLEngine.getInstance().getCommand(textUpperCase);
+        if (delegate == null)
+          throw new OCommandExecutorNotFoundException("Cannot find a command executor for the command request: " + iCommand);
+
+        delegate.setContext(context);
+        delegate.setLimit(iCommand.getLimit());
+        delegate.parse(iCommand);
+
+        if (statementCache != null && delegate.getClass() == OCommandExecutorSQLSelect.class
+            && ((OCommandExecutorSQLSelect) delegate).isCacheable())
+          // TEMPLATE IS COPIED BEFORE PARAMETERS ARE BOUND
+          statementCache.put(text, schemaVersion, ((OCommandExecutorSQLSelect) delegate).copy());
+      }
 
-      delegate.setContext(context);
-      delegate.setLimit(iCommand.getLimit());
-      delegate.parse(iCommand);
       delegate.setProgressListener(progressListener);
     } else
       throw new OCommandExecutionException("Cannot find a command executor for the command request: " + iCommand);
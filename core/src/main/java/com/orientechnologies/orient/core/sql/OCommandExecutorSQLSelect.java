@@ -21,14 +21,22 @@ package com.orientechnologies.orient.core.sql;
 
 import java.util.*;
 import java.util.Map.Entry;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.Future;
 import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
 import com.orientechnologies.common.collection.OMultiCollectionIterator;
 import com.orientechnologies.common.collection.OMultiValue;
 import com.orientechnologies.common.concur.resource.OSharedResource;
+import com.orientechnologies.common.exception.OException;
 import com.orientechnologies.common.log.OLogManager;
 import com.orientechnologies.common.profiler.OProfilerMBean;
 import com.orientechnologies.common.util.OPair;
@@ -36,9 +44,12 @@ import com.orientechnologies.orient.core.Orient;
 import com.orientechnologies.orient.core.command.OBasicCommandContext;
 import com.orientechnologies.orient.core.command.OCommandContext;
 import com.orientechnologies.orient.core.command.OCommandRequest;
+import com.orientechnologies.orient.core.config.OGlobalConfiguration;
+import com.orientechnologies.orient.core.db.ODatabase;
 import com.orientechnologies.orient.core.db.ODatabaseDocumentInternal;
 import com.orientechnologies.orient.core.db.ODatabaseRecordThreadLocal;
 import com.orientechnologies.orient.core.db.document.ODatabaseDocument;
+import com.orientechnologies.orient.core.db.document.ODatabaseDocumentTx;
 import com.orientechnologies.orient.core.db.record.OIdentifiable;
 import com.orientechnologies.orient.core.db.record.ridbag.ORidBag;
 import com.orientechnologies.orient.core.exception.OCommandExecutionException;
@@ -46,7 +57,11 @@ import com.orientechnologies.orient.core.exception.OQueryParsingException;
 import com.orientechnologies.orient.core.id.OContextualRecordId;
 import com.orientechnologies.orient.core.id.ORID;
 import com.orientechnologies.orient.core.index.*;
+import com.orientechnologies.orient.core.iterator.OIdentifiableIterator;
+import com.orientechnologies.orient.core.iterator.ORecordContentFilter;
 import com.orientechnologies.orient.core.iterator.ORecordIteratorClass;
+import com.orientechnologies.orient.core.iterator.ORecordIteratorCluster;
+import com.orientechnologies.orient.core.iterator.ORecordIteratorClusters;
 import com.orientechnologies.orient.core.metadata.schema.OClass;
 import com.orientechnologies.orient.core.metadata.schema.OType;
 import com.orientechnologies.orient.core.metadata.security.*;
@@ -64,6 +79,7 @@ import com.orientechnologies.orient.core.sql.query.OResultSet;
 import com.orientechnologies.orient.core.sql.query.OSQLQuery;
 import com.orientechnologies.orient.core.storage.OStorage;
 import com.orientechnologies.orient.core.storage.OStorage.LOCKING_STRATEGY;
+import com.orientechnologies.orient.core.storage.OStorageProxy;
 
 /**
  * Executes the SQL SELECT statement. the parse() method compiles the query and builds the meta information needed by the execute().
@@ -83,6 +99,7 @@ public class OCommandExecutorSQLSelect extends OCommandExecutorSQLResultsetAbstr
   public static final String          KEYWORD_FETCHPLAN    = "FETCHPLAN";
   private static final String         KEYWORD_AS           = "AS";
   private static final String         KEYWORD_PARALLEL     = "PARALLEL";
+  private static final int            MAX_SPILL_LEVEL      = 8;
   private final OOrderByOptimizer     orderByOptimizer     = new OOrderByOptimizer();
   private final OMetricRecorder       metricRecorder       = new OMetricRecorder();
   private final OFilterOptimizer      filterOptimizer      = new OFilterOptimizer();
@@ -103,8 +120,14 @@ public class OCommandExecutorSQLSelect extends OCommandExecutorSQLResultsetAbstr
   private OStorage.LOCKING_STRATEGY   lockingStrategy      = OStorage.LOCKING_STRATEGY.DEFAULT;
   private boolean                     parallel             = false;
   private Lock                        parallelLock         = new ReentrantLock();
+  private ORecordContentFilter        contentFilter;
 
   private Set<ORID>                   foundResults         = new HashSet<ORID>();
+  private OOrderBySorter              orderBySorter;
+  private OGroupBySpiller             groupBySpiller;
+  private int                         groupBySpillLevel;
+  private int                         groupBufferSize      = -1;
+  private boolean                     limitParsed          = false;
 
   private final class IndexUsageLog {
     IndexUsageLog(OIndex<?> index, List<Object> keyParams, OIndexDefinition indexDefinition) {
@@ -144,6 +167,118 @@ public class OCommandExecutorSQLSelect extends OCommandExecutorSQLResultsetAbstr
     }
   }
 
+  /**
+   * Range of positions of single cluster which is scanned by one of workers of parallel query.
+   */
+  private static final class ScanPartition {
+    private final int  clusterId;
+    private final long firstPosition;
+    private final long lastPosition;
+
+    private ScanPartition(int clusterId, long firstPosition, long lastPosition) {
+      this.clusterId = clusterId;
+      this.firstPosition = firstPosition;
+      this.lastPosition = lastPosition;
+    }
+  }
+
+  /**
+   * State of parallel query which is shared between workers and thread which merges results.
+   */
+  private static final class ParallelScanState {
+    private final Queue<ScanPartition>  partitions;
+    private final BlockingQueue<ORecord> results;
+    private final AtomicInteger         runningWorkers;
+    private final AtomicLong            recordReads   = new AtomicLong();
+    private final AtomicLong            documentReads = new AtomicLong();
+    private volatile boolean            stop;
+    private volatile Throwable          error;
+
+    private ParallelScanState(Queue<ScanPartition> partitions, int workersCount) {
+      this.partitions = partitions;
+      this.results = new ArrayBlockingQueue<ORecord>(OGlobalConfiguration.QUERY_PARALLEL_RESULT_QUEUE_SIZE.getValueAsInteger());
+      this.runningWorkers = new AtomicInteger(workersCount);
+    }
+
+    private synchronized void setError(Throwable e) {
+      if (error == null)
+        error = e;
+
+      stop = true;
+    }
+  }
+
+  /**
+   * Scans ranges of clusters using own database instance and passes records which match the filter to the merging thread.
+   */
+  private final class ParallelScanWorker implements Callable<Void> {
+    private final ODatabaseDocumentInternal db;
+    private final ParallelScanState         state;
+
+    private ParallelScanWorker(ODatabaseDocumentInternal db, ParallelScanState state) {
+      this.db = db;
+      this.state = state;
+    }
+
+    @Override
+    public Void call() throws Exception {
+      ODatabaseDocumentTx workerDb = null;
+      try {
+        // SECURITY IS CHECKED ALREADY BY CURRENT DATABASE, THE SAME USER IS SET TO APPLY RECORD LEVEL SECURITY
+        workerDb = new ODatabaseDocumentTx(db.getURL());
+        workerDb.setProperty(ODatabase.OPTIONS.SECURITY.toString(), Boolean.FALSE);
+        workerDb.open("admin", "nopass");
+        workerDb.setUser(db.getUser());
+
+        final OBasicCommandContext workerContext = new OBasicCommandContext();
+        for (Entry<String, Object> variable : context.getVariables().entrySet())
+          workerContext.setVariable(variable.getKey(), variable.getValue());
+
+        ScanPartition partition;
+        while (!state.stop && (partition = state.partitions.poll()) != null)
+          scanPartition(workerDb, workerContext, partition);
+
+      } catch (Throwable e) {
+        state.setError(e);
+      } finally {
+        state.runningWorkers.decrementAndGet();
+
+        if (workerDb != null)
+          workerDb.close();
+
+        ODatabaseRecordThreadLocal.INSTANCE.remove();
+      }
+
+      return null;
+    }
+
+    private void scanPartition(final ODatabaseDocumentTx workerDb, final OCommandContext workerContext,
+        final ScanPartition partition) throws InterruptedException {
+      final ORecordIteratorCluster<ORecord> records = new ORecordIteratorCluster<ORecord>(workerDb, workerDb,
+          partition.clusterId, partition.firstPosition, partition.lastPosition, request.isUseCache(), false,
+          OStorage.LOCKING_STRATEGY.DEFAULT);
+      records.setContentFilter(contentFilter);
+
+      while (!state.stop && records.hasNext()) {
+        final ORecord record = records.next();
+        state.recordReads.incrementAndGet();
+
+        if (record == null || ORecordInternal.getRecordType(record) != ODocument.RECORD_TYPE)
+          continue;
+
+        state.documentReads.incrementAndGet();
+
+        workerContext.setVariable("current", record);
+        if (!filter(record, workerContext))
+          continue;
+
+        // QUEUE IS BOUNDED, SO WORKERS WAIT FOR THE MERGING THREAD INSTEAD OF KEEPING ALL THE RESULTS IN MEMORY
+        while (!state.stop && !state.results.offer(record, 100, TimeUnit.MILLISECONDS))
+          ;
+      }
+    }
+  }
+
   private static Object getIndexKey(final OIndexDefinition indexDefinition, Object value, OCommandContext context) {
     if (indexDefinition instanceof OCompositeIndexDefinition || indexDefinition.getParamCount() > 1) {
       if (value instanceof List) {
@@ -223,6 +358,7 @@ public class OCommandExecutorSQLSelect extends OCommandExecutorSQLResultsetAbstr
             parseOrderBy();
           } else if (w.equals(KEYWORD_LIMIT)) {
             parseLimit(w);
+            limitParsed = true;
           } else if (w.equals(KEYWORD_SKIP) || w.equals(KEYWORD_OFFSET)) {
             parseSkip(w);
           } else if (w.equals(KEYWORD_FETCHPLAN)) {
@@ -254,6 +390,93 @@ public class OCommandExecutorSQLSelect extends OCommandExecutorSQLResultsetAbstr
     return this;
   }
 
+  /**
+   * Binds the request to parsed state of template instead of parsing the text again. Template is created by {@link #copy()} from
+   * executor of the command with the same text.
+   *
+   * @see OSQLStatementCache
+   */
+  public OCommandExecutorSQLSelect parse(final OCommandRequest iRequest, final OCommandExecutorSQLSelect iTemplate) {
+    super.parse(iRequest);
+
+    initContext();
+
+    iTemplate.copyParsedState(this);
+
+    if (fetchPlan != null) {
+      request.setFetchPlan(fetchPlan);
+    }
+
+    if (limit == 0 || limit < -1) {
+      throw new IllegalArgumentException("Limit must be > 0 or = -1 (no limit)");
+    }
+
+    return this;
+  }
+
+  /**
+   * @return {@code true} if parsed state depends only on the text of the command and on the schema, so the executor can be used as
+   *         template of executors of following commands with the same text
+   */
+  public boolean isCacheable() {
+    if (parsedTarget == null || let != null || expandTarget != null || groupByFields != null || groupedResult != null)
+      return false;
+
+    // SUB QUERIES, VARIABLES AND RECORDS ARE RESOLVED BY PARSING
+    if (parsedTarget.getTargetClasses() == null && parsedTarget.getTargetClusters() == null
+        && parsedTarget.getTargetIndex() == null && parsedTarget.getTargetIndexValues() == null)
+      return false;
+
+    if (compiledFilter != null && !compiledFilter.isCopyable())
+      return false;
+
+    if (projections != null) {
+      // PROJECTIONS ARE SHARED BETWEEN EXECUTIONS, FUNCTIONS AND METHODS KEEP STATE OF EXECUTION
+      for (Object p : projections.values())
+        if (p == null || p.getClass() != OSQLFilterItemField.class || !((OSQLFilterItemField) p).isFieldChain()
+            || ((OSQLFilterItemField) p).getFieldChain().isLong())
+          return false;
+    }
+
+    return true;
+  }
+
+  /**
+   * Creates executor which shares parsed state of this one but is not bound to any request, so it can be used as template of
+   * executors of following commands with the same text. Conditions of the filter are copied because they are bound to parameters
+   * and optimized by every execution, while target, projections and the rest of clauses are shared.
+   *
+   * @see #isCacheable()
+   * @see #parse(OCommandRequest, OCommandExecutorSQLSelect)
+   */
+  public OCommandExecutorSQLSelect copy() {
+    final OCommandExecutorSQLSelect copy = new OCommandExecutorSQLSelect();
+    copyParsedState(copy);
+    return copy;
+  }
+
+  private void copyParsedState(final OCommandExecutorSQLSelect iCopy) {
+    iCopy.parserText = parserText;
+    iCopy.parserTextUpperCase = parserTextUpperCase;
+    iCopy.parsedTarget = parsedTarget;
+    iCopy.compiledFilter = compiledFilter != null ? compiledFilter.copy(iCopy.context) : null;
+    iCopy.projections = projections;
+    iCopy.projectionDefinition = projectionDefinition;
+    iCopy.orderedFields = new ArrayList<OPair<String, String>>(orderedFields);
+    iCopy.fetchPlan = fetchPlan;
+    iCopy.skip = skip;
+    iCopy.timeoutMs = timeoutMs;
+    iCopy.timeoutStrategy = timeoutStrategy;
+    iCopy.lockingStrategy = lockingStrategy;
+    iCopy.parallel = parallel;
+
+    if (limitParsed) {
+      // OTHERWISE LIMIT OF THE REQUEST IS USED
+      iCopy.limit = limit;
+      iCopy.limitParsed = true;
+    }
+  }
+
   /**
    * Determine clusters that are used in select operation
    *
@@ -334,7 +557,11 @@ public class OCommandExecutorSQLSelect extends OCommandExecutorSQLResultsetAbstr
       handleGroupBy();
       applyOrderBy();
 
-      subIterator = new ArrayList<OIdentifiable>((List<OIdentifiable>) getResult()).iterator();
+      try {
+        subIterator = new ArrayList<OIdentifiable>((List<OIdentifiable>) getResult()).iterator();
+      } finally {
+        closeTemporaryResults();
+      }
       lastRecord = null;
       tempResult = null;
       groupedResult = null;
@@ -373,6 +600,8 @@ public class OCommandExecutorSQLSelect extends OCommandExecutorSQLResultsetAbstr
       }
       return getResult();
     } finally {
+      closeTemporaryResults();
+
       if (request.getResultListener() != null) {
         request.getResultListener().end();
       }
@@ -551,34 +780,7 @@ public class OCommandExecutorSQLSelect extends OCommandExecutorSQLResultsetAbstr
         }
       } else {
         // AGGREGATION/GROUP BY
-        Object fieldValue = null;
-        if (groupByFields != null && !groupByFields.isEmpty()) {
-          if (groupByFields.size() > 1) {
-            // MULTI-FIELD GROUP BY
-            final ODocument doc = iRecord.getRecord();
-            final Object[] fields = new Object[groupByFields.size()];
-            for (int i = 0; i < groupByFields.size(); ++i) {
-              final String field = groupByFields.get(i);
-              if (field.startsWith("$")) {
-                fields[i] = context.getVariable(field);
-              } else {
-                fields[i] = doc.field(field);
-              }
-            }
-            fieldValue = fields;
-          } else {
-            final String field = groupByFields.get(0);
-            if (field != null) {
-              if (field.startsWith("$")) {
-                fieldValue = context.getVariable(field);
-              } else {
-                fieldValue = ((ODocument) iRecord.getRecord()).field(field);
-              }
-            }
-          }
-        }
-
-        getProjectionGroup(fieldValue).applyRecord(iRecord);
+        applyGroupBy(iRecord);
         return true;
       }
     }
@@ -590,6 +792,13 @@ public class OCommandExecutorSQLSelect extends OCommandExecutorSQLResultsetAbstr
         result = request.getResultListener().result(iRecord);
       }
 
+    } else if (expandTarget == null && parsedTarget != null && !isRidOnlySort()) {
+      // SORT THE RECORDS KEEPING IN MEMORY ONLY THE ONES WHICH ARE NEEDED BY LIMIT OR FIT IN SORT BUFFER
+      if (orderBySorter == null) {
+        orderBySorter = new OOrderBySorter(orderedFields, context, fetchLimit > -1 ? fetchLimit + Math.max(skip, 0) : -1);
+      }
+      orderBySorter.add(iRecord);
+
     } else {
 
       // COLLECT ALL THE RECORDS AND ORDER THEM AT THE END
@@ -607,35 +816,11 @@ public class OCommandExecutorSQLSelect extends OCommandExecutorSQLResultsetAbstr
     final long begin = System.currentTimeMillis();
     try {
 
-      Object key = null;
       if (groupedResult == null) {
         groupedResult = new LinkedHashMap<Object, ORuntimeResult>();
       }
 
-      if (fieldValue != null) {
-        if (fieldValue.getClass().isArray()) {
-          // LOOK IT BY HASH (FASTER THAN COMPARE EACH SINGLE VALUE)
-          final Object[] array = (Object[]) fieldValue;
-
-          final StringBuilder keyArray = new StringBuilder();
-          for (Object o : array) {
-            if (keyArray.length() > 0) {
-              keyArray.append(",");
-            }
-            if (o != null) {
-              keyArray.append(o instanceof OIdentifiable ? ((OIdentifiable) o).getIdentity().toString() : o.toString());
-            } else {
-              keyArray.append("null");
-            }
-          }
-
-          key = keyArray.toString();
-        } else
-        // LOOKUP FOR THE FIELD
-        {
-          key = fieldValue;
-        }
-      }
+      final Object key = getGroupKey(fieldValue);
 
       ORuntimeResult group = groupedResult.get(key);
       if (group == null) {
@@ -648,6 +833,119 @@ public class OCommandExecutorSQLSelect extends OCommandExecutorSQLResultsetAbstr
     }
   }
 
+  protected Object getGroupByValue(final OIdentifiable iRecord) {
+    Object fieldValue = null;
+    if (groupByFields != null && !groupByFields.isEmpty()) {
+      if (groupByFields.size() > 1) {
+        // MULTI-FIELD GROUP BY
+        final ODocument doc = iRecord.getRecord();
+        final Object[] fields = new Object[groupByFields.size()];
+        for (int i = 0; i < groupByFields.size(); ++i) {
+          final String field = groupByFields.get(i);
+          if (field.startsWith("$")) {
+            fields[i] = context.getVariable(field);
+          } else {
+            fields[i] = doc.field(field);
+          }
+        }
+        fieldValue = fields;
+      } else {
+        final String field = groupByFields.get(0);
+        if (field != null) {
+          if (field.startsWith("$")) {
+            fieldValue = context.getVariable(field);
+          } else {
+            fieldValue = ((ODocument) iRecord.getRecord()).field(field);
+          }
+        }
+      }
+    }
+    return fieldValue;
+  }
+
+  protected Object getGroupKey(final Object fieldValue) {
+    if (fieldValue == null) {
+      return null;
+    }
+
+    if (fieldValue.getClass().isArray()) {
+      // LOOK IT BY HASH (FASTER THAN COMPARE EACH SINGLE VALUE)
+      final Object[] array = (Object[]) fieldValue;
+
+      final StringBuilder keyArray = new StringBuilder();
+      for (Object o : array) {
+        if (keyArray.length() > 0) {
+          keyArray.append(",");
+        }
+        if (o != null) {
+          keyArray.append(o instanceof OIdentifiable ? ((OIdentifiable) o).getIdentity().toString() : o.toString());
+        } else {
+          keyArray.append("null");
+        }
+      }
+
+      return keyArray.toString();
+    }
+
+    // LOOKUP FOR THE FIELD
+    return fieldValue;
+  }
+
+  private void applyGroupBy(final OIdentifiable iRecord) {
+    final Object fieldValue = getGroupByValue(iRecord);
+
+    if (groupedResult != null && groupedResult.size() >= getGroupBufferSize()) {
+      // NEW GROUPS DO NOT FIT IN MEMORY: KEEP THEIR RECORDS IN TEMPORARY FILES AND AGGREGATE THEM AFTER ALL RECORDS ARE READ
+      final Object key = getGroupKey(fieldValue);
+      if (!groupedResult.containsKey(key)) {
+        if (groupBySpiller == null) {
+          groupBySpiller = new OGroupBySpiller(groupBySpillLevel);
+        }
+
+        groupBySpiller.add(key, (ODocument) iRecord.getRecord());
+        return;
+      }
+    }
+
+    getProjectionGroup(fieldValue).applyRecord(iRecord);
+  }
+
+  private int getGroupBufferSize() {
+    if (groupBufferSize < 0) {
+      groupBufferSize = isGroupBySpillAllowed() ? OGlobalConfiguration.QUERY_GROUP_BY_GROUP_BUFFER_SIZE.getValueAsInteger()
+          : Integer.MAX_VALUE;
+    }
+
+    // GROUPS WHICH DO NOT GET SMALLER AFTER SO MANY PARTITIONING STEPS ARE AGGREGATED IN MEMORY
+    return groupBySpillLevel < MAX_SPILL_LEVEL ? groupBufferSize : Integer.MAX_VALUE;
+  }
+
+  /**
+   * Records of spilled groups are aggregated after the scan, so neither group keys nor projections may depend on context
+   * variables which are changed during the scan.
+   */
+  private boolean isGroupBySpillAllowed() {
+    if (groupByFields == null || groupByFields.isEmpty() || (let != null && !let.isEmpty())) {
+      return false;
+    }
+
+    for (String field : groupByFields) {
+      if (field.startsWith("$")) {
+        return false;
+      }
+    }
+
+    if (projectionDefinition != null) {
+      for (String projection : projectionDefinition.values()) {
+        if (projection != null && projection.indexOf('$') > -1) {
+          return false;
+        }
+      }
+    }
+
+    return true;
+  }
+
   protected void parseGroupBy() {
     parserRequiredKeyword(KEYWORD_BY);
 
@@ -1216,10 +1514,19 @@ public class OCommandExecutorSQLSelect extends OCommandExecutorSQLResultsetAbstr
 
   private void fetchFromTarget(Iterator<? extends OIdentifiable> iTarget) {
     final long startFetching = System.currentTimeMillis();
+    if (compiledFilter != null && OGlobalConfiguration.QUERY_COMPILE_FILTER.getValueAsBoolean())
+      // TYPES OF CONSTANTS ARE KNOWN ONLY ONCE PARAMETERS ARE BOUND AND CONDITION IS OPTIMIZED
+      compiledFilter.compile();
+
     try {
+      if (iTarget instanceof OIdentifiableIterator<?>) {
+        // RECORDS WHICH DO NOT MATCH SIMPLE CONDITIONS ARE SKIPPED BEFORE UNMARSHALLING
+        contentFilter = compileContentFilter();
+        ((OIdentifiableIterator<?>) iTarget).setContentFilter(contentFilter);
+      }
 
-      if (parallel) {
-        parallelExec(iTarget);
+      if (parallel && parallelExec(iTarget)) {
+        return;
       } else
       // BROWSE; UNMARSHALL AND FILTER ALL THE RECORDS ON CURRENT THREAD
       {
@@ -1244,81 +1551,158 @@ public class OCommandExecutorSQLSelect extends OCommandExecutorSQLResultsetAbstr
       }
 
     } finally {
+      if (compiledFilter != null)
+        compiledFilter.decompile();
+
       context.setVariable("fetchingFromTargetElapsed", (System.currentTimeMillis() - startFetching));
     }
   }
 
+  private ORecordContentFilter compileContentFilter() {
+    if (!OGlobalConfiguration.QUERY_BINARY_FILTER.getValueAsBoolean() || compiledFilter == null)
+      return null;
+
+    return OSQLBinaryFilter.compile(getDatabase(), compiledFilter.getRootCondition(), context);
+  }
+
   private boolean parseParallel(String w) {
     return w.equals(KEYWORD_PARALLEL);
   }
 
-  private void parallelExec(final Iterator<? extends OIdentifiable> iTarget) {
-    final OResultSet result = (OResultSet) getResult();
-
-    // BROWSE ALL THE RECORDS ON CURRENT THREAD BUT DELEGATE UNMARSHALLING AND FILTER TO A THREAD POOL
+  /**
+   * Executes the query splitting the scanned clusters in ranges of positions. Every worker loads, unmarshalls and filters records of
+   * its ranges using own database instance, while matched records are passed to the current thread through a bounded queue.
+   *
+   * @return <code>false</code> if the target can not be split in ranges, so it should be browsed on current thread.
+   */
+  private boolean parallelExec(final Iterator<? extends OIdentifiable> iTarget) {
     final ODatabaseDocumentInternal db = getDatabase();
 
+    final Queue<ScanPartition> partitions = splitInPartitions(iTarget, db);
+    if (partitions == null)
+      return false;
+
+    final OResultSet result = (OResultSet) getResult();
     if (limit > -1) {
       if (result != null) {
         result.setLimit(limit);
       }
     }
 
-    final int cores = Runtime.getRuntime().availableProcessors();
-    OLogManager.instance().debug(this, "Parallel query against %d threads", cores);
+    final int workersCount = Math.min(partitions.size(), Runtime.getRuntime().availableProcessors());
+    OLogManager.instance().debug(this, "Parallel query '%s' split in %d ranges, executing against %d threads", parserText,
+        partitions.size(), workersCount);
 
+    final ParallelScanState state = new ParallelScanState(partitions, workersCount);
     final ThreadPoolExecutor workers = Orient.instance().getWorkers();
 
-    executing = true;
     final List<Future<?>> jobs = new ArrayList<Future<?>>();
+    for (int i = 0; i < workersCount; i++)
+      jobs.add(workers.submit(new ParallelScanWorker(db, state)));
 
-    // BROWSE ALL THE RECORDS AND PUT THE RECORD INTO THE QUEUE
-    while (executing && iTarget.hasNext()) {
-      final OIdentifiable next = iTarget.next();
-
-      if (next == null) {
-        break;
-      }
+    executing = true;
+    try {
+      // MERGE THE RESULTS OF ALL THE WORKERS ON CURRENT THREAD
+      while (!state.stop) {
+        if (!context.checkTimeout())
+          break;
+
+        final ORecord record = state.results.poll(100, TimeUnit.MILLISECONDS);
+        if (record == null) {
+          if (state.runningWorkers.get() == 0 && state.results.isEmpty())
+            break;
 
-      final Runnable job = new Runnable() {
-        @Override
-        public void run() {
-          ODatabaseRecordThreadLocal.INSTANCE.set(db);
+          continue;
+        }
 
-          if (!executeSearchRecord(next)) {
-            executing = false;
-          }
+        context.setVariable("current", record);
+        if (!handleResult(record))
+          // LIMIT REACHED
+          break;
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new OCommandExecutionException("The select execution has been interrupted");
+    } finally {
+      // STOP THE WORKERS AND WAIT FOR THEM, SO NO RECORD IS LOADED AFTER QUERY IS COMPLETED
+      state.stop = true;
+      executing = false;
+
+      for (Future<?> job : jobs) {
+        try {
+          job.get();
+        } catch (Exception e) {
+          state.setError(e);
         }
-      };
+      }
 
-      jobs.add(workers.submit(job));
+      ODatabaseRecordThreadLocal.INSTANCE.set(db);
     }
 
-    if (OLogManager.instance().isDebugEnabled()) {
-      OLogManager.instance()
-          .debug(this, "Parallel query '%s' split in %d jobs, waiting for completion...", parserText, jobs.size());
-    }
+    context.updateMetric("recordReads", state.recordReads.get());
+    context.updateMetric("documentReads", state.documentReads.get());
 
-    int processed = 0;
-    int total = jobs.size();
-    try {
-      for (Future<?> j : jobs) {
-        j.get();
-        processed++;
+    if (state.error != null) {
+      if (state.error instanceof OException)
+        throw (OException) state.error;
 
-        if (OLogManager.instance().isDebugEnabled()) {
-          if (processed % (total / 10) == 0) {
-            OLogManager.instance().debug(this, "Executed parallel query %d/%d", processed, total);
-          }
-        }
-      }
-    } catch (Exception e) {
-      OLogManager.instance().error(this, "Error on executing parallel query: %s", e, parserText);
+      throw new OCommandExecutionException("Error on executing parallel query: " + parserText, state.error);
     }
 
-    if (OLogManager.instance().isDebugEnabled()) {
-      OLogManager.instance().debug(this, "Parallel query '%s' completed", parserText);
+    OLogManager.instance().debug(this, "Parallel query '%s' completed", parserText);
+    return true;
+  }
+
+  /**
+   * Splits the clusters browsed by the target in ranges of positions which can be scanned independently.
+   *
+   * @return <code>null</code> if the target can not be executed in parallel.
+   */
+  private Queue<ScanPartition> splitInPartitions(final Iterator<? extends OIdentifiable> iTarget, final ODatabaseDocumentInternal db) {
+    if (!(iTarget instanceof ORecordIteratorClusters))
+      return null;
+
+    // LET CLAUSES, RECORD LOCKS AND TRANSACTIONS ARE BOUND TO THE CURRENT DATABASE INSTANCE
+    if (let != null && !let.isEmpty())
+      return null;
+
+    if (lockingStrategy != OStorage.LOCKING_STRATEGY.DEFAULT && lockingStrategy != OStorage.LOCKING_STRATEGY.NONE
+        || context.getVariable("$locking") != null)
+      return null;
+
+    if (db.getTransaction().isActive() || db.getStorage() instanceof OStorageProxy)
+      return null;
+
+    final ORecordIteratorClusters<?> clusterIterator = (ORecordIteratorClusters<?>) iTarget;
+    final ORID beginRange = clusterIterator.getBeginRange();
+    final ORID endRange = clusterIterator.getEndRange();
+
+    final long partitionSize = OGlobalConfiguration.QUERY_PARALLEL_PARTITION_SIZE.getValueAsInteger();
+    final Queue<ScanPartition> partitions = new ConcurrentLinkedQueue<ScanPartition>();
+
+    for (int clusterId : clusterIterator.getClusterIds()) {
+      // CLUSTERS OUT OF THE RANGE ARE SKIPPED BY THE ITERATOR AS WELL
+      if (beginRange != null && clusterId < beginRange.getClusterId() || endRange != null && clusterId > endRange.getClusterId())
+        continue;
+
+      final long[] range = db.getStorage().getClusterDataRange(clusterId);
+      if (range.length < 2 || range[0] == ORID.CLUSTER_POS_INVALID)
+        continue;
+
+      long firstPosition = range[0];
+      long lastPosition = range[1];
+
+      if (beginRange != null && beginRange.getClusterId() == clusterId && beginRange.getClusterPosition() > firstPosition)
+        firstPosition = beginRange.getClusterPosition();
+
+      if (endRange != null && endRange.getClusterId() == clusterId && endRange.getClusterPosition() < lastPosition)
+        lastPosition = endRange.getClusterPosition();
+
+      for (long position = firstPosition; position <= lastPosition; position += partitionSize)
+        partitions.add(new ScanPartition(clusterId, position, Math.min(position + partitionSize - 1, lastPosition)));
     }
+
+    return partitions;
   }
 
   private int getQueryFetchLimit() {
@@ -1655,6 +2039,17 @@ public class OCommandExecutorSQLSelect extends OCommandExecutorSQLResultsetAbstr
   }
 
   private void applyOrderBy() {
+    if (orderBySorter != null) {
+      final long startOrderBy = System.currentTimeMillis();
+      try {
+        tempResult = orderBySorter.sort();
+        orderedFields.clear();
+      } finally {
+        metricRecorder.orderByElapsed(startOrderBy);
+      }
+      return;
+    }
+
     if (orderedFields.isEmpty() || fullySortedByIndex || isRidOnlySort()) {
       return;
     }
@@ -1678,6 +2073,63 @@ public class OCommandExecutorSQLSelect extends OCommandExecutorSQLResultsetAbstr
     }
   }
 
+  @Override
+  protected void applyLimitAndSkip() {
+    if (orderBySorter == null || tempResult == null || tempResult instanceof List<?> || (limit <= 0 && skip <= 0)) {
+      super.applyLimitAndSkip();
+      return;
+    }
+
+    // RESULTS SORTED IN TEMPORARY FILES ARE NOT LOADED IN MEMORY AT ONCE, SO LIMIT AND SKIP ARE APPLIED DURING ITERATION
+    final Iterable<OIdentifiable> sortedResult = tempResult;
+    final int resultSkip = Math.max(skip, 0);
+    final int resultLimit = limit;
+
+    tempResult = new Iterable<OIdentifiable>() {
+      @Override
+      public Iterator<OIdentifiable> iterator() {
+        final Iterator<OIdentifiable> iterator = sortedResult.iterator();
+        for (int i = 0; i < resultSkip && iterator.hasNext(); i++)
+          iterator.next();
+
+        return new Iterator<OIdentifiable>() {
+          private int returned;
+
+          @Override
+          public boolean hasNext() {
+            return (resultLimit <= 0 || returned < resultLimit) && iterator.hasNext();
+          }
+
+          @Override
+          public OIdentifiable next() {
+            if (!hasNext())
+              throw new NoSuchElementException();
+
+            returned++;
+            return iterator.next();
+          }
+
+          @Override
+          public void remove() {
+            throw new UnsupportedOperationException("remove");
+          }
+        };
+      }
+    };
+  }
+
+  private void closeTemporaryResults() {
+    if (orderBySorter != null) {
+      orderBySorter.close();
+      orderBySorter = null;
+    }
+
+    if (groupBySpiller != null) {
+      groupBySpiller.close();
+      groupBySpiller = null;
+    }
+  }
+
   /**
    * Extract the content of collections and/or links and put it as result
    */
@@ -1963,13 +2415,15 @@ public class OCommandExecutorSQLSelect extends OCommandExecutorSQLResultsetAbstr
       try {
 
         tempResult = new ArrayList<OIdentifiable>();
-
-        for (Entry<Object, ORuntimeResult> g : groupedResult.entrySet()) {
-          if (g.getKey() != null || (groupedResult.size() == 1 && groupByFields == null)) {
-            final ODocument doc = g.getValue().getResult();
-            if (doc != null && !doc.isEmpty()) {
-              ((List<OIdentifiable>) tempResult).add(doc);
-            }
+        addGroupResults();
+
+        if (groupBySpiller != null) {
+          final OGroupBySpiller spiller = groupBySpiller;
+          groupBySpiller = null;
+          try {
+            aggregateSpilledGroups(spiller);
+          } finally {
+            groupBySpillLevel = 0;
           }
         }
 
@@ -1978,4 +2432,40 @@ public class OCommandExecutorSQLSelect extends OCommandExecutorSQLResultsetAbstr
       }
     }
   }
+
+  private void addGroupResults() {
+    for (Entry<Object, ORuntimeResult> g : groupedResult.entrySet()) {
+      if (g.getKey() != null || (groupedResult.size() == 1 && groupByFields == null)) {
+        final ODocument doc = g.getValue().getResult();
+        if (doc != null && !doc.isEmpty()) {
+          ((List<OIdentifiable>) tempResult).add(doc);
+        }
+      }
+    }
+  }
+
+  private void aggregateSpilledGroups(final OGroupBySpiller spiller) {
+    try {
+      for (int i = 0; i < OGroupBySpiller.PARTITIONS; i++) {
+        groupedResult = new LinkedHashMap<Object, ORuntimeResult>();
+        groupBySpillLevel = spiller.getLevel() + 1;
+
+        final Iterator<ODocument> records = spiller.partition(i);
+        while (records.hasNext()) {
+          applyGroupBy(records.next());
+        }
+
+        addGroupResults();
+
+        if (groupBySpiller != null) {
+          // PARTITION DID NOT FIT IN MEMORY, SPLIT IT FURTHER
+          final OGroupBySpiller partitionSpiller = groupBySpiller;
+          groupBySpiller = null;
+          aggregateSpilledGroups(partitionSpiller);
+        }
+      }
+    } finally {
+      spiller.close();
+    }
+  }
 }
@@ -0,0 +1,178 @@
+/*
+  *
+  *  *  Copyright 2014 Orient Technologies LTD (info(at)orientechnologies.com)
+  *  *
+  *  *  Licensed under the Apache License, Version 2.0 (the "License");
+  *  *  you may not use this file except in compliance with the License.
+  *  *  You may obtain a copy of the License at
+  *  *
+  *  *       http://www.apache.org/licenses/LICENSE-2.0
+  *  *
+  *  *  Unless required by applicable law or agreed to in writing, software
+  *  *  distributed under the License is distributed on an "AS IS" BASIS,
+  *  *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  *  *  See the License for the specific language governing permissions and
+  *  *  limitations under the License.
+  *  *
+  *  * For more information: http://www.orientechnologies.com
+  *
+  */
+
+package com.orientechnologies.orient.core.sql;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import com.orientechnologies.common.log.OLogManager;
+import com.orientechnologies.orient.core.exception.OCommandExecutionException;
+import com.orientechnologies.orient.core.record.impl.ODocument;
+
+/**
+ * Keeps records of GROUP BY groups which do not fit in memory. Records are split in partitions by hash code of group key, so all
+ * records of the same group are placed in the same partition and every partition can be aggregated separately from others.
+ *
+ * Partitions of spiller created for partition of other spiller should be created with bigger level, so records of the same
+ * partition are distributed between new partitions.
+ */
+public class OGroupBySpiller {
+  public static final int          PARTITIONS = 16;
+
+  private final int                level;
+  private final File[]             files      = new File[PARTITIONS];
+  private final DataOutputStream[] outputs    = new DataOutputStream[PARTITIONS];
+  private final int[]              sizes      = new int[PARTITIONS];
+  private DataInputStream          input;
+
+  public OGroupBySpiller(final int level) {
+    this.level = level;
+  }
+
+  public int getLevel() {
+    return level;
+  }
+
+  public void add(final Object groupKey, final ODocument record) {
+    final int partition = partition(groupKey);
+
+    try {
+      if (outputs[partition] == null) {
+        files[partition] = File.createTempFile("orient-groupby-", ".grp");
+        files[partition].deleteOnExit();
+
+        outputs[partition] = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(files[partition])));
+      }
+
+      OOrderBySorter.writeRecord(outputs[partition], record);
+      sizes[partition]++;
+    } catch (IOException e) {
+      throw new OCommandExecutionException("Error during writing of grouped query results", e);
+    }
+  }
+
+  /**
+   * @return Records of given partition, they can be iterated only once.
+   */
+  public Iterator<ODocument> partition(final int partition) {
+    closeInput();
+
+    try {
+      if (outputs[partition] != null) {
+        outputs[partition].close();
+        outputs[partition] = null;
+      }
+
+      if (sizes[partition] > 0)
+        input = new DataInputStream(new BufferedInputStream(new FileInputStream(files[partition])));
+    } catch (IOException e) {
+      throw new OCommandExecutionException("Error during reading of grouped query results", e);
+    }
+
+    final DataInputStream in = input;
+    return new Iterator<ODocument>() {
+      private int left = sizes[partition];
+
+      @Override
+      public boolean hasNext() {
+        return left > 0;
+      }
+
+      @Override
+      public ODocument next() {
+        if (left == 0)
+          throw new NoSuchElementException();
+
+        try {
+          final ODocument record = OOrderBySorter.readRecord(in);
+          left--;
+          return record;
+        } catch (IOException e) {
+          throw new OCommandExecutionException("Error during reading of grouped query results", e);
+        }
+      }
+
+      @Override
+      public void remove() {
+        throw new UnsupportedOperationException("remove");
+      }
+    };
+  }
+
+  /**
+   * Removes temporary files which are used to group results.
+   */
+  public void close() {
+    closeInput();
+
+    for (int i = 0; i < PARTITIONS; i++) {
+      if (outputs[i] != null) {
+        try {
+          outputs[i].close();
+        } catch (IOException e) {
+          OLogManager.instance().error(this, "Error during closing of grouped query results", e);
+        }
+        outputs[i] = null;
+      }
+
+      if (files[i] != null) {
+        if (!files[i].delete())
+          OLogManager.instance().warn(this, "Can not delete file %s with grouped query results", files[i]);
+        files[i] = null;
+      }
+
+      sizes[i] = 0;
+    }
+  }
+
+  private void closeInput() {
+    if (input != null) {
+      try {
+        input.close();
+      } catch (IOException e) {
+        OLogManager.instance().error(this, "Error during closing of grouped query results", e);
+      }
+      input = null;
+    }
+  }
+
+  private int partition(final Object groupKey) {
+    int hash = groupKey != null ? groupKey.hashCode() : 0;
+
+    // MIX HASH CODE WITH LEVEL, OTHERWISE ALL RECORDS OF PARTITION WOULD BE PLACED IN THE SAME PARTITION OF NEXT LEVEL
+    hash ^= (level + 1) * 0x9E3779B9;
+    hash ^= hash >>> 16;
+    hash *= 0x85EBCA6B;
+    hash ^= hash >>> 13;
+    hash *= 0xC2B2AE35;
+    hash ^= hash >>> 16;
+
+    return (hash & Integer.MAX_VALUE) % PARTITIONS;
+  }
+}
@@ -0,0 +1,377 @@
+/*
+  *
+  *  *  Copyright 2014 Orient Technologies LTD (info(at)orientechnologies.com)
+  *  *
+  *  *  Licensed under the Apache License, Version 2.0 (the "License");
+  *  *  you may not use this file except in compliance with the License.
+  *  *  You may obtain a copy of the License at
+  *  *
+  *  *       http://www.apache.org/licenses/LICENSE-2.0
+  *  *
+  *  *  Unless required by applicable law or agreed to in writing, software
+  *  *  distributed under the License is distributed on an "AS IS" BASIS,
+  *  *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  *  *  See the License for the specific language governing permissions and
+  *  *  limitations under the License.
+  *  *
+  *  * For more information: http://www.orientechnologies.com
+  *
+  */
+
+package com.orientechnologies.orient.core.sql;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+
+import com.orientechnologies.common.log.OLogManager;
+import com.orientechnologies.common.util.OPair;
+import com.orientechnologies.orient.core.command.OCommandContext;
+import com.orientechnologies.orient.core.config.OGlobalConfiguration;
+import com.orientechnologies.orient.core.db.record.OIdentifiable;
+import com.orientechnologies.orient.core.exception.OCommandExecutionException;
+import com.orientechnologies.orient.core.id.ORID;
+import com.orientechnologies.orient.core.id.ORecordId;
+import com.orientechnologies.orient.core.record.ORecord;
+import com.orientechnologies.orient.core.record.ORecordInternal;
+import com.orientechnologies.orient.core.record.impl.ODocument;
+import com.orientechnologies.orient.core.record.impl.ODocumentComparator;
+import com.orientechnologies.orient.core.version.ORecordVersion;
+import com.orientechnologies.orient.core.version.OVersionFactory;
+
+/**
+ * Sorts results of query by ORDER BY clause. If only first results are needed because of LIMIT clause, only them are kept in
+ * memory in bounded heap. Otherwise results are sorted in memory till their amount exceeds
+ * {@link OGlobalConfiguration#QUERY_ORDER_BY_SORT_BUFFER_SIZE}, then sorted results are written to temporary file and all such
+ * files are merged when sorted results are iterated.
+ *
+ * Results which are equal in terms of ORDER BY clause are returned in the same order in which they were added.
+ */
+public class OOrderBySorter {
+  private final Comparator<OIdentifiable> comparator;
+  private final int                       maxResults;
+  private final int                       bufferSize;
+  private final List<Entry>               buffer     = new ArrayList<Entry>();
+  private final PriorityQueue<Entry>      topResults;
+  private final List<SortedRun>           runs       = new ArrayList<SortedRun>();
+  private final List<DataInputStream>     openedRuns = new ArrayList<DataInputStream>();
+  private long                            added;
+
+  /**
+   * @param maxResults
+   *          Amount of first sorted results which are needed, <code>-1</code> if all results are needed.
+   */
+  public OOrderBySorter(List<OPair<String, String>> orderedFields, OCommandContext context, int maxResults) {
+    this(orderedFields, context, maxResults, OGlobalConfiguration.QUERY_ORDER_BY_SORT_BUFFER_SIZE.getValueAsInteger());
+  }
+
+  public OOrderBySorter(List<OPair<String, String>> orderedFields, OCommandContext context, int maxResults, int bufferSize) {
+    this.comparator = new ODocumentComparator(new ArrayList<OPair<String, String>>(orderedFields), context);
+    this.maxResults = maxResults;
+    this.bufferSize = bufferSize;
+
+    if (maxResults > -1 && maxResults <= bufferSize)
+      // THE LAST RESULT IS ON TOP OF THE HEAP, SO IT IS REMOVED ONCE BETTER RESULT IS ADDED
+      topResults = new PriorityQueue<Entry>(Math.max(maxResults, 1) + 1, Collections.reverseOrder());
+    else
+      topResults = null;
+  }
+
+  public void add(final OIdentifiable result) {
+    final Entry entry = new Entry(result, added++);
+
+    if (topResults != null) {
+      if (maxResults == 0)
+        return;
+
+      if (topResults.size() < maxResults)
+        topResults.add(entry);
+      else if (entry.compareTo(topResults.peek()) < 0) {
+        topResults.poll();
+        topResults.add(entry);
+      }
+
+      return;
+    }
+
+    buffer.add(entry);
+    if (buffer.size() >= bufferSize)
+      writeSortedRun();
+  }
+
+  /**
+   * @return Sorted results. If all of them fit in memory they are returned as list, otherwise returned iterable merges temporary
+   *         files and can be iterated only once.
+   */
+  public Iterable<OIdentifiable> sort() {
+    if (topResults != null) {
+      buffer.addAll(topResults);
+      topResults.clear();
+    }
+
+    // SORT IS STABLE, SO EQUAL RESULTS KEEP ORDER OF ADDITION
+    Collections.sort(buffer);
+
+    if (runs.isEmpty()) {
+      final List<OIdentifiable> result = new ArrayList<OIdentifiable>(buffer.size());
+      for (Entry entry : buffer)
+        result.add(entry.result);
+
+      buffer.clear();
+      return result;
+    }
+
+    return new Iterable<OIdentifiable>() {
+      @Override
+      public Iterator<OIdentifiable> iterator() {
+        return mergeRuns();
+      }
+    };
+  }
+
+  /**
+   * Removes temporary files which are used to sort results.
+   */
+  public void close() {
+    for (DataInputStream in : openedRuns) {
+      try {
+        in.close();
+      } catch (IOException e) {
+        OLogManager.instance().error(this, "Error during closing of sorted query results", e);
+      }
+    }
+
+    for (SortedRun run : runs) {
+      if (!run.file.delete())
+        OLogManager.instance().warn(this, "Can not delete file %s with sorted query results", run.file);
+    }
+
+    openedRuns.clear();
+    runs.clear();
+    buffer.clear();
+
+    if (topResults != null)
+      topResults.clear();
+  }
+
+  private Iterator<OIdentifiable> mergeRuns() {
+    final PriorityQueue<RunCursor> cursors = new PriorityQueue<RunCursor>();
+    try {
+      for (int i = 0; i < runs.size(); i++) {
+        final SortedRun run = runs.get(i);
+        final DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(run.file)));
+        openedRuns.add(in);
+
+        final RunCursor cursor = new FileRunCursor(in, run.size);
+        if (cursor.advance())
+          cursors.add(cursor);
+      }
+    } catch (IOException e) {
+      throw new OCommandExecutionException("Error during reading of sorted query results", e);
+    }
+
+    final RunCursor bufferCursor = new BufferRunCursor(buffer.iterator());
+    if (bufferCursor.advance())
+      cursors.add(bufferCursor);
+
+    return new Iterator<OIdentifiable>() {
+      @Override
+      public boolean hasNext() {
+        return !cursors.isEmpty();
+      }
+
+      @Override
+      public OIdentifiable next() {
+        if (cursors.isEmpty())
+          throw new NoSuchElementException();
+
+        final RunCursor cursor = cursors.poll();
+        final OIdentifiable result = cursor.current.result;
+
+        if (cursor.advance())
+          cursors.add(cursor);
+
+        return result;
+      }
+
+      @Override
+      public void remove() {
+        throw new UnsupportedOperationException("remove");
+      }
+    };
+  }
+
+  private void writeSortedRun() {
+    Collections.sort(buffer);
+
+    try {
+      final File file = File.createTempFile("orient-orderby-", ".srt");
+      file.deleteOnExit();
+
+      final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
+      try {
+        for (Entry entry : buffer)
+          writeEntry(out, entry);
+      } finally {
+        out.close();
+      }
+
+      runs.add(new SortedRun(file, buffer.size()));
+      buffer.clear();
+    } catch (IOException e) {
+      throw new OCommandExecutionException("Error during writing of sorted query results", e);
+    }
+  }
+
+  private static void writeEntry(final DataOutputStream out, final Entry entry) throws IOException {
+    out.writeLong(entry.order);
+
+    final ORecord record = entry.result.getRecord();
+    if (record instanceof ODocument) {
+      out.writeBoolean(true);
+      writeRecord(out, (ODocument) record);
+    } else {
+      // ONLY DOCUMENTS CAN BE RESTORED FROM THEIR CONTENT, OTHER RECORDS ARE LOADED AGAIN BY RID
+      final ORID rid = entry.result.getIdentity();
+      out.writeBoolean(false);
+      out.writeInt(rid.getClusterId());
+      out.writeLong(rid.getClusterPosition());
+    }
+  }
+
+  private Entry readEntry(final DataInputStream in) throws IOException {
+    final long order = in.readLong();
+    if (in.readBoolean())
+      return new Entry(readRecord(in), order);
+
+    final ORecordId rid = new ORecordId(in.readInt(), in.readLong());
+    final ORecord record = rid.getRecord();
+    return new Entry(record != null ? record : rid, order);
+  }
+
+  static void writeRecord(final DataOutputStream out, final ODocument document) throws IOException {
+    // RECORDS ARE STORED TOGETHER WITH THEIR CONTENT, PROJECTIONS ARE NOT PERSISTENT AND RECORDS MAY BE CHANGED TILL THEY ARE READ
+    out.writeInt(document.getIdentity().getClusterId());
+    out.writeLong(document.getIdentity().getClusterPosition());
+
+    final byte[] version = document.getRecordVersion().toStream();
+    out.writeInt(version.length);
+    out.write(version);
+
+    final byte[] content = document.toStream();
+    out.writeInt(content.length);
+    out.write(content);
+  }
+
+  static ODocument readRecord(final DataInputStream in) throws IOException {
+    final ORecordId rid = new ORecordId(in.readInt(), in.readLong());
+
+    final byte[] serializedVersion = new byte[in.readInt()];
+    in.readFully(serializedVersion);
+
+    final ORecordVersion version = OVersionFactory.instance().createVersion();
+    version.fromStream(serializedVersion);
+
+    final byte[] content = new byte[in.readInt()];
+    in.readFully(content);
+
+    final ODocument document = new ODocument();
+    ORecordInternal.fill(document, rid, version, content, false);
+
+    return document;
+  }
+
+  private final class Entry implements Comparable<Entry> {
+    private final OIdentifiable result;
+    private final long          order;
+
+    private Entry(OIdentifiable result, long order) {
+      this.result = result;
+      this.order = order;
+    }
+
+    @Override
+    public int compareTo(Entry other) {
+      final int result = comparator.compare(this.result, other.result);
+      if (result != 0)
+        return result;
+
+      return order < other.order ? -1 : (order == other.order ? 0 : 1);
+    }
+  }
+
+  private static final class SortedRun {
+    private final File file;
+    private final int  size;
+
+    private SortedRun(File file, int size) {
+      this.file = file;
+      this.size = size;
+    }
+  }
+
+  private abstract class RunCursor implements Comparable<RunCursor> {
+    protected Entry current;
+
+    public abstract boolean advance();
+
+    @Override
+    public int compareTo(RunCursor other) {
+      return current.compareTo(other.current);
+    }
+  }
+
+  private final class BufferRunCursor extends RunCursor {
+    private final Iterator<Entry> iterator;
+
+    private BufferRunCursor(Iterator<Entry> iterator) {
+      this.iterator = iterator;
+    }
+
+    @Override
+    public boolean advance() {
+      if (!iterator.hasNext())
+        return false;
+
+      current = iterator.next();
+      return true;
+    }
+  }
+
+  private final class FileRunCursor extends RunCursor {
+    private final DataInputStream in;
+    private int                   left;
+
+    private FileRunCursor(DataInputStream in, int size) {
+      this.in = in;
+      this.left = size;
+    }
+
+    @Override
+    public boolean advance() {
+      if (left == 0)
+        return false;
+
+      try {
+        current = readEntry(in);
+        left--;
+
+        return true;
+      } catch (IOException e) {
+        throw new OCommandExecutionException("Error during reading of sorted query results", e);
+      }
+    }
+  }
+}
@@ -0,0 +1,107 @@
+/*
+  *
+  *  *  Copyright 2014 Orient Technologies LTD (info(at)orientechnologies.com)
+  *  *
+  *  *  Licensed under the Apache License, Version 2.0 (the "License");
+  *  *  you may not use this file except in compliance with the License.
+  *  *  You may obtain a copy of the License at
+  *  *
+  *  *       http://www.apache.org/licenses/LICENSE-2.0
+  *  *
+  *  *  Unless required by applicable law or agreed to in writing, software
+  *  *  distributed under the License is distributed on an "AS IS" BASIS,
+  *  *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  *  *  See the License for the specific language governing permissions and
+  *  *  limitations under the License.
+  *  *
+  *  * For more information: http://www.orientechnologies.com
+  *
+  */
+package com.orientechnologies.orient.core.sql;
+
+import java.util.concurrent.Callable;
+
+import com.googlecode.concurrentlinkedhashmap.ConcurrentLinkedHashMap;
+import com.orientechnologies.orient.core.config.OGlobalConfiguration;
+import com.orientechnologies.orient.core.db.ODatabaseDocumentInternal;
+
+/**
+ * Parsed SELECT statements of single database which are used as templates of executors of following commands with the same text,
+ * so text of frequently executed queries is parsed only once. Templates refer to classes of the schema, so every template keeps
+ * version of the schema it was parsed with and is dropped as soon as the schema is changed.
+ *
+ * Amount of templates is limited by {@link OGlobalConfiguration#QUERY_STATEMENT_CACHE_SIZE}, the least recently used ones are
+ * evicted.
+ *
+ * @see OCommandExecutorSQLSelect#copy()
+ * @see OCommandExecutorSQLSelect#parse(com.orientechnologies.orient.core.command.OCommandRequest, OCommandExecutorSQLSelect)
+ */
+public class OSQLStatementCache {
+  private static final class Statement {
+    private final int                       schemaVersion;
+    private final OCommandExecutorSQLSelect template;
+
+    private Statement(final int schemaVersion, final OCommandExecutorSQLSelect template) {
+      this.schemaVersion = schemaVersion;
+      this.template = template;
+    }
+  }
+
+  private final ConcurrentLinkedHashMap<String, Statement> statements;
+
+  public OSQLStatementCache(final int iMaxSize) {
+    statements = new ConcurrentLinkedHashMap.Builder<String, Statement>().maximumWeightedCapacity(iMaxSize).build();
+  }
+
+  /**
+   * @return Cache shared by all the instances of the database or <code>null</code> if cache is switched off by
+   *         {@link OGlobalConfiguration#QUERY_STATEMENT_CACHE_SIZE}.
+   */
+  public static OSQLStatementCache instance(final ODatabaseDocumentInternal iDatabase) {
+    final int maxSize = OGlobalConfiguration.QUERY_STATEMENT_CACHE_SIZE.getValueAsInteger();
+    if (maxSize <= 0)
+      return null;
+
+    return iDatabase.getStorage().getResource(OSQLStatementCache.class.getSimpleName(), new Callable<OSQLStatementCache>() {
+      @Override
+      public OSQLStatementCache call() throws Exception {
+        return new OSQLStatementCache(maxSize);
+      }
+    });
+  }
+
+  /**
+   * @return Template of the statement parsed with the schema of given version or <code>null</code> if there is no such template.
+   */
+  public OCommandExecutorSQLSelect get(final String iText, final int iSchemaVersion) {
+    final Statement statement = statements.get(iText);
+    if (statement == null)
+      return null;
+
+    if (statement.schemaVersion != iSchemaVersion) {
+      // SCHEMA HAS BEEN CHANGED AFTER THE STATEMENT WAS PARSED
+      statements.remove(iText, statement);
+      return null;
+    }
+
+    return statement.template;
+  }
+
+  /**
+   * Registers template of the statement, it should not be bound to any request and should not be executed.
+   *
+   * @param iSchemaVersion
+   *          Version of the schema which was read before the statement was parsed.
+   */
+  public void put(final String iText, final int iSchemaVersion, final OCommandExecutorSQLSelect iTemplate) {
+    statements.put(iText, new Statement(iSchemaVersion, iTemplate));
+  }
+
+  public int size() {
+    return statements.size();
+  }
+
+  public void clear() {
+    statements.clear();
+  }
+}
@@ -0,0 +1,409 @@
+/*
+ *
+ *  *  Copyright 2014 Orient Technologies LTD (info(at)orientechnologies.com)
+ *  *
+ *  *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  *  you may not use this file except in compliance with the License.
+ *  *  You may obtain a copy of the License at
+ *  *
+ *  *       http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *  Unless required by applicable law or agreed to in writing, software
+ *  *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *  See the License for the specific language governing permissions and
+ *  *  limitations under the License.
+ *  *
+ *  * For more information: http://www.orientechnologies.com
+ *
+ */
+package com.orientechnologies.orient.core.sql.filter;
+
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.Set;
+
+import com.orientechnologies.orient.core.collate.OCollate;
+import com.orientechnologies.orient.core.collate.ODefaultCollate;
+import com.orientechnologies.orient.core.command.OCommandContext;
+import com.orientechnologies.orient.core.db.ODatabaseDocumentInternal;
+import com.orientechnologies.orient.core.iterator.ORecordContentFilter;
+import com.orientechnologies.orient.core.metadata.schema.OClass;
+import com.orientechnologies.orient.core.metadata.schema.OProperty;
+import com.orientechnologies.orient.core.metadata.schema.OSchema;
+import com.orientechnologies.orient.core.metadata.schema.OType;
+import com.orientechnologies.orient.core.serialization.serializer.record.binary.BytesContainer;
+import com.orientechnologies.orient.core.serialization.serializer.record.binary.ODocumentSerializer;
+import com.orientechnologies.orient.core.serialization.serializer.record.binary.ORecordSerializerBinary;
+import com.orientechnologies.orient.core.serialization.serializer.record.binary.OVarIntSerializer;
+import com.orientechnologies.orient.core.sql.OSQLHelper;
+import com.orientechnologies.orient.core.sql.operator.OQueryOperator;
+import com.orientechnologies.orient.core.sql.operator.OQueryOperatorAnd;
+import com.orientechnologies.orient.core.sql.operator.OQueryOperatorBetween;
+import com.orientechnologies.orient.core.sql.operator.OQueryOperatorEquals;
+import com.orientechnologies.orient.core.sql.operator.OQueryOperatorIn;
+import com.orientechnologies.orient.core.sql.operator.OQueryOperatorIs;
+import com.orientechnologies.orient.core.sql.operator.OQueryOperatorMajor;
+import com.orientechnologies.orient.core.sql.operator.OQueryOperatorMajorEquals;
+import com.orientechnologies.orient.core.sql.operator.OQueryOperatorMinor;
+import com.orientechnologies.orient.core.sql.operator.OQueryOperatorMinorEquals;
+import com.orientechnologies.orient.core.sql.operator.OQueryOperatorNot;
+import com.orientechnologies.orient.core.sql.operator.OQueryOperatorNotEquals;
+import com.orientechnologies.orient.core.sql.operator.OQueryOperatorOr;
+import com.orientechnologies.orient.core.storage.ORawBuffer;
+
+/**
+ * Evaluates simple conditions of WHERE clause against the content of records serialized by {@link ORecordSerializerBinary}, so
+ * documents are created only for the records which can match. Only comparisons of a field with constant values (=, <>, <, <=, >, >=,
+ * IN, BETWEEN, IS NULL) combined by AND, OR and NOT are evaluated, the field is looked up in the header of record and only its value
+ * is read, strings are compared with constants without decoding.
+ *
+ * Result of evaluation is three-state: conditions which can not be evaluated on serialized content are unknown, the record is
+ * rejected only if the whole condition is surely false. Accepted records are evaluated again by {@link OSQLFilter}.
+ *
+ * @see com.orientechnologies.orient.core.iterator.OIdentifiableIterator#setContentFilter(ORecordContentFilter)
+ */
+public class OSQLBinaryFilter implements ORecordContentFilter {
+  private static final Charset    UTF8            = Charset.forName("UTF-8");
+
+  /**
+   * Types of values which are read without owner document.
+   */
+  private static final Set<OType> SUPPORTED_TYPES = EnumSet.of(OType.INTEGER, OType.LONG, OType.SHORT, OType.STRING,
+                                                      OType.DOUBLE, OType.FLOAT, OType.BYTE, OType.BOOLEAN, OType.DATETIME,
+                                                      OType.DATE, OType.DECIMAL, OType.LINK);
+
+  /**
+   * Condition which can not be evaluated on serialized content.
+   */
+  private static final Node       UNKNOWN         = new UnknownNode();
+
+  private final ORecordSerializerBinary serializer;
+  private final Node                    root;
+
+  private OSQLBinaryFilter(final ORecordSerializerBinary serializer, final Node root) {
+    this.serializer = serializer;
+    this.root = root;
+  }
+
+  /**
+   * Compiles the condition, parameters of the condition should be already bound.
+   *
+   * @return Filter or <code>null</code> if records of the database are not serialized in binary format or no part of condition can
+   *         be evaluated on serialized content.
+   */
+  public static OSQLBinaryFilter compile(final ODatabaseDocumentInternal iDatabase, final OSQLFilterCondition iCondition,
+      final OCommandContext iContext) {
+    if (iCondition == null || !(iDatabase.getSerializer() instanceof ORecordSerializerBinary))
+      return null;
+
+    final OSchema schema = iDatabase.getMetadata().getImmutableSchemaSnapshot();
+    final Node root = compileCondition(iCondition, schema, iContext);
+    if (root == UNKNOWN)
+      return null;
+
+    return new OSQLBinaryFilter((ORecordSerializerBinary) iDatabase.getSerializer(), root);
+  }
+
+  @Override
+  public boolean accept(final ORawBuffer iContent) {
+    final byte[] content = iContent.buffer;
+    if (content == null || content.length == 0)
+      return true;
+
+    final ODocumentSerializer documentSerializer = serializer.getSerializer(content[0]);
+    if (documentSerializer == null)
+      return true;
+
+    try {
+      return root.evaluate(documentSerializer, content) != Boolean.FALSE;
+    } catch (RuntimeException e) {
+      // LET THE DOCUMENT BE EVALUATED AS USUAL
+      return true;
+    }
+  }
+
+  private static Node compileCondition(final OSQLFilterCondition iCondition, final OSchema iSchema, final OCommandContext iContext) {
+    final OQueryOperator operator = iCondition.getOperator();
+
+    if (operator == null)
+      // CONDITION IN BRACES
+      return compileOperand(iCondition.getLeft(), iSchema, iContext);
+
+    if (operator instanceof OQueryOperatorAnd || operator instanceof OQueryOperatorOr) {
+      final Node left = compileOperand(iCondition.getLeft(), iSchema, iContext);
+      final Node right = compileOperand(iCondition.getRight(), iSchema, iContext);
+      if (left == UNKNOWN && right == UNKNOWN)
+        return UNKNOWN;
+
+      return operator instanceof OQueryOperatorAnd ? new AndNode(left, right) : new OrNode(left, right);
+    }
+
+    if (operator instanceof OQueryOperatorNot && ((OQueryOperatorNot) operator).getNext() == null) {
+      final Node left = compileOperand(iCondition.getLeft(), iSchema, iContext);
+      return left != UNKNOWN ? new NotNode(left) : UNKNOWN;
+    }
+
+    final Node comparison = compileComparison(iCondition, iSchema, iContext);
+    return comparison != null ? comparison : UNKNOWN;
+  }
+
+  private static Node compileOperand(final Object iOperand, final OSchema iSchema, final OCommandContext iContext) {
+    return iOperand instanceof OSQLFilterCondition ? compileCondition((OSQLFilterCondition) iOperand, iSchema, iContext) : UNKNOWN;
+  }
+
+  private static Node compileComparison(final OSQLFilterCondition iCondition, final OSchema iSchema, final OCommandContext iContext) {
+    final OQueryOperator operator = iCondition.getOperator() instanceof OQueryOperatorNot ? ((OQueryOperatorNot) iCondition
+        .getOperator()).getNext() : iCondition.getOperator();
+    if (!isSupportedOperator(operator))
+      return null;
+
+    if (!(iCondition.getLeft() instanceof OSQLFilterItemField))
+      return null;
+
+    final OSQLFilterItemField field = (OSQLFilterItemField) iCondition.getLeft();
+    final String fieldName = field.getRoot();
+    if (field.hasChainOperators() || fieldName == null || fieldName.length() == 0 || fieldName.startsWith("@")
+        || fieldName.indexOf('.') > -1 || fieldName.indexOf('[') > -1)
+      return null;
+
+    final Object right;
+    if (operator instanceof OQueryOperatorBetween) {
+      // "AND" KEYWORD IS KEPT BETWEEN THE BOUNDS AND IS IGNORED BY OPERATOR
+      if (!(iCondition.getRight() instanceof Object[]) || ((Object[]) iCondition.getRight()).length != 3)
+        return null;
+
+      final Object[] bounds = (Object[]) iCondition.getRight();
+      if (!OSQLFilterCondition.isConstant(bounds[0]) || !OSQLFilterCondition.isConstant(bounds[2]))
+        return null;
+
+      right = Arrays.asList(iCondition.evaluate(null, null, bounds[0], iContext), null,
+          iCondition.evaluate(null, null, bounds[2], iContext));
+    } else {
+      if (!OSQLFilterCondition.isConstant(iCondition.getRight()))
+        return null;
+
+      right = iCondition.evaluate(null, null, iCondition.getRight(), iContext);
+      if (OSQLHelper.DEFINED.equals(right))
+        return null;
+    }
+
+    byte[][] strings = null;
+    if (iCondition.getOperator() instanceof OQueryOperatorEquals || iCondition.getOperator() instanceof OQueryOperatorNotEquals) {
+      if (right instanceof String)
+        strings = toUTF8(new Object[] { right });
+    } else if (iCondition.getOperator() instanceof OQueryOperatorIn && right instanceof Collection<?>)
+      strings = toUTF8(((Collection<?>) right).toArray());
+
+    return new ComparisonNode(iCondition, fieldName, right, strings, getCollatedClasses(fieldName, iSchema), iSchema, iContext);
+  }
+
+  private static boolean isSupportedOperator(final OQueryOperator iOperator) {
+    return iOperator instanceof OQueryOperatorEquals || iOperator instanceof OQueryOperatorNotEquals
+        || iOperator instanceof OQueryOperatorMajor || iOperator instanceof OQueryOperatorMajorEquals
+        || iOperator instanceof OQueryOperatorMinor || iOperator instanceof OQueryOperatorMinorEquals
+        || iOperator instanceof OQueryOperatorIn || iOperator instanceof OQueryOperatorBetween
+        || iOperator instanceof OQueryOperatorIs;
+  }
+
+  /**
+   * @return Lower case names of classes which transform values of the field by collate of property or <code>null</code> if there
+   *         are no such classes.
+   */
+  private static Set<String> getCollatedClasses(final String iFieldName, final OSchema iSchema) {
+    Set<String> result = null;
+    for (OClass cls : iSchema.getClasses()) {
+      final OProperty property = cls.getProperty(iFieldName);
+      if (property == null)
+        continue;
+
+      final OCollate collate = property.getCollate();
+      if (collate != null && !ODefaultCollate.NAME.equals(collate.getName())) {
+        if (result == null)
+          result = new HashSet<String>();
+        result.add(cls.getName().toLowerCase());
+      }
+    }
+
+    return result;
+  }
+
+  /**
+   * @return UTF-8 representation of values or <code>null</code> if not all the values are strings.
+   */
+  private static byte[][] toUTF8(final Object[] iValues) {
+    final byte[][] result = new byte[iValues.length][];
+    for (int i = 0; i < iValues.length; i++) {
+      if (!(iValues[i] instanceof String))
+        return null;
+
+      final String value = (String) iValues[i];
+      result[i] = value.getBytes(UTF8);
+      if (!value.equals(new String(result[i], UTF8)))
+        // STRING CAN NOT BE ENCODED WITHOUT LOSSES
+        return null;
+    }
+    return result;
+  }
+
+  private static abstract class Node {
+    /**
+     * @return Result of condition or <code>null</code> if it can not be evaluated on serialized content.
+     */
+    abstract Boolean evaluate(ODocumentSerializer iSerializer, byte[] iContent);
+  }
+
+  private static final class UnknownNode extends Node {
+    @Override
+    Boolean evaluate(final ODocumentSerializer iSerializer, final byte[] iContent) {
+      return null;
+    }
+  }
+
+  private static final class AndNode extends Node {
+    private final Node left;
+    private final Node right;
+
+    private AndNode(final Node left, final Node right) {
+      this.left = left;
+      this.right = right;
+    }
+
+    @Override
+    Boolean evaluate(final ODocumentSerializer iSerializer, final byte[] iContent) {
+      final Boolean l = left.evaluate(iSerializer, iContent);
+      if (l == Boolean.FALSE)
+        return Boolean.FALSE;
+
+      final Boolean r = right.evaluate(iSerializer, iContent);
+      if (r == Boolean.FALSE)
+        return Boolean.FALSE;
+
+      return l == null || r == null ? null : Boolean.TRUE;
+    }
+  }
+
+  private static final class OrNode extends Node {
+    private final Node left;
+    private final Node right;
+
+    private OrNode(final Node left, final Node right) {
+      this.left = left;
+      this.right = right;
+    }
+
+    @Override
+    Boolean evaluate(final ODocumentSerializer iSerializer, final byte[] iContent) {
+      final Boolean l = left.evaluate(iSerializer, iContent);
+      if (l == Boolean.TRUE)
+        return Boolean.TRUE;
+
+      final Boolean r = right.evaluate(iSerializer, iContent);
+      if (r == Boolean.TRUE)
+        return Boolean.TRUE;
+
+      return l == null || r == null ? null : Boolean.FALSE;
+    }
+  }
+
+  private static final class NotNode extends Node {
+    private final Node condition;
+
+    private NotNode(final Node condition) {
+      this.condition = condition;
+    }
+
+    @Override
+    Boolean evaluate(final ODocumentSerializer iSerializer, final byte[] iContent) {
+      final Boolean result = condition.evaluate(iSerializer, iContent);
+      return result == null ? null : !result;
+    }
+  }
+
+  /**
+   * Comparison of the field with constant value, strings are compared in serialized form for =, <> and IN operators, in other cases
+   * the value is deserialized and passed to the operator of condition.
+   */
+  private static final class ComparisonNode extends Node {
+    private final OSQLFilterCondition condition;
+    private final String              fieldName;
+    private final byte[]              fieldNameBytes;
+    private final Object              right;
+    private final byte[][]            strings;
+    private final boolean             notEquals;
+    private final Set<String>         collatedClasses;
+    private final OSchema             schema;
+    private final OCommandContext     context;
+
+    private ComparisonNode(final OSQLFilterCondition condition, final String fieldName, final Object right, final byte[][] strings,
+        final Set<String> collatedClasses, final OSchema schema, final OCommandContext context) {
+      this.condition = condition;
+      this.fieldName = fieldName;
+      this.fieldNameBytes = fieldName.getBytes(UTF8);
+      this.right = right;
+      this.strings = strings;
+      this.notEquals = condition.getOperator() instanceof OQueryOperatorNotEquals;
+      this.collatedClasses = collatedClasses;
+      this.schema = schema;
+      this.context = context;
+    }
+
+    @Override
+    Boolean evaluate(final ODocumentSerializer iSerializer, final byte[] iContent) {
+      final BytesContainer bytes = new BytesContainer(iContent);
+      // SKIP VERSION OF SERIALIZER
+      bytes.skip(1);
+
+      if (collatedClasses != null) {
+        final String className = iSerializer.readClassName(bytes);
+        if (className != null && collatedClasses.contains(className.toLowerCase()))
+          // VALUE IS TRANSFORMED BY COLLATE OF PROPERTY
+          return null;
+
+        bytes.offset = 1;
+      }
+
+      final OType type = iSerializer.seekField(bytes, fieldName, fieldNameBytes, schema);
+
+      if (strings != null && (type == null || type == OType.STRING)) {
+        if (type == null)
+          // NULL VALUES ARE NEVER MATCHED BY THESE OPERATORS
+          return Boolean.FALSE;
+
+        return matchString(bytes) != notEquals;
+      }
+
+      if (type != null && !SUPPORTED_TYPES.contains(type))
+        return null;
+
+      final Object value = type != null ? iSerializer.deserializeValue(bytes, type) : null;
+
+      final Object result = condition.evaluateValues(null, null, value, right, null, context);
+      return result instanceof Boolean ? (Boolean) result : null;
+    }
+
+    private boolean matchString(final BytesContainer bytes) {
+      final int len = OVarIntSerializer.readAsInteger(bytes);
+
+      for (byte[] string : strings) {
+        if (string.length != len)
+          continue;
+
+        boolean equals = true;
+        for (int i = 0; i < len; i++)
+          if (bytes.bytes[bytes.offset + i] != string[i]) {
+            equals = false;
+            break;
+          }
+
+        if (equals)
+          return true;
+      }
+
+      return false;
+    }
+  }
+}
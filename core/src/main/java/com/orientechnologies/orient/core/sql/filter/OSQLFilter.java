@@ -19,9 +19,16 @@
  */
 package com.orientechnologies.orient.core.sql.filter;
 
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
 import com.orientechnologies.orient.core.command.OCommandContext;
 import com.orientechnologies.orient.core.command.OCommandPredicate;
 import com.orientechnologies.orient.core.exception.OQueryParsingException;
+import com.orientechnologies.orient.core.id.ORID;
 import com.orientechnologies.orient.core.record.ORecord;
 import com.orientechnologies.orient.core.record.impl.ODocument;
 
@@ -31,6 +38,8 @@ import com.orientechnologies.orient.core.record.impl.ODocument;
  * @author Luca Garulli
  */
 public class OSQLFilter extends OSQLPredicate implements OCommandPredicate {
+  private OSQLFilterEvaluator evaluator;
+
   public OSQLFilter(final String iText, final OCommandContext iContext, final String iFilterKeyword) {
     super();
 
@@ -68,6 +77,95 @@ public class OSQLFilter extends OSQLPredicate implements OCommandPredicate {
     this.rootCondition = resetOperatorPrecedence(rootCondition);
   }
 
+  private OSQLFilter(final OSQLFilter iSource, final OCommandContext iContext) {
+    context = iContext;
+    parserText = iSource.parserText;
+    parserTextUpperCase = iSource.parserTextUpperCase;
+    properties = iSource.properties;
+    recordTransformed = iSource.recordTransformed;
+
+    final Map<OSQLFilterItemParameter, OSQLFilterItemParameter> copiedParameters = new IdentityHashMap<OSQLFilterItemParameter, OSQLFilterItemParameter>(
+        iSource.parameterItems != null ? iSource.parameterItems.size() : 0);
+    if (iSource.parameterItems != null) {
+      // KEEP THE ORDER OF PARAMETERS, POSITIONAL ARGUMENTS ARE BOUND BY INDEX
+      parameterItems = new ArrayList<OSQLFilterItemParameter>(iSource.parameterItems.size());
+      for (OSQLFilterItemParameter parameter : iSource.parameterItems) {
+        final OSQLFilterItemParameter copy = new OSQLFilterItemParameter(parameter.getName());
+        copiedParameters.put(parameter, copy);
+        parameterItems.add(copy);
+      }
+    }
+
+    rootCondition = (OSQLFilterCondition) copyValue(iSource.rootCondition, copiedParameters);
+  }
+
+  private static boolean isCopyable(final Object iValue) {
+    if (iValue == null || iValue instanceof String || iValue instanceof Number || iValue instanceof Boolean || iValue instanceof ORID
+        || iValue instanceof Date || iValue instanceof OSQLFilterItemParameter)
+      return true;
+
+    if (iValue instanceof OSQLFilterCondition) {
+      final OSQLFilterCondition condition = (OSQLFilterCondition) iValue;
+      return isCopyable(condition.left) && isCopyable(condition.right);
+    }
+
+    if (iValue.getClass() == OSQLFilterItemField.class || iValue.getClass() == OSQLFilterItemVariable.class)
+      // METHODS OF THE CHAIN KEEP PARAMETERS OF THE LAST INVOCATION
+      return ((OSQLFilterItemAbstract) iValue).operationsChain == null;
+
+    if (iValue instanceof List<?>) {
+      for (Object item : (List<?>) iValue)
+        if (!isCopyable(item))
+          return false;
+      return true;
+    }
+
+    if (iValue instanceof Object[]) {
+      for (Object item : (Object[]) iValue)
+        if (!isCopyable(item))
+          return false;
+      return true;
+    }
+
+    // FUNCTIONS AND SUB QUERIES KEEP STATE OF EXECUTION
+    return false;
+  }
+
+  private static Object copyValue(final Object iValue, final Map<OSQLFilterItemParameter, OSQLFilterItemParameter> iParameters) {
+    if (iValue instanceof OSQLFilterCondition) {
+      final OSQLFilterCondition condition = (OSQLFilterCondition) iValue;
+      final OSQLFilterCondition copy = new OSQLFilterCondition(copyValue(condition.left, iParameters), condition.operator, copyValue(
+          condition.right, iParameters));
+      copy.inBraces = condition.inBraces;
+      return copy;
+    }
+
+    if (iValue instanceof OSQLFilterItemParameter) {
+      final OSQLFilterItemParameter parameter = iParameters.get(iValue);
+      return parameter != null ? parameter : new OSQLFilterItemParameter(((OSQLFilterItemParameter) iValue).getName());
+    }
+
+    if (iValue instanceof OSQLFilterItemField)
+      return ((OSQLFilterItemField) iValue).copy();
+
+    if (iValue instanceof List<?>) {
+      final List<Object> copy = new ArrayList<Object>(((List<?>) iValue).size());
+      for (Object item : (List<?>) iValue)
+        copy.add(copyValue(item, iParameters));
+      return copy;
+    }
+
+    if (iValue instanceof Object[]) {
+      final Object[] source = (Object[]) iValue;
+      final Object[] copy = source.clone();
+      for (int i = 0; i < source.length; ++i)
+        copy[i] = copyValue(source[i], iParameters);
+      return copy;
+    }
+
+    return iValue;
+  }
+
   private OSQLFilterCondition resetOperatorPrecedence(OSQLFilterCondition iCondition) {
     if (iCondition == null) {
       return iCondition;
@@ -97,9 +195,69 @@ public class OSQLFilter extends OSQLPredicate implements OCommandPredicate {
       return true;
     }
 
+    final OSQLFilterEvaluator compiled = evaluator;
+    if (compiled != null) {
+      return compiled.evaluate(iRecord, iCurrentResult, iContext);
+    }
+
     return rootCondition.evaluate(iRecord, iCurrentResult, iContext);
   }
 
+  /**
+   * Compiles the condition in tree of evaluators specialized by types of constants, which is used by following evaluations. Should
+   * be called once parameters are bound and the condition is optimized, compiled tree is dropped if parameters or root condition
+   * are changed.
+   *
+   * @see #decompile()
+   */
+  public void compile() {
+    evaluator = OSQLFilterEvaluator.compile(rootCondition, context);
+  }
+
+  /**
+   * Drops compiled tree, so condition is evaluated by interpreter.
+   */
+  public void decompile() {
+    evaluator = null;
+  }
+
+  public boolean isCompiled() {
+    return evaluator != null;
+  }
+
+  /**
+   * @return <code>true</code> if conditions consist only of fields, variables, parameters and constants, so the filter can be copied
+   *         by {@link #copy(OCommandContext)}.
+   */
+  public boolean isCopyable() {
+    return isCopyable(rootCondition);
+  }
+
+  /**
+   * Creates filter with the same conditions bound to given context without parsing them again. Conditions, fields and parameters are
+   * copied, so the copy can be bound and optimized independently of this filter, constants are shared.
+   *
+   * @see #isCopyable()
+   */
+  public OSQLFilter copy(final OCommandContext iContext) {
+    if (!isCopyable())
+      throw new IllegalStateException("Filter contains items which can not be copied: " + rootCondition);
+
+    return new OSQLFilter(this, iContext);
+  }
+
+  @Override
+  public void bindParameters(final Map<Object, Object> iArgs) {
+    evaluator = null;
+    super.bindParameters(iArgs);
+  }
+
+  @Override
+  public void setRootCondition(final OSQLFilterCondition iCondition) {
+    evaluator = null;
+    super.setRootCondition(iCondition);
+  }
+
   public OSQLFilterCondition getRootCondition() {
     return rootCondition;
   }
@@ -76,11 +76,17 @@ public class OSQLFilterCondition {
       right = ((OSQLQuery<?>) right).setContext(iContext).execute();
     }
 
-    Object l = evaluate(iCurrentRecord, iCurrentResult, left, iContext);
-    Object r = evaluate(iCurrentRecord, iCurrentResult, right, iContext);
+    final Object l = evaluate(iCurrentRecord, iCurrentResult, left, iContext);
+    final Object r = evaluate(iCurrentRecord, iCurrentResult, right, iContext);
 
-    final OCollate collate = getCollate();
+    return evaluateValues(iCurrentRecord, iCurrentResult, l, r, getCollate(), iContext);
+  }
 
+  /**
+   * Applies the operator of condition to already evaluated operands.
+   */
+  Object evaluateValues(final OIdentifiable iCurrentRecord, final ODocument iCurrentResult, Object l, Object r,
+      final OCollate collate, final OCommandContext iContext) {
     final Object[] convertedValues = checkForConversion(iCurrentRecord, l, r, collate);
     if (convertedValues != null) {
       l = convertedValues[0];
@@ -108,6 +114,25 @@ public class OSQLFilterCondition {
     return result;
   }
 
+  /**
+   * Checks whether the operand has the same value for all the records: literals, parameters and collections of them.
+   */
+  static boolean isConstant(final Object iValue) {
+    if (iValue instanceof OSQLFilterItemParameter)
+      return true;
+
+    if (iValue instanceof OSQLFilterItem || iValue instanceof OSQLFilterCondition || iValue instanceof OSQLFunctionRuntime
+        || iValue instanceof OSQLQuery<?>)
+      return false;
+
+    if (OMultiValue.isMultiValue(iValue))
+      for (Object item : OMultiValue.getMultiValueIterable(iValue))
+        if (item instanceof OSQLFilterItem && !(item instanceof OSQLFilterItemParameter))
+          return false;
+
+    return true;
+  }
+
   public OCollate getCollate() {
     if (left instanceof OSQLFilterItemField) {
       return ((OSQLFilterItemField) left).getCollate();
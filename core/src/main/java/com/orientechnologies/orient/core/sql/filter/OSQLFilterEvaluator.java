@@ -0,0 +1,584 @@
+/*
+ *
+ *  *  Copyright 2014 Orient Technologies LTD (info(at)orientechnologies.com)
+ *  *
+ *  *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  *  you may not use this file except in compliance with the License.
+ *  *  You may obtain a copy of the License at
+ *  *
+ *  *       http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *  Unless required by applicable law or agreed to in writing, software
+ *  *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *  See the License for the specific language governing permissions and
+ *  *  limitations under the License.
+ *  *
+ *  * For more information: http://www.orientechnologies.com
+ *
+ */
+package com.orientechnologies.orient.core.sql.filter;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.Set;
+
+import com.orientechnologies.orient.core.collate.OCollate;
+import com.orientechnologies.orient.core.collate.ODefaultCollate;
+import com.orientechnologies.orient.core.command.OCommandContext;
+import com.orientechnologies.orient.core.db.record.OIdentifiable;
+import com.orientechnologies.orient.core.record.impl.ODocument;
+import com.orientechnologies.orient.core.sql.operator.OQueryOperator;
+import com.orientechnologies.orient.core.sql.operator.OQueryOperatorAnd;
+import com.orientechnologies.orient.core.sql.operator.OQueryOperatorBetween;
+import com.orientechnologies.orient.core.sql.operator.OQueryOperatorEquals;
+import com.orientechnologies.orient.core.sql.operator.OQueryOperatorIn;
+import com.orientechnologies.orient.core.sql.operator.OQueryOperatorMajor;
+import com.orientechnologies.orient.core.sql.operator.OQueryOperatorMajorEquals;
+import com.orientechnologies.orient.core.sql.operator.OQueryOperatorMinor;
+import com.orientechnologies.orient.core.sql.operator.OQueryOperatorMinorEquals;
+import com.orientechnologies.orient.core.sql.operator.OQueryOperatorNot;
+import com.orientechnologies.orient.core.sql.operator.OQueryOperatorNotEquals;
+import com.orientechnologies.orient.core.sql.operator.OQueryOperatorOr;
+
+/**
+ * Compiled form of condition tree. Comparisons of a field with constant value are turned in nodes specialized by the type of
+ * constant: when the value of field has the same type it is compared with the constant directly, without resolution of operands,
+ * type conversion and dispatch to the operator. Values of other types, fields with collate and all other conditions are evaluated
+ * by {@link OSQLFilterCondition} as usual, so result of evaluation is always the same.
+ *
+ * Compiled tree captures values of constants and parameters, so it should be created again once parameters are bound or condition
+ * is changed.
+ *
+ * @see OSQLFilter#compile()
+ */
+public abstract class OSQLFilterEvaluator {
+
+  public abstract Object evaluate(OIdentifiable iRecord, ODocument iCurrentResult, OCommandContext iContext);
+
+  /**
+   * @return <code>true</code> if evaluation has no side effects and always returns {@link Boolean}, so it can be skipped when result
+   *         of AND or OR is already known.
+   */
+  abstract boolean isPure();
+
+  /**
+   * Compiles the condition.
+   *
+   * @return Compiled tree or <code>null</code> if no part of condition can be specialized.
+   */
+  public static OSQLFilterEvaluator compile(final OSQLFilterCondition iCondition, final OCommandContext iContext) {
+    if (iCondition == null)
+      return null;
+
+    final OSQLFilterEvaluator evaluator = compileCondition(iCondition, iContext);
+    return evaluator instanceof Interpreted ? null : evaluator;
+  }
+
+  private static OSQLFilterEvaluator compileCondition(final OSQLFilterCondition iCondition, final OCommandContext iContext) {
+    final OQueryOperator operator = iCondition.getOperator();
+
+    if (operator instanceof OQueryOperatorAnd || operator instanceof OQueryOperatorOr) {
+      if (!(iCondition.getLeft() instanceof OSQLFilterCondition) || !(iCondition.getRight() instanceof OSQLFilterCondition))
+        return new Interpreted(iCondition);
+
+      final OSQLFilterEvaluator left = compileCondition((OSQLFilterCondition) iCondition.getLeft(), iContext);
+      final OSQLFilterEvaluator right = compileCondition((OSQLFilterCondition) iCondition.getRight(), iContext);
+      if (left instanceof Interpreted && right instanceof Interpreted)
+        return new Interpreted(iCondition);
+
+      return operator instanceof OQueryOperatorAnd ? new And(iCondition, left, right) : new Or(iCondition, left, right);
+    }
+
+    if ((operator == null || operator instanceof OQueryOperatorNot && ((OQueryOperatorNot) operator).getNext() == null)
+        && iCondition.getLeft() instanceof OSQLFilterCondition && iCondition.getRight() == null) {
+      // CONDITION IN BRACES OR NEGATION OF CONDITION
+      final OSQLFilterEvaluator inner = compileCondition((OSQLFilterCondition) iCondition.getLeft(), iContext);
+      if (inner instanceof Interpreted)
+        return new Interpreted(iCondition);
+
+      return operator == null ? new Braces(inner) : new Not(iCondition, inner);
+    }
+
+    final OSQLFilterEvaluator comparison = compileComparison(iCondition, iContext);
+    return comparison != null ? comparison : new Interpreted(iCondition);
+  }
+
+  private static OSQLFilterEvaluator compileComparison(final OSQLFilterCondition iCondition, final OCommandContext iContext) {
+    final OQueryOperator operator = iCondition.getOperator();
+    if (!(iCondition.getLeft() instanceof OSQLFilterItem))
+      return null;
+
+    if (operator instanceof OQueryOperatorBetween) {
+      // "AND" KEYWORD IS KEPT BETWEEN THE BOUNDS AND IS IGNORED BY OPERATOR
+      if (!(iCondition.getRight() instanceof Object[]) || ((Object[]) iCondition.getRight()).length != 3)
+        return null;
+
+      final Object[] bounds = (Object[]) iCondition.getRight();
+      if (!OSQLFilterCondition.isConstant(bounds[0]) || !OSQLFilterCondition.isConstant(bounds[2]))
+        return null;
+
+      final Object from = iCondition.evaluate(null, null, bounds[0], iContext);
+      final Object to = iCondition.evaluate(null, null, bounds[2], iContext);
+      final ValueComparator fromComparator = ValueComparator.create(from);
+      final ValueComparator toComparator = ValueComparator.create(to);
+      if (fromComparator == null || toComparator == null || fromComparator.type != toComparator.type)
+        return null;
+
+      return new Between(iCondition, fromComparator, toComparator, ((OQueryOperatorBetween) operator).isLeftInclusive(),
+          ((OQueryOperatorBetween) operator).isRightInclusive());
+    }
+
+    if (!OSQLFilterCondition.isConstant(iCondition.getRight()))
+      return null;
+
+    final Object right = iCondition.evaluate(null, null, iCondition.getRight(), iContext);
+
+    if (operator instanceof OQueryOperatorIn) {
+      if (!(right instanceof Collection<?>))
+        return null;
+
+      final Set<Object> values = new HashSet<Object>();
+      Class<?> type = null;
+      for (Object value : (Collection<?>) right) {
+        if (value == null || ValueComparator.create(value) == null || type != null && value.getClass() != type)
+          return null;
+
+        type = value.getClass();
+        values.add(value);
+      }
+      return type != null ? new In(iCondition, right, type, values) : null;
+    }
+
+    final Comparison comparison;
+    if (operator instanceof OQueryOperatorEquals)
+      comparison = Comparison.EQUALS;
+    else if (operator instanceof OQueryOperatorNotEquals)
+      comparison = Comparison.NOT_EQUALS;
+    else if (operator instanceof OQueryOperatorMajor)
+      comparison = Comparison.MAJOR;
+    else if (operator instanceof OQueryOperatorMajorEquals)
+      comparison = Comparison.MAJOR_EQUALS;
+    else if (operator instanceof OQueryOperatorMinor)
+      comparison = Comparison.MINOR;
+    else if (operator instanceof OQueryOperatorMinorEquals)
+      comparison = Comparison.MINOR_EQUALS;
+    else
+      return null;
+
+    final ValueComparator comparator = ValueComparator.create(right);
+    if (comparator == null)
+      return null;
+
+    return new Compare(iCondition, right, comparator, comparison);
+  }
+
+  /**
+   * Checks the collate of field which was just evaluated, values transformed by collate are compared by the condition itself.
+   */
+  private static boolean hasDefaultCollate(final OSQLFilterCondition iCondition) {
+    final OCollate collate = iCondition.getCollate();
+    return collate == null || collate instanceof ODefaultCollate;
+  }
+
+  /**
+   * Condition which is evaluated by interpreter.
+   */
+  private static final class Interpreted extends OSQLFilterEvaluator {
+    private final OSQLFilterCondition condition;
+
+    private Interpreted(final OSQLFilterCondition condition) {
+      this.condition = condition;
+    }
+
+    @Override
+    public Object evaluate(final OIdentifiable iRecord, final ODocument iCurrentResult, final OCommandContext iContext) {
+      return condition.evaluate(iRecord, iCurrentResult, iContext);
+    }
+
+    @Override
+    boolean isPure() {
+      return false;
+    }
+  }
+
+  private static final class And extends OSQLFilterEvaluator {
+    private final OSQLFilterCondition condition;
+    private final OSQLFilterEvaluator left;
+    private final OSQLFilterEvaluator right;
+
+    private And(final OSQLFilterCondition condition, final OSQLFilterEvaluator left, final OSQLFilterEvaluator right) {
+      this.condition = condition;
+      this.left = left;
+      this.right = right;
+    }
+
+    @Override
+    public Object evaluate(final OIdentifiable iRecord, final ODocument iCurrentResult, final OCommandContext iContext) {
+      final Object l = left.evaluate(iRecord, iCurrentResult, iContext);
+      if ((l == null || Boolean.FALSE.equals(l)) && right.isPure())
+        return Boolean.FALSE;
+
+      final Object r = right.evaluate(iRecord, iCurrentResult, iContext);
+      if (l instanceof Boolean && r instanceof Boolean)
+        return (Boolean) l && (Boolean) r;
+
+      return condition.evaluateValues(iRecord, iCurrentResult, l, r, null, iContext);
+    }
+
+    @Override
+    boolean isPure() {
+      return left.isPure() && right.isPure();
+    }
+  }
+
+  private static final class Or extends OSQLFilterEvaluator {
+    private final OSQLFilterCondition condition;
+    private final OSQLFilterEvaluator left;
+    private final OSQLFilterEvaluator right;
+
+    private Or(final OSQLFilterCondition condition, final OSQLFilterEvaluator left, final OSQLFilterEvaluator right) {
+      this.condition = condition;
+      this.left = left;
+      this.right = right;
+    }
+
+    @Override
+    public Object evaluate(final OIdentifiable iRecord, final ODocument iCurrentResult, final OCommandContext iContext) {
+      final Object l = left.evaluate(iRecord, iCurrentResult, iContext);
+      if (l == null && right.isPure())
+        return Boolean.FALSE;
+      if (Boolean.TRUE.equals(l) && right.isPure())
+        return Boolean.TRUE;
+
+      final Object r = right.evaluate(iRecord, iCurrentResult, iContext);
+      if (l instanceof Boolean && r instanceof Boolean)
+        return (Boolean) l || (Boolean) r;
+
+      return condition.evaluateValues(iRecord, iCurrentResult, l, r, null, iContext);
+    }
+
+    @Override
+    boolean isPure() {
+      return left.isPure() && right.isPure();
+    }
+  }
+
+  private static final class Not extends OSQLFilterEvaluator {
+    private final OSQLFilterCondition condition;
+    private final OSQLFilterEvaluator inner;
+
+    private Not(final OSQLFilterCondition condition, final OSQLFilterEvaluator inner) {
+      this.condition = condition;
+      this.inner = inner;
+    }
+
+    @Override
+    public Object evaluate(final OIdentifiable iRecord, final ODocument iCurrentResult, final OCommandContext iContext) {
+      final Object result = inner.evaluate(iRecord, iCurrentResult, iContext);
+      if (result instanceof Boolean)
+        return !(Boolean) result;
+
+      return condition.evaluateValues(iRecord, iCurrentResult, result, null, null, iContext);
+    }
+
+    @Override
+    boolean isPure() {
+      return inner.isPure();
+    }
+  }
+
+  private static final class Braces extends OSQLFilterEvaluator {
+    private final OSQLFilterEvaluator inner;
+
+    private Braces(final OSQLFilterEvaluator inner) {
+      this.inner = inner;
+    }
+
+    @Override
+    public Object evaluate(final OIdentifiable iRecord, final ODocument iCurrentResult, final OCommandContext iContext) {
+      final Object result = inner.evaluate(iRecord, iCurrentResult, iContext);
+      return result != null ? result : Boolean.FALSE;
+    }
+
+    @Override
+    boolean isPure() {
+      return inner.isPure();
+    }
+  }
+
+  private enum Comparison {
+    EQUALS, NOT_EQUALS, MAJOR, MAJOR_EQUALS, MINOR, MINOR_EQUALS;
+
+    boolean matches(final int iCompareResult) {
+      switch (this) {
+      case EQUALS:
+        return iCompareResult == 0;
+      case NOT_EQUALS:
+        return iCompareResult != 0;
+      case MAJOR:
+        return iCompareResult > 0;
+      case MAJOR_EQUALS:
+        return iCompareResult >= 0;
+      case MINOR:
+        return iCompareResult < 0;
+      default:
+        return iCompareResult <= 0;
+      }
+    }
+  }
+
+  /**
+   * Comparison of the left operand with constant.
+   */
+  private static final class Compare extends OSQLFilterEvaluator {
+    private final OSQLFilterCondition condition;
+    private final Object              right;
+    private final ValueComparator     comparator;
+    private final Comparison          comparison;
+
+    private Compare(final OSQLFilterCondition condition, final Object right, final ValueComparator comparator,
+        final Comparison comparison) {
+      this.condition = condition;
+      this.right = right;
+      this.comparator = comparator;
+      this.comparison = comparison;
+    }
+
+    @Override
+    public Object evaluate(final OIdentifiable iRecord, final ODocument iCurrentResult, final OCommandContext iContext) {
+      final Object l = condition.evaluate(iRecord, iCurrentResult, condition.getLeft(), iContext);
+      if (l == null)
+        // OPERATORS DO NOT MATCH NULL VALUES
+        return Boolean.FALSE;
+
+      if (l.getClass() == comparator.type && hasDefaultCollate(condition))
+        return comparison.matches(comparator.compare(l));
+
+      return condition.evaluateValues(iRecord, iCurrentResult, l, right, condition.getCollate(), iContext);
+    }
+
+    @Override
+    boolean isPure() {
+      return true;
+    }
+  }
+
+  private static final class Between extends OSQLFilterEvaluator {
+    private final OSQLFilterCondition condition;
+    private final ValueComparator     from;
+    private final ValueComparator     to;
+    private final boolean             leftInclusive;
+    private final boolean             rightInclusive;
+
+    private Between(final OSQLFilterCondition condition, final ValueComparator from, final ValueComparator to,
+        final boolean leftInclusive, final boolean rightInclusive) {
+      this.condition = condition;
+      this.from = from;
+      this.to = to;
+      this.leftInclusive = leftInclusive;
+      this.rightInclusive = rightInclusive;
+    }
+
+    @Override
+    public Object evaluate(final OIdentifiable iRecord, final ODocument iCurrentResult, final OCommandContext iContext) {
+      final Object l = condition.evaluate(iRecord, iCurrentResult, condition.getLeft(), iContext);
+      if (l == null)
+        return Boolean.FALSE;
+
+      if (l.getClass() == from.type && hasDefaultCollate(condition)) {
+        final int leftResult = from.compare(l);
+        final int rightResult = to.compare(l);
+        return (leftInclusive ? leftResult >= 0 : leftResult > 0) && (rightInclusive ? rightResult <= 0 : rightResult < 0);
+      }
+
+      return condition.evaluateValues(iRecord, iCurrentResult, l,
+          condition.evaluate(iRecord, iCurrentResult, condition.getRight(), iContext), condition.getCollate(), iContext);
+    }
+
+    @Override
+    boolean isPure() {
+      return true;
+    }
+  }
+
+  private static final class In extends OSQLFilterEvaluator {
+    private final OSQLFilterCondition condition;
+    private final Object              right;
+    private final Class<?>            type;
+    private final Set<Object>         values;
+
+    private In(final OSQLFilterCondition condition, final Object right, final Class<?> type, final Set<Object> values) {
+      this.condition = condition;
+      this.right = right;
+      this.type = type;
+      this.values = values;
+    }
+
+    @Override
+    public Object evaluate(final OIdentifiable iRecord, final ODocument iCurrentResult, final OCommandContext iContext) {
+      final Object l = condition.evaluate(iRecord, iCurrentResult, condition.getLeft(), iContext);
+      if (l == null)
+        return Boolean.FALSE;
+
+      if (l.getClass() == type && hasDefaultCollate(condition))
+        return values.contains(l);
+
+      return condition.evaluateValues(iRecord, iCurrentResult, l, right, condition.getCollate(), iContext);
+    }
+
+    @Override
+    boolean isPure() {
+      return true;
+    }
+  }
+
+  /**
+   * Compares values of single type with constant without boxing and conversion, the result is the same as result of
+   * {@link Comparable#compareTo(Object)} of the value.
+   */
+  private static abstract class ValueComparator {
+    final Class<?> type;
+
+    private ValueComparator(final Class<?> type) {
+      this.type = type;
+    }
+
+    /**
+     * @return Comparator for the constant or <code>null</code> if comparison of values of its type can not be specialized.
+     */
+    static ValueComparator create(final Object iConstant) {
+      if (iConstant == null)
+        return null;
+
+      final Class<?> type = iConstant.getClass();
+      if (type == Integer.class)
+        return new IntegerComparator((Integer) iConstant);
+      if (type == Long.class)
+        return new LongComparator((Long) iConstant);
+      if (type == Short.class)
+        return new IntegerComparator(Short.class, (Short) iConstant);
+      if (type == Double.class)
+        return new DoubleComparator((Double) iConstant);
+      if (type == Float.class)
+        return new FloatComparator((Float) iConstant);
+      if (type == Date.class)
+        return new DateComparator((Date) iConstant);
+      if (type == String.class)
+        return new StringComparator((String) iConstant);
+      if (type == Boolean.class)
+        return new BooleanComparator((Boolean) iConstant);
+
+      return null;
+    }
+
+    abstract int compare(Object iValue);
+  }
+
+  private static final class IntegerComparator extends ValueComparator {
+    private final int constant;
+
+    private IntegerComparator(final int constant) {
+      this(Integer.class, constant);
+    }
+
+    private IntegerComparator(final Class<?> type, final int constant) {
+      super(type);
+      this.constant = constant;
+    }
+
+    @Override
+    int compare(final Object iValue) {
+      final int value = ((Number) iValue).intValue();
+      return value < constant ? -1 : (value == constant ? 0 : 1);
+    }
+  }
+
+  private static final class LongComparator extends ValueComparator {
+    private final long constant;
+
+    private LongComparator(final long constant) {
+      super(Long.class);
+      this.constant = constant;
+    }
+
+    @Override
+    int compare(final Object iValue) {
+      final long value = (Long) iValue;
+      return value < constant ? -1 : (value == constant ? 0 : 1);
+    }
+  }
+
+  private static final class DoubleComparator extends ValueComparator {
+    private final double constant;
+
+    private DoubleComparator(final double constant) {
+      super(Double.class);
+      this.constant = constant;
+    }
+
+    @Override
+    int compare(final Object iValue) {
+      return Double.compare((Double) iValue, constant);
+    }
+  }
+
+  private static final class FloatComparator extends ValueComparator {
+    private final float constant;
+
+    private FloatComparator(final float constant) {
+      super(Float.class);
+      this.constant = constant;
+    }
+
+    @Override
+    int compare(final Object iValue) {
+      return Float.compare((Float) iValue, constant);
+    }
+  }
+
+  private static final class DateComparator extends ValueComparator {
+    private final long constant;
+
+    private DateComparator(final Date constant) {
+      super(Date.class);
+      this.constant = constant.getTime();
+    }
+
+    @Override
+    int compare(final Object iValue) {
+      final long value = ((Date) iValue).getTime();
+      return value < constant ? -1 : (value == constant ? 0 : 1);
+    }
+  }
+
+  private static final class StringComparator extends ValueComparator {
+    private final String constant;
+
+    private StringComparator(final String constant) {
+      super(String.class);
+      this.constant = constant;
+    }
+
+    @Override
+    int compare(final Object iValue) {
+      return ((String) iValue).compareTo(constant);
+    }
+  }
+
+  private static final class BooleanComparator extends ValueComparator {
+    private final boolean constant;
+
+    private BooleanComparator(final boolean constant) {
+      super(Boolean.class);
+      this.constant = constant;
+    }
+
+    @Override
+    int compare(final Object iValue) {
+      final boolean value = (Boolean) iValue;
+      return value == constant ? 0 : (value ? 1 : -1);
+    }
+  }
+}
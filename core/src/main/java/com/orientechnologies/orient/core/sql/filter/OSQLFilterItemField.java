@@ -84,6 +84,9 @@ public class OSQLFilterItemField extends OSQLFilterItemAbstract {
     super(iQueryToParse, iName);
   }
 
+  private OSQLFilterItemField() {
+  }
+
   public Object getValue(final OIdentifiable iRecord, final Object iCurrentResult, final OCommandContext iContext) {
     if (iRecord == null)
       throw new OCommandExecutionException("expression item '" + name + "' cannot be resolved because current record is NULL");
@@ -158,4 +161,17 @@ public class OSQLFilterItemField extends OSQLFilterItemAbstract {
   public OCollate getCollate() {
     return collate;
   }
+
+  /**
+   * Creates item of the same field which keeps collate of the last evaluated record apart from this item, chain of operations is
+   * shared.
+   */
+  OSQLFilterItemField copy() {
+    final OSQLFilterItemField copy = new OSQLFilterItemField();
+    copy.name = name;
+    copy.operationsChain = operationsChain;
+    copy.preLoadedFields = preLoadedFields;
+    copy.preLoadedFieldsArray = preLoadedFieldsArray;
+    return copy;
+  }
 }
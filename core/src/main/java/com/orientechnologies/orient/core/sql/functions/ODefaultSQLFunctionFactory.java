@@ -23,6 +23,7 @@ import com.orientechnologies.orient.core.sql.functions.math.OSQLFunctionEval;
 import com.orientechnologies.orient.core.sql.functions.math.OSQLFunctionMax;
 import com.orientechnologies.orient.core.sql.functions.math.OSQLFunctionMin;
 import com.orientechnologies.orient.core.sql.functions.math.OSQLFunctionSum;
+import com.orientechnologies.orient.core.sql.functions.misc.OSQLFunctionApproxCountDistinct;
 import com.orientechnologies.orient.core.sql.functions.misc.OSQLFunctionCoalesce;
 import com.orientechnologies.orient.core.sql.functions.misc.OSQLFunctionCount;
 import com.orientechnologies.orient.core.sql.functions.misc.OSQLFunctionDate;
@@ -32,6 +33,8 @@ import com.orientechnologies.orient.core.sql.functions.misc.OSQLFunctionIf;
 import com.orientechnologies.orient.core.sql.functions.misc.OSQLFunctionIfNull;
 import com.orientechnologies.orient.core.sql.functions.misc.OSQLFunctionSysdate;
 import com.orientechnologies.orient.core.sql.functions.misc.OSQLFunctionUUID;
+import com.orientechnologies.orient.core.sql.functions.stat.OSQLFunctionApproxMedian;
+import com.orientechnologies.orient.core.sql.functions.stat.OSQLFunctionApproxPercentile;
 import com.orientechnologies.orient.core.sql.functions.stat.OSQLFunctionMedian;
 import com.orientechnologies.orient.core.sql.functions.stat.OSQLFunctionMode;
 import com.orientechnologies.orient.core.sql.functions.stat.OSQLFunctionPercentile;
@@ -84,6 +87,9 @@ public final class ODefaultSQLFunctionFactory implements OSQLFunctionFactory {
     register(OSQLFunctionMode.NAME, OSQLFunctionMode.class);
     register(OSQLFunctionPercentile.NAME, OSQLFunctionPercentile.class);
     register(OSQLFunctionMedian.NAME, OSQLFunctionMedian.class);
+    register(OSQLFunctionApproxPercentile.NAME, OSQLFunctionApproxPercentile.class);
+    register(OSQLFunctionApproxMedian.NAME, OSQLFunctionApproxMedian.class);
+    register(OSQLFunctionApproxCountDistinct.NAME, OSQLFunctionApproxCountDistinct.class);
     register(OSQLFunctionVariance.NAME, OSQLFunctionVariance.class);
     register(OSQLFunctionStandardDeviation.NAME, OSQLFunctionStandardDeviation.class);
     register(OSQLFunctionUUID.NAME, OSQLFunctionUUID.class);
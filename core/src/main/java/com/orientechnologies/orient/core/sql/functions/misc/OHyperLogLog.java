@@ -0,0 +1,120 @@
+/*
+  *
+  *  *  Copyright 2014 Orient Technologies LTD (info(at)orientechnologies.com)
+  *  *
+  *  *  Licensed under the Apache License, Version 2.0 (the "License");
+  *  *  you may not use this file except in compliance with the License.
+  *  *  You may obtain a copy of the License at
+  *  *
+  *  *       http://www.apache.org/licenses/LICENSE-2.0
+  *  *
+  *  *  Unless required by applicable law or agreed to in writing, software
+  *  *  distributed under the License is distributed on an "AS IS" BASIS,
+  *  *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  *  *  See the License for the specific language governing permissions and
+  *  *  limitations under the License.
+  *  *
+  *  * For more information: http://www.orientechnologies.com
+  *
+  */
+package com.orientechnologies.orient.core.sql.functions.misc;
+
+import com.orientechnologies.common.hash.OMurmurHash3;
+import com.orientechnologies.orient.core.db.record.OIdentifiable;
+import com.orientechnologies.orient.core.serialization.OBinaryProtocol;
+
+/**
+ * Estimates amount of distinct values using fixed amount of memory. Every value is hashed, the first bits of hash select register
+ * and the register keeps maximum position of the first set bit in the rest of hash. Standard error of estimation is
+ * <code>1.04 / sqrt(2 ^ precision)</code>, that is about 0.8% for default precision.
+ *
+ * <p>
+ * <b>References</b>
+ * </p>
+ *
+ * <ul>
+ * <li>Flajolet, Philippe; Fusy, Eric; Gandouet, Olivier; Meunier, Frederic (2007) <i>HyperLogLog: the analysis of a near-optimal
+ * cardinality estimation algorithm</i></li>
+ * </ul>
+ */
+public class OHyperLogLog {
+  public static final int DEFAULT_PRECISION = 14;
+
+  private final int       precision;
+  private final byte[]    registers;
+
+  public OHyperLogLog() {
+    this(DEFAULT_PRECISION);
+  }
+
+  public OHyperLogLog(final int precision) {
+    if (precision < 4 || precision > 18)
+      throw new IllegalArgumentException("Precision should be in range [4, 18] but was " + precision);
+
+    this.precision = precision;
+    this.registers = new byte[1 << precision];
+  }
+
+  /**
+   * Creates estimator from registers returned by {@link #getRegisters()}.
+   */
+  public OHyperLogLog(final byte[] registers) {
+    this(Integer.numberOfTrailingZeros(registers.length));
+    System.arraycopy(registers, 0, this.registers, 0, registers.length);
+  }
+
+  public void add(final Object value) {
+    if (value == null)
+      return;
+
+    final String key = value instanceof OIdentifiable ? ((OIdentifiable) value).getIdentity().toString() : value.toString();
+    addHash(OMurmurHash3.murmurHash3_x64_64(OBinaryProtocol.string2bytes(key), 0));
+  }
+
+  public void addHash(final long hash) {
+    final int index = (int) (hash >>> (64 - precision));
+
+    // THE LAST BIT GUARANTEES THAT RANK DOES NOT EXCEED AMOUNT OF BITS WHICH ARE LEFT AFTER REGISTER INDEX
+    final long rest = (hash << precision) | (1L << (precision - 1));
+    final byte rank = (byte) (Long.numberOfLeadingZeros(rest) + 1);
+
+    if (registers[index] < rank)
+      registers[index] = rank;
+  }
+
+  public void add(final OHyperLogLog other) {
+    if (other.precision != precision)
+      throw new IllegalArgumentException("Can not merge estimators with different precision " + precision + " and "
+          + other.precision);
+
+    for (int i = 0; i < registers.length; i++) {
+      if (registers[i] < other.registers[i])
+        registers[i] = other.registers[i];
+    }
+  }
+
+  public long estimate() {
+    final int m = registers.length;
+
+    double sum = 0;
+    int zeros = 0;
+    for (byte register : registers) {
+      sum += 1.0 / (1L << register);
+      if (register == 0)
+        zeros++;
+    }
+
+    final double alpha = 0.7213 / (1 + 1.079 / m);
+    final double estimate = alpha * m * m / sum;
+
+    // SMALL CARDINALITIES ARE ESTIMATED MORE PRECISELY BY AMOUNT OF EMPTY REGISTERS
+    if (estimate <= 2.5 * m && zeros > 0)
+      return Math.round(m * Math.log((double) m / zeros));
+
+    return Math.round(estimate);
+  }
+
+  public byte[] getRegisters() {
+    return registers.clone();
+  }
+}
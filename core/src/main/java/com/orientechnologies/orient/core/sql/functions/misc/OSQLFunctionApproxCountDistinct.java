@@ -0,0 +1,86 @@
+/*
+  *
+  *  *  Copyright 2014 Orient Technologies LTD (info(at)orientechnologies.com)
+  *  *
+  *  *  Licensed under the Apache License, Version 2.0 (the "License");
+  *  *  you may not use this file except in compliance with the License.
+  *  *  You may obtain a copy of the License at
+  *  *
+  *  *       http://www.apache.org/licenses/LICENSE-2.0
+  *  *
+  *  *  Unless required by applicable law or agreed to in writing, software
+  *  *  distributed under the License is distributed on an "AS IS" BASIS,
+  *  *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  *  *  See the License for the specific language governing permissions and
+  *  *  limitations under the License.
+  *  *
+  *  * For more information: http://www.orientechnologies.com
+  *
+  */
+package com.orientechnologies.orient.core.sql.functions.misc;
+
+import java.util.List;
+
+import com.orientechnologies.common.collection.OMultiValue;
+import com.orientechnologies.orient.core.command.OCommandContext;
+import com.orientechnologies.orient.core.db.record.OIdentifiable;
+import com.orientechnologies.orient.core.sql.functions.OSQLFunctionAbstract;
+
+/**
+ * Estimates amount of distinct values of a field using {@link OHyperLogLog}, so memory usage does not depend on amount of values.
+ * Items of collections are counted separately. Nulls are ignored in the calculation.
+ */
+public class OSQLFunctionApproxCountDistinct extends OSQLFunctionAbstract {
+  public static final String NAME      = "approxCountDistinct";
+
+  private final OHyperLogLog estimator = new OHyperLogLog();
+
+  public OSQLFunctionApproxCountDistinct() {
+    super(NAME, 1, 1);
+  }
+
+  public Object execute(Object iThis, OIdentifiable iCurrentRecord, Object iCurrentResult, final Object[] iParams,
+      OCommandContext iContext) {
+    if (OMultiValue.isMultiValue(iParams[0])) {
+      for (Object o : OMultiValue.getMultiValueIterable(iParams[0]))
+        estimator.add(o);
+    } else
+      estimator.add(iParams[0]);
+
+    return null;
+  }
+
+  public boolean aggregateResults() {
+    return true;
+  }
+
+  public String getSyntax() {
+    return NAME + "(<field>)";
+  }
+
+  @Override
+  public Object getResult() {
+    if (returnDistributedResult())
+      return estimator.getRegisters();
+
+    return estimator.estimate();
+  }
+
+  @Override
+  public boolean shouldMergeDistributedResult() {
+    return true;
+  }
+
+  @Override
+  public Object mergeDistributedResult(List<Object> resultsToMerge) {
+    OHyperLogLog merged = null;
+    for (Object iParameter : resultsToMerge) {
+      final OHyperLogLog estimator = new OHyperLogLog((byte[]) iParameter);
+      if (merged == null)
+        merged = estimator;
+      else
+        merged.add(estimator);
+    }
+    return merged != null ? merged.estimate() : 0L;
+  }
+}
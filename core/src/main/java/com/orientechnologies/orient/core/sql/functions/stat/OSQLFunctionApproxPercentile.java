@@ -0,0 +1,124 @@
+/*
+  *
+  *  *  Copyright 2014 Orient Technologies LTD (info(at)orientechnologies.com)
+  *  *
+  *  *  Licensed under the Apache License, Version 2.0 (the "License");
+  *  *  you may not use this file except in compliance with the License.
+  *  *  You may obtain a copy of the License at
+  *  *
+  *  *       http://www.apache.org/licenses/LICENSE-2.0
+  *  *
+  *  *  Unless required by applicable law or agreed to in writing, software
+  *  *  distributed under the License is distributed on an "AS IS" BASIS,
+  *  *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  *  *  See the License for the specific language governing permissions and
+  *  *  limitations under the License.
+  *  *
+  *  * For more information: http://www.orientechnologies.com
+  *
+  */
+package com.orientechnologies.orient.core.sql.functions.stat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.orientechnologies.common.collection.OMultiValue;
+import com.orientechnologies.orient.core.command.OCommandContext;
+import com.orientechnologies.orient.core.db.record.OIdentifiable;
+import com.orientechnologies.orient.core.sql.functions.OSQLFunctionAbstract;
+
+/**
+ * Estimates the percentile for a field. Unlike {@link OSQLFunctionPercentile} values are not kept in memory, they are summarized
+ * by {@link OTDigest} which has fixed size. Nulls are ignored in the calculation.
+ */
+public class OSQLFunctionApproxPercentile extends OSQLFunctionAbstract {
+
+  public static final String NAME      = "approxPercentile";
+
+  protected List<Double>     quantiles = new ArrayList<Double>();
+  private OTDigest           digest    = new OTDigest();
+
+  public OSQLFunctionApproxPercentile() {
+    this(NAME, 2, -1);
+  }
+
+  public OSQLFunctionApproxPercentile(final String iName, final int iMinParams, final int iMaxParams) {
+    super(iName, iMinParams, iMaxParams);
+  }
+
+  @Override
+  public Object execute(Object iThis, OIdentifiable iCurrentRecord, Object iCurrentResult, Object[] iParams,
+      OCommandContext iContext) {
+
+    if (quantiles.isEmpty()) { // set quantiles once
+      for (int i = 1; i < iParams.length; ++i) {
+        this.quantiles.add(Double.parseDouble(iParams[i].toString()));
+      }
+    }
+
+    if (iParams[0] instanceof Number) {
+      addValue((Number) iParams[0]);
+    } else if (OMultiValue.isMultiValue(iParams[0])) {
+      for (Object n : OMultiValue.getMultiValueIterable(iParams[0])) {
+        addValue((Number) n);
+      }
+    }
+    return null;
+  }
+
+  @Override
+  public boolean aggregateResults() {
+    return true;
+  }
+
+  @Override
+  public Object getResult() {
+    if (returnDistributedResult()) {
+      return digest.toList();
+    } else {
+      return evaluate(digest);
+    }
+  }
+
+  @Override
+  public boolean shouldMergeDistributedResult() {
+    return true;
+  }
+
+  @SuppressWarnings("unchecked")
+  @Override
+  public Object mergeDistributedResult(List<Object> resultsToMerge) {
+    final OTDigest merged = new OTDigest();
+    for (Object iParameter : resultsToMerge) {
+      merged.add(OTDigest.fromList((List<Number>) iParameter));
+    }
+    return evaluate(merged);
+  }
+
+  @Override
+  public String getSyntax() {
+    return NAME + "(<field>, <quantile> [,<quantile>*])";
+  }
+
+  private void addValue(Number value) {
+    if (value != null) {
+      digest.add(value.doubleValue());
+    }
+  }
+
+  private Object evaluate(OTDigest iDigest) {
+    if (iDigest.size() == 0) { // result set is empty
+      return null;
+    }
+    if (quantiles.size() > 1) {
+      List<Number> results = new ArrayList<Number>();
+      for (Double q : this.quantiles) {
+        results.add(iDigest.quantile(q));
+      }
+      return results;
+    } else {
+      return iDigest.quantile(this.quantiles.get(0));
+    }
+  }
+
+}
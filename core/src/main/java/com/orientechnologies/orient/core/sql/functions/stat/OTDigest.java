@@ -0,0 +1,254 @@
+/*
+  *
+  *  *  Copyright 2014 Orient Technologies LTD (info(at)orientechnologies.com)
+  *  *
+  *  *  Licensed under the Apache License, Version 2.0 (the "License");
+  *  *  you may not use this file except in compliance with the License.
+  *  *  You may obtain a copy of the License at
+  *  *
+  *  *       http://www.apache.org/licenses/LICENSE-2.0
+  *  *
+  *  *  Unless required by applicable law or agreed to in writing, software
+  *  *  distributed under the License is distributed on an "AS IS" BASIS,
+  *  *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  *  *  See the License for the specific language governing permissions and
+  *  *  limitations under the License.
+  *  *
+  *  * For more information: http://www.orientechnologies.com
+  *
+  */
+package com.orientechnologies.orient.core.sql.functions.stat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Approximate distribution of values which is used to estimate quantiles in bounded memory. Values are kept as centroids (mean and
+ * amount of values), amount of centroids is limited by compression factor. Centroids which are close to the tails of distribution
+ * keep fewer values, so extreme quantiles are estimated more precisely than median.
+ *
+ * <p>
+ * <b>References</b>
+ * </p>
+ *
+ * <ul>
+ * <li>Dunning, Ted; Ertl, Otmar (2014) <a href="https://github.com/tdunning/t-digest">Computing Extremely Accurate Quantiles Using
+ * t-Digests</a>.</li>
+ * </ul>
+ */
+public class OTDigest {
+  public static final double DEFAULT_COMPRESSION = 100;
+
+  private final double       compression;
+
+  private double[]           means;
+  private double[]           weights;
+  private int                centroids;
+
+  private final double[]     bufferMeans;
+  private final double[]     bufferWeights;
+  private int                buffered;
+
+  private double             totalWeight;
+  private double             min                 = Double.POSITIVE_INFINITY;
+  private double             max                 = Double.NEGATIVE_INFINITY;
+
+  public OTDigest() {
+    this(DEFAULT_COMPRESSION);
+  }
+
+  public OTDigest(final double compression) {
+    this.compression = compression;
+
+    final int capacity = (int) Math.ceil(compression) * 2 + 10;
+    means = new double[capacity];
+    weights = new double[capacity];
+
+    bufferMeans = new double[capacity * 5];
+    bufferWeights = new double[capacity * 5];
+  }
+
+  public void add(final double value) {
+    add(value, 1);
+  }
+
+  public void add(final double mean, final double weight) {
+    if (Double.isNaN(mean))
+      return;
+
+    if (buffered == bufferMeans.length)
+      compress();
+
+    bufferMeans[buffered] = mean;
+    bufferWeights[buffered] = weight;
+    buffered++;
+
+    totalWeight += weight;
+    min = Math.min(min, mean);
+    max = Math.max(max, mean);
+  }
+
+  public void add(final OTDigest other) {
+    other.compress();
+
+    for (int i = 0; i < other.centroids; i++)
+      add(other.means[i], other.weights[i]);
+
+    min = Math.min(min, other.min);
+    max = Math.max(max, other.max);
+  }
+
+  public long size() {
+    return (long) totalWeight;
+  }
+
+  /**
+   * @return Estimated value of given quantile or <code>null</code> if no values were added.
+   */
+  public Double quantile(final double quantile) {
+    if (quantile < 0 || quantile > 1)
+      throw new IllegalArgumentException("Quantile should be in range [0, 1] but was " + quantile);
+
+    compress();
+
+    if (centroids == 0)
+      return null;
+    if (centroids == 1)
+      return means[0];
+
+    final double index = quantile * totalWeight;
+
+    // VALUES BELOW THE FIRST AND ABOVE THE LAST CENTROID ARE INTERPOLATED TOWARDS MIN AND MAX
+    if (index < weights[0] / 2)
+      return min + (means[0] - min) * index / (weights[0] / 2);
+
+    double weightSoFar = weights[0] / 2;
+    for (int i = 0; i < centroids - 1; i++) {
+      final double distance = (weights[i] + weights[i + 1]) / 2;
+      if (weightSoFar + distance > index)
+        return means[i] + (means[i + 1] - means[i]) * (index - weightSoFar) / distance;
+
+      weightSoFar += distance;
+    }
+
+    final double lastHalf = weights[centroids - 1] / 2;
+    if (lastHalf == 0)
+      return max;
+
+    return means[centroids - 1] + (max - means[centroids - 1]) * Math.min(1, (index - weightSoFar) / lastHalf);
+  }
+
+  /**
+   * @return Serialized digest which can be restored by {@link #fromList(List)}.
+   */
+  public List<Double> toList() {
+    compress();
+
+    final List<Double> result = new ArrayList<Double>(centroids * 2 + 3);
+    result.add(compression);
+    result.add(min);
+    result.add(max);
+
+    for (int i = 0; i < centroids; i++) {
+      result.add(means[i]);
+      result.add(weights[i]);
+    }
+
+    return result;
+  }
+
+  public static OTDigest fromList(final List<? extends Number> serialized) {
+    final OTDigest digest = new OTDigest(serialized.get(0).doubleValue());
+
+    for (int i = 3; i < serialized.size(); i += 2)
+      digest.add(serialized.get(i).doubleValue(), serialized.get(i + 1).doubleValue());
+
+    if (digest.totalWeight > 0) {
+      digest.min = serialized.get(1).doubleValue();
+      digest.max = serialized.get(2).doubleValue();
+    }
+
+    return digest;
+  }
+
+  /**
+   * Merges buffered values with centroids, neighbour centroids are merged while size of merged centroid fits in the limit which
+   * depends on its position in distribution.
+   */
+  private void compress() {
+    if (buffered == 0)
+      return;
+
+    final int count = centroids + buffered;
+    final double[] allMeans = new double[count];
+    final double[] allWeights = new double[count];
+
+    System.arraycopy(means, 0, allMeans, 0, centroids);
+    System.arraycopy(weights, 0, allWeights, 0, centroids);
+    System.arraycopy(bufferMeans, 0, allMeans, centroids, buffered);
+    System.arraycopy(bufferWeights, 0, allWeights, centroids, buffered);
+
+    final Integer[] order = new Integer[count];
+    for (int i = 0; i < count; i++)
+      order[i] = i;
+
+    Arrays.sort(order, new Comparator<Integer>() {
+      @Override
+      public int compare(Integer first, Integer second) {
+        return Double.compare(allMeans[first], allMeans[second]);
+      }
+    });
+
+    centroids = 0;
+    buffered = 0;
+
+    double mergedMean = allMeans[order[0]];
+    double mergedWeight = allWeights[order[0]];
+    double weightSoFar = 0;
+    double weightLimit = totalWeight * quantileOfScale(scaleOfQuantile(0) + 1);
+
+    for (int i = 1; i < count; i++) {
+      final double mean = allMeans[order[i]];
+      final double weight = allWeights[order[i]];
+
+      if (weightSoFar + mergedWeight + weight <= weightLimit) {
+        mergedWeight += weight;
+        mergedMean += (mean - mergedMean) * weight / mergedWeight;
+      } else {
+        addCentroid(mergedMean, mergedWeight);
+
+        weightSoFar += mergedWeight;
+        weightLimit = totalWeight * quantileOfScale(scaleOfQuantile(weightSoFar / totalWeight) + 1);
+
+        mergedMean = mean;
+        mergedWeight = weight;
+      }
+    }
+
+    addCentroid(mergedMean, mergedWeight);
+  }
+
+  private void addCentroid(final double mean, final double weight) {
+    if (centroids == means.length) {
+      means = Arrays.copyOf(means, centroids * 2);
+      weights = Arrays.copyOf(weights, centroids * 2);
+    }
+
+    means[centroids] = mean;
+    weights[centroids] = weight;
+    centroids++;
+  }
+
+  private double scaleOfQuantile(final double quantile) {
+    return compression * Math.asin(2 * Math.min(1, quantile) - 1) / (2 * Math.PI);
+  }
+
+  private double quantileOfScale(final double scale) {
+    if (scale >= compression / 4)
+      return 1;
+
+    return (Math.sin(scale * 2 * Math.PI / compression) + 1) / 2;
+  }
+}
@@ -19,6 +19,10 @@
   */
 package com.orientechnologies.orient.core.storage;
 
+import java.util.List;
+
+import com.orientechnologies.orient.core.id.ORecordId;
+
 /**
  * Tagged interface for proxy storage implementation
  * 
@@ -27,4 +31,15 @@ package com.orientechnologies.orient.core.storage;
  */
 public interface OStorageProxy extends OStorage {
 	public String getUserName();
+
+  /**
+   * Reads several records in single request to the server.
+   * 
+   * @param iRids
+   *          Identities of records to read.
+   * @param iFetchPlan
+   *          Fetch plan, records linked by read records are sent by the server and put in the local cache of current database.
+   * @return Content of records in the same order as their identities, <code>null</code> for records which do not exist.
+   */
+  public List<ORawBuffer> readRecords(List<ORecordId> iRids, String iFetchPlan, boolean iIgnoreCache, boolean loadTombstones);
 }
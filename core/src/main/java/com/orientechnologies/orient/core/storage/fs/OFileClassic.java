@@ -78,6 +78,52 @@ public class OFileClassic extends OAbstractFile {
     }
   }
 
+  /**
+   * Reads data starting from passed in offset till the buffer is full. If end of file is reached, rest of the buffer is filled by
+   * zeros. Buffer is not copied, so if direct buffer is passed data are transferred from the channel without intermediate copies.
+   */
+  public void read(long iOffset, ByteBuffer buffer) throws IOException {
+    acquireReadLock();
+    try {
+      iOffset = checkRegions(iOffset, buffer.remaining());
+
+      while (buffer.hasRemaining()) {
+        final int bytesRead = channel.read(buffer, iOffset);
+        if (bytesRead < 0)
+          break;
+
+        iOffset += bytesRead;
+      }
+
+      while (buffer.hasRemaining())
+        buffer.put((byte) 0);
+    } finally {
+      releaseReadLock();
+    }
+  }
+
+  /**
+   * Writes content of passed in buffer, from its position till its limit, starting from passed in offset.
+   * 
+   * @return Amount of bytes on which file size was changed on the disk.
+   */
+  public long write(long iOffset, ByteBuffer buffer) throws IOException {
+    acquireWriteLock();
+    try {
+      final long start = accessFile.length();
+
+      iOffset += HEADER_SIZE;
+      while (buffer.hasRemaining())
+        iOffset += channel.write(buffer, iOffset);
+
+      setDirty();
+
+      return accessFile.length() - start;
+    } finally {
+      releaseWriteLock();
+    }
+  }
+
   public void write(long iOffset, byte[] iData, int iSize, int iArrayOffset) throws IOException {
     acquireWriteLock();
     try {
@@ -29,6 +29,7 @@ import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.locks.Lock;
 
+import com.orientechnologies.common.concur.lock.OLockException;
 import com.orientechnologies.common.concur.lock.OModificationLock;
 import com.orientechnologies.common.exception.OException;
 import com.orientechnologies.common.log.OLogManager;
@@ -93,6 +94,10 @@ public abstract class OAbstractPaginatedStorage extends OStorageEmbedded impleme
   private boolean                                makeFullCheckPointAfterClusterCreate = OGlobalConfiguration.STORAGE_MAKE_FULL_CHECKPOINT_AFTER_CLUSTER_CREATE
                                                                                           .getValueAsBoolean();
   private volatile boolean                       lowDiskSpace                         = false;
+  private final boolean                          concurrentTxCommit                   = OGlobalConfiguration.STORAGE_CONCURRENT_TX_COMMIT
+                                                                                          .getValueAsBoolean();
+  private final boolean                          groupCommit                          = OGlobalConfiguration.WAL_GROUP_COMMIT
+                                                                                          .getValueAsBoolean();
 
   public OAbstractPaginatedStorage(String name, String filePath, String mode) {
     super(name, filePath, mode);
@@ -123,7 +128,7 @@ public abstract class OAbstractPaginatedStorage extends OStorageEmbedded impleme
 
       initWalAndDiskCache();
 
-      atomicOperationsManager = new OAtomicOperationsManager(writeAheadLog);
+      atomicOperationsManager = new OAtomicOperationsManager(writeAheadLog, concurrentTxCommit);
 
       // OPEN BASIC SEGMENTS
       int pos;
@@ -161,6 +166,12 @@ public abstract class OAbstractPaginatedStorage extends OStorageEmbedded impleme
       }
 
       restoreIfNeeded();
+
+      // STATE OF CLUSTERS CREATED BY PREVIOUS VERSIONS IS CONVERTED ONLY AFTER ALL CHANGES LOGGED IN WAL ARE RESTORED
+      for (OCluster cluster : clusters)
+        if (cluster instanceof OPaginatedCluster)
+          ((OPaginatedCluster) cluster).initAllocationStripes();
+
       clearStorageDirty();
 
       status = STATUS.OPEN;
@@ -192,7 +203,7 @@ public abstract class OAbstractPaginatedStorage extends OStorageEmbedded impleme
       componentsFactory = new OCurrentStorageComponentsFactory(configuration);
       initWalAndDiskCache();
 
-      atomicOperationsManager = new OAtomicOperationsManager(writeAheadLog);
+      atomicOperationsManager = new OAtomicOperationsManager(writeAheadLog, concurrentTxCommit);
 
       preCreateSteps();
 
@@ -645,6 +656,47 @@ public abstract class OAbstractPaginatedStorage extends OStorageEmbedded impleme
         iLockingStrategy));
   }
 
+  /**
+   * Reads several records of the same cluster at once, records which are stored on the same page are read while page is loaded
+   * only once. Records are not locked, so this method is used to browse cluster only if records are read using
+   * {@link LOCKING_STRATEGY#DEFAULT} or {@link LOCKING_STRATEGY#NONE} strategy.
+   * 
+   * @param clusterId
+   *          Id of cluster which contains records.
+   * @param clusterPositions
+   *          Positions of records inside of cluster.
+   * @return Content of records in the same order as positions, <code>null</code> for records which do not exist.
+   * @see OPaginatedCluster#readRecords(long[])
+   */
+  public ORawBuffer[] readRecords(final int clusterId, final long[] clusterPositions) {
+    return readRecords(clusterId, clusterPositions, OPageReadAhead.DISABLED);
+  }
+
+  /**
+   * Reads several records of the same cluster at once, passed in read ahead is notified about each loaded page of cluster.
+   * 
+   * @see OPaginatedCluster#readRecords(long[], OPageReadAhead)
+   */
+  public ORawBuffer[] readRecords(final int clusterId, final long[] clusterPositions, final OPageReadAhead readAhead) {
+    checkOpeness();
+
+    final OCluster clusterSegment = getClusterById(clusterId);
+    if (transaction.get() != null)
+      return doReadRecords(clusterSegment, clusterPositions, readAhead);
+
+    clusterSegment.getExternalModificationLock().requestModificationLock();
+    try {
+      lock.acquireSharedLock();
+      try {
+        return doReadRecords(clusterSegment, clusterPositions, readAhead);
+      } finally {
+        lock.releaseSharedLock();
+      }
+    } finally {
+      clusterSegment.getExternalModificationLock().releaseModificationLock();
+    }
+  }
+
   @Override
   public OStorageOperationResult<ORecordVersion> updateRecord(final ORecordId rid, boolean updateContent, byte[] content,
       final ORecordVersion version, final byte recordType, final int mode, ORecordCallback<ORecordVersion> callback) {
@@ -836,10 +888,17 @@ public abstract class OAbstractPaginatedStorage extends OStorageEmbedded impleme
     if (databaseRecord != null)
       databaseRecord.getMetadata().makeThreadLocalSchemaSnapshot();
 
+    final boolean concurrentCommit = isConcurrentTxCommit();
+    OLogSequenceNumber commitLSN = null;
     try {
       modificationLock.requestModificationLock();
       try {
-        lock.acquireExclusiveLock();
+        if (concurrentCommit)
+          lock.acquireSharedLock();
+        else
+          lock.acquireExclusiveLock();
+
+        List<Lock> recordLocks = null;
         try {
           if (writeAheadLog == null)
             throw new OStorageException("WAL mode is not active. Transactions are not supported in given mode");
@@ -847,6 +906,9 @@ public abstract class OAbstractPaginatedStorage extends OStorageEmbedded impleme
           makeStorageDirty();
           startStorageTx(clientTx);
 
+          if (concurrentCommit)
+            recordLocks = lockTxComponents(clientTx);
+
           final List<ORecordOperation> tmpEntries = new ArrayList<ORecordOperation>();
 
           while (clientTx.getCurrentRecordEntries().iterator().hasNext()) {
@@ -863,7 +925,7 @@ public abstract class OAbstractPaginatedStorage extends OStorageEmbedded impleme
           if (callback != null)
             callback.run();
 
-          endStorageTx();
+          commitLSN = endStorageTx();
 
           OTransactionAbstract.updateCacheFromEntries(clientTx, clientTx.getAllRecordEntries(), true);
 
@@ -878,22 +940,47 @@ public abstract class OAbstractPaginatedStorage extends OStorageEmbedded impleme
             throw new OStorageException("Error during transaction commit.", e);
         } finally {
           transaction.set(null);
-          lock.releaseExclusiveLock();
+
+          if (recordLocks != null)
+            for (Lock recordLock : recordLocks)
+              lockManager.releaseLock(recordLock);
+
+          if (concurrentCommit)
+            lock.releaseSharedLock();
+          else
+            lock.releaseExclusiveLock();
         }
       } finally {
         modificationLock.releaseModificationLock();
       }
+
+      // wait for durability outside of locks, so transactions which are committed at the same time share single WAL fsync
+      if (groupCommit && commitLSN != null)
+        flushWALTill(commitLSN);
     } finally {
       if (databaseRecord != null)
         databaseRecord.getMetadata().clearThreadLocalSchemaSnapshot();
     }
   }
 
+  private void flushWALTill(OLogSequenceNumber lsn) {
+    try {
+      writeAheadLog.flushTill(lsn);
+    } catch (IOException e) {
+      throw new OStorageException("Error during flush of WAL records of committed transaction.", e);
+    }
+  }
+
   public void rollback(final OTransaction clientTx) {
     checkOpeness();
+
+    final boolean concurrentCommit = isConcurrentTxCommit();
     modificationLock.requestModificationLock();
     try {
-      lock.acquireExclusiveLock();
+      if (concurrentCommit)
+        lock.acquireSharedLock();
+      else
+        lock.acquireExclusiveLock();
       try {
         if (transaction.get() == null)
           return;
@@ -914,7 +1001,11 @@ public abstract class OAbstractPaginatedStorage extends OStorageEmbedded impleme
         throw new OStorageException("Error during transaction rollback.", e);
       } finally {
         transaction.set(null);
-        lock.releaseExclusiveLock();
+
+        if (concurrentCommit)
+          lock.releaseSharedLock();
+        else
+          lock.releaseExclusiveLock();
       }
     } finally {
       modificationLock.releaseModificationLock();
@@ -1130,7 +1221,86 @@ public abstract class OAbstractPaginatedStorage extends OStorageEmbedded impleme
 
   protected abstract void initWalAndDiskCache() throws IOException;
 
+  /**
+   * Makes checkpoint without stopping of storage modifications. Pages which are dirty when checkpoint is started are flushed at rate
+   * limited by {@link OGlobalConfiguration#WAL_FUZZY_CHECKPOINT_FLUSH_RATE}, once all of them are flushed WAL is truncated till
+   * start of checkpoint or start of the oldest operation which was active at that moment, so operations which span checkpoint can
+   * be rolled back during restore. Checkpoint is interrupted without truncation of WAL if storage is closed.
+   */
   protected void makeFuzzyCheckPoint() throws IOException {
+    if (writeAheadLog == null || status != STATUS.OPEN)
+      return;
+
+    OLogSequenceNumber checkpointLSN = writeAheadLog.logFuzzyCheckPointStart();
+
+    final OLogSequenceNumber oldestOperationLSN = atomicOperationsManager.getOldestActiveOperationStartLSN();
+    if (oldestOperationLSN != null && oldestOperationLSN.compareTo(checkpointLSN) < 0)
+      checkpointLSN = oldestOperationLSN;
+
+    try {
+      // OPERATIONS IN PROGRESS MAY HAVE LOGGED CHANGES OF PAGES WHICH ARE NOT PUT IN DISK CACHE YET
+      atomicOperationsManager.waitTillActiveOperationsComplete();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return;
+    }
+
+    final List<ODirtyPage> dirtyPages = new ArrayList<ODirtyPage>(diskCache.logDirtyPagesTable());
+    if (!flushDirtyPages(dirtyPages))
+      return;
+
+    writeAheadLog.logFuzzyCheckPointEnd();
+    writeAheadLog.flush();
+
+    writeAheadLog.cutTill(checkpointLSN);
+  }
+
+  /**
+   * @return <code>false</code> if storage was closed or thread was interrupted before all pages were flushed.
+   */
+  private boolean flushDirtyPages(List<ODirtyPage> dirtyPages) throws IOException {
+    // PAGES OF THE SAME WRITE GROUP ARE FLUSHED TOGETHER
+    Collections.sort(dirtyPages, new Comparator<ODirtyPage>() {
+      @Override
+      public int compare(ODirtyPage pageOne, ODirtyPage pageTwo) {
+        final int result = pageOne.getFileName().compareTo(pageTwo.getFileName());
+        if (result != 0)
+          return result;
+
+        return pageOne.getPageIndex() < pageTwo.getPageIndex() ? -1 : (pageOne.getPageIndex() == pageTwo.getPageIndex() ? 0 : 1);
+      }
+    });
+
+    final int flushRate = OGlobalConfiguration.WAL_FUZZY_CHECKPOINT_FLUSH_RATE.getValueAsInteger();
+    final int batchSize = flushRate > 0 ? Math.max(flushRate / 10, 1) : Math.max(dirtyPages.size(), 1);
+    final long batchInterval = flushRate > 0 ? batchSize * 1000L / flushRate : 0;
+
+    int position = 0;
+    while (position < dirtyPages.size()) {
+      if (status != STATUS.OPEN)
+        return false;
+
+      final long batchStart = System.currentTimeMillis();
+
+      final int batchEnd = Math.min(position + batchSize, dirtyPages.size());
+      final List<ODirtyPage> batch = new ArrayList<ODirtyPage>(dirtyPages.subList(position, batchEnd));
+      position = batchEnd;
+
+      // PAGES WHICH ARE IN USE NOW ARE FLUSHED LATER
+      dirtyPages.addAll(diskCache.flushDirtyPages(batch));
+
+      final long pause = batchInterval - (System.currentTimeMillis() - batchStart);
+      if (pause > 0) {
+        try {
+          Thread.sleep(pause);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          return false;
+        }
+      }
+    }
+
+    return true;
   }
 
   protected void postCloseSteps(boolean onDelete) throws IOException {
@@ -1243,7 +1413,10 @@ public abstract class OAbstractPaginatedStorage extends OStorageEmbedded impleme
           OPageChanges pageChanges = updatePageRecord.getChanges();
           durablePage.revertChanges(pageChanges);
 
-          durablePage.setLsn(updatePageRecord.getLsn());
+          // PAGE MAY CONTAIN CHANGES OF OTHER OPERATIONS WHICH MODIFY DIFFERENT PARTS OF IT, SO ITS LSN IS NEVER MOVED BACK
+          if (durablePage.getLsn().compareTo(updatePageRecord.getLsn()) < 0)
+            durablePage.setLsn(updatePageRecord.getLsn());
+          cacheEntry.markDirty();
         } finally {
           cachePointer.releaseExclusiveLock();
           diskCache.release(cacheEntry);
@@ -1295,10 +1468,15 @@ public abstract class OAbstractPaginatedStorage extends OStorageEmbedded impleme
     return isAtomicUnitEndRecord;
   }
 
-  protected void endStorageTx() throws IOException {
-    atomicOperationsManager.endAtomicOperation(false);
+  /**
+   * @return LSN of WAL record which ends storage transaction.
+   */
+  protected OLogSequenceNumber endStorageTx() throws IOException {
+    final OAtomicOperation operation = atomicOperationsManager.endAtomicOperation(false);
 
     assert atomicOperationsManager.getCurrentOperation() == null;
+
+    return operation.getEndLSN();
   }
 
   protected void startStorageTx(OTransaction clientTx) throws IOException {
@@ -1319,12 +1497,90 @@ public abstract class OAbstractPaginatedStorage extends OStorageEmbedded impleme
     if (writeAheadLog == null || transaction.get() == null)
       return;
 
-    final OAtomicOperation operation = atomicOperationsManager.endAtomicOperation(true);
+    // locks are kept till changes will be reverted, otherwise other transactions may modify pages which are restored
+    final OAtomicOperation operation = atomicOperationsManager.endAtomicOperation(true, false);
 
     assert atomicOperationsManager.getCurrentOperation() == null;
 
-    final List<OLogSequenceNumber> operationUnit = readOperationUnit(operation.getStartLSN(), operation.getOperationUnitId());
-    undoOperation(operationUnit);
+    try {
+      final List<OLogSequenceNumber> operationUnit = readOperationUnit(operation.getStartLSN(), operation.getOperationUnitId());
+      undoOperation(operationUnit);
+    } finally {
+      atomicOperationsManager.releaseLocks(operation);
+    }
+  }
+
+  /**
+   * Transactions are committed in parallel only if component isolation is supported by WAL, otherwise all of them are serialized
+   * by storage exclusive lock.
+   */
+  private boolean isConcurrentTxCommit() {
+    final OAtomicOperationsManager operationsManager = atomicOperationsManager;
+    return operationsManager != null && operationsManager.isComponentIsolation();
+  }
+
+  /**
+   * Locks records which are going to be updated or deleted by transaction and clusters of all its records. Clusters are locked till
+   * the end of atomic operation in order of their ids, so transactions which touch the same clusters will not deadlock on each
+   * other. Indexes are locked later during commit of index changes in order of their names.
+   * 
+   * @return Locks of records which should be released after transaction completes.
+   */
+  private List<Lock> lockTxComponents(final OTransaction clientTx) {
+    final Set<ORecordId> rids = new TreeSet<ORecordId>();
+    final Set<Integer> clusterIds = new TreeSet<Integer>();
+
+    for (ORecordOperation txEntry : clientTx.getCurrentRecordEntries()) {
+      final ORecord rec = txEntry.getRecord();
+      if (rec == null)
+        continue;
+
+      final ORecordId rid = (ORecordId) rec.getIdentity();
+
+      int clusterId = rid.clusterId;
+      if (clusterId == ORID.CLUSTER_ID_INVALID && rec instanceof ODocument && ((ODocument) rec).getImmutableSchemaClass() != null)
+        clusterId = ((ODocument) rec).getImmutableSchemaClass().getDefaultClusterId();
+
+      if (clusterId >= 0)
+        clusterIds.add(clusterId);
+
+      if (rid.isPersistent() && txEntry.type != ORecordOperation.CREATED)
+        rids.add(rid.copy());
+    }
+
+    final List<Lock> recordLocks = new ArrayList<Lock>(rids.size());
+    try {
+      for (ORecordId rid : rids) {
+        final Lock recordLock;
+        try {
+          recordLock = lockManager.tryAcquireExclusiveLock(rid, TX_RECORD_LOCK_TIMEOUT);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          throw new OLockException("Thread was interrupted while waiting for lock on record " + rid, e);
+        }
+
+        if (recordLock == null)
+          throw new OLockException("Record " + rid + " is locked by other transaction, timeout=" + TX_RECORD_LOCK_TIMEOUT);
+
+        recordLocks.add(recordLock);
+      }
+
+      for (int clusterId : clusterIds) {
+        if (clusterId >= clusters.size())
+          continue;
+
+        final OCluster cluster = clusters.get(clusterId);
+        if (cluster != null)
+          atomicOperationsManager.lockTillOperationComplete(cluster);
+      }
+    } catch (RuntimeException e) {
+      for (Lock recordLock : recordLocks)
+        lockManager.releaseLock(recordLock);
+
+      throw e;
+    }
+
+    return recordLocks;
   }
 
   protected void restoreIfNeeded() throws Exception {
@@ -1567,6 +1823,21 @@ public abstract class OAbstractPaginatedStorage extends OStorageEmbedded impleme
     }
   }
 
+  private ORawBuffer[] doReadRecords(OCluster clusterSegment, long[] clusterPositions, OPageReadAhead readAhead) {
+    try {
+      if (clusterSegment instanceof OPaginatedCluster)
+        return ((OPaginatedCluster) clusterSegment).readRecords(clusterPositions, readAhead);
+
+      final ORawBuffer[] buffers = new ORawBuffer[clusterPositions.length];
+      for (int i = 0; i < clusterPositions.length; i++)
+        buffers[i] = clusterSegment.readRecord(clusterPositions[i]);
+
+      return buffers;
+    } catch (IOException e) {
+      throw new OStorageException("Error during read of records of cluster with id " + clusterSegment.getId(), e);
+    }
+  }
+
   private void addDefaultClusters() throws IOException {
     final String storageCompression = getConfiguration().getContextConfiguration().getValueAsString(
         OGlobalConfiguration.STORAGE_COMPRESSION_METHOD);
@@ -2062,13 +2333,21 @@ public abstract class OAbstractPaginatedStorage extends OStorageEmbedded impleme
 
   private void restoreFromFuzzyCheckPoint(OFuzzyCheckpointStartRecord checkPointRecord) throws IOException {
     OLogManager.instance().info(this, "Data restore procedure from FUZZY checkpoint is started.");
+
+    // CHECKPOINT IS MADE WITHOUT STOPPING OF STORAGE MODIFICATIONS, SO OTHER RECORDS MAY BE LOGGED BEFORE DIRTY PAGES TABLE
     OLogSequenceNumber dirtyPagesLSN = writeAheadLog.next(checkPointRecord.getLsn());
-    ODirtyPagesRecord dirtyPagesRecord = (ODirtyPagesRecord) writeAheadLog.read(dirtyPagesLSN);
+    OWALRecord walRecord = writeAheadLog.read(dirtyPagesLSN);
+    while (!(walRecord instanceof ODirtyPagesRecord)) {
+      dirtyPagesLSN = writeAheadLog.next(dirtyPagesLSN);
+      walRecord = writeAheadLog.read(dirtyPagesLSN);
+    }
+
+    ODirtyPagesRecord dirtyPagesRecord = (ODirtyPagesRecord) walRecord;
     OLogSequenceNumber startLSN;
 
     Set<ODirtyPage> dirtyPages = dirtyPagesRecord.getDirtyPages();
     if (dirtyPages.isEmpty()) {
-      startLSN = dirtyPagesLSN;
+      startLSN = checkPointRecord.getLsn();
     } else {
       ODirtyPage[] pages = dirtyPages.toArray(new ODirtyPage[dirtyPages.size()]);
 
@@ -2080,6 +2359,8 @@ public abstract class OAbstractPaginatedStorage extends OStorageEmbedded impleme
       });
 
       startLSN = pages[0].getLsn();
+      if (startLSN.compareTo(checkPointRecord.getLsn()) > 0)
+        startLSN = checkPointRecord.getLsn();
     }
 
     if (startLSN.compareTo(writeAheadLog.begin()) < 0)
@@ -2105,30 +2386,37 @@ public abstract class OAbstractPaginatedStorage extends OStorageEmbedded impleme
     Map<OOperationUnitId, List<OLogSequenceNumber>> operationUnits = new HashMap<OOperationUnitId, List<OLogSequenceNumber>>();
     List<OWALRecord> batch = new ArrayList<OWALRecord>();
 
+    final OWALPageRestorer pageRestorer = new OWALPageRestorer(diskCache,
+        OGlobalConfiguration.WAL_RESTORE_THREADS.getValueAsInteger(), getName());
     try {
-      while (lsn != null) {
-        OWALRecord walRecord = writeAheadLog.read(lsn);
-        batch.add(walRecord);
-
-        if (batch.size() >= batchSize) {
-          OLogManager.instance()
-              .info(this, "WAL size exceed configured heap memory for recovery (%s=%d). Fetching WAL records in batch",
-                  OGlobalConfiguration.WAL_RESTORE_BATCH_SIZE.getKey(),
-                  OGlobalConfiguration.WAL_RESTORE_BATCH_SIZE.getValueAsInteger());
-          recordsProcessed = restoreWALBatch(batch, operationUnits, recordsProcessed, reportInterval);
-          batch = new ArrayList<OWALRecord>();
+      try {
+        while (lsn != null) {
+          OWALRecord walRecord = writeAheadLog.read(lsn);
+          batch.add(walRecord);
+
+          if (batch.size() >= batchSize) {
+            OLogManager.instance().info(this,
+                "WAL size exceed configured heap memory for recovery (%s=%d). Fetching WAL records in batch",
+                OGlobalConfiguration.WAL_RESTORE_BATCH_SIZE.getKey(), OGlobalConfiguration.WAL_RESTORE_BATCH_SIZE.getValueAsInteger());
+            recordsProcessed = restoreWALBatch(batch, operationUnits, pageRestorer, recordsProcessed, reportInterval);
+            batch = new ArrayList<OWALRecord>();
+          }
+
+          lsn = writeAheadLog.next(lsn);
         }
 
-        lsn = writeAheadLog.next(lsn);
+        if (!batch.isEmpty()) {
+          OLogManager.instance().info(this, "Apply last batch of operations are read from WAL.");
+          restoreWALBatch(batch, operationUnits, pageRestorer, recordsProcessed, reportInterval);
+        }
+      } catch (OWALPageBrokenException e) {
+        OLogManager.instance().error(this,
+            "Data restore was paused because broken WAL page was found. The rest of changes will be rolled back.");
       }
 
-      if (!batch.isEmpty()) {
-        OLogManager.instance().info(this, "Apply last batch of operations are read from WAL.");
-        restoreWALBatch(batch, operationUnits, recordsProcessed, reportInterval);
-      }
-    } catch (OWALPageBrokenException e) {
-      OLogManager.instance().error(this,
-          "Data restore was paused because broken WAL page was found. The rest of changes will be rolled back.");
+      pageRestorer.await();
+    } finally {
+      pageRestorer.shutdown();
     }
 
     rollbackAllUnfinishedWALOperations(operationUnits);
@@ -2136,7 +2424,7 @@ public abstract class OAbstractPaginatedStorage extends OStorageEmbedded impleme
   }
 
   private long restoreWALBatch(List<OWALRecord> batch, Map<OOperationUnitId, List<OLogSequenceNumber>> operationUnits,
-      long recordsProcessed, int reportInterval) throws IOException {
+      OWALPageRestorer pageRestorer, long recordsProcessed, int reportInterval) throws IOException {
     for (OWALRecord walRecord : batch) {
       final OLogSequenceNumber lsn = walRecord.getLsn();
 
@@ -2148,42 +2436,19 @@ public abstract class OAbstractPaginatedStorage extends OStorageEmbedded impleme
         OOperationUnitRecord operationUnitRecord = (OOperationUnitRecord) walRecord;
         OOperationUnitId unitId = operationUnitRecord.getOperationUnitId();
 
-        final List<OLogSequenceNumber> records = operationUnits.get(unitId);
-
-        assert records != null;
+        List<OLogSequenceNumber> records = operationUnits.get(unitId);
 
+        // OPERATION WAS STARTED BEFORE FUZZY CHECKPOINT AND COMPLETED BEFORE ITS PAGES WERE FLUSHED, ITS CHANGES ARE APPLIED AGAIN
+        // TOGETHER WITH CHANGES OF OTHER OPERATIONS, OTHERWISE EARLIER CHANGES OF THE SAME PAGES WOULD OVERWRITE THEM
         if (records == null) {
-          OLogManager.instance().warn(this,
-              "Record with lsn %s  which indication of start of atomic operation was truncated will be skipped.",
-              walRecord.getLsn());
-          continue;
+          records = new ArrayList<OLogSequenceNumber>();
+          operationUnits.put(unitId, records);
         }
 
         records.add(lsn);
 
         if (operationUnitRecord instanceof OUpdatePageRecord) {
-          final OUpdatePageRecord updatePageRecord = (OUpdatePageRecord) operationUnitRecord;
-
-          final long fileId = updatePageRecord.getFileId();
-          final long pageIndex = updatePageRecord.getPageIndex();
-
-          if (!diskCache.isOpen(fileId))
-            diskCache.openFile(fileId);
-
-          final OCacheEntry cacheEntry = diskCache.load(fileId, pageIndex, true);
-          final OCachePointer cachePointer = cacheEntry.getCachePointer();
-          cachePointer.acquireExclusiveLock();
-          try {
-            ODurablePage durablePage = new ODurablePage(cacheEntry, ODurablePage.TrackMode.NONE);
-            durablePage.restoreChanges(updatePageRecord.getChanges());
-            durablePage.setLsn(lsn);
-
-            cacheEntry.markDirty();
-          } finally {
-            cachePointer.releaseExclusiveLock();
-            diskCache.release(cacheEntry);
-          }
-
+          pageRestorer.submit((OUpdatePageRecord) operationUnitRecord);
         } else if (operationUnitRecord instanceof OFileCreatedCreatedWALRecord) {
 
           final OFileCreatedCreatedWALRecord fileCreatedCreatedRecord = (OFileCreatedCreatedWALRecord) operationUnitRecord;
@@ -2192,8 +2457,18 @@ public abstract class OAbstractPaginatedStorage extends OStorageEmbedded impleme
         } else if (operationUnitRecord instanceof OAtomicUnitEndRecord) {
           final OAtomicUnitEndRecord atomicUnitEndRecord = (OAtomicUnitEndRecord) walRecord;
 
-          if (atomicUnitEndRecord.isRollback())
-            undoOperation(records);
+          if (atomicUnitEndRecord.isRollback()) {
+            if (!(writeAheadLog.read(records.get(0)) instanceof OAtomicUnitStartRecord))
+              records = readStartedBeforeRestoreOperationUnit(unitId);
+
+            if (records != null) {
+              // changes of rolled back operation should be applied before they are reverted
+              pageRestorer.await();
+              undoOperation(records);
+            } else
+              OLogManager.instance().warn(this,
+                  "Operation %s was rolled back but start of it was truncated from WAL, its changes will not be reverted.", unitId);
+          }
 
           operationUnits.remove(unitId);
         } else {
@@ -2210,6 +2485,9 @@ public abstract class OAbstractPaginatedStorage extends OStorageEmbedded impleme
             writeAheadLog.end());
     }
 
+    // bounds amount of changes which are queued by page restorer by size of single batch
+    pageRestorer.await();
+
     return recordsProcessed;
   }
 
@@ -2219,7 +2497,21 @@ public abstract class OAbstractPaginatedStorage extends OStorageEmbedded impleme
       if (operationUnit.isEmpty())
         continue;
 
-      final OAtomicUnitStartRecord atomicUnitStartRecord = (OAtomicUnitStartRecord) writeAheadLog.read(operationUnit.get(0));
+      OWALRecord firstRecord = writeAheadLog.read(operationUnit.get(0));
+      if (!(firstRecord instanceof OAtomicUnitStartRecord)) {
+        final OOperationUnitId unitId = ((OOperationUnitRecord) firstRecord).getOperationUnitId();
+
+        operationUnit = readStartedBeforeRestoreOperationUnit(unitId);
+        if (operationUnit == null) {
+          OLogManager.instance().warn(this, "Start of not finished operation %s was truncated from WAL, it will not be rolled back.",
+              unitId);
+          continue;
+        }
+
+        firstRecord = writeAheadLog.read(operationUnit.get(0));
+      }
+
+      final OAtomicUnitStartRecord atomicUnitStartRecord = (OAtomicUnitStartRecord) firstRecord;
       if (!atomicUnitStartRecord.isRollbackSupported())
         continue;
 
@@ -2232,6 +2524,20 @@ public abstract class OAbstractPaginatedStorage extends OStorageEmbedded impleme
     }
   }
 
+  /**
+   * Reads all records of operation which was started before the point from which data restore is performed. Values of changed
+   * page fragments are logged instead of their differences, so changes of operation can be reverted only all together.
+   * 
+   * @return <code>null</code> if start of operation was truncated from WAL.
+   */
+  private List<OLogSequenceNumber> readStartedBeforeRestoreOperationUnit(OOperationUnitId unitId) throws IOException {
+    final List<OLogSequenceNumber> operationUnit = readOperationUnit(writeAheadLog.begin(), unitId);
+    if (operationUnit.isEmpty() || !(writeAheadLog.read(operationUnit.get(0)) instanceof OAtomicUnitStartRecord))
+      return null;
+
+    return operationUnit;
+  }
+
   private void checkLowDiskSpace() {
     if (lowDiskSpace)
       throw new OLowDiskSpaceException(
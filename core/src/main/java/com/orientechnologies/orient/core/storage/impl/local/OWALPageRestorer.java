@@ -0,0 +1,183 @@
+/*
+ *
+ *  *  Copyright 2014 Orient Technologies LTD (info(at)orientechnologies.com)
+ *  *
+ *  *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  *  you may not use this file except in compliance with the License.
+ *  *  You may obtain a copy of the License at
+ *  *
+ *  *       http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *  Unless required by applicable law or agreed to in writing, software
+ *  *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *  See the License for the specific language governing permissions and
+ *  *  limitations under the License.
+ *  *
+ *  * For more information: http://www.orientechnologies.com
+ *
+ */
+
+package com.orientechnologies.orient.core.storage.impl.local;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.orientechnologies.orient.core.exception.OStorageException;
+import com.orientechnologies.orient.core.index.hashindex.local.cache.OCacheEntry;
+import com.orientechnologies.orient.core.index.hashindex.local.cache.OCachePointer;
+import com.orientechnologies.orient.core.index.hashindex.local.cache.ODiskCache;
+import com.orientechnologies.orient.core.storage.impl.local.paginated.base.ODurablePage;
+import com.orientechnologies.orient.core.storage.impl.local.paginated.wal.OUpdatePageRecord;
+
+/**
+ * Applies page changes which are read from WAL during data restore.
+ *
+ * If more than one thread is requested, changes are applied by pool of worker threads. Worker is chosen by hash of file id and page
+ * index, so all changes of the same page are applied by the same thread in the same order as they are logged in WAL, while changes
+ * of different pages are applied in parallel. Caller should call {@link #await()} before any operation which depends on result of
+ * already submitted changes (rollback of atomic operation for example).
+ */
+public class OWALPageRestorer {
+  private final ODiskCache                 diskCache;
+  private final ExecutorService[]          workers;
+  private final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+
+  public OWALPageRestorer(ODiskCache diskCache, int threads, final String storageName) {
+    this.diskCache = diskCache;
+
+    if (threads > 1) {
+      workers = new ExecutorService[threads];
+
+      for (int i = 0; i < threads; i++) {
+        final int workerId = i;
+        workers[i] = Executors.newSingleThreadExecutor(new ThreadFactory() {
+          @Override
+          public Thread newThread(Runnable r) {
+            final Thread thread = new Thread(r);
+            thread.setDaemon(true);
+            thread.setName("OrientDB WAL Restore Task (" + storageName + ", " + workerId + ")");
+            return thread;
+          }
+        });
+      }
+    } else
+      workers = null;
+  }
+
+  /**
+   * Applies page changes in current thread if restorer works in single thread mode, otherwise passes them to the worker which is
+   * responsible for given page.
+   */
+  public void submit(final OUpdatePageRecord updatePageRecord) throws IOException {
+    final long fileId = updatePageRecord.getFileId();
+    if (!diskCache.isOpen(fileId))
+      diskCache.openFile(fileId);
+
+    if (workers == null) {
+      restore(updatePageRecord);
+      return;
+    }
+
+    checkFailure();
+
+    final ExecutorService worker = workers[workerIndex(fileId, updatePageRecord.getPageIndex())];
+    worker.execute(new Runnable() {
+      @Override
+      public void run() {
+        if (failure.get() != null)
+          return;
+
+        try {
+          restore(updatePageRecord);
+        } catch (Throwable e) {
+          failure.compareAndSet(null, e);
+        }
+      }
+    });
+  }
+
+  /**
+   * Waits till all changes which were submitted so far are applied.
+   */
+  public void await() throws IOException {
+    if (workers == null)
+      return;
+
+    final List<Future<?>> futures = new ArrayList<Future<?>>(workers.length);
+    for (ExecutorService worker : workers)
+      futures.add(worker.submit(new Runnable() {
+        @Override
+        public void run() {
+        }
+      }));
+
+    for (Future<?> future : futures) {
+      try {
+        future.get();
+      } catch (InterruptedException e) {
+        Thread.interrupted();
+        throw new OStorageException("Thread was interrupted during data restore", e);
+      } catch (ExecutionException e) {
+        throw new OStorageException("Error during data restore", e);
+      }
+    }
+
+    checkFailure();
+  }
+
+  public void shutdown() {
+    if (workers == null)
+      return;
+
+    for (ExecutorService worker : workers)
+      worker.shutdownNow();
+  }
+
+  private void restore(OUpdatePageRecord updatePageRecord) throws IOException {
+    final OCacheEntry cacheEntry = diskCache.load(updatePageRecord.getFileId(), updatePageRecord.getPageIndex(), true);
+    final OCachePointer cachePointer = cacheEntry.getCachePointer();
+    cachePointer.acquireExclusiveLock();
+    try {
+      ODurablePage durablePage = new ODurablePage(cacheEntry, ODurablePage.TrackMode.NONE);
+      durablePage.restoreChanges(updatePageRecord.getChanges());
+      durablePage.setLsn(updatePageRecord.getLsn());
+
+      cacheEntry.markDirty();
+    } finally {
+      cachePointer.releaseExclusiveLock();
+      diskCache.release(cacheEntry);
+    }
+  }
+
+  private int workerIndex(long fileId, long pageIndex) {
+    int hash = 31 * (int) (fileId ^ (fileId >>> 32)) + (int) (pageIndex ^ (pageIndex >>> 32));
+    hash ^= (hash >>> 16);
+
+    return (hash & Integer.MAX_VALUE) % workers.length;
+  }
+
+  private void checkFailure() throws IOException {
+    final Throwable e = failure.get();
+    if (e == null)
+      return;
+
+    if (e instanceof IOException)
+      throw (IOException) e;
+
+    if (e instanceof RuntimeException)
+      throw (RuntimeException) e;
+
+    if (e instanceof Error)
+      throw (Error) e;
+
+    throw new OStorageException("Error during data restore", e);
+  }
+}
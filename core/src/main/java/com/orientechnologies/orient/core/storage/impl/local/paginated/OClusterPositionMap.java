@@ -129,18 +129,27 @@ public class OClusterPositionMap extends ODurableComponent {
     }
   }
 
-  public long add(long pageIndex, int recordPosition) throws IOException {
+  /**
+   * Adds mapping of new record to the given bucket of map. If bucket is full or does not exist new bucket is added at the end of
+   * map, so callers which append to different buckets get positions which do not interleave with each other.
+   * 
+   * @param bucketIndex
+   *          Index of bucket to which mapping should be appended or <code>-1</code> if new bucket should be created.
+   * @return Position of record, index of bucket which contains it is equal to position divided by
+   *         {@link OClusterPositionMapBucket#MAX_ENTRIES}.
+   */
+  public long add(long bucketIndex, long pageIndex, int recordPosition) throws IOException {
     acquireExclusiveLock();
     try {
-      long lastPage = diskCache.getFilledUpTo(fileId) - 1;
-
       boolean isNewPage = false;
-      if (lastPage < 0) {
-        lastPage = 0;
+      OCacheEntry cacheEntry;
+      if (bucketIndex >= 0 && bucketIndex < diskCache.getFilledUpTo(fileId))
+        cacheEntry = diskCache.load(fileId, bucketIndex, false);
+      else {
         isNewPage = true;
+        cacheEntry = diskCache.allocateNewPage(fileId);
       }
 
-      OCacheEntry cacheEntry = diskCache.load(fileId, lastPage, false);
       cacheEntry.acquireExclusiveLock();
       try {
         startAtomicOperation();
@@ -179,6 +188,18 @@ public class OClusterPositionMap extends ODurableComponent {
     }
   }
 
+  /**
+   * @return Amount of buckets in map including empty ones.
+   */
+  public long getBucketsCount() throws IOException {
+    acquireSharedLock();
+    try {
+      return diskCache.getFilledUpTo(fileId);
+    } finally {
+      releaseSharedLock();
+    }
+  }
+
   public OClusterPositionMapBucket.PositionEntry get(final long clusterPosition) throws IOException {
     acquireSharedLock();
     try {
@@ -200,6 +221,49 @@ public class OClusterPositionMap extends ODurableComponent {
     }
   }
 
+  /**
+   * Returns entries of several positions at once. Page of map is loaded only once for all positions which follow each other and
+   * are stored in the same page.
+   * 
+   * @param clusterPositions
+   *          Positions of records.
+   * @return Entries in the same order as positions, <code>null</code> for positions which do not exist.
+   */
+  public OClusterPositionMapBucket.PositionEntry[] get(final long[] clusterPositions) throws IOException {
+    acquireSharedLock();
+    try {
+      final OClusterPositionMapBucket.PositionEntry[] result = new OClusterPositionMapBucket.PositionEntry[clusterPositions.length];
+      final long filledUpTo = diskCache.getFilledUpTo(fileId);
+
+      OCacheEntry cacheEntry = null;
+      try {
+        OClusterPositionMapBucket bucket = null;
+        for (int i = 0; i < clusterPositions.length; i++) {
+          final long pageIndex = clusterPositions[i] / OClusterPositionMapBucket.MAX_ENTRIES;
+          if (pageIndex >= filledUpTo)
+            continue;
+
+          if (cacheEntry == null || cacheEntry.getPageIndex() != pageIndex) {
+            if (cacheEntry != null)
+              diskCache.release(cacheEntry);
+
+            cacheEntry = diskCache.load(fileId, pageIndex, false);
+            bucket = new OClusterPositionMapBucket(cacheEntry, ODurablePage.TrackMode.NONE);
+          }
+
+          result[i] = bucket.get((int) (clusterPositions[i] % OClusterPositionMapBucket.MAX_ENTRIES));
+        }
+      } finally {
+        if (cacheEntry != null)
+          diskCache.release(cacheEntry);
+      }
+
+      return result;
+    } finally {
+      releaseSharedLock();
+    }
+  }
+
   public OClusterPositionMapBucket.PositionEntry remove(final long clusterPosition) throws IOException {
     acquireExclusiveLock();
     try {
@@ -24,39 +24,72 @@ import com.orientechnologies.common.io.OFileUtils;
 import com.orientechnologies.common.io.OIOUtils;
 import com.orientechnologies.common.log.OLogManager;
 import com.orientechnologies.common.parser.OSystemVariableResolver;
+import com.orientechnologies.common.serialization.types.OIntegerSerializer;
+import com.orientechnologies.common.serialization.types.OLongSerializer;
 import com.orientechnologies.orient.core.command.OCommandOutputListener;
 import com.orientechnologies.orient.core.compression.impl.OZIPCompressionUtil;
 import com.orientechnologies.orient.core.config.OGlobalConfiguration;
 import com.orientechnologies.orient.core.engine.local.OEngineLocalPaginated;
 import com.orientechnologies.orient.core.exception.OStorageException;
+import com.orientechnologies.orient.core.index.hashindex.local.cache.OCacheEntry;
 import com.orientechnologies.orient.core.index.hashindex.local.cache.OReadWriteDiskCache;
+import com.orientechnologies.orient.core.index.hashindex.local.cache.OStripedDiskCache;
+import com.orientechnologies.orient.core.index.hashindex.local.cache.OWOWCache;
 import com.orientechnologies.orient.core.metadata.OMetadataDefault;
+import com.orientechnologies.orient.core.storage.fs.OFileClassic;
 import com.orientechnologies.orient.core.storage.impl.local.OAbstractPaginatedStorage;
 import com.orientechnologies.orient.core.storage.impl.local.OFreezableStorage;
 import com.orientechnologies.orient.core.storage.impl.local.OStorageConfigurationSegment;
 import com.orientechnologies.orient.core.storage.impl.local.OStorageVariableParser;
 import com.orientechnologies.orient.core.storage.impl.local.paginated.wal.ODiskWriteAheadLog;
+import com.orientechnologies.orient.core.storage.impl.local.paginated.wal.OLogSequenceNumber;
 import com.orientechnologies.orient.core.util.OBackupable;
 
+import java.io.BufferedInputStream;
 import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.Date;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
 
 /**
  * @author Andrey Lomakin
  * @since 28.03.13
  */
 public class OLocalPaginatedStorage extends OAbstractPaginatedStorage implements OFreezableStorage, OBackupable {
-  private static final int                 ONE_KB = 1024;
+  /**
+   * Option of {@link #backup(OutputStream, Map, Callable, OCommandOutputListener, int, int)} which makes backup incremental. Such
+   * backup contains only pages which were changed since the previous backup and can be restored only over the previous backup.
+   */
+  public static final String               INCREMENTAL_BACKUP_OPTION = "incremental";
+
+  private static final int                 ONE_KB                    = 1024;
+
+  private static final String              LAST_BACKUP_LSN_FILE      = "last_backup.lsn";
+  private static final String              INCREMENTAL_BACKUP_START  = "incremental_backup.start";
+  private static final String              INCREMENTAL_BACKUP_END    = "incremental_backup.end";
+  private static final String              PAGES_ENTRY_PREFIX        = "pages/";
+  private static final String              FILES_ENTRY_PREFIX        = "files/";
+  private static final String              WAL_ENTRY_PREFIX          = "wal/";
 
   private final int                        DELETE_MAX_RETRIES;
   private final int                        DELETE_WAIT_TIME;
@@ -66,6 +99,7 @@ public class OLocalPaginatedStorage extends OAbstractPaginatedStorage implements
   private String                           storagePath;
   private ScheduledExecutorService         fuzzyCheckpointExecutor;
   private ExecutorService                  checkpointExecutor;
+  private final AtomicBoolean              fuzzyCheckpointScheduled  = new AtomicBoolean();
 
   public OLocalPaginatedStorage(final String name, final String filePath, final String mode) throws IOException {
     super(name, filePath, mode);
@@ -131,6 +165,33 @@ public class OLocalPaginatedStorage extends OAbstractPaginatedStorage implements
       });
   }
 
+  /**
+   * Starts fuzzy checkpoint in background if it is not started yet. It is called by WAL once its size exceeds
+   * {@link OGlobalConfiguration#WAL_FUZZY_CHECKPOINT_SIZE_THRESHOLD}.
+   */
+  public void scheduleFuzzyCheckpoint() {
+    if (fuzzyCheckpointExecutor == null || !fuzzyCheckpointScheduled.compareAndSet(false, true))
+      return;
+
+    try {
+      fuzzyCheckpointExecutor.execute(new Runnable() {
+        @Override
+        public void run() {
+          try {
+            makeFuzzyCheckPoint();
+          } catch (Throwable t) {
+            OLogManager.instance().error(this, "Error during background FUZZY checkpoint creation for storage " + name, t);
+          } finally {
+            fuzzyCheckpointScheduled.set(false);
+          }
+        }
+      });
+    } catch (RejectedExecutionException e) {
+      // STORAGE IS CLOSED
+      fuzzyCheckpointScheduled.set(false);
+    }
+  }
+
   @Override
   public String getType() {
     return OEngineLocalPaginated.NAME;
@@ -139,6 +200,27 @@ public class OLocalPaginatedStorage extends OAbstractPaginatedStorage implements
   @Override
   public void backup(OutputStream out, Map<String, Object> options, final Callable<Object> callable,
       final OCommandOutputListener iOutput, final int compressionLevel, final int bufferSize) throws IOException {
+    if (options != null && Boolean.parseBoolean(String.valueOf(options.get(INCREMENTAL_BACKUP_OPTION)))) {
+      if (callable != null)
+        try {
+          callable.call();
+        } catch (Exception e) {
+          OLogManager.instance().error(this, "Error on callback invocation during backup", e);
+        }
+
+      final OutputStream bo = bufferSize > 0 ? new BufferedOutputStream(out, bufferSize) : out;
+      try {
+        incrementalBackup(bo, iOutput, compressionLevel);
+      } finally {
+        if (bufferSize > 0) {
+          bo.flush();
+          bo.close();
+        }
+      }
+
+      return;
+    }
+
     freeze(false);
     try {
       if (callable != null)
@@ -148,6 +230,10 @@ public class OLocalPaginatedStorage extends OAbstractPaginatedStorage implements
           OLogManager.instance().error(this, "Error on callback invocation during backup", e);
         }
 
+      // ALL PAGES ARE FLUSHED BY FREEZE, SO NEXT INCREMENTAL BACKUP SHOULD CONTAIN ONLY PAGES WHICH ARE CHANGED AFTER THIS LSN
+      if (writeAheadLog != null)
+        writeLastBackupLSN(writeAheadLog.end());
+
       final OutputStream bo = bufferSize > 0 ? new BufferedOutputStream(out, bufferSize) : out;
       try {
         OZIPCompressionUtil.compressDirectory(new File(getStoragePath()).getAbsolutePath(), bo, new String[] { ".wal" }, iOutput,
@@ -169,7 +255,368 @@ public class OLocalPaginatedStorage extends OAbstractPaginatedStorage implements
     if (!isClosed())
       close();
 
-    OZIPCompressionUtil.uncompressDirectory(in, getStoragePath(), iListener);
+    // INCREMENTAL BACKUP IS DETECTED BY ITS FIRST ENTRY, STREAM IS RESET TO ITS START FOR FULL BACKUP
+    final BufferedInputStream bufferedInputStream = new BufferedInputStream(in);
+    bufferedInputStream.mark(64 * ONE_KB);
+
+    final ZipInputStream zipInputStream = new ZipInputStream(bufferedInputStream);
+    final ZipEntry firstEntry = zipInputStream.getNextEntry();
+
+    if (firstEntry != null && firstEntry.getName().equals(INCREMENTAL_BACKUP_START)) {
+      try {
+        incrementalRestore(zipInputStream, iListener);
+      } finally {
+        zipInputStream.close();
+      }
+
+      return;
+    }
+
+    bufferedInputStream.reset();
+    OZIPCompressionUtil.uncompressDirectory(bufferedInputStream, getStoragePath(), iListener);
+  }
+
+  /**
+   * Writes pages which LSN is bigger than LSN of the previous backup, together with WAL segments which contain records were logged
+   * while pages were copied. Writers are not blocked, so copied pages may be inconsistent, they are fixed by WAL replay once
+   * storage is opened after restore.
+   */
+  private void incrementalBackup(final OutputStream out, final OCommandOutputListener iOutput, final int compressionLevel)
+      throws IOException {
+    if (!(writeAheadLog instanceof ODiskWriteAheadLog))
+      throw new OStorageException("Incremental backup of storage " + name + " is impossible because write ahead log is switched off");
+
+    final ODiskWriteAheadLog diskWAL = (ODiskWriteAheadLog) writeAheadLog;
+    final int pageSize = OGlobalConfiguration.DISK_CACHE_PAGE_SIZE.getValueAsInteger() * ONE_KB;
+
+    final OLogSequenceNumber fromLSN = readLastBackupLSN();
+    OLogSequenceNumber startLSN;
+    final long firstSegment;
+
+    diskWAL.preventCut();
+    try {
+      // RECORDS WHICH ARE LOGGED DURING BACKUP ARE PLACED IN NEW SEGMENTS, SO ONLY THEM ARE COPIED IF THERE ARE NO OPERATIONS IN
+      // PROGRESS, OTHERWISE ALL RECORDS OF OPERATIONS IN PROGRESS ARE COPIED TOO TO BE ABLE TO ROLLBACK THEM DURING RESTORE
+      startLSN = diskWAL.startNewSegment();
+      final OLogSequenceNumber oldestOperationLSN = getAtomicOperationsManager().getOldestActiveOperationStartLSN();
+
+      if (startLSN == null)
+        startLSN = new OLogSequenceNumber(-1, -1);
+
+      if (oldestOperationLSN != null && oldestOperationLSN.compareTo(startLSN) <= 0)
+        firstSegment = oldestOperationLSN.getSegment();
+      else
+        firstSegment = startLSN.getSegment() + 1;
+
+      // EMPTY OPERATION MAKES WAL OF BACKUP NOT EMPTY EVEN IF DATA ARE NOT CHANGED DURING BACKUP, SO DATA RESTORE IS STARTED ONCE
+      // RESTORED STORAGE IS OPENED AND INDEXES WHICH ARE NOT DURABLE ARE REBUILT
+      getAtomicOperationsManager().startAtomicOperation();
+      getAtomicOperationsManager().endAtomicOperation(false);
+
+      try {
+        // OPERATIONS IN PROGRESS MAY HAVE LOGGED CHANGES BEFORE START LSN, THEY SHOULD BE PUT IN DISK CACHE BEFORE PAGES ARE COPIED
+        getAtomicOperationsManager().waitTillActiveOperationsComplete();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new OStorageException("Incremental backup of storage " + name + " was interrupted", e);
+      }
+
+      final ZipOutputStream zipOutputStream = new ZipOutputStream(out);
+      zipOutputStream.setComment("OrientDB incremental backup executed on " + new Date());
+      zipOutputStream.setLevel(compressionLevel);
+
+      final DataOutputStream dataOutputStream = new DataOutputStream(zipOutputStream);
+
+      zipOutputStream.putNextEntry(new ZipEntry(INCREMENTAL_BACKUP_START));
+      writeLSN(dataOutputStream, fromLSN);
+      writeLSN(dataOutputStream, startLSN);
+      dataOutputStream.writeInt(pageSize);
+      dataOutputStream.flush();
+      zipOutputStream.closeEntry();
+
+      final Set<String> backedUpFiles = new HashSet<String>();
+      for (Map.Entry<String, Long> file : diskCache.files().entrySet()) {
+        if (backupPages(zipOutputStream, dataOutputStream, file.getKey(), file.getValue(), fromLSN, pageSize, iOutput))
+          backedUpFiles.add(file.getKey());
+      }
+
+      final OLogSequenceNumber endLSN;
+      lock.acquireSharedLock();
+      try {
+        final File[] storageFiles = new File(getStoragePath()).listFiles();
+        if (storageFiles != null)
+          for (File storageFile : storageFiles) {
+            final String fileName = storageFile.getName();
+            if (storageFile.isDirectory() || backedUpFiles.contains(fileName) || isExcludedFromIncrementalBackup(fileName))
+              continue;
+
+            copyToZip(zipOutputStream, FILES_ENTRY_PREFIX + fileName, storageFile, iOutput);
+            backedUpFiles.add(fileName);
+          }
+
+        endLSN = diskWAL.startNewSegment();
+      } finally {
+        lock.releaseSharedLock();
+      }
+
+      if (endLSN != null) {
+        for (File segmentFile : diskWAL.segmentFiles(firstSegment, endLSN.getSegment())) {
+          final String segmentName = segmentFile.getName();
+          final String order = segmentName.substring(segmentName.indexOf('.') + 1,
+              segmentName.length() - ODiskWriteAheadLog.WAL_SEGMENT_EXTENSION.length());
+
+          copyToZip(zipOutputStream, WAL_ENTRY_PREFIX + order, segmentFile, iOutput);
+        }
+      }
+
+      zipOutputStream.putNextEntry(new ZipEntry(INCREMENTAL_BACKUP_END));
+      dataOutputStream.writeInt(backedUpFiles.size());
+      for (String fileName : backedUpFiles)
+        dataOutputStream.writeUTF(fileName);
+      dataOutputStream.flush();
+      zipOutputStream.closeEntry();
+
+      zipOutputStream.finish();
+    } finally {
+      diskWAL.allowCut();
+    }
+
+    writeLastBackupLSN(startLSN);
+  }
+
+  private boolean backupPages(ZipOutputStream zipOutputStream, DataOutputStream dataOutputStream, String fileName, long fileId,
+      OLogSequenceNumber fromLSN, int pageSize, OCommandOutputListener iOutput) throws IOException {
+    lock.acquireSharedLock();
+    try {
+      if (!diskCache.exists(fileId))
+        return false;
+
+      if (!diskCache.isOpen(fileId))
+        diskCache.openFile(fileId);
+
+      final long[] pages = diskCache.findChangedPages(fileId, fromLSN);
+      final long filledUpTo = diskCache.getFilledUpTo(fileId);
+
+      if (iOutput != null)
+        iOutput.onMessage("\n- Backing up " + pages.length + " pages of file " + fileName + "...");
+
+      zipOutputStream.putNextEntry(new ZipEntry(PAGES_ENTRY_PREFIX + fileName));
+      dataOutputStream.writeLong(filledUpTo);
+
+      for (long pageIndex : pages) {
+        final byte[] content;
+
+        final OCacheEntry cacheEntry = diskCache.load(fileId, pageIndex, false);
+        try {
+          cacheEntry.acquireSharedLock();
+          try {
+            content = cacheEntry.getCachePointer().getDataPointer().get(OWOWCache.PAGE_PADDING, pageSize);
+          } finally {
+            cacheEntry.releaseSharedLock();
+          }
+        } finally {
+          diskCache.release(cacheEntry);
+        }
+
+        dataOutputStream.writeLong(pageIndex);
+        dataOutputStream.write(content);
+      }
+
+      dataOutputStream.writeLong(-1);
+      dataOutputStream.flush();
+      zipOutputStream.closeEntry();
+
+      return true;
+    } finally {
+      lock.releaseSharedLock();
+    }
+  }
+
+  private void incrementalRestore(ZipInputStream zipInputStream, OCommandOutputListener iListener) throws IOException {
+    final DataInputStream dataInputStream = new DataInputStream(zipInputStream);
+
+    final OLogSequenceNumber fromLSN = readLSN(dataInputStream);
+    final OLogSequenceNumber startLSN = readLSN(dataInputStream);
+    final int pageSize = dataInputStream.readInt();
+
+    if (fromLSN != null && !fromLSN.equals(readLastBackupLSN()))
+      throw new OStorageException("Incremental backup can not be restored in storage " + name
+          + " because it was not made after the last backup which is restored in this storage");
+
+    final File storageDir = new File(getStoragePath());
+    if (!storageDir.exists() && !storageDir.mkdirs())
+      throw new OStorageException("Can not create directories for the path " + storageDir);
+
+    // WAL OF BACKUP REPLACES OLD ONE, IT IS REPLAYED FROM THE BEGINNING ONCE STORAGE IS OPENED
+    final File walDir = new File(ODiskWriteAheadLog.calculateWalPath(this));
+    final File[] walFiles = walDir.listFiles();
+    if (walFiles != null)
+      for (File walFile : walFiles) {
+        final String walFileName = walFile.getName();
+        if ((ODiskWriteAheadLog.validateName(walFileName) || walFileName.equals(name + ODiskWriteAheadLog.MASTER_RECORD_EXTENSION))
+            && !walFile.delete())
+          throw new OStorageException("Can not delete file " + walFile);
+      }
+
+    ZipEntry entry;
+    while ((entry = zipInputStream.getNextEntry()) != null) {
+      final String entryName = entry.getName();
+
+      if (entryName.startsWith(PAGES_ENTRY_PREFIX)) {
+        final String fileName = entryName.substring(PAGES_ENTRY_PREFIX.length());
+        if (iListener != null)
+          iListener.onMessage("\n- Restoring pages of file " + fileName + "...");
+
+        restorePages(dataInputStream, new File(storageDir, fileName), pageSize);
+      } else if (entryName.startsWith(FILES_ENTRY_PREFIX)) {
+        final String fileName = entryName.substring(FILES_ENTRY_PREFIX.length());
+        copyFromZip(zipInputStream, new File(storageDir, fileName), iListener);
+      } else if (entryName.startsWith(WAL_ENTRY_PREFIX)) {
+        final String order = entryName.substring(WAL_ENTRY_PREFIX.length());
+        copyFromZip(zipInputStream, new File(walDir, name + "." + order + ODiskWriteAheadLog.WAL_SEGMENT_EXTENSION), iListener);
+      } else if (entryName.equals(INCREMENTAL_BACKUP_END)) {
+        final Set<String> backedUpFiles = new HashSet<String>();
+
+        final int filesCount = dataInputStream.readInt();
+        for (int i = 0; i < filesCount; i++)
+          backedUpFiles.add(dataInputStream.readUTF());
+
+        // FILES WHICH ARE DELETED AFTER THE PREVIOUS BACKUP
+        final File[] storageFiles = storageDir.listFiles();
+        if (storageFiles != null)
+          for (File storageFile : storageFiles) {
+            final String fileName = storageFile.getName();
+            if (storageFile.isDirectory() || backedUpFiles.contains(fileName) || isExcludedFromIncrementalBackup(fileName))
+              continue;
+
+            if (!storageFile.delete())
+              throw new OStorageException("Can not delete file " + storageFile);
+          }
+      }
+
+      zipInputStream.closeEntry();
+    }
+
+    writeLastBackupLSN(startLSN);
+
+    // DATA ARE RESTORED FROM WAL ONCE STORAGE IS OPENED
+    dirtyFlag.create();
+    dirtyFlag.close();
+  }
+
+  private static void restorePages(DataInputStream dataInputStream, File file, int pageSize) throws IOException {
+    final OFileClassic fileClassic = new OFileClassic();
+    fileClassic.init(file.getAbsolutePath(), "rw");
+
+    if (fileClassic.exists())
+      fileClassic.open();
+    else
+      fileClassic.create(-1);
+
+    try {
+      final long size = dataInputStream.readLong() * pageSize;
+
+      final long filledUpTo = fileClassic.getFilledUpTo();
+      if (filledUpTo < size) {
+        fileClassic.allocateSpace(size - filledUpTo);
+
+        // SIZE OF FILE IS CALCULATED BY ITS LENGTH ONCE IT IS OPENED, SO THE LAST BYTE SHOULD BE WRITTEN
+        fileClassic.write(size - 1, new byte[1]);
+      } else if (filledUpTo > size)
+        fileClassic.shrink(size);
+
+      final byte[] content = new byte[pageSize];
+
+      long pageIndex = dataInputStream.readLong();
+      while (pageIndex >= 0) {
+        dataInputStream.readFully(content);
+
+        OLongSerializer.INSTANCE.serializeNative(OWOWCache.MAGIC_NUMBER, content, 0);
+        OIntegerSerializer.INSTANCE.serializeNative(OWOWCache.calculatePageCrc(content), content, OLongSerializer.LONG_SIZE);
+
+        fileClassic.write(pageIndex * pageSize, content);
+
+        pageIndex = dataInputStream.readLong();
+      }
+
+      fileClassic.synch();
+    } finally {
+      fileClassic.close();
+    }
+  }
+
+  private static boolean isExcludedFromIncrementalBackup(String fileName) {
+    return fileName.endsWith(ODiskWriteAheadLog.WAL_SEGMENT_EXTENSION)
+        || fileName.endsWith(ODiskWriteAheadLog.MASTER_RECORD_EXTENSION) || fileName.equals("dirty.fl")
+        || fileName.equals(LAST_BACKUP_LSN_FILE);
+  }
+
+  private static void copyToZip(ZipOutputStream zipOutputStream, String entryName, File file, OCommandOutputListener iOutput)
+      throws IOException {
+    if (iOutput != null)
+      iOutput.onMessage("\n- Compressing file " + file.getName() + "...");
+
+    zipOutputStream.putNextEntry(new ZipEntry(entryName));
+    try {
+      final FileInputStream inputStream = new FileInputStream(file);
+      try {
+        OIOUtils.copyStream(inputStream, zipOutputStream, -1);
+      } finally {
+        inputStream.close();
+      }
+    } finally {
+      zipOutputStream.closeEntry();
+    }
+  }
+
+  private static void copyFromZip(ZipInputStream zipInputStream, File file, OCommandOutputListener iListener) throws IOException {
+    if (iListener != null)
+      iListener.onMessage("\n- Uncompressing file " + file.getName() + "...");
+
+    final OutputStream outputStream = new BufferedOutputStream(new FileOutputStream(file));
+    try {
+      OIOUtils.copyStream(zipInputStream, outputStream, -1);
+    } finally {
+      outputStream.close();
+    }
+  }
+
+  private OLogSequenceNumber readLastBackupLSN() throws IOException {
+    final File lsnFile = new File(getStoragePath(), LAST_BACKUP_LSN_FILE);
+    if (!lsnFile.exists())
+      return null;
+
+    final DataInputStream dataInputStream = new DataInputStream(new FileInputStream(lsnFile));
+    try {
+      return readLSN(dataInputStream);
+    } finally {
+      dataInputStream.close();
+    }
+  }
+
+  private void writeLastBackupLSN(OLogSequenceNumber lsn) throws IOException {
+    final DataOutputStream dataOutputStream = new DataOutputStream(new FileOutputStream(new File(getStoragePath(),
+        LAST_BACKUP_LSN_FILE)));
+    try {
+      writeLSN(dataOutputStream, lsn);
+    } finally {
+      dataOutputStream.close();
+    }
+  }
+
+  private static void writeLSN(DataOutputStream dataOutputStream, OLogSequenceNumber lsn) throws IOException {
+    dataOutputStream.writeBoolean(lsn != null);
+    if (lsn != null) {
+      dataOutputStream.writeLong(lsn.getSegment());
+      dataOutputStream.writeLong(lsn.getPosition());
+    }
+  }
+
+  private static OLogSequenceNumber readLSN(DataInputStream dataInputStream) throws IOException {
+    if (!dataInputStream.readBoolean())
+      return null;
+
+    return new OLogSequenceNumber(dataInputStream.readLong(), dataInputStream.readLong());
   }
 
   @Override
@@ -324,10 +771,16 @@ public class OLocalPaginatedStorage extends OAbstractPaginatedStorage implements
         * diskCacheSize);
     long readCacheSize = diskCacheSize - writeCacheSize;
 
-    diskCache = new OReadWriteDiskCache(name, readCacheSize, writeCacheSize,
-        OGlobalConfiguration.DISK_CACHE_PAGE_SIZE.getValueAsInteger() * ONE_KB,
-        OGlobalConfiguration.DISK_WRITE_CACHE_PAGE_TTL.getValueAsLong() * 1000,
-        OGlobalConfiguration.DISK_WRITE_CACHE_PAGE_FLUSH_INTERVAL.getValueAsInteger(), this, writeAheadLog, false, true);
+    if (OStripedDiskCache.TYPE.equalsIgnoreCase(OGlobalConfiguration.DISK_CACHE_TYPE.getValueAsString()))
+      diskCache = new OStripedDiskCache(name, readCacheSize, writeCacheSize,
+          OGlobalConfiguration.DISK_CACHE_PAGE_SIZE.getValueAsInteger() * ONE_KB,
+          OGlobalConfiguration.DISK_WRITE_CACHE_PAGE_TTL.getValueAsLong() * 1000,
+          OGlobalConfiguration.DISK_WRITE_CACHE_PAGE_FLUSH_INTERVAL.getValueAsInteger(), this, writeAheadLog, false, true);
+    else
+      diskCache = new OReadWriteDiskCache(name, readCacheSize, writeCacheSize,
+          OGlobalConfiguration.DISK_CACHE_PAGE_SIZE.getValueAsInteger() * ONE_KB,
+          OGlobalConfiguration.DISK_WRITE_CACHE_PAGE_TTL.getValueAsLong() * 1000,
+          OGlobalConfiguration.DISK_WRITE_CACHE_PAGE_FLUSH_INTERVAL.getValueAsInteger(), this, writeAheadLog, false, true);
 
 		diskCache.addLowDiskSpaceListener(this);
   }
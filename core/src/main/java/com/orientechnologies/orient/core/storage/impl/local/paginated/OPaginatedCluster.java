@@ -33,6 +33,7 @@ import com.orientechnologies.orient.core.exception.OStorageException;
 import com.orientechnologies.orient.core.id.ORecordId;
 import com.orientechnologies.orient.core.index.hashindex.local.cache.OCacheEntry;
 import com.orientechnologies.orient.core.index.hashindex.local.cache.ODiskCache;
+import com.orientechnologies.orient.core.index.hashindex.local.cache.OPageReadAhead;
 import com.orientechnologies.orient.core.storage.OCluster;
 import com.orientechnologies.orient.core.storage.OClusterEntryIterator;
 import com.orientechnologies.orient.core.storage.OPhysicalPosition;
@@ -45,7 +46,10 @@ import com.orientechnologies.orient.core.version.ORecordVersion;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.zip.CRC32;
 
 import static com.orientechnologies.orient.core.config.OGlobalConfiguration.DISK_CACHE_PAGE_SIZE;
@@ -63,7 +67,43 @@ public class OPaginatedCluster extends ODurableComponent implements OCluster {
   private static final int               PAGE_INDEX_OFFSET        = 16;
   private static final int               RECORD_POSITION_MASK     = 0xFFFF;
   private static final int               ONE_KB                   = 1024;
+  private static final int               STRIPES                  = OPaginatedClusterState.STRIPES;
+  private static final int               STRIPE_EXTENT_SIZE       = 16;
+  private static final int               PAGE_LOCKS_PER_STRIPE    = 8;
   private final        OModificationLock externalModificationLock = new OModificationLock();
+
+  /**
+   * Objects which are locked till the end of atomic operation by operations which modify cluster pages. Page is mapped to lock
+   * object of its stripe by its index, so amount of locks does not depend on size of cluster and operations which hold different
+   * stripes never wait for page locks of each other.
+   */
+  private final Object[]                 pageLocks                = new Object[STRIPES * PAGE_LOCKS_PER_STRIPE];
+
+  /**
+   * Objects which are locked till the end of atomic operation by operations which allocate or release space inside of stripe. Pages
+   * of cluster are split between stripes by extents of {@link #STRIPE_EXTENT_SIZE} pages, each stripe has its own free lists and
+   * counters, so records are allocated in parallel in different stripes. Several stripes are always locked in ascending order,
+   * stripe locks are acquired before page locks.
+   */
+  private final Object[]                 stripeLocks              = new Object[STRIPES];
+
+  /**
+   * Objects which are locked till the end of atomic operation by operations which add positions of new records. Each lock guards
+   * its own bucket of position map, so positions are allocated in parallel too. They are acquired after stripe locks.
+   */
+  private final Object[]                 positionLocks            = new Object[STRIPES];
+
+  /**
+   * Incremented after every operation which changes or removes existing records, so readers which keep records read in advance can
+   * find out that these records are not actual any more.
+   */
+  private final AtomicLong               modificationsCount       = new AtomicLong();
+
+  /**
+   * If <code>true</code> records are modified under shared lock of cluster and are isolated from each other by page locks. Page
+   * locks are held till the end of atomic operation, so they can not be used if WAL is switched off.
+   */
+  private          boolean                               pageLocking;
   private volatile OCompression                          compression;
   private          ODiskCache                            diskCache;
   private          OClusterPositionMap                   clusterPositionMap;
@@ -76,6 +116,12 @@ public class OPaginatedCluster extends ODurableComponent implements OCluster {
   private          boolean                               useCRC32;
   private          ORecordConflictStrategy               recordConflictStrategy;
 
+  /**
+   * Index of the first page which is split between stripes, all pages before it are created before stripes are introduced and
+   * belong to the first stripe.
+   */
+  private volatile long                                  stripedPagesStart        = -1;
+
   private static final class AddEntryResult {
     private final long pageIndex;
     private final int  pagePosition;
@@ -104,6 +150,14 @@ public class OPaginatedCluster extends ODurableComponent implements OCluster {
   public OPaginatedCluster() {
     super(OGlobalConfiguration.ENVIRONMENT_CONCURRENT.getValueAsBoolean());
     useCRC32 = OGlobalConfiguration.STORAGE_USE_CRC32_FOR_EACH_RECORD.getValueAsBoolean();
+
+    for (int i = 0; i < pageLocks.length; i++)
+      pageLocks[i] = new Object();
+
+    for (int i = 0; i < STRIPES; i++) {
+      stripeLocks[i] = new Object();
+      positionLocks[i] = new Object();
+    }
   }
 
   @Override
@@ -193,6 +247,62 @@ public class OPaginatedCluster extends ODurableComponent implements OCluster {
         }
 
         clusterPositionMap.open();
+
+        // WHEN STORAGE IS OPENED STATE IS CONVERTED BY STORAGE ITSELF AFTER RESTORE OF DATA FROM WAL
+        if (storageLocal.getStatus() != OStorage.STATUS.OPENING)
+          initAllocationStripes();
+      } finally {
+        releaseExclusiveLock();
+      }
+    } finally {
+      externalModificationLock.releaseModificationLock();
+    }
+  }
+
+  /**
+   * Splits space of cluster which was created by previous versions between allocation stripes. All existing pages are assigned to
+   * the first stripe which keeps their free lists and counters, pages which are added later are split between all stripes. Does
+   * nothing but reads state of stripes if cluster is already converted.
+   */
+  public void initAllocationStripes() throws IOException {
+    externalModificationLock.requestModificationLock();
+    try {
+      acquireExclusiveLock();
+      try {
+        diskCache.loadPinnedPage(pinnedStateEntry);
+        try {
+          final OPaginatedClusterState paginatedClusterState = new OPaginatedClusterState(pinnedStateEntry,
+              ODurablePage.TrackMode.NONE);
+          if (paginatedClusterState.isStriped()) {
+            stripedPagesStart = paginatedClusterState.getStripedPagesStart();
+            return;
+          }
+        } finally {
+          diskCache.release(pinnedStateEntry);
+        }
+
+        startAtomicOperation();
+        try {
+          final ODurablePage.TrackMode trackMode = getTrackMode();
+
+          diskCache.loadPinnedPage(pinnedStateEntry);
+          pinnedStateEntry.acquireExclusiveLock();
+          try {
+            final OPaginatedClusterState paginatedClusterState = new OPaginatedClusterState(pinnedStateEntry, trackMode);
+            initStripes(paginatedClusterState, 1, diskCache.getFilledUpTo(fileId), clusterPositionMap.getBucketsCount() - 1);
+
+            logPageChanges(paginatedClusterState, fileId, pinnedStateEntry.getPageIndex(), false);
+            pinnedStateEntry.markDirty();
+          } finally {
+            pinnedStateEntry.releaseExclusiveLock();
+            diskCache.release(pinnedStateEntry);
+          }
+
+          endAtomicOperation(false);
+        } catch (Throwable e) {
+          endAtomicOperation(true);
+          throw new OStorageException(null, e);
+        }
       } finally {
         releaseExclusiveLock();
       }
@@ -341,54 +451,54 @@ public class OPaginatedCluster extends ODurableComponent implements OCluster {
       throws IOException {
     content = compression.compress(content);
 
-    externalModificationLock.requestModificationLock();
-    try {
-      acquireExclusiveLock();
-      try {
+    // record entry does not depend on cluster data, so it is prepared before any lock is acquired
+    final int grownContentSize = (int) (config.recordGrowFactor * content.length);
+    int entryContentLength = grownContentSize + 2 * OByteSerializer.BYTE_SIZE + OIntegerSerializer.INT_SIZE
+        + OLongSerializer.LONG_SIZE;
 
-        int grownContentSize = (int) (config.recordGrowFactor * content.length);
-        int entryContentLength = grownContentSize + 2 * OByteSerializer.BYTE_SIZE + OIntegerSerializer.INT_SIZE
-            + OLongSerializer.LONG_SIZE;
+    if (useCRC32)
+      entryContentLength += OIntegerSerializer.INT_SIZE;
 
-        if (useCRC32)
-          entryContentLength += OIntegerSerializer.INT_SIZE;
-
-        if (entryContentLength < OClusterPage.MAX_RECORD_SIZE) {
-          startAtomicOperation();
-          try {
-            lockTillAtomicOperationCompletes();
+    if (entryContentLength < OClusterPage.MAX_RECORD_SIZE) {
+      byte[] entryContent = new byte[entryContentLength];
 
-            byte[] entryContent = new byte[entryContentLength];
+      int entryPosition = 0;
+      entryContent[entryPosition] = recordType;
+      entryPosition++;
 
-            int entryPosition = 0;
-            entryContent[entryPosition] = recordType;
-            entryPosition++;
+      OIntegerSerializer.INSTANCE.serializeNative(content.length, entryContent, entryPosition);
+      entryPosition += OIntegerSerializer.INT_SIZE;
 
-            OIntegerSerializer.INSTANCE.serializeNative(content.length, entryContent, entryPosition);
-            entryPosition += OIntegerSerializer.INT_SIZE;
+      System.arraycopy(content, 0, entryContent, entryPosition, content.length);
+      entryPosition += grownContentSize;
 
-            System.arraycopy(content, 0, entryContent, entryPosition, content.length);
-            entryPosition += grownContentSize;
+      if (useCRC32) {
+        CRC32 crc32 = new CRC32();
+        crc32.update(entryContent, 0, entryPosition);
+        OIntegerSerializer.INSTANCE.serializeNative((int) crc32.getValue(), entryContent, entryPosition);
+        entryPosition += OIntegerSerializer.INT_SIZE;
+      }
 
-            if (useCRC32) {
-              CRC32 crc32 = new CRC32();
-              crc32.update(entryContent, 0, entryPosition);
-              OIntegerSerializer.INSTANCE.serializeNative((int) crc32.getValue(), entryContent, entryPosition);
-              entryPosition += OIntegerSerializer.INT_SIZE;
-            }
+      entryContent[entryPosition] = 1;
+      entryPosition++;
 
-            entryContent[entryPosition] = 1;
-            entryPosition++;
+      OLongSerializer.INSTANCE.serializeNative(-1L, entryContent, entryPosition);
 
-            OLongSerializer.INSTANCE.serializeNative(-1L, entryContent, entryPosition);
+      externalModificationLock.requestModificationLock();
+      try {
+        acquireRecordsModificationLock();
+        try {
+          startAtomicOperation();
+          try {
+            final int stripe = lockAllocationStripe(entryContent.length);
 
             ODurablePage.TrackMode trackMode = getTrackMode();
 
-            final AddEntryResult addEntryResult = addEntry(recordVersion, entryContent, trackMode);
+            final AddEntryResult addEntryResult = addEntry(stripe, recordVersion, entryContent, trackMode);
 
-            updateClusterState(trackMode, 1, addEntryResult.recordsSizeDiff);
+            updateClusterState(stripe, trackMode, 1, addEntryResult.recordsSizeDiff);
 
-            final long clusterPosition = clusterPositionMap.add(addEntryResult.pageIndex, addEntryResult.pagePosition);
+            final long clusterPosition = addPosition(addEntryResult.pageIndex, addEntryResult.pagePosition, trackMode);
 
             endAtomicOperation(false);
 
@@ -397,35 +507,46 @@ public class OPaginatedCluster extends ODurableComponent implements OCluster {
             endAtomicOperation(true);
             throw new OStorageException(null, e);
           }
-        } else {
-          startAtomicOperation();
-          try {
-            lockTillAtomicOperationCompletes();
+        } finally {
+          releaseRecordsModificationLock();
+        }
+      } finally {
+        externalModificationLock.releaseModificationLock();
+      }
+    } else {
+      int entrySize = grownContentSize + OIntegerSerializer.INT_SIZE + OByteSerializer.BYTE_SIZE;
 
-            final OClusterPage.TrackMode trackMode = getTrackMode();
+      if (useCRC32)
+        entrySize += OIntegerSerializer.INT_SIZE;
 
-            int entrySize = grownContentSize + OIntegerSerializer.INT_SIZE + OByteSerializer.BYTE_SIZE;
+      int fullEntryPosition = 0;
+      byte[] fullEntry = new byte[entrySize];
 
-            if (useCRC32)
-              entrySize += OIntegerSerializer.INT_SIZE;
+      fullEntry[fullEntryPosition] = recordType;
+      fullEntryPosition++;
 
-            int fullEntryPosition = 0;
-            byte[] fullEntry = new byte[entrySize];
+      OIntegerSerializer.INSTANCE.serializeNative(content.length, fullEntry, fullEntryPosition);
+      fullEntryPosition += OIntegerSerializer.INT_SIZE;
 
-            fullEntry[fullEntryPosition] = recordType;
-            fullEntryPosition++;
+      System.arraycopy(content, 0, fullEntry, fullEntryPosition, content.length);
+      fullEntryPosition += grownContentSize;
 
-            OIntegerSerializer.INSTANCE.serializeNative(content.length, fullEntry, fullEntryPosition);
-            fullEntryPosition += OIntegerSerializer.INT_SIZE;
+      if (useCRC32) {
+        CRC32 crc32 = new CRC32();
+        crc32.update(fullEntry, 0, fullEntryPosition);
+        OIntegerSerializer.INSTANCE.serializeNative((int) crc32.getValue(), fullEntry, fullEntryPosition);
+      }
 
-            System.arraycopy(content, 0, fullEntry, fullEntryPosition, content.length);
-            fullEntryPosition += grownContentSize;
+      externalModificationLock.requestModificationLock();
+      try {
+        acquireRecordsModificationLock();
+        try {
+          startAtomicOperation();
+          try {
+            // ALL CHUNKS OF RECORD ARE PLACED IN THE SAME STRIPE
+            final int stripe = lockAllocationStripe(OClusterPage.MAX_RECORD_SIZE);
 
-            if (useCRC32) {
-              CRC32 crc32 = new CRC32();
-              crc32.update(fullEntry, 0, fullEntryPosition);
-              OIntegerSerializer.INSTANCE.serializeNative((int) crc32.getValue(), fullEntry, fullEntryPosition);
-            }
+            final OClusterPage.TrackMode trackMode = getTrackMode();
 
             long prevPageRecordPointer = -1;
             long firstPageIndex = -1;
@@ -449,7 +570,7 @@ public class OPaginatedCluster extends ODurableComponent implements OCluster {
 
               OLongSerializer.INSTANCE.serializeNative(-1L, entryContent, entryContent.length - OLongSerializer.LONG_SIZE);
 
-              final AddEntryResult addEntryResult = addEntry(recordVersion, entryContent, trackMode);
+              final AddEntryResult addEntryResult = addEntry(stripe, recordVersion, entryContent, trackMode);
               recordsSizeDiff += addEntryResult.recordsSizeDiff;
 
               if (firstPageIndex == -1) {
@@ -463,7 +584,7 @@ public class OPaginatedCluster extends ODurableComponent implements OCluster {
                 long prevPageIndex = prevPageRecordPointer >>> PAGE_INDEX_OFFSET;
                 int prevPageRecordPosition = (int) (prevPageRecordPointer & RECORD_POSITION_MASK);
 
-                final OCacheEntry prevPageCacheEntry = diskCache.load(fileId, prevPageIndex, false);
+                final OCacheEntry prevPageCacheEntry = loadPageForWrite(prevPageIndex);
                 prevPageCacheEntry.acquireExclusiveLock();
                 try {
                   final OClusterPage prevPage = new OClusterPage(prevPageCacheEntry, false, ODurablePage.TrackMode.FULL);
@@ -486,9 +607,9 @@ public class OPaginatedCluster extends ODurableComponent implements OCluster {
 
             } while (from < to);
 
-            updateClusterState(trackMode, 1, recordsSizeDiff);
+            updateClusterState(stripe, trackMode, 1, recordsSizeDiff);
 
-            long clusterPosition = clusterPositionMap.add(firstPageIndex, firstPagePosition);
+            long clusterPosition = addPosition(firstPageIndex, firstPagePosition, trackMode);
 
             endAtomicOperation(false);
 
@@ -497,12 +618,12 @@ public class OPaginatedCluster extends ODurableComponent implements OCluster {
             endAtomicOperation(true);
             throw new OStorageException(null, e);
           }
+        } finally {
+          releaseRecordsModificationLock();
         }
       } finally {
-        releaseExclusiveLock();
+        externalModificationLock.releaseModificationLock();
       }
-    } finally {
-      externalModificationLock.releaseModificationLock();
     }
   }
 
@@ -521,6 +642,7 @@ public class OPaginatedCluster extends ODurableComponent implements OCluster {
 
       ORecordVersion recordVersion = null;
       OCacheEntry cacheEntry = diskCache.load(fileId, pageIndex, false);
+      cacheEntry.acquireSharedLock();
       try {
         final OClusterPage localPage = new OClusterPage(cacheEntry, false, ODurablePage.TrackMode.NONE);
         if (localPage.isDeleted(recordPosition))
@@ -528,6 +650,7 @@ public class OPaginatedCluster extends ODurableComponent implements OCluster {
 
         recordVersion = localPage.getRecordVersion(recordPosition);
       } finally {
+        cacheEntry.releaseSharedLock();
         diskCache.release(cacheEntry);
       }
 
@@ -535,38 +658,120 @@ public class OPaginatedCluster extends ODurableComponent implements OCluster {
       if (fullContent == null)
         return null;
 
-      if (useCRC32) {
-        CRC32 crc32 = new CRC32();
-        final int crcPosition = fullContent.length - OLongSerializer.LONG_SIZE - OByteSerializer.BYTE_SIZE
-            - OIntegerSerializer.INT_SIZE;
-        crc32.update(fullContent, 0, crcPosition);
-
-        final int crc = OIntegerSerializer.INSTANCE.deserializeNative(fullContent, crcPosition);
-        if (crc != (int) crc32.getValue())
-          throw new OStorageException("Content of record for cluster with id " + id + " and position " + clusterPosition
-              + " is broken.");
+      return createRawBuffer(clusterPosition, fullContent, recordVersion);
+    } finally {
+      releaseSharedLock();
+    }
+  }
+
+  /**
+   * Reads several records at once. Records which follow each other in the list of positions and are stored on the same page are
+   * read while this page is loaded and locked only once, so scan of cluster costs one page load per page instead of one page load
+   * per record. Records which do not fit into single page are read in the same way as in {@link #readRecord(long)}.
+   * 
+   * @param clusterPositions
+   *          Positions of records to read.
+   * @return Content of records in the same order as positions, <code>null</code> for records which do not exist.
+   */
+  public ORawBuffer[] readRecords(long[] clusterPositions) throws IOException {
+    return readRecords(clusterPositions, OPageReadAhead.DISABLED);
+  }
+
+  /**
+   * Reads several records at once notifying passed in read ahead about each page of records which is loaded, so following pages
+   * are loaded in background if records are read page by page.
+   * 
+   * @see #readRecords(long[])
+   * @see #readAhead()
+   */
+  public ORawBuffer[] readRecords(long[] clusterPositions, OPageReadAhead readAhead) throws IOException {
+    acquireSharedLock();
+    try {
+      final ORawBuffer[] result = new ORawBuffer[clusterPositions.length];
+
+      final OClusterPositionMapBucket.PositionEntry[] positionEntries = clusterPositionMap.get(clusterPositions);
+      final long filledUpTo = diskCache.getFilledUpTo(fileId);
+
+      final ORecordVersion[] recordVersions = new ORecordVersion[clusterPositions.length];
+      final byte[][] contents = new byte[clusterPositions.length][];
+
+      int i = 0;
+      while (i < clusterPositions.length) {
+        if (positionEntries[i] == null || filledUpTo <= positionEntries[i].getPageIndex()) {
+          i++;
+          continue;
+        }
+
+        final long pageIndex = positionEntries[i].getPageIndex();
+        readAhead.pageRead(pageIndex);
+
+        final OCacheEntry cacheEntry = diskCache.load(fileId, pageIndex, false);
+        cacheEntry.acquireSharedLock();
+        try {
+          final OClusterPage localPage = new OClusterPage(cacheEntry, false, ODurablePage.TrackMode.NONE);
+          do {
+            final int recordPosition = positionEntries[i].getRecordPosition();
+            if (!localPage.isDeleted(recordPosition)) {
+              final byte[] content = localPage.getRecordBinaryValue(recordPosition, 0, localPage.getRecordSize(recordPosition));
+
+              // ENTRIES WHICH ARE NOT FIRST CHUNKS OF RECORDS ARE SKIPPED IN THE SAME WAY AS IN readFullEntry()
+              if (content[content.length - OLongSerializer.LONG_SIZE - OByteSerializer.BYTE_SIZE] != 0) {
+                recordVersions[i] = localPage.getRecordVersion(recordPosition);
+
+                // RECORDS WHICH ARE SPLIT BETWEEN SEVERAL PAGES ARE READ AFTER THIS PAGE IS RELEASED
+                if (OLongSerializer.INSTANCE.deserializeNative(content, content.length - OLongSerializer.LONG_SIZE) < 0)
+                  contents[i] = content;
+              }
+            }
+
+            i++;
+          } while (i < clusterPositions.length && positionEntries[i] != null && positionEntries[i].getPageIndex() == pageIndex);
+        } finally {
+          cacheEntry.releaseSharedLock();
+          diskCache.release(cacheEntry);
+        }
       }
 
-      int fullContentPosition = 0;
+      for (i = 0; i < clusterPositions.length; i++) {
+        if (recordVersions[i] == null)
+          continue;
 
-      byte recordType = fullContent[fullContentPosition];
-      fullContentPosition++;
+        byte[] fullContent = contents[i];
+        if (fullContent == null) {
+          fullContent = readFullEntry(clusterPositions[i], positionEntries[i].getPageIndex(), positionEntries[i].getRecordPosition());
+          if (fullContent == null)
+            continue;
+        }
 
-      int readContentSize = OIntegerSerializer.INSTANCE.deserializeNative(fullContent, fullContentPosition);
-      fullContentPosition += OIntegerSerializer.INT_SIZE;
+        result[i] = createRawBuffer(clusterPositions[i], fullContent, recordVersions[i]);
+      }
 
-      byte[] recordContent = compression.uncompress(fullContent, fullContentPosition, readContentSize);
-      return new ORawBuffer(recordContent, recordVersion, recordType);
+      return result;
     } finally {
       releaseSharedLock();
     }
   }
 
+  /**
+   * @return Read ahead of pages of cluster which should be passed to {@link #readRecords(long[], OPageReadAhead)} by single
+   *         reader which browses cluster.
+   */
+  public OPageReadAhead readAhead() {
+    return diskCache.readAhead(fileId);
+  }
+
+  /**
+   * Returns amount of operations which changed records of this cluster since it was opened. Can be used to find out whether
+   * records which were read before are still actual.
+   */
+  public long getModificationsCount() {
+    return modificationsCount.get();
+  }
+
   public boolean deleteRecord(long clusterPosition) throws IOException {
     externalModificationLock.requestModificationLock();
-    boolean operationStarted = false;
     try {
-      acquireExclusiveLock();
+      acquireRecordsModificationLock();
       try {
         OClusterPositionMapBucket.PositionEntry positionEntry = clusterPositionMap.get(clusterPosition);
         if (positionEntry == null)
@@ -578,63 +783,66 @@ public class OPaginatedCluster extends ODurableComponent implements OCluster {
         if (diskCache.getFilledUpTo(fileId) <= pageIndex)
           return false;
 
-        final OClusterPage.TrackMode trackMode = getTrackMode();
+        startAtomicOperation();
+        try {
+          lockRecordStripes(pageIndex, recordPosition);
+          final int stripe = stripeOf(pageIndex);
 
-        long nextPagePointer = -1;
-        int removedContentSize = 0;
-        do {
-          final OCacheEntry cacheEntry = diskCache.load(fileId, pageIndex, false);
-          cacheEntry.acquireExclusiveLock();
-          int initialFreePageIndex;
-          try {
-            final OClusterPage localPage = new OClusterPage(cacheEntry, false, trackMode);
-            initialFreePageIndex = calculateFreePageIndex(localPage);
+          final OClusterPage.TrackMode trackMode = getTrackMode();
 
-            if (localPage.isDeleted(recordPosition)) {
-              if (removedContentSize == 0)
-                return false;
-              else
-                throw new OStorageException("Content of record " + new ORecordId(id, clusterPosition) + " was broken.");
-            } else if (removedContentSize == 0) {
-              startAtomicOperation();
-              operationStarted = true;
-              lockTillAtomicOperationCompletes();
-            }
+          long nextPagePointer = -1;
+          int removedContentSize = 0;
+          do {
+            final OCacheEntry cacheEntry = loadPageForWrite(pageIndex);
+            cacheEntry.acquireExclusiveLock();
+            int initialFreePageIndex;
+            try {
+              final OClusterPage localPage = new OClusterPage(cacheEntry, false, trackMode);
+              initialFreePageIndex = calculateFreePageIndex(localPage);
+
+              if (localPage.isDeleted(recordPosition)) {
+                if (removedContentSize == 0) {
+                  endAtomicOperation(false);
+                  return false;
+                } else
+                  throw new OStorageException("Content of record " + new ORecordId(id, clusterPosition) + " was broken.");
+              }
 
-            byte[] content = localPage.getRecordBinaryValue(recordPosition, 0, localPage.getRecordSize(recordPosition));
+              byte[] content = localPage.getRecordBinaryValue(recordPosition, 0, localPage.getRecordSize(recordPosition));
 
-            int initialFreeSpace = localPage.getFreeSpace();
-            localPage.deleteRecord(recordPosition);
+              int initialFreeSpace = localPage.getFreeSpace();
+              localPage.deleteRecord(recordPosition);
 
-            removedContentSize += localPage.getFreeSpace() - initialFreeSpace;
-            nextPagePointer = OLongSerializer.INSTANCE.deserializeNative(content, content.length - OLongSerializer.LONG_SIZE);
+              removedContentSize += localPage.getFreeSpace() - initialFreeSpace;
+              nextPagePointer = OLongSerializer.INSTANCE.deserializeNative(content, content.length - OLongSerializer.LONG_SIZE);
 
-            logPageChanges(localPage, fileId, pageIndex, false);
-          } finally {
-            cacheEntry.releaseExclusiveLock();
-            diskCache.release(cacheEntry);
-          }
+              logPageChanges(localPage, fileId, pageIndex, false);
+            } finally {
+              cacheEntry.releaseExclusiveLock();
+              diskCache.release(cacheEntry);
+            }
 
-          updateFreePagesIndex(initialFreePageIndex, pageIndex, trackMode);
+            updateFreePagesIndex(initialFreePageIndex, pageIndex, trackMode);
 
-          pageIndex = nextPagePointer >>> PAGE_INDEX_OFFSET;
-          recordPosition = (int) (nextPagePointer & RECORD_POSITION_MASK);
-        } while (nextPagePointer >= 0);
+            pageIndex = nextPagePointer >>> PAGE_INDEX_OFFSET;
+            recordPosition = (int) (nextPagePointer & RECORD_POSITION_MASK);
+          } while (nextPagePointer >= 0);
 
-        updateClusterState(trackMode, -1, -removedContentSize);
+          updateClusterState(stripe, trackMode, -1, -removedContentSize);
 
-        clusterPositionMap.remove(clusterPosition);
-        endAtomicOperation(false);
+          clusterPositionMap.remove(clusterPosition);
+          endAtomicOperation(false);
 
-        return true;
-      } catch (Throwable e) {
-        if (operationStarted)
+          return true;
+        } catch (Throwable e) {
           endAtomicOperation(true);
-        throw new OStorageException(null, e);
+          throw new OStorageException(null, e);
+        }
       } finally {
-        releaseExclusiveLock();
+        releaseRecordsModificationLock();
       }
     } finally {
+      modificationsCount.incrementAndGet();
       externalModificationLock.releaseModificationLock();
     }
   }
@@ -657,9 +865,10 @@ public class OPaginatedCluster extends ODurableComponent implements OCluster {
         startAtomicOperation();
         try {
           lockTillAtomicOperationCompletes();
+          lockStripesOfLockedCluster();
 
           final OClusterPage.TrackMode trackMode = getTrackMode();
-          updateClusterState(trackMode, -1, 0);
+          updateClusterState(stripeOf(pageIndex), trackMode, -1, 0);
           clusterPositionMap.remove(position);
           endAtomicOperation(false);
 
@@ -672,6 +881,7 @@ public class OPaginatedCluster extends ODurableComponent implements OCluster {
         releaseExclusiveLock();
       }
     } finally {
+      modificationsCount.incrementAndGet();
       externalModificationLock.releaseModificationLock();
     }
 
@@ -683,7 +893,7 @@ public class OPaginatedCluster extends ODurableComponent implements OCluster {
 
     externalModificationLock.requestModificationLock();
     try {
-      acquireExclusiveLock();
+      acquireRecordsModificationLock();
       try {
         OClusterPositionMapBucket.PositionEntry positionEntry = clusterPositionMap.get(clusterPosition);
         if (positionEntry == null)
@@ -726,28 +936,39 @@ public class OPaginatedCluster extends ODurableComponent implements OCluster {
             recordEntry = new byte[grownContent + OByteSerializer.BYTE_SIZE + 2 * OIntegerSerializer.INT_SIZE];
         }
 
-        final OClusterPage.TrackMode trackMode = getTrackMode();
+        int entryPosition = 0;
+        recordEntry[entryPosition] = recordType;
+        entryPosition++;
 
-        startAtomicOperation();
-        try {
-          lockTillAtomicOperationCompletes();
+        OIntegerSerializer.INSTANCE.serializeNative(content.length, recordEntry, entryPosition);
+        entryPosition += OIntegerSerializer.INT_SIZE;
 
-          int entryPosition = 0;
-          recordEntry[entryPosition] = recordType;
-          entryPosition++;
+        System.arraycopy(content, 0, recordEntry, entryPosition, content.length);
 
-          OIntegerSerializer.INSTANCE.serializeNative(content.length, recordEntry, entryPosition);
-          entryPosition += OIntegerSerializer.INT_SIZE;
+        if (useCRC32) {
+          CRC32 crc32 = new CRC32();
+          final int crcPosition = recordEntry.length - OIntegerSerializer.INT_SIZE;
+          crc32.update(recordEntry, 0, crcPosition);
 
-          System.arraycopy(content, 0, recordEntry, entryPosition, content.length);
+          OIntegerSerializer.INSTANCE.serializeNative((int) crc32.getValue(), recordEntry, crcPosition);
+        }
 
-          if (useCRC32) {
-            CRC32 crc32 = new CRC32();
-            final int crcPosition = recordEntry.length - OIntegerSerializer.INT_SIZE;
-            crc32.update(recordEntry, 0, crcPosition);
+        // record which consists of single chunk and fits into it is overwritten in place, such update changes only one page and
+        // does not change free space of that page, so it does not need stripe locks and may run in parallel with other updates
+        final boolean inPlaceUpdate = updatedContentLength <= fullEntryContent.length
+            && OLongSerializer.INSTANCE.deserializeNative(fullEntryContent, fullEntryContent.length - OLongSerializer.LONG_SIZE) < 0;
 
-            OIntegerSerializer.INSTANCE.serializeNative((int) crc32.getValue(), recordEntry, crcPosition);
-          }
+        final OClusterPage.TrackMode trackMode = getTrackMode();
+
+        // new chunks of record are allocated in the stripe of its first chunk
+        final int stripe = stripeOf(pageIndex);
+
+        startAtomicOperation();
+        try {
+          if (!inPlaceUpdate)
+            lockRecordStripes(pageIndex, recordPosition);
+          else
+            lockStripesOfLockedCluster();
 
           int recordsSizeDiff = 0;
           long prevPageRecordPointer = -1;
@@ -758,7 +979,7 @@ public class OPaginatedCluster extends ODurableComponent implements OCluster {
             pageIndex = pagePointer >>> PAGE_INDEX_OFFSET;
 
             int freePageIndex;
-            final OCacheEntry cacheEntry = diskCache.load(fileId, pageIndex, false);
+            final OCacheEntry cacheEntry = loadPageForWrite(pageIndex);
             cacheEntry.acquireExclusiveLock();
             try {
               final OClusterPage localPage = new OClusterPage(cacheEntry, false, trackMode);
@@ -786,7 +1007,7 @@ public class OPaginatedCluster extends ODurableComponent implements OCluster {
                 long prevPageIndex = prevPageRecordPointer >>> PAGE_INDEX_OFFSET;
                 int prevPageRecordPosition = (int) (prevPageRecordPointer & RECORD_POSITION_MASK);
 
-                final OCacheEntry prevPageCacheEntry = diskCache.load(fileId, prevPageIndex, false);
+                final OCacheEntry prevPageCacheEntry = loadPageForWrite(prevPageIndex);
                 prevPageCacheEntry.acquireExclusiveLock();
                 try {
                   final OClusterPage prevPage = new OClusterPage(prevPageCacheEntry, false, trackMode);
@@ -834,7 +1055,7 @@ public class OPaginatedCluster extends ODurableComponent implements OCluster {
 
             OLongSerializer.INSTANCE.serializeNative(-1L, entryContent, entryContent.length - OLongSerializer.LONG_SIZE);
 
-            final AddEntryResult addEntryResult = addEntry(recordVersion, entryContent, trackMode);
+            final AddEntryResult addEntryResult = addEntry(stripe, recordVersion, entryContent, trackMode);
             recordsSizeDiff += addEntryResult.recordsSizeDiff;
 
             long addedPagePointer = createPagePointer(addEntryResult.pageIndex, addEntryResult.pagePosition);
@@ -843,7 +1064,7 @@ public class OPaginatedCluster extends ODurableComponent implements OCluster {
               long prevPageIndex = prevPageRecordPointer >>> PAGE_INDEX_OFFSET;
               int prevPageRecordPosition = (int) (prevPageRecordPointer & RECORD_POSITION_MASK);
 
-              final OCacheEntry prevPageCacheEntry = diskCache.load(fileId, prevPageIndex, false);
+              final OCacheEntry prevPageCacheEntry = loadPageForWrite(prevPageIndex);
               prevPageCacheEntry.acquireExclusiveLock();
               try {
                 final OClusterPage prevPage = new OClusterPage(prevPageCacheEntry, false, trackMode);
@@ -866,7 +1087,8 @@ public class OPaginatedCluster extends ODurableComponent implements OCluster {
               to = recordEntry.length;
           }
 
-          updateClusterState(trackMode, 0, recordsSizeDiff);
+          if (recordsSizeDiff != 0)
+            updateClusterState(stripe, trackMode, 0, recordsSizeDiff);
 
           endAtomicOperation(false);
         } catch (Throwable e) {
@@ -874,9 +1096,10 @@ public class OPaginatedCluster extends ODurableComponent implements OCluster {
           throw new OStorageException(null, e);
         }
       } finally {
-        releaseExclusiveLock();
+        releaseRecordsModificationLock();
       }
     } finally {
+      modificationsCount.incrementAndGet();
       externalModificationLock.releaseModificationLock();
     }
   }
@@ -918,6 +1141,7 @@ public class OPaginatedCluster extends ODurableComponent implements OCluster {
         releaseExclusiveLock();
       }
     } finally {
+      modificationsCount.incrementAndGet();
       externalModificationLock.releaseModificationLock();
     }
   }
@@ -945,6 +1169,7 @@ public class OPaginatedCluster extends ODurableComponent implements OCluster {
         return null;
 
       OCacheEntry cacheEntry = diskCache.load(fileId, pageIndex, false);
+      cacheEntry.acquireSharedLock();
       try {
         final OClusterPage localPage = new OClusterPage(cacheEntry, false, ODurablePage.TrackMode.NONE);
         if (localPage.isDeleted(recordPosition))
@@ -962,6 +1187,7 @@ public class OPaginatedCluster extends ODurableComponent implements OCluster {
 
         return physicalPosition;
       } finally {
+        cacheEntry.releaseSharedLock();
         diskCache.release(cacheEntry);
       }
 
@@ -995,9 +1221,11 @@ public class OPaginatedCluster extends ODurableComponent implements OCluster {
     acquireSharedLock();
     try {
       diskCache.loadPinnedPage(pinnedStateEntry);
+      pinnedStateEntry.acquireSharedLock();
       try {
         return new OPaginatedClusterState(pinnedStateEntry, ODurablePage.TrackMode.NONE).getSize();
       } finally {
+        pinnedStateEntry.releaseSharedLock();
         diskCache.release(pinnedStateEntry);
       }
     } catch (IOException ioe) {
@@ -1073,9 +1301,11 @@ public class OPaginatedCluster extends ODurableComponent implements OCluster {
     acquireSharedLock();
     try {
       diskCache.loadPinnedPage(pinnedStateEntry);
+      pinnedStateEntry.acquireSharedLock();
       try {
         return new OPaginatedClusterState(pinnedStateEntry, ODurablePage.TrackMode.NONE).getRecordsSize();
       } finally {
+        pinnedStateEntry.releaseSharedLock();
         diskCache.release(pinnedStateEntry);
       }
     } finally {
@@ -1192,13 +1422,223 @@ public class OPaginatedCluster extends ODurableComponent implements OCluster {
     return pageIndex << PAGE_INDEX_OFFSET | pagePosition;
   }
 
-  private void updateClusterState(ODurablePage.TrackMode trackMode, long sizeDiff, long recordsSizeDiff) throws IOException {
+  /**
+   * Records are created, updated and deleted under shared lock of cluster if pages are locked till the end of atomic operation,
+   * otherwise cluster is locked exclusively.
+   */
+  private void acquireRecordsModificationLock() {
+    if (pageLocking)
+      acquireSharedLock();
+    else
+      acquireExclusiveLock();
+  }
+
+  private void releaseRecordsModificationLock() {
+    if (pageLocking)
+      releaseSharedLock();
+    else
+      releaseExclusiveLock();
+  }
+
+  /**
+   * Loads page which is going to be changed by current atomic operation. Page is locked till the end of operation, so changes of
+   * this page can be rolled back without affecting of changes done by other operations.
+   */
+  private OCacheEntry loadPageForWrite(long pageIndex) throws IOException {
+    lockTillAtomicOperationCompletes(pageLocks[stripeOf(pageIndex) * PAGE_LOCKS_PER_STRIPE
+        + ((int) (pageIndex ^ (pageIndex >>> 32)) & (PAGE_LOCKS_PER_STRIPE - 1))]);
+    return diskCache.load(fileId, pageIndex, false);
+  }
+
+  private int stripeOf(long pageIndex) {
+    final long pagesStart = stripedPagesStart;
+    if (pagesStart < 0 || pageIndex < pagesStart)
+      return 0;
+
+    return (int) ((pageIndex - pagesStart) / STRIPE_EXTENT_SIZE % STRIPES);
+  }
+
+  /**
+   * @return Index of page of the same stripe which follows given one.
+   */
+  private long nextPageOfStripe(long pageIndex) {
+    final long nextPage = pageIndex + 1;
+    if ((nextPage - stripedPagesStart) % STRIPE_EXTENT_SIZE != 0)
+      return nextPage;
+
+    return nextPage + (STRIPES - 1) * STRIPE_EXTENT_SIZE;
+  }
+
+  /**
+   * Locks all stripes if whole cluster is locked by current atomic operation (as it is done by transactions), so cluster is changed
+   * as single unit and there is no risk of deadlock with operations which lock stripes one by one.
+   * 
+   * @return <code>true</code> if all stripes are locked.
+   */
+  private boolean lockStripesOfLockedCluster() {
+    if (!isLockedTillAtomicOperationCompletes(this))
+      return false;
+
+    for (Object stripeLock : stripeLocks)
+      lockTillAtomicOperationCompletes(stripeLock);
+
+    return true;
+  }
+
+  /**
+   * Chooses stripe in which new entry will be allocated and locks it till the end of atomic operation. Stripes which have free
+   * space for given entry are preferred, then stripes which have the lowest unused pages. Stripes which are locked by other
+   * operations are skipped, current operation waits only if all of them are busy.
+   * 
+   * @return Index of locked stripe.
+   */
+  private int lockAllocationStripe(int contentSize) throws IOException {
+    final boolean allLocked = lockStripesOfLockedCluster();
+
+    final boolean[] hasFreePage = new boolean[STRIPES];
+    final long[] freshPages = new long[STRIPES];
+
+    diskCache.loadPinnedPage(pinnedStateEntry);
+    pinnedStateEntry.acquireSharedLock();
+    try {
+      final OPaginatedClusterState paginatedClusterState = new OPaginatedClusterState(pinnedStateEntry, ODurablePage.TrackMode.NONE);
+      for (int stripe = 0; stripe < STRIPES; stripe++) {
+        freshPages[stripe] = paginatedClusterState.getFreshPage(stripe);
+
+        for (int i = freeListIndex(contentSize); i < FREE_LIST_SIZE && !hasFreePage[stripe]; i++)
+          hasFreePage[stripe] = paginatedClusterState.getFreeListPage(stripe, i) >= 0;
+      }
+    } finally {
+      pinnedStateEntry.releaseSharedLock();
+      diskCache.release(pinnedStateEntry);
+    }
+
+    final Integer[] stripes = new Integer[STRIPES];
+    for (int stripe = 0; stripe < STRIPES; stripe++)
+      stripes[stripe] = stripe;
+
+    Arrays.sort(stripes, new Comparator<Integer>() {
+      @Override
+      public int compare(Integer stripeOne, Integer stripeTwo) {
+        if (hasFreePage[stripeOne] != hasFreePage[stripeTwo])
+          return hasFreePage[stripeOne] ? -1 : 1;
+
+        if (freshPages[stripeOne] != freshPages[stripeTwo])
+          return freshPages[stripeOne] < freshPages[stripeTwo] ? -1 : 1;
+
+        return stripeOne - stripeTwo;
+      }
+    });
+
+    if (allLocked)
+      return stripes[0];
+
+    for (int stripe : stripes) {
+      if (tryLockTillAtomicOperationCompletes(stripeLocks[stripe]))
+        return stripe;
+    }
+
+    lockTillAtomicOperationCompletes(stripeLocks[stripes[0]]);
+    return stripes[0];
+  }
+
+  /**
+   * Locks stripes of all pages which contain chunks of given record, stripes are locked in ascending order.
+   */
+  private void lockRecordStripes(long pageIndex, int recordPosition) throws IOException {
+    if (lockStripesOfLockedCluster())
+      return;
+
+    final boolean[] recordStripes = new boolean[STRIPES];
+    final long filledUpTo = diskCache.getFilledUpTo(fileId);
+
+    while (pageIndex >= 0 && pageIndex < filledUpTo) {
+      recordStripes[stripeOf(pageIndex)] = true;
+
+      final OCacheEntry cacheEntry = diskCache.load(fileId, pageIndex, false);
+      cacheEntry.acquireSharedLock();
+      try {
+        final OClusterPage localPage = new OClusterPage(cacheEntry, false, ODurablePage.TrackMode.NONE);
+        if (localPage.isDeleted(recordPosition))
+          break;
+
+        final long nextPagePointer = localPage.getRecordLongValue(recordPosition, -OLongSerializer.LONG_SIZE);
+        if (nextPagePointer < 0)
+          break;
+
+        pageIndex = nextPagePointer >>> PAGE_INDEX_OFFSET;
+        recordPosition = (int) (nextPagePointer & RECORD_POSITION_MASK);
+      } finally {
+        cacheEntry.releaseSharedLock();
+        diskCache.release(cacheEntry);
+      }
+    }
+
+    for (int stripe = 0; stripe < STRIPES; stripe++) {
+      if (recordStripes[stripe])
+        lockTillAtomicOperationCompletes(stripeLocks[stripe]);
+    }
+  }
+
+  /**
+   * Adds position of new record to the position map. Each lock of positions has its own bucket of position map, so positions of
+   * new records are added in parallel.
+   * 
+   * @return Position of new record in cluster.
+   */
+  private long addPosition(long pageIndex, int recordPosition, ODurablePage.TrackMode trackMode) throws IOException {
+    int positionStripe = -1;
+    for (int stripe = 0; stripe < STRIPES; stripe++) {
+      if (tryLockTillAtomicOperationCompletes(positionLocks[stripe])) {
+        positionStripe = stripe;
+        break;
+      }
+    }
+
+    if (positionStripe < 0) {
+      positionStripe = 0;
+      lockTillAtomicOperationCompletes(positionLocks[positionStripe]);
+    }
+
+    final long bucketIndex;
+    diskCache.loadPinnedPage(pinnedStateEntry);
+    pinnedStateEntry.acquireSharedLock();
+    try {
+      bucketIndex = new OPaginatedClusterState(pinnedStateEntry, ODurablePage.TrackMode.NONE).getPositionBucket(positionStripe);
+    } finally {
+      pinnedStateEntry.releaseSharedLock();
+      diskCache.release(pinnedStateEntry);
+    }
+
+    final long clusterPosition = clusterPositionMap.add(bucketIndex, pageIndex, recordPosition);
+    final long newBucketIndex = clusterPosition / OClusterPositionMapBucket.MAX_ENTRIES;
+
+    if (newBucketIndex != bucketIndex) {
+      diskCache.loadPinnedPage(pinnedStateEntry);
+      pinnedStateEntry.acquireExclusiveLock();
+      try {
+        final OPaginatedClusterState paginatedClusterState = new OPaginatedClusterState(pinnedStateEntry, trackMode);
+        paginatedClusterState.setPositionBucket(positionStripe, newBucketIndex);
+
+        logPageChanges(paginatedClusterState, fileId, pinnedStateEntry.getPageIndex(), false);
+        pinnedStateEntry.markDirty();
+      } finally {
+        pinnedStateEntry.releaseExclusiveLock();
+        diskCache.release(pinnedStateEntry);
+      }
+    }
+
+    return clusterPosition;
+  }
+
+  private void updateClusterState(int stripe, ODurablePage.TrackMode trackMode, long sizeDiff, long recordsSizeDiff)
+      throws IOException {
     diskCache.loadPinnedPage(pinnedStateEntry);
     pinnedStateEntry.acquireExclusiveLock();
     try {
       OPaginatedClusterState paginatedClusterState = new OPaginatedClusterState(pinnedStateEntry, trackMode);
-      paginatedClusterState.setSize(paginatedClusterState.getSize() + sizeDiff);
-      paginatedClusterState.setRecordsSize(paginatedClusterState.getRecordsSize() + recordsSizeDiff);
+      paginatedClusterState.setSize(stripe, paginatedClusterState.getSize(stripe) + sizeDiff);
+      paginatedClusterState.setRecordsSize(stripe, paginatedClusterState.getRecordsSize(stripe) + recordsSizeDiff);
 
       logPageChanges(paginatedClusterState, fileId, pinnedStateEntry.getPageIndex(), false);
       pinnedStateEntry.markDirty();
@@ -1221,6 +1661,7 @@ public class OPaginatedCluster extends ODurableComponent implements OCluster {
 
     init(storage);
 
+    pageLocking = storage.getWALInstance() != null;
     diskCache = storageLocal.getDiskCache();
     name = config.getName();
     this.id = config.getId();
@@ -1296,6 +1737,31 @@ public class OPaginatedCluster extends ODurableComponent implements OCluster {
     return physicalPosition;
   }
 
+  private ORawBuffer createRawBuffer(long clusterPosition, byte[] fullContent, ORecordVersion recordVersion) {
+    if (useCRC32) {
+      CRC32 crc32 = new CRC32();
+      final int crcPosition = fullContent.length - OLongSerializer.LONG_SIZE - OByteSerializer.BYTE_SIZE
+          - OIntegerSerializer.INT_SIZE;
+      crc32.update(fullContent, 0, crcPosition);
+
+      final int crc = OIntegerSerializer.INSTANCE.deserializeNative(fullContent, crcPosition);
+      if (crc != (int) crc32.getValue())
+        throw new OStorageException("Content of record for cluster with id " + id + " and position " + clusterPosition
+            + " is broken.");
+    }
+
+    int fullContentPosition = 0;
+
+    byte recordType = fullContent[fullContentPosition];
+    fullContentPosition++;
+
+    int readContentSize = OIntegerSerializer.INSTANCE.deserializeNative(fullContent, fullContentPosition);
+    fullContentPosition += OIntegerSerializer.INT_SIZE;
+
+    byte[] recordContent = compression.uncompress(fullContent, fullContentPosition, readContentSize);
+    return new ORawBuffer(recordContent, recordVersion, recordType);
+  }
+
   private byte[] readFullEntry(long clusterPosition, long pageIndex, int recordPosition) throws IOException {
     if (diskCache.getFilledUpTo(fileId) <= pageIndex)
       return null;
@@ -1307,6 +1773,7 @@ public class OPaginatedCluster extends ODurableComponent implements OCluster {
     boolean firstEntry = true;
     do {
       OCacheEntry cacheEntry = diskCache.load(fileId, pageIndex, false);
+      cacheEntry.acquireSharedLock();
       try {
         final OClusterPage localPage = new OClusterPage(cacheEntry, false, ODurablePage.TrackMode.NONE);
 
@@ -1328,6 +1795,7 @@ public class OPaginatedCluster extends ODurableComponent implements OCluster {
 
         firstEntry = false;
       } finally {
+        cacheEntry.releaseSharedLock();
         diskCache.release(cacheEntry);
       }
 
@@ -1351,16 +1819,16 @@ public class OPaginatedCluster extends ODurableComponent implements OCluster {
     return fullContent;
   }
 
-  private AddEntryResult addEntry(ORecordVersion recordVersion, byte[] entryContent, OClusterPage.TrackMode trackMode)
+  private AddEntryResult addEntry(int stripe, ORecordVersion recordVersion, byte[] entryContent, OClusterPage.TrackMode trackMode)
       throws IOException {
-    final FindFreePageResult findFreePageResult = findFreePage(entryContent.length, trackMode);
+    final FindFreePageResult findFreePageResult = findFreePage(stripe, entryContent.length, trackMode);
 
     int freePageIndex = findFreePageResult.freePageIndex;
     long pageIndex = findFreePageResult.pageIndex;
 
     boolean newRecord = freePageIndex >= FREE_LIST_SIZE;
 
-    final OCacheEntry cacheEntry = diskCache.load(fileId, pageIndex, false);
+    final OCacheEntry cacheEntry = loadPageForWrite(pageIndex);
 
     cacheEntry.acquireExclusiveLock();
     int recordSizesDiff;
@@ -1391,34 +1859,33 @@ public class OPaginatedCluster extends ODurableComponent implements OCluster {
     return new AddEntryResult(pageIndex, position, finalVersion, recordSizesDiff);
   }
 
-  private FindFreePageResult findFreePage(int contentSize, OClusterPage.TrackMode trackMode) throws IOException {
+  private FindFreePageResult findFreePage(int stripe, int contentSize, OClusterPage.TrackMode trackMode) throws IOException {
     diskCache.loadPinnedPage(pinnedStateEntry);
     try {
       while (true) {
-        int freePageIndex = contentSize / ONE_KB;
-        freePageIndex -= PAGINATED_STORAGE_LOWEST_FREELIST_BOUNDARY.getValueAsInteger();
-        if (freePageIndex < 0)
-          freePageIndex = 0;
+        int freePageIndex = freeListIndex(contentSize);
 
         OPaginatedClusterState freePageLists = new OPaginatedClusterState(pinnedStateEntry, ODurablePage.TrackMode.NONE);
         long pageIndex;
         do {
-          pageIndex = freePageLists.getFreeListPage(freePageIndex);
+          pageIndex = freePageLists.getFreeListPage(stripe, freePageIndex);
           freePageIndex++;
         } while (pageIndex < 0 && freePageIndex < FREE_LIST_SIZE);
 
         if (pageIndex < 0)
-          pageIndex = diskCache.getFilledUpTo(fileId);
+          pageIndex = allocateFreshPage(stripe, trackMode);
         else
           freePageIndex--;
 
         if (freePageIndex < FREE_LIST_SIZE) {
           OCacheEntry cacheEntry = diskCache.load(fileId, pageIndex, false);
           int realFreePageIndex;
+          cacheEntry.acquireSharedLock();
           try {
             OClusterPage localPage = new OClusterPage(cacheEntry, false, ODurablePage.TrackMode.NONE);
             realFreePageIndex = calculateFreePageIndex(localPage);
           } finally {
+            cacheEntry.releaseSharedLock();
             diskCache.release(cacheEntry);
           }
 
@@ -1440,7 +1907,9 @@ public class OPaginatedCluster extends ODurableComponent implements OCluster {
   }
 
   private void updateFreePagesIndex(int prevFreePageIndex, long pageIndex, OClusterPage.TrackMode trackMode) throws IOException {
-    final OCacheEntry cacheEntry = diskCache.load(fileId, pageIndex, false);
+    final int stripe = stripeOf(pageIndex);
+
+    final OCacheEntry cacheEntry = loadPageForWrite(pageIndex);
     cacheEntry.acquireExclusiveLock();
     try {
       final OClusterPage localPage = new OClusterPage(cacheEntry, false, trackMode);
@@ -1453,7 +1922,7 @@ public class OPaginatedCluster extends ODurableComponent implements OCluster {
       long prevPageIndex = localPage.getPrevPage();
 
       if (prevPageIndex >= 0) {
-        final OCacheEntry prevPageCacheEntry = diskCache.load(fileId, prevPageIndex, false);
+        final OCacheEntry prevPageCacheEntry = loadPageForWrite(prevPageIndex);
         prevPageCacheEntry.acquireExclusiveLock();
         try {
           final OClusterPage prevPage = new OClusterPage(prevPageCacheEntry, false, trackMode);
@@ -1470,7 +1939,7 @@ public class OPaginatedCluster extends ODurableComponent implements OCluster {
       }
 
       if (nextPageIndex >= 0) {
-        final OCacheEntry nextPageCacheEntry = diskCache.load(fileId, nextPageIndex, false);
+        final OCacheEntry nextPageCacheEntry = loadPageForWrite(nextPageIndex);
         nextPageCacheEntry.acquireExclusiveLock();
         try {
           final OClusterPage nextPage = new OClusterPage(nextPageCacheEntry, false, trackMode);
@@ -1495,7 +1964,7 @@ public class OPaginatedCluster extends ODurableComponent implements OCluster {
 
       if (prevFreePageIndex >= 0 && prevFreePageIndex < FREE_LIST_SIZE) {
         if (prevPageIndex < 0)
-          updateFreePagesList(prevFreePageIndex, nextPageIndex);
+          updateFreePagesList(stripe, prevFreePageIndex, nextPageIndex);
       }
 
       if (newFreePageIndex >= 0) {
@@ -1503,13 +1972,13 @@ public class OPaginatedCluster extends ODurableComponent implements OCluster {
         diskCache.loadPinnedPage(pinnedStateEntry);
         try {
           OPaginatedClusterState clusterFreeList = new OPaginatedClusterState(pinnedStateEntry, ODurablePage.TrackMode.NONE);
-          oldFreePage = clusterFreeList.getFreeListPage(newFreePageIndex);
+          oldFreePage = clusterFreeList.getFreeListPage(stripe, newFreePageIndex);
         } finally {
           diskCache.release(pinnedStateEntry);
         }
 
         if (oldFreePage >= 0) {
-          final OCacheEntry oldFreePageCacheEntry = diskCache.load(fileId, oldFreePage, false);
+          final OCacheEntry oldFreePageCacheEntry = loadPageForWrite(oldFreePage);
           oldFreePageCacheEntry.acquireExclusiveLock();
           try {
             final OClusterPage oldFreeLocalPage = new OClusterPage(oldFreePageCacheEntry, false, trackMode);
@@ -1529,7 +1998,7 @@ public class OPaginatedCluster extends ODurableComponent implements OCluster {
           localPage.setPrevPage(-1);
         }
 
-        updateFreePagesList(newFreePageIndex, pageIndex);
+        updateFreePagesList(stripe, newFreePageIndex, pageIndex);
       }
 
       logPageChanges(localPage, fileId, pageIndex, false);
@@ -1539,14 +2008,14 @@ public class OPaginatedCluster extends ODurableComponent implements OCluster {
     }
   }
 
-  private void updateFreePagesList(int freeListIndex, long pageIndex) throws IOException {
+  private void updateFreePagesList(int stripe, int freeListIndex, long pageIndex) throws IOException {
     ODurablePage.TrackMode trackMode = getTrackMode();
 
     diskCache.loadPinnedPage(pinnedStateEntry);
     pinnedStateEntry.acquireExclusiveLock();
     try {
       OPaginatedClusterState paginatedClusterState = new OPaginatedClusterState(pinnedStateEntry, trackMode);
-      paginatedClusterState.setFreeListPage(freeListIndex, pageIndex);
+      paginatedClusterState.setFreeListPage(stripe, freeListIndex, pageIndex);
 
       logPageChanges(paginatedClusterState, fileId, pinnedStateEntry.getPageIndex(), false);
       pinnedStateEntry.markDirty();
@@ -1556,6 +2025,39 @@ public class OPaginatedCluster extends ODurableComponent implements OCluster {
     }
   }
 
+  /**
+   * @return Index of the first free list which may contain pages with enough space for entry of given size.
+   */
+  private static int freeListIndex(int contentSize) {
+    final int freeListIndex = contentSize / ONE_KB - LOWEST_FREELIST_BOUNDARY;
+    if (freeListIndex < 0)
+      return 0;
+
+    return freeListIndex;
+  }
+
+  /**
+   * @return Page of given stripe which was never used before, pointer to such pages of stripe is moved to the next page.
+   */
+  private long allocateFreshPage(int stripe, ODurablePage.TrackMode trackMode) throws IOException {
+    diskCache.loadPinnedPage(pinnedStateEntry);
+    pinnedStateEntry.acquireExclusiveLock();
+    try {
+      final OPaginatedClusterState paginatedClusterState = new OPaginatedClusterState(pinnedStateEntry, trackMode);
+
+      final long pageIndex = paginatedClusterState.getFreshPage(stripe);
+      paginatedClusterState.setFreshPage(stripe, nextPageOfStripe(pageIndex));
+
+      logPageChanges(paginatedClusterState, fileId, pinnedStateEntry.getPageIndex(), false);
+      pinnedStateEntry.markDirty();
+
+      return pageIndex;
+    } finally {
+      pinnedStateEntry.releaseExclusiveLock();
+      diskCache.release(pinnedStateEntry);
+    }
+  }
+
   private int calculateFreePageIndex(OClusterPage localPage) {
     int newFreePageIndex;
     if (localPage.isEmpty())
@@ -1577,11 +2079,7 @@ public class OPaginatedCluster extends ODurableComponent implements OCluster {
       OPaginatedClusterState paginatedClusterState = new OPaginatedClusterState(pinnedStateEntry, trackMode);
 
       diskCache.pinPage(pinnedStateEntry);
-      paginatedClusterState.setSize(0);
-      paginatedClusterState.setRecordsSize(0);
-
-      for (int i = 0; i < FREE_LIST_SIZE; i++)
-        paginatedClusterState.setFreeListPage(i, -1);
+      initStripes(paginatedClusterState, 0, pinnedStateEntry.getPageIndex() + 1, -1);
 
       logPageChanges(paginatedClusterState, fileId, pinnedStateEntry.getPageIndex(), true);
       pinnedStateEntry.markDirty();
@@ -1592,6 +2090,35 @@ public class OPaginatedCluster extends ODurableComponent implements OCluster {
 
   }
 
+  /**
+   * Initializes counters and free lists of stripes starting from given one and pointers to pages which were never used.
+   * 
+   * @param pagesStart
+   *          Index of the first page which is split between stripes.
+   * @param positionBucket
+   *          Bucket of position map which is used by the first stripe of positions.
+   */
+  private void initStripes(OPaginatedClusterState paginatedClusterState, int firstStripe, long pagesStart, long positionBucket)
+      throws IOException {
+    for (int stripe = firstStripe; stripe < STRIPES; stripe++) {
+      paginatedClusterState.setSize(stripe, 0);
+      paginatedClusterState.setRecordsSize(stripe, 0);
+
+      for (int i = 0; i < FREE_LIST_SIZE; i++)
+        paginatedClusterState.setFreeListPage(stripe, i, -1);
+    }
+
+    for (int stripe = 0; stripe < STRIPES; stripe++) {
+      paginatedClusterState.setFreshPage(stripe, pagesStart + stripe * STRIPE_EXTENT_SIZE);
+      paginatedClusterState.setPositionBucket(stripe, stripe == 0 ? positionBucket : -1);
+    }
+
+    paginatedClusterState.setStripedPagesStart(pagesStart);
+    paginatedClusterState.setStriped();
+
+    stripedPagesStart = pagesStart;
+  }
+
   private OPhysicalPosition[] convertToPhysicalPositions(long[] clusterPositions) {
     OPhysicalPosition[] positions = new OPhysicalPosition[clusterPositions.length];
     for (int i = 0; i < positions.length; i++) {
@@ -22,45 +22,149 @@ package com.orientechnologies.orient.core.storage.impl.local.paginated;
 
 import java.io.IOException;
 
-import com.orientechnologies.common.directmemory.ODirectMemoryPointer;
 import com.orientechnologies.common.serialization.types.OLongSerializer;
+import com.orientechnologies.orient.core.config.OGlobalConfiguration;
 import com.orientechnologies.orient.core.index.hashindex.local.cache.OCacheEntry;
 import com.orientechnologies.orient.core.storage.impl.local.paginated.base.ODurablePage;
 
 /**
+ * State of paginated cluster. Space of cluster is split between {@link #STRIPES} allocation stripes, each stripe has its own
+ * counters of records, its own free lists, its own pointer to the next page which was never used and its own bucket of position
+ * map. So operations which allocate space in different stripes change different bytes of this page and may be rolled back
+ * independently from each other.
+ * 
+ * Counters and free lists of the first stripe are stored at the same place where clusters created before introduction of stripes
+ * keep counters and free lists of the whole cluster.
+ * 
  * @author Andrey Lomakin
  * @since 20.08.13
  */
 public class OPaginatedClusterState extends ODurablePage {
-  private static final int RECORDS_SIZE_OFFSET = NEXT_FREE_POSITION;
-  private static final int SIZE_OFFSET         = RECORDS_SIZE_OFFSET + OLongSerializer.LONG_SIZE;
-  private static final int FREE_LIST_OFFSET    = SIZE_OFFSET + OLongSerializer.LONG_SIZE;
+  public static final int   STRIPES                 = 8;
+
+  private static final int  FREE_LIST_SIZE          = OGlobalConfiguration.DISK_CACHE_PAGE_SIZE.getValueAsInteger()
+                                                        - OGlobalConfiguration.PAGINATED_STORAGE_LOWEST_FREELIST_BOUNDARY
+                                                            .getValueAsInteger();
+  private static final long STRIPES_MAGIC           = 0x4F50435354524950L;
+
+  private static final int  RECORDS_SIZE_OFFSET     = NEXT_FREE_POSITION;
+  private static final int  SIZE_OFFSET             = RECORDS_SIZE_OFFSET + OLongSerializer.LONG_SIZE;
+  private static final int  FREE_LIST_OFFSET        = SIZE_OFFSET + OLongSerializer.LONG_SIZE;
+  private static final int  STRIPE_SIZE             = FREE_LIST_OFFSET + FREE_LIST_SIZE * OLongSerializer.LONG_SIZE
+                                                        - RECORDS_SIZE_OFFSET;
+
+  private static final int  STRIPES_MAGIC_OFFSET    = RECORDS_SIZE_OFFSET + STRIPE_SIZE;
+  private static final int  STRIPED_PAGES_OFFSET    = STRIPES_MAGIC_OFFSET + OLongSerializer.LONG_SIZE;
+  private static final int  FRESH_PAGES_OFFSET      = STRIPED_PAGES_OFFSET + OLongSerializer.LONG_SIZE;
+  private static final int  POSITION_BUCKETS_OFFSET = FRESH_PAGES_OFFSET + STRIPES * OLongSerializer.LONG_SIZE;
+  private static final int  STRIPES_OFFSET          = POSITION_BUCKETS_OFFSET + STRIPES * OLongSerializer.LONG_SIZE;
 
   public OPaginatedClusterState(OCacheEntry cacheEntry, TrackMode trackMode) {
     super(cacheEntry, trackMode);
   }
 
-  public void setSize(long size) throws IOException {
-    setLongValue(SIZE_OFFSET, size);
+  /**
+   * @return <code>false</code> if cluster was created before introduction of allocation stripes and its state was not converted
+   *         yet, in such case only counters and free lists of the first stripe contain valid data.
+   */
+  public boolean isStriped() {
+    return getLongValue(STRIPES_MAGIC_OFFSET) == STRIPES_MAGIC;
+  }
+
+  public void setStriped() throws IOException {
+    setLongValue(STRIPES_MAGIC_OFFSET, STRIPES_MAGIC);
+  }
+
+  /**
+   * @return Index of the first page which is split between stripes, all pages before it belong to the first stripe.
+   */
+  public long getStripedPagesStart() {
+    return getLongValue(STRIPED_PAGES_OFFSET);
+  }
+
+  public void setStripedPagesStart(long pageIndex) throws IOException {
+    setLongValue(STRIPED_PAGES_OFFSET, pageIndex);
+  }
+
+  /**
+   * @return Index of the next page of stripe which was never used before.
+   */
+  public long getFreshPage(int stripe) {
+    return getLongValue(FRESH_PAGES_OFFSET + stripe * OLongSerializer.LONG_SIZE);
+  }
+
+  public void setFreshPage(int stripe, long pageIndex) throws IOException {
+    setLongValue(FRESH_PAGES_OFFSET + stripe * OLongSerializer.LONG_SIZE, pageIndex);
+  }
+
+  /**
+   * @return Index of bucket of position map to which positions of records allocated in given stripe are appended or
+   *         <code>-1</code> if stripe has no such bucket yet.
+   */
+  public long getPositionBucket(int stripe) {
+    return getLongValue(POSITION_BUCKETS_OFFSET + stripe * OLongSerializer.LONG_SIZE);
   }
 
+  public void setPositionBucket(int stripe, long bucketIndex) throws IOException {
+    setLongValue(POSITION_BUCKETS_OFFSET + stripe * OLongSerializer.LONG_SIZE, bucketIndex);
+  }
+
+  public void setSize(int stripe, long size) throws IOException {
+    setLongValue(stripeOffset(stripe) + SIZE_OFFSET - RECORDS_SIZE_OFFSET, size);
+  }
+
+  public long getSize(int stripe) {
+    return getLongValue(stripeOffset(stripe) + SIZE_OFFSET - RECORDS_SIZE_OFFSET);
+  }
+
+  /**
+   * @return Amount of records in all stripes.
+   */
   public long getSize() {
-    return getLongValue(SIZE_OFFSET);
+    if (!isStriped())
+      return getSize(0);
+
+    long size = 0;
+    for (int i = 0; i < STRIPES; i++)
+      size += getSize(i);
+
+    return size;
   }
 
-  public void setRecordsSize(long recordsSize) throws IOException {
-    setLongValue(RECORDS_SIZE_OFFSET, recordsSize);
+  public void setRecordsSize(int stripe, long recordsSize) throws IOException {
+    setLongValue(stripeOffset(stripe), recordsSize);
   }
 
+  public long getRecordsSize(int stripe) {
+    return getLongValue(stripeOffset(stripe));
+  }
+
+  /**
+   * @return Size of records of all stripes.
+   */
   public long getRecordsSize() {
-    return getLongValue(RECORDS_SIZE_OFFSET);
+    if (!isStriped())
+      return getRecordsSize(0);
+
+    long recordsSize = 0;
+    for (int i = 0; i < STRIPES; i++)
+      recordsSize += getRecordsSize(i);
+
+    return recordsSize;
   }
 
-  public void setFreeListPage(int index, long pageIndex) throws IOException {
-    setLongValue(FREE_LIST_OFFSET + index * OLongSerializer.LONG_SIZE, pageIndex);
+  public void setFreeListPage(int stripe, int index, long pageIndex) throws IOException {
+    setLongValue(stripeOffset(stripe) + FREE_LIST_OFFSET - RECORDS_SIZE_OFFSET + index * OLongSerializer.LONG_SIZE, pageIndex);
   }
 
-  public long getFreeListPage(int index) {
-    return getLongValue(FREE_LIST_OFFSET + index * OLongSerializer.LONG_SIZE);
+  public long getFreeListPage(int stripe, int index) {
+    return getLongValue(stripeOffset(stripe) + FREE_LIST_OFFSET - RECORDS_SIZE_OFFSET + index * OLongSerializer.LONG_SIZE);
+  }
+
+  private static int stripeOffset(int stripe) {
+    if (stripe == 0)
+      return RECORDS_SIZE_OFFSET;
+
+    return STRIPES_OFFSET + (stripe - 1) * STRIPE_SIZE;
   }
 }
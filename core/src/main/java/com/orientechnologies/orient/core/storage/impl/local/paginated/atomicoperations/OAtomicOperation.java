@@ -22,11 +22,8 @@ package com.orientechnologies.orient.core.storage.impl.local.paginated.atomicope
 import com.orientechnologies.orient.core.storage.impl.local.paginated.wal.OLogSequenceNumber;
 import com.orientechnologies.orient.core.storage.impl.local.paginated.wal.OOperationUnitId;
 
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Map;
-import java.util.Set;
-import java.util.concurrent.locks.Lock;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * @author Andrey Lomakin <a href="mailto:lomakin.andrey@gmail.com">Andrey Lomakin</a>
@@ -35,11 +32,12 @@ import java.util.concurrent.locks.Lock;
 public class OAtomicOperation {
   private final OLogSequenceNumber startLSN;
   private final OOperationUnitId   operationUnitId;
+  private OLogSequenceNumber       endLSN;
 
   private int                      startCounter;
   private boolean                  rollback;
 
-  private Set<Object>              lockedObjects = new HashSet<Object>();
+  private List<Object>             lockedObjects = new ArrayList<Object>();
 
   public OAtomicOperation(OLogSequenceNumber startLSN, OOperationUnitId operationUnitId) {
     this.startLSN = startLSN;
@@ -55,6 +53,17 @@ public class OAtomicOperation {
     return operationUnitId;
   }
 
+  /**
+   * @return LSN of record which ends atomic operation or <code>null</code> if operation is not finished yet.
+   */
+  public OLogSequenceNumber getEndLSN() {
+    return endLSN;
+  }
+
+  void setEndLSN(OLogSequenceNumber endLSN) {
+    this.endLSN = endLSN;
+  }
+
   void incrementCounter() {
     startCounter++;
   }
@@ -84,6 +93,10 @@ public class OAtomicOperation {
     return lockedObjects;
   }
 
+  void clearLockedObjects() {
+    lockedObjects.clear();
+  }
+
   @Override
   public boolean equals(Object o) {
     if (this == o)
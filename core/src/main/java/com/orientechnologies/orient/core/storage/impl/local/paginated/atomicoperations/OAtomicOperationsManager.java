@@ -20,22 +20,79 @@
 
 package com.orientechnologies.orient.core.storage.impl.local.paginated.atomicoperations;
 
-import com.orientechnologies.common.concur.lock.ONewLockManager;
+import com.orientechnologies.common.concur.lock.OLockException;
+import com.orientechnologies.orient.core.config.OGlobalConfiguration;
 import com.orientechnologies.orient.core.storage.impl.local.paginated.wal.*;
 
 import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 /**
  * @author Andrey Lomakin <a href="mailto:lomakin.andrey@gmail.com">Andrey Lomakin</a>
  * @since 12/3/13
  */
 public class OAtomicOperationsManager {
-  private static final ThreadLocal<OAtomicOperation> currentOperation = new ThreadLocal<OAtomicOperation>();
-  private final OWriteAheadLog                       writeAheadLog;
-  private final ONewLockManager<Object>              lockManager      = new ONewLockManager<Object>();
+  private static final ThreadLocal<OAtomicOperation>    currentOperation        = new ThreadLocal<OAtomicOperation>();
+  private final OWriteAheadLog                          writeAheadLog;
+
+  /**
+   * Lock of single object with amount of threads which hold or wait for it.
+   */
+  private static final class LockEntry {
+    private final ReadWriteLock lock  = new ReentrantReadWriteLock();
+    private final AtomicInteger users = new AtomicInteger(1);
+  }
+
+  /**
+   * Every locked object has its own lock. Striped locks can not be used here because locks of components are held till the end of
+   * atomic operation, so collision of two unrelated components would lead to deadlock between operations which do not share any
+   * data. Entry is removed once it is not used by any thread, so objects of deleted components are not kept reachable.
+   */
+  private final ConcurrentMap<Object, LockEntry>        locks                   = new ConcurrentHashMap<Object, LockEntry>();
+
+  /**
+   * If <code>true</code> every durable component is locked by the thread which modifies it till the end of atomic operation and
+   * readers wait till atomic operation which modifies component is completed. It makes possible to commit transactions which touch
+   * different components in parallel.
+   */
+  private final boolean                                 componentIsolation;
+  private final int                                     lockTimeout;
+
+  private final ThreadLocal<Map<Object, Deque<Object>>> exclusiveComponentLocks = new ThreadLocal<Map<Object, Deque<Object>>>();
+  private final ThreadLocal<Map<Object, Deque<Object>>> sharedComponentLocks    = new ThreadLocal<Map<Object, Deque<Object>>>();
+
+  /**
+   * Operations which are started but locks of which are not released yet, mapped to LSNs of their start records. Operation is added
+   * before its start record is logged, so every operation which has logged its start record before some other record is present
+   * in this map once that record is logged.
+   */
+  private final Map<OOperationUnitId, OLogSequenceNumber> activeOperations      = new ConcurrentHashMap<OOperationUnitId, OLogSequenceNumber>();
+
+  /**
+   * Value of {@link #activeOperations} till start record of operation is logged.
+   */
+  private static final OLogSequenceNumber               START_IS_NOT_LOGGED     = new OLogSequenceNumber(-1, -1);
 
   public OAtomicOperationsManager(OWriteAheadLog writeAheadLog) {
+    this(writeAheadLog, false);
+  }
+
+  public OAtomicOperationsManager(OWriteAheadLog writeAheadLog, boolean componentIsolation) {
     this.writeAheadLog = writeAheadLog;
+    this.componentIsolation = componentIsolation && writeAheadLog != null;
+    this.lockTimeout = OGlobalConfiguration.STORAGE_LOCK_TIMEOUT.getValueAsInteger();
   }
 
   public OAtomicOperation startAtomicOperation() throws IOException {
@@ -49,7 +106,20 @@ public class OAtomicOperationsManager {
     }
 
     final OOperationUnitId unitId = OOperationUnitId.generateId();
-    final OLogSequenceNumber lsn = writeAheadLog.log(new OAtomicUnitStartRecord(true, unitId));
+    activeOperations.put(unitId, START_IS_NOT_LOGGED);
+
+    final OLogSequenceNumber lsn;
+    try {
+      lsn = writeAheadLog.log(new OAtomicUnitStartRecord(true, unitId));
+    } catch (IOException e) {
+      activeOperations.remove(unitId);
+      throw e;
+    } catch (RuntimeException e) {
+      activeOperations.remove(unitId);
+      throw e;
+    }
+
+    activeOperations.put(unitId, lsn);
 
     operation = new OAtomicOperation(lsn, unitId);
     currentOperation.set(operation);
@@ -61,7 +131,25 @@ public class OAtomicOperationsManager {
     return currentOperation.get();
   }
 
+  public boolean isComponentIsolation() {
+    return componentIsolation;
+  }
+
   public OAtomicOperation endAtomicOperation(boolean rollback) throws IOException {
+    return endAtomicOperation(rollback, true);
+  }
+
+  /**
+   * Ends current atomic operation.
+   * 
+   * @param rollback
+   *          Whether atomic operation should be rolled back.
+   * @param releaseLocks
+   *          If <code>false</code> locks which were acquired during atomic operation are kept after its end and should be released by
+   *          {@link #releaseLocks(OAtomicOperation)} call. It is used when changes of rolled back operation should be reverted before
+   *          other threads will be allowed to access locked components.
+   */
+  public OAtomicOperation endAtomicOperation(boolean rollback, boolean releaseLocks) throws IOException {
     if (writeAheadLog == null)
       return null;
 
@@ -78,16 +166,66 @@ public class OAtomicOperationsManager {
     assert counter >= 0;
 
     if (counter == 0) {
-      for (Object lockObject : operation.lockedObjects())
-        lockManager.releaseExclusiveLock(lockObject);
-
-      writeAheadLog.log(new OAtomicUnitEndRecord(operation.getOperationUnitId(), rollback));
+      // end record is logged before locks are released, so operations which are started after given one will be placed
+      // after its end in WAL
+      operation.setEndLSN(writeAheadLog.log(new OAtomicUnitEndRecord(operation.getOperationUnitId(), rollback)));
       currentOperation.set(null);
+
+      if (releaseLocks)
+        releaseLocks(operation);
     }
 
     return operation;
   }
 
+  public void releaseLocks(OAtomicOperation operation) {
+    for (Object lockObject : operation.lockedObjects())
+      releaseExclusiveLockOf(lockObject);
+
+    operation.clearLockedObjects();
+    activeOperations.remove(operation.getOperationUnitId());
+  }
+
+  /**
+   * Waits till all atomic operations which are started before call of this method are completed and their locks are released, so
+   * all pages changed by them are put back in disk cache. Operations which are started after call of this method are not waited.
+   */
+  public void waitTillActiveOperationsComplete() throws InterruptedException {
+    final List<OOperationUnitId> operations = new ArrayList<OOperationUnitId>(activeOperations.keySet());
+
+    for (OOperationUnitId unitId : operations) {
+      while (activeOperations.containsKey(unitId)) {
+        if (Thread.interrupted())
+          throw new InterruptedException();
+
+        LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+      }
+    }
+  }
+
+  /**
+   * @return LSN of start record of the oldest operation which is not completed yet, or <code>null</code> if there are no such
+   *         operations.
+   */
+  public OLogSequenceNumber getOldestActiveOperationStartLSN() {
+    OLogSequenceNumber oldest = null;
+
+    for (OOperationUnitId unitId : activeOperations.keySet()) {
+      OLogSequenceNumber startLSN = activeOperations.get(unitId);
+
+      // START RECORD IS BEING LOGGED RIGHT NOW
+      while (startLSN == START_IS_NOT_LOGGED) {
+        Thread.yield();
+        startLSN = activeOperations.get(unitId);
+      }
+
+      if (startLSN != null && (oldest == null || startLSN.compareTo(oldest) < 0))
+        oldest = startLSN;
+    }
+
+    return oldest;
+  }
+
   public void lockTillOperationComplete(Object lockObject) {
     final OAtomicOperation operation = currentOperation.get();
     if (operation == null)
@@ -96,7 +234,216 @@ public class OAtomicOperationsManager {
     if (operation.containsInLockedObjects(lockObject))
       return;
 
-    lockManager.acquireExclusiveLock(lockObject);
+    if (componentIsolation)
+      acquireExclusiveLockWithTimeout(lockObject);
+    else
+      acquireEntry(lockObject).lock.writeLock().lock();
+
+    operation.addLockedObject(lockObject);
+  }
+
+  /**
+   * Applies exclusive lock on passed in object till atomic operation completes if this lock is not held by other atomic operation
+   * right now. Does nothing if there is no active atomic operation.
+   * 
+   * @return <code>true</code> if lock is acquired or is already held by current atomic operation or there is no active atomic
+   *         operation, <code>false</code> if object is locked by other operation.
+   */
+  public boolean tryLockTillOperationComplete(Object lockObject) {
+    final OAtomicOperation operation = currentOperation.get();
+    if (operation == null)
+      return true;
+
+    if (operation.containsInLockedObjects(lockObject))
+      return true;
+
+    final LockEntry entry = acquireEntry(lockObject);
+    if (!entry.lock.writeLock().tryLock()) {
+      releaseEntry(lockObject, entry);
+      return false;
+    }
+
     operation.addLockedObject(lockObject);
+    return true;
+  }
+
+  /**
+   * @return <code>true</code> if passed in object is locked till the end of current atomic operation.
+   */
+  public boolean isLockedTillOperationComplete(Object lockObject) {
+    final OAtomicOperation operation = currentOperation.get();
+    return operation != null && operation.containsInLockedObjects(lockObject);
+  }
+
+  /**
+   * Acquires exclusive lock on passed in object on behalf of durable component. It is called before component applies its own
+   * exclusive lock. If lock is released inside of atomic operation it will be kept till the end of this operation, so no one will
+   * see or modify component data till the operation is completed. Does nothing if component isolation is switched off.
+   * 
+   * @param component
+   *          Component which requests the lock.
+   * @param lockObject
+   *          Object which identifies data of component.
+   */
+  public void acquireExclusiveLock(Object component, Object lockObject) {
+    if (!componentIsolation)
+      return;
+
+    acquireExclusiveLockWithTimeout(lockObject);
+    pushLock(exclusiveComponentLocks, component, lockObject);
+  }
+
+  public void releaseExclusiveLock(Object component) {
+    if (!componentIsolation)
+      return;
+
+    final Object lockObject = popLock(exclusiveComponentLocks, component);
+    if (lockObject == null)
+      return;
+
+    final OAtomicOperation operation = currentOperation.get();
+    if (operation != null)
+      operation.addLockedObject(lockObject);
+    else
+      releaseExclusiveLockOf(lockObject);
+  }
+
+  /**
+   * Acquires shared lock on passed in object on behalf of durable component, so component data will not be read till atomic
+   * operation which modifies them is completed. Does nothing if component isolation is switched off.
+   */
+  public void acquireSharedLock(Object component, Object lockObject) {
+    if (!componentIsolation)
+      return;
+
+    final LockEntry entry = acquireEntry(lockObject);
+    final boolean locked;
+    try {
+      locked = entry.lock.readLock().tryLock(lockTimeout, TimeUnit.MILLISECONDS);
+    } catch (InterruptedException e) {
+      releaseEntry(lockObject, entry);
+      Thread.currentThread().interrupt();
+      throw new OLockException("Thread was interrupted while waiting for shared lock on " + lockObject, e);
+    }
+
+    if (!locked) {
+      releaseEntry(lockObject, entry);
+      throw new OLockException("Timeout on acquiring shared lock on " + lockObject + " with timeout=" + lockTimeout);
+    }
+
+    pushLock(sharedComponentLocks, component, lockObject);
+  }
+
+  public void releaseSharedLock(Object component) {
+    if (!componentIsolation)
+      return;
+
+    final Object lockObject = popLock(sharedComponentLocks, component);
+    if (lockObject == null)
+      return;
+
+    final LockEntry entry = locks.get(lockObject);
+    entry.lock.readLock().unlock();
+    releaseEntry(lockObject, entry);
+  }
+
+  /**
+   * @return Amount of objects which are locked or are waited to be locked right now.
+   */
+  public int getLockedObjectsCount() {
+    return locks.size();
+  }
+
+  private void acquireExclusiveLockWithTimeout(Object lockObject) {
+    final LockEntry entry = acquireEntry(lockObject);
+    final boolean locked;
+    try {
+      locked = entry.lock.writeLock().tryLock(lockTimeout, TimeUnit.MILLISECONDS);
+    } catch (InterruptedException e) {
+      releaseEntry(lockObject, entry);
+      Thread.currentThread().interrupt();
+      throw new OLockException("Thread was interrupted while waiting for exclusive lock on " + lockObject, e);
+    }
+
+    if (!locked) {
+      releaseEntry(lockObject, entry);
+      throw new OLockException("Timeout on acquiring exclusive lock on " + lockObject + " with timeout=" + lockTimeout);
+    }
+  }
+
+  private void releaseExclusiveLockOf(Object lockObject) {
+    final LockEntry entry = locks.get(lockObject);
+    entry.lock.writeLock().unlock();
+    releaseEntry(lockObject, entry);
+  }
+
+  /**
+   * Registers current thread as user of lock of given object, should be paired with {@link #releaseEntry(Object, LockEntry)} call
+   * once the lock is released or could not be acquired.
+   */
+  private LockEntry acquireEntry(Object lockObject) {
+    while (true) {
+      LockEntry entry = locks.get(lockObject);
+      if (entry == null) {
+        entry = new LockEntry();
+        final LockEntry oldEntry = locks.putIfAbsent(lockObject, entry);
+        if (oldEntry == null)
+          return entry;
+
+        entry = oldEntry;
+      }
+
+      // ENTRY WITHOUT USERS IS BEING REMOVED FROM THE MAP, SO NEW ONE SHOULD BE CREATED
+      int users = entry.users.get();
+      while (users > 0) {
+        if (entry.users.compareAndSet(users, users + 1))
+          return entry;
+
+        users = entry.users.get();
+      }
+
+      Thread.yield();
+    }
+  }
+
+  private void releaseEntry(Object lockObject, LockEntry entry) {
+    if (entry.users.decrementAndGet() == 0)
+      locks.remove(lockObject, entry);
+  }
+
+  private static void pushLock(ThreadLocal<Map<Object, Deque<Object>>> heldLocks, Object component, Object lockObject) {
+    Map<Object, Deque<Object>> locks = heldLocks.get();
+    if (locks == null) {
+      locks = new IdentityHashMap<Object, Deque<Object>>();
+      heldLocks.set(locks);
+    }
+
+    Deque<Object> lockObjects = locks.get(component);
+    if (lockObjects == null) {
+      lockObjects = new ArrayDeque<Object>();
+      locks.put(component, lockObjects);
+    }
+
+    lockObjects.push(lockObject);
+  }
+
+  /**
+   * @return Object which was locked by the last lock call of given component or <code>null</code> if lock was acquired without
+   *         usage of this manager, for example before component was initialized.
+   */
+  private static Object popLock(ThreadLocal<Map<Object, Deque<Object>>> heldLocks, Object component) {
+    final Map<Object, Deque<Object>> locks = heldLocks.get();
+    if (locks == null)
+      return null;
+
+    final Deque<Object> lockObjects = locks.get(component);
+    if (lockObjects == null)
+      return null;
+
+    final Object lockObject = lockObjects.pop();
+    if (lockObjects.isEmpty())
+      locks.remove(component);
+
+    return lockObject;
   }
 }
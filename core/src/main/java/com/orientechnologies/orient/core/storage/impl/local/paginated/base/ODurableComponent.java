@@ -54,7 +54,8 @@ import com.orientechnologies.orient.core.tx.OTransactionOptimistic;
  * lock manager which is used to isolate access to units which participate in single transaction and which is going to be created to
  * provide efficient multi core scalability feature. It is recommended to always call it just after start of atomic operation but
  * always remember it is not replacement of thread safety mechanics for current data structure it is a mean to provide isolation
- * between atomic operations.</li>
+ * between atomic operations. If component isolation is switched on in {@link OAtomicOperationsManager} this lock is applied
+ * automatically on each call of {@link #acquireExclusiveLock()} during atomic operation.</li>
  * <li>Log all page changes in WAL by calling of {@link #logPageChanges(ODurablePage, long, long, boolean)}</li>
  * <li>Call {@link #endAtomicOperation(boolean)} method when atomic operation completes, passed in parameter should be
  * <code>false</code> if atomic operation completes with success and <code>true</code> if there were some exceptions and it is
@@ -131,7 +132,99 @@ public abstract class ODurableComponent extends OSharedResourceAdaptive {
   }
 
   protected void lockTillAtomicOperationCompletes() {
-    atomicOperationsManager.lockTillOperationComplete(this);
+    atomicOperationsManager.lockTillOperationComplete(getComponentLockObject());
+  }
+
+  /**
+   * Applies exclusive lock on passed in object till atomic operation completes. It is used by components which isolate parts of
+   * their data, for example separate pages, instead of whole component. Does nothing if there is no active atomic operation.
+   */
+  protected void lockTillAtomicOperationCompletes(Object lockObject) {
+    atomicOperationsManager.lockTillOperationComplete(lockObject);
+  }
+
+  /**
+   * Applies exclusive lock on passed in object till atomic operation completes only if it is not locked by other atomic operation.
+   * 
+   * @return <code>false</code> if object is locked by other atomic operation.
+   * @see #lockTillAtomicOperationCompletes(Object)
+   */
+  protected boolean tryLockTillAtomicOperationCompletes(Object lockObject) {
+    return atomicOperationsManager.tryLockTillOperationComplete(lockObject);
+  }
+
+  /**
+   * @return <code>true</code> if passed in object is locked till the end of current atomic operation.
+   */
+  protected boolean isLockedTillAtomicOperationCompletes(Object lockObject) {
+    return atomicOperationsManager.isLockedTillOperationComplete(lockObject);
+  }
+
+  /**
+   * @return <code>true</code> if current thread has started atomic operation which is not completed yet.
+   */
+  protected boolean isInsideAtomicOperation() {
+    return atomicOperationsManager != null && atomicOperationsManager.getCurrentOperation() != null;
+  }
+
+  /**
+   * @return Object which is used to isolate data of this component from other atomic operations. Components which share the same
+   *         file should return the same object.
+   */
+  protected Object getComponentLockObject() {
+    return this;
+  }
+
+  @Override
+  protected void acquireExclusiveLock() {
+    final OAtomicOperationsManager operationsManager = atomicOperationsManager;
+    if (operationsManager == null) {
+      super.acquireExclusiveLock();
+      return;
+    }
+
+    operationsManager.acquireExclusiveLock(this, getComponentLockObject());
+    try {
+      super.acquireExclusiveLock();
+    } catch (RuntimeException e) {
+      operationsManager.releaseExclusiveLock(this);
+      throw e;
+    }
+  }
+
+  @Override
+  protected void releaseExclusiveLock() {
+    super.releaseExclusiveLock();
+
+    final OAtomicOperationsManager operationsManager = atomicOperationsManager;
+    if (operationsManager != null)
+      operationsManager.releaseExclusiveLock(this);
+  }
+
+  @Override
+  protected void acquireSharedLock() {
+    final OAtomicOperationsManager operationsManager = atomicOperationsManager;
+    if (operationsManager == null) {
+      super.acquireSharedLock();
+      return;
+    }
+
+    operationsManager.acquireSharedLock(this, getComponentLockObject());
+    try {
+      super.acquireSharedLock();
+    } catch (RuntimeException e) {
+      operationsManager.releaseSharedLock(this);
+      throw e;
+    }
+  }
+
+  @Override
+  protected void releaseSharedLock() {
+    super.releaseSharedLock();
+
+    final OAtomicOperationsManager operationsManager = atomicOperationsManager;
+    if (operationsManager != null)
+      operationsManager.releaseSharedLock(this);
   }
 
   protected ODurablePage.TrackMode getTrackMode() {
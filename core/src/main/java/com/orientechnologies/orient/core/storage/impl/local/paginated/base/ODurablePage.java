@@ -22,6 +22,7 @@ package com.orientechnologies.orient.core.storage.impl.local.paginated.base;
 
 import com.orientechnologies.common.directmemory.ODirectMemoryPointer;
 import com.orientechnologies.common.serialization.types.OBinarySerializer;
+import com.orientechnologies.common.serialization.types.OComparableBinarySerializer;
 import com.orientechnologies.common.serialization.types.OByteSerializer;
 import com.orientechnologies.common.serialization.types.OIntegerSerializer;
 import com.orientechnologies.common.serialization.types.OLongSerializer;
@@ -117,6 +118,10 @@ public class ODurablePage {
     return binarySerializer.deserializeFromDirectMemoryObject(pagePointer, offset + PAGE_PADDING);
   }
 
+  protected <T> int compareInDirectMemory(OComparableBinarySerializer<T> binarySerializer, long offset, T object) {
+    return binarySerializer.compareInDirectMemory(pagePointer, offset + PAGE_PADDING, object);
+  }
+
   protected byte getByteValue(int pageOffset) {
     return pagePointer.getByte(pageOffset + PAGE_PADDING);
   }
@@ -23,8 +23,7 @@ package com.orientechnologies.orient.core.storage.impl.local.paginated.wal;
 import com.orientechnologies.common.serialization.types.OBinarySerializer;
 import com.orientechnologies.common.serialization.types.OIntegerSerializer;
 import com.orientechnologies.common.serialization.types.OLongSerializer;
-import com.orientechnologies.orient.core.metadata.schema.OType;
-import com.orientechnologies.orient.core.serialization.serializer.binary.OBinarySerializerFactory;
+import com.orientechnologies.common.serialization.types.OStringSerializer;
 
 import java.util.HashSet;
 import java.util.Set;
@@ -35,8 +34,8 @@ import java.util.Set;
  */
 public class ODirtyPagesRecord extends OAbstractWALRecord {
   private Set<ODirtyPage>                 dirtyPages;
-  private final OBinarySerializer<String> stringSerializer = OBinarySerializerFactory.getInstance().getObjectSerializer(
-                                                               OType.STRING);
+  // RECORD IS READ DURING RESTORE WHEN DATABASE IS NOT OPENED YET, SO SERIALIZER OF DATABASE CAN NOT BE USED
+  private final OBinarySerializer<String> stringSerializer = OStringSerializer.INSTANCE;
 
   public ODirtyPagesRecord() {
   }
@@ -66,15 +66,21 @@ public class ODiskWriteAheadLog extends OAbstractWriteAheadLog {
   private final int                    commitDelay;
   private final long                   maxSegmentSize;
   private final long                   maxLogSize;
+  private final long                   fuzzyCheckpointSize;
   private final File                   walLocation;
   private final RandomAccessFile       masterRecordLSNHolder;
   private final OLocalPaginatedStorage storage;
   private boolean                      useFirstMasterRecord    = true;
   private long                         logSize;
+  private int                          cutPreventers;
   private File                         masterRecordFile;
   private OLogSequenceNumber           firstMasterRecord;
   private OLogSequenceNumber           secondMasterRecord;
   private volatile OLogSequenceNumber  flushedLsn;
+  private volatile OLogSequenceNumber  syncedLsn;
+
+  private final Object                 groupFlushMonitor       = new Object();
+  private boolean                      groupFlushInProgress;
 
   private final class LogSegment implements Comparable<LogSegment> {
     private final RandomAccessFile                           rndFile;
@@ -106,7 +112,10 @@ public class ODiskWriteAheadLog extends OAbstractWriteAheadLog {
                                                                                 null);
 
     private final class FlushTask implements Runnable {
-      private FlushTask() {
+      private final boolean forceSync;
+
+      private FlushTask(boolean forceSync) {
+        this.forceSync = forceSync;
       }
 
       @Override
@@ -122,11 +131,18 @@ public class ODiskWriteAheadLog extends OAbstractWriteAheadLog {
         if (pagesCache.isEmpty())
           return;
 
-        if (!flushNewData)
+        if (!flushNewData) {
+          // data could be already written by background flush but not synced yet
+          if (forceSync)
+            syncWrittenData();
+
           return;
+        }
 
         flushNewData = false;
 
+        final boolean sync = forceSync || OGlobalConfiguration.WAL_SYNC_ON_PAGE_FLUSH.getValueAsBoolean();
+
         final int maxSize = pagesCache.size();
 
         ODirectMemoryPointer[] pagesToFlush = new ODirectMemoryPointer[maxSize];
@@ -183,15 +199,19 @@ public class ODiskWriteAheadLog extends OAbstractWriteAheadLog {
             filePointer += OWALPage.PAGE_SIZE;
           }
 
-          if (OGlobalConfiguration.WAL_SYNC_ON_PAGE_FLUSH.getValueAsBoolean())
+          if (sync)
             rndFile.getFD().sync();
         }
 
         nextPositionToFlush = filePointer - OWALPage.PAGE_SIZE;
 
-        if (lastLSNToFlush != null)
+        if (lastLSNToFlush != null) {
           flushedLsn = lastLSNToFlush;
 
+          if (sync)
+            syncedLsn = lastLSNToFlush;
+        }
+
         for (int i = 0; i < flushedPages - 1; i++) {
           OWALPage page = pagesCache.poll();
           page.getPagePointer().free();
@@ -200,6 +220,18 @@ public class ODiskWriteAheadLog extends OAbstractWriteAheadLog {
         assert !pagesCache.isEmpty();
       }
 
+      private void syncWrittenData() throws IOException {
+        final OLogSequenceNumber lsn = flushedLsn;
+        if (lsn == null || lsn.equals(syncedLsn))
+          return;
+
+        synchronized (rndFile) {
+          rndFile.getFD().sync();
+        }
+
+        syncedLsn = lsn;
+      }
+
       private void flushPage(byte[] content) throws IOException {
         CRC32 crc32 = new CRC32();
         crc32.update(content, OIntegerSerializer.INT_SIZE, OWALPage.PAGE_SIZE - OIntegerSerializer.INT_SIZE);
@@ -220,12 +252,12 @@ public class ODiskWriteAheadLog extends OAbstractWriteAheadLog {
 
     public void startFlush() {
       if (commitDelay > 0)
-        commitExecutor.scheduleAtFixedRate(new FlushTask(), commitDelay, commitDelay, TimeUnit.MILLISECONDS);
+        commitExecutor.scheduleAtFixedRate(new FlushTask(false), commitDelay, commitDelay, TimeUnit.MILLISECONDS);
     }
 
     public void stopFlush(boolean flush) {
       if (flush)
-        flush();
+        flush(true);
 
       if (!commitExecutor.isShutdown()) {
         commitExecutor.shutdown();
@@ -302,7 +334,6 @@ public class ODiskWriteAheadLog extends OAbstractWriteAheadLog {
     }
 
     public OLogSequenceNumber logRecord(byte[] record) throws IOException {
-      flushNewData = true;
       int pageOffset = (int) (filledUpTo % OWALPage.PAGE_SIZE);
       long pageIndex = filledUpTo / OWALPage.PAGE_SIZE;
 
@@ -363,6 +394,9 @@ public class ODiskWriteAheadLog extends OAbstractWriteAheadLog {
         }
       }
 
+      // flag is set only after record is appended, otherwise concurrent flush may reset it without writing of the record
+      flushNewData = true;
+
       if (pagesCache.size() > maxPagesCacheSize) {
         OLogManager.instance().info(this, "Max cache limit is reached (%d vs. %d), sync flush is performed.", maxPagesCacheSize,
             pagesCache.size());
@@ -501,9 +535,19 @@ public class ODiskWriteAheadLog extends OAbstractWriteAheadLog {
     }
 
     public void flush() {
+      flush(false);
+    }
+
+    /**
+     * Writes cached pages to the disk.
+     * 
+     * @param forceSync
+     *          Whether written data should be synced regardless of {@link OGlobalConfiguration#WAL_SYNC_ON_PAGE_FLUSH} setting.
+     */
+    public void flush(boolean forceSync) {
       if (!commitExecutor.isShutdown()) {
         try {
-          commitExecutor.submit(new FlushTask()).get();
+          commitExecutor.submit(new FlushTask(forceSync)).get();
         } catch (InterruptedException e) {
           Thread.interrupted();
           throw new OStorageException("Thread was interrupted during flush", e);
@@ -511,7 +555,7 @@ public class ODiskWriteAheadLog extends OAbstractWriteAheadLog {
           throw new OStorageException("Error during WAL segment " + getPath() + " flush.");
         }
       } else {
-        new FlushTask().run();
+        new FlushTask(forceSync).run();
       }
     }
 
@@ -597,6 +641,9 @@ public class ODiskWriteAheadLog extends OAbstractWriteAheadLog {
     this.maxLogSize = maxLogSize;
     this.storage = storage;
 
+    final int fuzzyCheckpointThreshold = OGlobalConfiguration.WAL_FUZZY_CHECKPOINT_SIZE_THRESHOLD.getValueAsInteger();
+    this.fuzzyCheckpointSize = fuzzyCheckpointThreshold > 0 ? maxLogSize / 100 * fuzzyCheckpointThreshold : -1;
+
     try {
       this.walLocation = new File(calculateWalPath(this.storage));
 
@@ -636,6 +683,7 @@ public class ODiskWriteAheadLog extends OAbstractWriteAheadLog {
 
         logSegments.get(logSegments.size() - 1).startFlush();
         flushedLsn = readFlushedLSN();
+        syncedLsn = flushedLsn;
       }
 
       masterRecordFile = new File(walLocation, this.storage.getName() + MASTER_RECORD_EXTENSION);
@@ -671,7 +719,7 @@ public class ODiskWriteAheadLog extends OAbstractWriteAheadLog {
     }
   }
 
-  private static String calculateWalPath(OLocalPaginatedStorage storage) {
+  public static String calculateWalPath(OLocalPaginatedStorage storage) {
     String walPath = OGlobalConfiguration.WAL_LOCATION.getValueAsString();
     if (walPath == null)
       walPath = storage.getStoragePath();
@@ -742,6 +790,58 @@ public class ODiskWriteAheadLog extends OAbstractWriteAheadLog {
     }
   }
 
+  /**
+   * Group commit. Only one thread (leader) writes and syncs cached WAL pages at any time, threads which come during the flush wait
+   * for it and are released at once if their records are covered by it. Otherwise one of them becomes the next leader and flushes
+   * all records were logged so far by single write and fsync.
+   */
+  @Override
+  public void flushTill(OLogSequenceNumber lsn) throws IOException {
+    while (!isSynced(lsn)) {
+      synchronized (groupFlushMonitor) {
+        if (isSynced(lsn))
+          return;
+
+        if (groupFlushInProgress) {
+          try {
+            groupFlushMonitor.wait();
+          } catch (InterruptedException e) {
+            Thread.interrupted();
+            throw new OStorageException("Thread was interrupted during flush", e);
+          }
+
+          continue;
+        }
+
+        groupFlushInProgress = true;
+      }
+
+      try {
+        final LogSegment last;
+        synchronized (syncObject) {
+          checkForClose();
+          last = logSegments.get(logSegments.size() - 1);
+        }
+
+        // flush is performed outside of WAL lock so other threads may continue to log their records
+        last.flush(true);
+
+        if (!isSynced(lsn))
+          throw new OStorageException("WAL records till LSN " + lsn + " can not be flushed to the disk.");
+      } finally {
+        synchronized (groupFlushMonitor) {
+          groupFlushInProgress = false;
+          groupFlushMonitor.notifyAll();
+        }
+      }
+    }
+  }
+
+  private boolean isSynced(OLogSequenceNumber lsn) {
+    final OLogSequenceNumber synced = syncedLsn;
+    return synced != null && synced.compareTo(lsn) >= 0;
+  }
+
   public OLogSequenceNumber log(OWALRecord record) throws IOException {
     synchronized (syncObject) {
       checkForClose();
@@ -770,7 +870,11 @@ public class ODiskWriteAheadLog extends OAbstractWriteAheadLog {
       final long sizeDiff = last.filledUpTo() - lastSize;
       logSize += sizeDiff;
 
-      if (logSize >= maxLogSize) {
+      // CHECKPOINT FLUSHES PAGES WHICH ARE CHANGED BY LOGGED OPERATIONS, SO WAL CAN BE TRUNCATED BEFORE IT REACHES MAXIMUM SIZE
+      if (fuzzyCheckpointSize > 0 && logSize >= fuzzyCheckpointSize && cutPreventers == 0)
+        storage.scheduleFuzzyCheckpoint();
+
+      if (logSize >= maxLogSize && cutPreventers == 0) {
         final LogSegment first = removeHeadSegmentFromList();
 
         if (first != null) {
@@ -917,10 +1021,73 @@ public class ODiskWriteAheadLog extends OAbstractWriteAheadLog {
     return flushedLsn;
   }
 
+  /**
+   * Prevents removal of WAL segments till {@link #allowCut()} is called, for example while segments are copied by backup. WAL may
+   * exceed its maximum size meanwhile.
+   */
+  public void preventCut() {
+    synchronized (syncObject) {
+      cutPreventers++;
+    }
+  }
+
+  public void allowCut() {
+    synchronized (syncObject) {
+      cutPreventers--;
+    }
+  }
+
+  /**
+   * Completes current segment and starts new one, so all records which are logged so far are placed in segments which are not
+   * changed any more.
+   *
+   * @return LSN of the last record of completed segments.
+   */
+  public OLogSequenceNumber startNewSegment() throws IOException {
+    synchronized (syncObject) {
+      checkForClose();
+
+      final OLogSequenceNumber end = end();
+
+      LogSegment last = logSegments.get(logSegments.size() - 1);
+      if (last.filledUpTo() > 0) {
+        last.stopFlush(true);
+
+        last = new LogSegment(new File(walLocation, getSegmentName(last.getOrder() + 1)), maxPagesCacheSize);
+        last.init();
+        last.startFlush();
+
+        logSegments.add(last);
+      }
+
+      return end;
+    }
+  }
+
+  /**
+   * @return Files of segments which orders are placed in passed in range, inclusive.
+   */
+  public List<File> segmentFiles(long fromSegment, long tillSegment) {
+    synchronized (syncObject) {
+      checkForClose();
+
+      final List<File> result = new ArrayList<File>();
+      for (LogSegment segment : logSegments) {
+        if (segment.getOrder() >= fromSegment && segment.getOrder() <= tillSegment)
+          result.add(new File(segment.getPath()));
+      }
+
+      return result;
+    }
+  }
+
   public void cutTill(OLogSequenceNumber lsn) throws IOException {
     synchronized (syncObject) {
       checkForClose();
 
+      if (cutPreventers > 0)
+        return;
+
       flush();
 
       int lastTruncateIndex = -1;
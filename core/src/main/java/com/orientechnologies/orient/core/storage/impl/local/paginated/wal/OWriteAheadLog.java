@@ -46,6 +46,12 @@ public interface OWriteAheadLog {
 
   void flush();
 
+  /**
+   * Blocks till all records up to given LSN inclusive are written and synced to the disk. Records of threads which wait at the
+   * same time are flushed by single write and fsync.
+   */
+  void flushTill(OLogSequenceNumber lsn) throws IOException;
+
   OLogSequenceNumber log(OWALRecord record) throws IOException;
 
   void truncate() throws IOException;
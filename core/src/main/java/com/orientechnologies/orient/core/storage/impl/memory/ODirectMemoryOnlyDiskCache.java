@@ -106,6 +106,11 @@ public class ODirectMemoryOnlyDiskCache implements ODiskCache {
     return cacheEntry;
   }
 
+  @Override
+  public OPageReadAhead readAhead(long fileId) {
+    return OPageReadAhead.DISABLED;
+  }
+
   @Override
   public void pinPage(OCacheEntry cacheEntry) throws IOException {
   }
@@ -251,6 +256,30 @@ public class ODirectMemoryOnlyDiskCache implements ODiskCache {
     return Collections.emptySet();
   }
 
+  @Override
+  public Set<ODirtyPage> flushDirtyPages(Collection<ODirtyPage> dirtyPages) throws IOException {
+    return Collections.emptySet();
+  }
+
+  @Override
+  public Map<String, Long> files() {
+    metadataLock.lock();
+    try {
+      return new HashMap<String, Long>(fileNameIdMap);
+    } finally {
+      metadataLock.unlock();
+    }
+  }
+
+  @Override
+  public long[] findChangedPages(long fileId, OLogSequenceNumber lsn) throws IOException {
+    final long[] pages = new long[(int) getFilledUpTo(fileId)];
+    for (int i = 0; i < pages.length; i++)
+      pages[i] = i;
+
+    return pages;
+  }
+
   @Override
   public boolean isOpen(long fileId) {
     return files.get(fileId) != null;
@@ -58,6 +58,10 @@ public class OMemoryWriteAheadLog extends OAbstractWriteAheadLog {
   public void flush() {
   }
 
+  @Override
+  public void flushTill(OLogSequenceNumber lsn) throws IOException {
+  }
+
   @Override
   public OLogSequenceNumber log(OWALRecord record) throws IOException {
     OLogSequenceNumber logSequenceNumber;
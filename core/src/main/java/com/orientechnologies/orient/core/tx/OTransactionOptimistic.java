@@ -26,10 +26,12 @@ import java.util.concurrent.Callable;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import com.orientechnologies.common.log.OLogManager;
+import com.orientechnologies.orient.core.config.OGlobalConfiguration;
 import com.orientechnologies.orient.core.db.ODatabase.OPERATION_MODE;
 import com.orientechnologies.orient.core.db.OScenarioThreadLocal;
 import com.orientechnologies.orient.core.db.OScenarioThreadLocal.RUN_MODE;
 import com.orientechnologies.orient.core.db.document.ODatabaseDocumentTx;
+import com.orientechnologies.orient.core.db.record.OIdentifiable;
 import com.orientechnologies.orient.core.db.record.ORecordOperation;
 import com.orientechnologies.orient.core.engine.local.OEngineLocalPaginated;
 import com.orientechnologies.orient.core.engine.memory.OEngineMemory;
@@ -41,8 +43,10 @@ import com.orientechnologies.orient.core.id.ORID;
 import com.orientechnologies.orient.core.id.ORecordId;
 import com.orientechnologies.orient.core.index.OIndex;
 import com.orientechnologies.orient.core.index.OIndexAbstract;
+import com.orientechnologies.orient.core.index.OIndexDefinition;
 import com.orientechnologies.orient.core.index.OIndexException;
 import com.orientechnologies.orient.core.index.OIndexInternal;
+import com.orientechnologies.orient.core.index.OIndexManagerProxy;
 import com.orientechnologies.orient.core.metadata.OMetadataDefault;
 import com.orientechnologies.orient.core.metadata.schema.OClass;
 import com.orientechnologies.orient.core.metadata.security.ODatabaseSecurityResources;
@@ -51,6 +55,7 @@ import com.orientechnologies.orient.core.metadata.security.ORule;
 import com.orientechnologies.orient.core.record.ORecord;
 import com.orientechnologies.orient.core.record.ORecordInternal;
 import com.orientechnologies.orient.core.record.impl.ODocument;
+import com.orientechnologies.orient.core.storage.ORawBuffer;
 import com.orientechnologies.orient.core.storage.ORecordCallback;
 import com.orientechnologies.orient.core.storage.OStorage;
 import com.orientechnologies.orient.core.storage.OStorageEmbedded;
@@ -61,6 +66,7 @@ public class OTransactionOptimistic extends OTransactionRealAbstract {
 
   private boolean              usingLog = true;
   private int                  txStartCounter;
+  private long                 addedIndexesCounter;
 
   private class CommitIndexesCallback implements Runnable {
     private final Map<String, OIndex<?>> indexes;
@@ -73,7 +79,8 @@ public class OTransactionOptimistic extends OTransactionRealAbstract {
     public void run() {
       final ODocument indexEntries = getIndexChanges();
       if (indexEntries != null) {
-        final Map<String, OIndexInternal<?>> indexesToCommit = new HashMap<String, OIndexInternal<?>>();
+        // INDEXES ARE COMMITTED IN ORDER OF THEIR NAMES TO AVOID DEADLOCKS BETWEEN TRANSACTIONS COMMITTED IN PARALLEL
+        final Map<String, OIndexInternal<?>> indexesToCommit = new TreeMap<String, OIndexInternal<?>>();
 
         for (Entry<String, Object> indexEntry : indexEntries) {
           final OIndexInternal<?> index = indexes.get(indexEntry.getKey()).getInternal();
@@ -109,8 +116,10 @@ public class OTransactionOptimistic extends OTransactionRealAbstract {
   }
 
   public void begin() {
-    if (txStartCounter == 0)
+    if (txStartCounter == 0) {
       status = TXSTATUS.BEGUN;
+      addedIndexesCounter = getAddedIndexesCounter();
+    }
 
     txStartCounter++;
 
@@ -441,6 +450,9 @@ public class OTransactionOptimistic extends OTransactionRealAbstract {
         && !(database.getStorage().getUnderlying() instanceof OStorageEmbedded))
       database.getStorage().commit(this, null);
     else {
+      if (OGlobalConfiguration.INDEX_ONLINE_BUILD.getValueAsBoolean() && getAddedIndexesCounter() != addedIndexesCounter)
+        addIndexChangesOfRecords();
+
       List<OIndexAbstract<?>> lockedIndexes = acquireIndexLocks();
       try {
         final Map<String, OIndex<?>> indexes = new HashMap<String, OIndex<?>>();
@@ -473,6 +485,94 @@ public class OTransactionOptimistic extends OTransactionRealAbstract {
     status = TXSTATUS.COMPLETED;
   }
 
+  /**
+   * Index changes of records are calculated when records are saved, so indexes which were added after transaction was begun may not
+   * contain records of transaction, even if their build is already completed. Changes of such indexes are calculated again, index
+   * keys of stored records are replaced by keys of records of transaction. Changes which were calculated already are not affected
+   * because the same keys are put again.
+   */
+  private void addIndexChangesOfRecords() {
+    final OIndexManagerProxy indexManager = database.getMetadata().getIndexManager();
+
+    for (ORecordOperation txEntry : new ArrayList<ORecordOperation>(getCurrentRecordEntries())) {
+      if (!(txEntry.getRecord() instanceof ODocument))
+        continue;
+
+      final ODocument document = (ODocument) txEntry.getRecord();
+
+      ODocument storedDocument = null;
+
+      OClass cls = document.getImmutableSchemaClass();
+      if (cls == null && txEntry.type != ORecordOperation.CREATED) {
+        storedDocument = loadStoredDocument(document.getIdentity());
+        if (storedDocument != null)
+          cls = storedDocument.getImmutableSchemaClass();
+      }
+      if (cls == null)
+        continue;
+
+      final List<OIndex<?>> addedIndexes = new ArrayList<OIndex<?>>();
+      for (OIndex<?> index : cls.getIndexes())
+        if (index.isAutomatic() && indexManager.getIndexAddedCounter(index.getName()) > addedIndexesCounter)
+          addedIndexes.add(index);
+
+      if (addedIndexes.isEmpty())
+        continue;
+
+      if (storedDocument == null && txEntry.type != ORecordOperation.CREATED)
+        storedDocument = loadStoredDocument(document.getIdentity());
+
+      final OIdentifiable rid = document.getIdentity().isPersistent() ? document.placeholder() : document;
+      for (OIndex<?> index : addedIndexes) {
+        if (storedDocument != null)
+          for (Object key : getIndexKeys(index.getDefinition(), storedDocument))
+            index.remove(key, rid);
+
+        if (txEntry.type != ORecordOperation.DELETED)
+          for (Object key : getIndexKeys(index.getDefinition(), document))
+            index.put(key, rid);
+      }
+    }
+  }
+
+  private long getAddedIndexesCounter() {
+    final OMetadataDefault metadata = database.getMetadata();
+    if (metadata == null || metadata.getIndexManager() == null)
+      return 0;
+
+    return metadata.getIndexManager().getAddedIndexesCounter();
+  }
+
+  private ODocument loadStoredDocument(final ORID rid) {
+    if (!rid.isPersistent())
+      return null;
+
+    final ORawBuffer buffer = database.getStorage()
+        .readRecord((ORecordId) rid, null, true, null, false, OStorage.LOCKING_STRATEGY.DEFAULT).getResult();
+    if (buffer == null || buffer.recordType != ODocument.RECORD_TYPE)
+      return null;
+
+    final ODocument document = new ODocument();
+    document.setLazyLoad(false);
+    document.fromStream(buffer.buffer);
+    return document;
+  }
+
+  private static Collection<?> getIndexKeys(final OIndexDefinition indexDefinition, final ODocument document) {
+    final Object key = indexDefinition.getDocumentValueToIndex(document);
+    final Collection<?> keys = key instanceof Collection ? (Collection<?>) key : Collections.singletonList(key);
+
+    if (!indexDefinition.isNullValuesIgnored())
+      return keys;
+
+    final List<Object> notNullKeys = new ArrayList<Object>(keys.size());
+    for (Object keyItem : keys)
+      if (keyItem != null)
+        notNullKeys.add(keyItem);
+
+    return notNullKeys;
+  }
+
   private List<OIndexAbstract<?>> acquireIndexLocks() {
     List<OIndexAbstract<?>> lockedIndexes = null;
     final List<String> involvedIndexes = getInvolvedIndexes();
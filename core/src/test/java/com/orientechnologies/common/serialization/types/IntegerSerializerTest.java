@@ -62,4 +62,21 @@ public class IntegerSerializerTest {
       pointer.free();
     }
   }
+
+  public void testCompareInDirectMemory() {
+    final int[] values = { Integer.MIN_VALUE, -1, 0, 1, Integer.MAX_VALUE };
+
+    ODirectMemoryPointer pointer = new ODirectMemoryPointer(FIELD_SIZE);
+    try {
+      for (int value : values) {
+        integerSerializer.serializeInDirectMemoryObject(value, pointer, 0);
+
+        for (int other : values)
+          Assert.assertEquals(Integer.signum(integerSerializer.compareInDirectMemory(pointer, 0, other)),
+              Integer.signum(Integer.valueOf(value).compareTo(other)));
+      }
+    } finally {
+      pointer.free();
+    }
+  }
 }
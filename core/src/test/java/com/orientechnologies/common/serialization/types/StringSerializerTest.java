@@ -71,4 +71,21 @@ public class StringSerializerTest {
       pointer.free();
     }
   }
+
+  public void testCompareInDirectMemory() {
+    final String[] values = { "", "a", "ab", "abc", "abd", "b", "\u00ff", "\u0100", "\uffff" };
+
+    for (String value : values) {
+      ODirectMemoryPointer pointer = new ODirectMemoryPointer(stringSerializer.getObjectSize(value));
+      try {
+        stringSerializer.serializeInDirectMemoryObject(value, pointer, 0);
+
+        for (String other : values)
+          Assert.assertEquals(Integer.signum(stringSerializer.compareInDirectMemory(pointer, 0, other)),
+              Integer.signum(value.compareTo(other)));
+      } finally {
+        pointer.free();
+      }
+    }
+  }
 }
@@ -0,0 +1,91 @@
+package com.orientechnologies.orient.core.db.record.ridbag.embedded;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.orientechnologies.orient.core.db.record.OIdentifiable;
+import com.orientechnologies.orient.core.id.ORecordId;
+
+/**
+ * Checks that links which are stored as primitives and links which are stored as objects are iterated, removed and serialized in
+ * the same order in which they were added.
+ */
+@Test
+public class OEmbeddedRidBagTest {
+  public void testAddRemoveIterate() {
+    final OEmbeddedRidBag ridBag = new OEmbeddedRidBag();
+    ridBag.setAutoConvertToRecord(false);
+
+    final List<OIdentifiable> expected = new ArrayList<OIdentifiable>();
+    for (int i = 0; i < 20; i++) {
+      final OIdentifiable rid = i % 5 == 0 ? new ORecordId() : new ORecordId(3, i);
+      ridBag.add(rid);
+      expected.add(rid);
+    }
+
+    ridBag.remove(new ORecordId(3, 7));
+    expected.remove(new ORecordId(3, 7));
+
+    ridBag.remove(new ORecordId(3, 100));
+
+    final Iterator<OIdentifiable> iterator = ridBag.iterator();
+    while (iterator.hasNext()) {
+      if (iterator.next().equals(new ORecordId(3, 12)))
+        iterator.remove();
+    }
+    expected.remove(new ORecordId(3, 12));
+
+    Assert.assertEquals(ridBag.size(), expected.size());
+    assertContent(ridBag, expected);
+  }
+
+  public void testSerializationRoundTrip() {
+    final OEmbeddedRidBag ridBag = new OEmbeddedRidBag();
+    ridBag.setAutoConvertToRecord(false);
+
+    final List<OIdentifiable> expected = new ArrayList<OIdentifiable>();
+    for (int i = 0; i < 100; i++) {
+      final OIdentifiable rid = i % 10 == 0 ? new ORecordId() : new ORecordId(i % 7, i * 1000L);
+      ridBag.add(rid);
+      expected.add(rid);
+    }
+
+    ridBag.remove(new ORecordId(5, 5000));
+    expected.remove(new ORecordId(5, 5000));
+
+    final byte[] stream = new byte[ridBag.getSerializedSize() + 3];
+    final int end = ridBag.serialize(stream, 3, null);
+    Assert.assertEquals(end, stream.length);
+
+    final OEmbeddedRidBag deserialized = new OEmbeddedRidBag();
+    deserialized.setAutoConvertToRecord(false);
+    Assert.assertEquals(deserialized.deserialize(stream, 3), stream.length);
+
+    Assert.assertEquals(deserialized.size(), expected.size());
+    assertContent(deserialized, expected);
+
+    deserialized.add(new ORecordId(1, 1));
+    expected.add(new ORecordId(1, 1));
+
+    final byte[] secondStream = new byte[deserialized.getSerializedSize()];
+    Assert.assertEquals(deserialized.serialize(secondStream, 0, null), secondStream.length);
+
+    final OEmbeddedRidBag secondDeserialized = new OEmbeddedRidBag();
+    secondDeserialized.setAutoConvertToRecord(false);
+    secondDeserialized.deserialize(secondStream, 0);
+
+    assertContent(secondDeserialized, expected);
+  }
+
+  private static void assertContent(OEmbeddedRidBag ridBag, List<OIdentifiable> expected) {
+    final List<OIdentifiable> actual = new ArrayList<OIdentifiable>();
+    for (OIdentifiable identifiable : ridBag)
+      actual.add(identifiable);
+
+    Assert.assertEquals(actual, expected);
+  }
+}
@@ -0,0 +1,374 @@
+package com.orientechnologies.orient.core.index;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import com.orientechnologies.common.listener.OProgressListener;
+import com.orientechnologies.orient.core.config.OGlobalConfiguration;
+import com.orientechnologies.orient.core.db.document.ODatabaseDocumentTx;
+import com.orientechnologies.orient.core.db.record.OIdentifiable;
+import com.orientechnologies.orient.core.id.ORID;
+import com.orientechnologies.orient.core.metadata.schema.OClass;
+import com.orientechnologies.orient.core.metadata.schema.OType;
+import com.orientechnologies.orient.core.record.impl.ODocument;
+import com.orientechnologies.orient.core.storage.ORecordDuplicatedException;
+
+/**
+ * Checks that records can be created, updated and deleted while automatic indexes are built in online mode and that indexes contain
+ * all the records once build is completed.
+ */
+@Test
+public class OIndexOnlineBuildTest {
+  private static final int    INITIAL_RECORDS = 10000;
+  private static final int    WRITERS         = 4;
+
+  private ODatabaseDocumentTx databaseDocumentTx;
+  private ExecutorService     executorService = Executors.newCachedThreadPool();
+  private boolean             onlineBuild;
+
+  @BeforeClass
+  public void beforeClass() {
+    onlineBuild = OGlobalConfiguration.INDEX_ONLINE_BUILD.getValueAsBoolean();
+    OGlobalConfiguration.INDEX_ONLINE_BUILD.setValue(true);
+
+    final String buildDirectory = System.getProperty("buildDirectory", ".");
+    databaseDocumentTx = new ODatabaseDocumentTx("plocal:" + buildDirectory + "/indexOnlineBuildTest");
+    if (databaseDocumentTx.exists()) {
+      databaseDocumentTx.open("admin", "admin");
+      databaseDocumentTx.drop();
+    }
+
+    databaseDocumentTx.create();
+  }
+
+  @AfterClass
+  public void afterClass() {
+    OGlobalConfiguration.INDEX_ONLINE_BUILD.setValue(onlineBuild);
+    executorService.shutdown();
+
+    databaseDocumentTx.drop();
+  }
+
+  public void testNonTxModificationsDuringOnlineBuild() throws Exception {
+    assertModificationsDuringOnlineBuild("NonTxOnlineBuildClass", false);
+  }
+
+  public void testTxModificationsDuringOnlineBuild() throws Exception {
+    assertModificationsDuringOnlineBuild("TxOnlineBuildClass", true);
+  }
+
+  public void testDuplicatedKeysAreRejectedDuringOnlineBuild() throws Exception {
+    final String className = "DuplicatesOnlineBuildClass";
+    final OClass onlineBuildClass = databaseDocumentTx.getMetadata().getSchema().createClass(className);
+    onlineBuildClass.createProperty("id", OType.INTEGER);
+
+    final AtomicInteger idGenerator = new AtomicInteger();
+    for (int i = 0; i < INITIAL_RECORDS; i++) {
+      final ODocument document = new ODocument(className);
+      document.field("id", idGenerator.getAndIncrement());
+      document.save();
+    }
+
+    final CountDownLatch buildStarted = new CountDownLatch(1);
+    final CountDownLatch duplicatesChecked = new CountDownLatch(WRITERS);
+    final AtomicBoolean stop = new AtomicBoolean();
+
+    final List<Future<Integer>> futures = new ArrayList<Future<Integer>>();
+    for (int i = 0; i < WRITERS; i++)
+      futures.add(executorService.submit(new DuplicatesWriter(className, idGenerator, i % 2 == 0, buildStarted, duplicatesChecked,
+          stop)));
+
+    // BUILD IS SUSPENDED IN THE MIDDLE OF THE SCAN UNTIL WRITERS TRY TO PUT DUPLICATES
+    onlineBuildClass.createIndex(className + ".id", OClass.INDEX_TYPE.UNIQUE, new OProgressListener() {
+      @Override
+      public void onBegin(Object iTask, long iTotal, Object iMetadata) {
+        buildStarted.countDown();
+      }
+
+      @Override
+      public boolean onProgress(Object iTask, long iCounter, float iPercent) {
+        if (iCounter == INITIAL_RECORDS / 2)
+          try {
+            duplicatesChecked.await(30, TimeUnit.SECONDS);
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+
+        return true;
+      }
+
+      @Override
+      public void onCompletition(Object iTask, boolean iSucceed) {
+      }
+    }, "id");
+
+    stop.set(true);
+
+    for (Future<Integer> future : futures)
+      Assert.assertTrue(future.get() > 0);
+
+    final OIndex<?> idIndex = databaseDocumentTx.getMetadata().getIndexManager().getIndex(className + ".id");
+    Assert.assertFalse(idIndex.isRebuiding());
+    Assert.assertEquals(idIndex.getSize(), databaseDocumentTx.countClass(className));
+
+    for (ODocument document : databaseDocumentTx.browseClass(className)) {
+      final OIdentifiable indexedRid = (OIdentifiable) idIndex.get(document.field("id"));
+      Assert.assertEquals(indexedRid.getIdentity(), document.getIdentity());
+    }
+  }
+
+  public void testTxWhichStraddlesCompletedBuild() throws Exception {
+    final String className = "StraddlingTxOnlineBuildClass";
+    final OClass onlineBuildClass = databaseDocumentTx.getMetadata().getSchema().createClass(className);
+    onlineBuildClass.createProperty("id", OType.INTEGER);
+
+    for (int i = 0; i < INITIAL_RECORDS; i++) {
+      final ODocument document = new ODocument(className);
+      document.field("id", i);
+      document.save();
+    }
+
+    final ORID updatedRid = databaseDocumentTx.browseClass(className).next().getIdentity();
+
+    final CountDownLatch recordsSaved = new CountDownLatch(1);
+    final CountDownLatch buildCompleted = new CountDownLatch(1);
+
+    // TRANSACTION SAVES RECORDS BEFORE INDEX IS ADDED AND IS COMMITTED ONLY AFTER INDEX BUILD IS COMPLETED
+    final Future<ORID> future = executorService.submit(new Callable<ORID>() {
+      @Override
+      public ORID call() throws Exception {
+        final ODatabaseDocumentTx db = new ODatabaseDocumentTx(databaseDocumentTx.getURL());
+        db.open("admin", "admin");
+        try {
+          db.begin();
+
+          final ODocument created = new ODocument(className);
+          created.field("id", INITIAL_RECORDS);
+          created.save();
+
+          final ODocument updated = db.load(updatedRid);
+          updated.field("id", INITIAL_RECORDS + 1);
+          updated.save();
+
+          recordsSaved.countDown();
+          buildCompleted.await();
+
+          db.commit();
+
+          return created.getIdentity();
+        } finally {
+          db.close();
+        }
+      }
+    });
+
+    recordsSaved.await();
+    onlineBuildClass.createIndex(className + ".id", OClass.INDEX_TYPE.UNIQUE, "id");
+
+    final OIndex<?> idIndex = databaseDocumentTx.getMetadata().getIndexManager().getIndex(className + ".id");
+    Assert.assertFalse(idIndex.isRebuiding());
+
+    buildCompleted.countDown();
+    final ORID createdRid = future.get();
+
+    Assert.assertEquals(idIndex.getSize(), databaseDocumentTx.countClass(className));
+    Assert.assertEquals(((OIdentifiable) idIndex.get(INITIAL_RECORDS)).getIdentity(), createdRid);
+    Assert.assertEquals(((OIdentifiable) idIndex.get(INITIAL_RECORDS + 1)).getIdentity(), updatedRid);
+  }
+
+  private void assertModificationsDuringOnlineBuild(String className, boolean useTx) throws Exception {
+    final OClass onlineBuildClass = databaseDocumentTx.getMetadata().getSchema().createClass(className);
+    onlineBuildClass.createProperty("id", OType.INTEGER);
+    onlineBuildClass.createProperty("value", OType.INTEGER);
+
+    final AtomicInteger idGenerator = new AtomicInteger();
+    final Random random = new Random();
+
+    for (int i = 0; i < INITIAL_RECORDS; i++) {
+      final ODocument document = new ODocument(className);
+      document.field("id", idGenerator.getAndIncrement());
+      document.field("value", random.nextInt(1000));
+      document.save();
+    }
+
+    final AtomicBoolean stop = new AtomicBoolean();
+    final List<Future<Integer>> futures = new ArrayList<Future<Integer>>();
+    for (int i = 0; i < WRITERS; i++)
+      futures.add(executorService.submit(new Writer(className, idGenerator, stop, useTx)));
+
+    onlineBuildClass.createIndex(className + ".id", OClass.INDEX_TYPE.UNIQUE, "id");
+    onlineBuildClass.createIndex(className + ".value", OClass.INDEX_TYPE.NOTUNIQUE, "value");
+
+    stop.set(true);
+
+    int operations = 0;
+    for (Future<Integer> future : futures)
+      operations += future.get();
+
+    Assert.assertTrue(operations > 0);
+
+    final OIndex<?> idIndex = databaseDocumentTx.getMetadata().getIndexManager().getIndex(className + ".id");
+    final OIndex<?> valueIndex = databaseDocumentTx.getMetadata().getIndexManager().getIndex(className + ".value");
+
+    Assert.assertFalse(idIndex.isRebuiding());
+    Assert.assertFalse(valueIndex.isRebuiding());
+
+    final long count = databaseDocumentTx.countClass(className);
+    Assert.assertEquals(idIndex.getSize(), count);
+    Assert.assertEquals(valueIndex.getSize(), count);
+
+    for (ODocument document : databaseDocumentTx.browseClass(className)) {
+      final OIdentifiable indexedRid = (OIdentifiable) idIndex.get(document.field("id"));
+      Assert.assertEquals(indexedRid.getIdentity(), document.getIdentity());
+
+      final Collection<OIdentifiable> indexedRids = (Collection<OIdentifiable>) valueIndex.get(document.field("value"));
+      Assert.assertTrue(indexedRids.contains(document.getIdentity()));
+    }
+  }
+
+  /**
+   * Creates records with new keys and tries to create one more record with the same key, which should be rejected.
+   * 
+   * @return Amount of rejected duplicates.
+   */
+  private final class DuplicatesWriter implements Callable<Integer> {
+    private static final int     DUPLICATES = 10;
+
+    private final String         className;
+    private final AtomicInteger  idGenerator;
+    private final boolean        useTx;
+    private final CountDownLatch buildStarted;
+    private final CountDownLatch duplicatesChecked;
+    private final AtomicBoolean  stop;
+
+    private DuplicatesWriter(String className, AtomicInteger idGenerator, boolean useTx, CountDownLatch buildStarted,
+        CountDownLatch duplicatesChecked, AtomicBoolean stop) {
+      this.className = className;
+      this.idGenerator = idGenerator;
+      this.useTx = useTx;
+      this.buildStarted = buildStarted;
+      this.duplicatesChecked = duplicatesChecked;
+      this.stop = stop;
+    }
+
+    @Override
+    public Integer call() throws Exception {
+      int rejected = 0;
+
+      buildStarted.await();
+
+      final ODatabaseDocumentTx db = new ODatabaseDocumentTx(databaseDocumentTx.getURL());
+      db.open("admin", "admin");
+      try {
+        while (!stop.get()) {
+          final int id = idGenerator.getAndIncrement();
+          save(db, id);
+
+          try {
+            save(db, id);
+            Assert.fail("Duplicated key " + id + " was accepted");
+          } catch (ORecordDuplicatedException e) {
+            rejected++;
+          } catch (OIndexException e) {
+            rejected++;
+          }
+
+          if (rejected == DUPLICATES)
+            duplicatesChecked.countDown();
+        }
+      } finally {
+        db.close();
+      }
+
+      return rejected;
+    }
+
+    private void save(ODatabaseDocumentTx db, int id) {
+      if (useTx)
+        db.begin();
+
+      try {
+        final ODocument document = new ODocument(className);
+        document.field("id", id);
+        document.save();
+
+        if (useTx)
+          db.commit();
+      } catch (RuntimeException e) {
+        if (useTx)
+          db.rollback();
+
+        throw e;
+      }
+    }
+  }
+
+  private final class Writer implements Callable<Integer> {
+    private final String        className;
+    private final AtomicInteger idGenerator;
+    private final AtomicBoolean stop;
+    private final boolean       useTx;
+    private final Random        random = new Random();
+
+    private Writer(String className, AtomicInteger idGenerator, AtomicBoolean stop, boolean useTx) {
+      this.className = className;
+      this.idGenerator = idGenerator;
+      this.stop = stop;
+      this.useTx = useTx;
+    }
+
+    @Override
+    public Integer call() throws Exception {
+      final List<ORID> rids = new ArrayList<ORID>();
+      int operations = 0;
+
+      final ODatabaseDocumentTx db = new ODatabaseDocumentTx(databaseDocumentTx.getURL());
+      db.open("admin", "admin");
+      try {
+        while (!stop.get()) {
+          if (useTx)
+            db.begin();
+
+          final ODocument document = new ODocument(className);
+          document.field("id", idGenerator.getAndIncrement());
+          document.field("value", random.nextInt(1000));
+          document.save();
+
+          if (!rids.isEmpty() && random.nextBoolean()) {
+            final ODocument updated = db.load(rids.get(random.nextInt(rids.size())));
+            updated.field("value", random.nextInt(1000));
+            updated.save();
+          }
+
+          if (!rids.isEmpty() && random.nextDouble() < 0.2)
+            db.delete(rids.remove(random.nextInt(rids.size())));
+
+          if (useTx)
+            db.commit();
+
+          rids.add(document.getIdentity());
+          operations++;
+        }
+      } finally {
+        db.close();
+      }
+
+      return operations;
+    }
+  }
+}
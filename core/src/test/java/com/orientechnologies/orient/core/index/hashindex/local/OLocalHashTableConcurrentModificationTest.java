@@ -0,0 +1,155 @@
+package com.orientechnologies.orient.core.index.hashindex.local;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import com.orientechnologies.common.serialization.types.OIntegerSerializer;
+import com.orientechnologies.orient.core.db.document.ODatabaseDocumentTx;
+import com.orientechnologies.orient.core.metadata.schema.OType;
+import com.orientechnologies.orient.core.serialization.serializer.binary.OBinarySerializerFactory;
+import com.orientechnologies.orient.core.storage.impl.local.OAbstractPaginatedStorage;
+
+/**
+ * Checks that entries which are added, updated and removed by several threads in parallel are not lost, both for durable and not
+ * durable hash tables. Values of different size are used, so some updates do not fit in their bucket and buckets are split and
+ * merged while other threads change them.
+ */
+@Test
+public class OLocalHashTableConcurrentModificationTest {
+  private static final int    THREADS         = 8;
+  private static final int    KEYS_PER_THREAD = 20000;
+
+  private ODatabaseDocumentTx databaseDocumentTx;
+  private ExecutorService     executorService = Executors.newCachedThreadPool();
+
+  @BeforeClass
+  public void beforeClass() {
+    String buildDirectory = System.getProperty("buildDirectory");
+    if (buildDirectory == null)
+      buildDirectory = ".";
+
+    databaseDocumentTx = new ODatabaseDocumentTx("plocal:" + buildDirectory + "/localHashTableConcurrentModificationTest");
+    if (databaseDocumentTx.exists()) {
+      databaseDocumentTx.open("admin", "admin");
+      databaseDocumentTx.drop();
+    }
+
+    databaseDocumentTx.create();
+  }
+
+  @AfterClass
+  public void afterClass() {
+    executorService.shutdown();
+    databaseDocumentTx.drop();
+  }
+
+  public void testConcurrentModificationDurable() throws Exception {
+    assertConcurrentModification("concurrentModificationDurable", true);
+  }
+
+  public void testConcurrentModificationNonDurable() throws Exception {
+    assertConcurrentModification("concurrentModificationNonDurable", false);
+  }
+
+  private void assertConcurrentModification(String name, boolean durableInNonTxMode) throws Exception {
+    final OMurmurHash3HashFunction<Integer> murmurHash3HashFunction = new OMurmurHash3HashFunction<Integer>();
+    murmurHash3HashFunction.setValueSerializer(OIntegerSerializer.INSTANCE);
+
+    final OLocalHashTable<Integer, String> localHashTable = new OLocalHashTable<Integer, String>(".imc", ".tsc", ".obf", ".nbh",
+        murmurHash3HashFunction, durableInNonTxMode, null);
+    localHashTable.create(name, OIntegerSerializer.INSTANCE, OBinarySerializerFactory.getInstance().<String> getObjectSerializer(
+        OType.STRING), null, (OAbstractPaginatedStorage) databaseDocumentTx.getStorage(), true);
+
+    try {
+      final CountDownLatch latch = new CountDownLatch(1);
+      final List<Future<Map<Integer, String>>> futures = new ArrayList<Future<Map<Integer, String>>>();
+
+      for (int i = 0; i < THREADS; i++)
+        futures.add(executorService.submit(new Modifier(i, localHashTable, latch)));
+
+      latch.countDown();
+
+      final Map<Integer, String> expected = new HashMap<Integer, String>();
+      for (Future<Map<Integer, String>> future : futures)
+        expected.putAll(future.get());
+
+      Assert.assertEquals(localHashTable.size(), expected.size());
+
+      for (int i = 0; i < THREADS * KEYS_PER_THREAD; i++)
+        Assert.assertEquals(localHashTable.get(i), expected.get(i), i + " key");
+    } finally {
+      localHashTable.clear();
+      localHashTable.delete();
+    }
+  }
+
+  private static final class Modifier implements Callable<Map<Integer, String>> {
+    private final int                              id;
+    private final OLocalHashTable<Integer, String> localHashTable;
+    private final CountDownLatch                   latch;
+    private final Random                           random = new Random();
+
+    private Modifier(int id, OLocalHashTable<Integer, String> localHashTable, CountDownLatch latch) {
+      this.id = id;
+      this.localHashTable = localHashTable;
+      this.latch = latch;
+    }
+
+    @Override
+    public Map<Integer, String> call() throws Exception {
+      latch.await();
+
+      final Map<Integer, String> entries = new HashMap<Integer, String>();
+      final List<Integer> keys = new ArrayList<Integer>();
+
+      for (int i = 0; i < KEYS_PER_THREAD; i++) {
+        final int key = id * KEYS_PER_THREAD + i;
+        final String value = generateValue(key);
+
+        localHashTable.put(key, value);
+        keys.add(key);
+        entries.put(key, value);
+
+        if (random.nextDouble() < 0.3) {
+          final Integer updatedKey = keys.get(random.nextInt(keys.size()));
+          final String updatedValue = generateValue(updatedKey);
+
+          localHashTable.put(updatedKey, updatedValue);
+          entries.put(updatedKey, updatedValue);
+        }
+
+        if (random.nextDouble() < 0.2) {
+          final Integer removedKey = keys.remove(random.nextInt(keys.size()));
+
+          Assert.assertEquals(localHashTable.remove(removedKey), entries.remove(removedKey));
+        }
+      }
+
+      return entries;
+    }
+
+    private String generateValue(int key) {
+      final StringBuilder builder = new StringBuilder();
+      builder.append(key).append('-');
+
+      final int size = random.nextInt(64);
+      for (int i = 0; i < size; i++)
+        builder.append((char) ('a' + random.nextInt(26)));
+
+      return builder.toString();
+    }
+  }
+}
@@ -0,0 +1,153 @@
+package com.orientechnologies.orient.core.index.hashindex.local.cache;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.orientechnologies.orient.core.config.OGlobalConfiguration;
+
+@Test
+public class OPageReadAheadTest {
+  private static final int     MAX_WINDOW = 16;
+
+  private int                  oldMaxWindow;
+  private List<Long>           prefetchedPages;
+  private OReadAheadPrefetcher prefetcher;
+
+  @BeforeMethod
+  public void beforeMethod() {
+    oldMaxWindow = OGlobalConfiguration.DISK_CACHE_READ_AHEAD_PAGES.getValueAsInteger();
+    OGlobalConfiguration.DISK_CACHE_READ_AHEAD_PAGES.setValue(MAX_WINDOW);
+
+    prefetchedPages = new ArrayList<Long>();
+    prefetcher = OReadAheadPrefetcher.create(null, new OReadAheadPrefetcher.PageLoader() {
+      @Override
+      public boolean prefetchPage(long fileId, long pageIndex) throws IOException {
+        synchronized (prefetchedPages) {
+          prefetchedPages.add(pageIndex);
+        }
+        return true;
+      }
+    });
+  }
+
+  @AfterMethod
+  public void afterMethod() {
+    prefetcher.shutdown();
+    OGlobalConfiguration.DISK_CACHE_READ_AHEAD_PAGES.setValue(oldMaxWindow);
+  }
+
+  public void testReadAheadStartsAfterSequenceOfPages() throws Exception {
+    final OPageReadAhead readAhead = OReadAheadPrefetcher.readAhead(prefetcher, 1);
+
+    readAhead.pageRead(0);
+    readAhead.pageRead(1);
+    assertPrefetchedPages();
+
+    readAhead.pageRead(2);
+    assertPrefetchedPages(3, 4, 5, 6);
+  }
+
+  public void testWindowIsDoubledTillMaximum() throws Exception {
+    final OPageReadAhead readAhead = OReadAheadPrefetcher.readAhead(prefetcher, 1);
+
+    // WINDOW IS DOUBLED ONCE READER REACHES SECOND HALF OF PREFETCHED PAGES: ON PAGES 5, 11 AND 23
+    for (int i = 0; i < 24; i++)
+      readAhead.pageRead(i);
+
+    assertPrefetchedPages(range(3, 46));
+    Assert.assertEquals(prefetcher.getRequestedPages(), 44);
+
+    // ALL PAGES FROM 3 TO 23 WERE READ AHEAD BEFORE THEY WERE ACCESSED
+    Assert.assertEquals(prefetcher.getHitPages(), 21);
+  }
+
+  public void testWindowIsResetWhenSequenceIsBroken() throws Exception {
+    final OPageReadAhead readAhead = OReadAheadPrefetcher.readAhead(prefetcher, 1);
+
+    for (int i = 0; i < 6; i++)
+      readAhead.pageRead(i);
+
+    readAhead.pageRead(100);
+    readAhead.pageRead(101);
+    readAhead.pageRead(102);
+
+    assertPrefetchedPages(range(3, 14), 103, 104, 105, 106);
+  }
+
+  public void testPagesAreReadAheadInBackwardDirection() throws Exception {
+    final OPageReadAhead readAhead = OReadAheadPrefetcher.readAhead(prefetcher, 1);
+
+    for (int i = 50; i > 44; i--)
+      readAhead.pageRead(i);
+
+    assertPrefetchedPages(47, 46, 45, 44, 43, 42, 41, 40, 39, 38, 37, 36);
+  }
+
+  public void testChangeOfDirectionResetsWindow() throws Exception {
+    final OPageReadAhead readAhead = OReadAheadPrefetcher.readAhead(prefetcher, 1);
+
+    readAhead.pageRead(10);
+    readAhead.pageRead(11);
+    readAhead.pageRead(12);
+
+    readAhead.pageRead(11);
+    assertPrefetchedPages(13, 14, 15, 16);
+
+    readAhead.pageRead(10);
+    assertPrefetchedPages(13, 14, 15, 16, 9, 8, 7, 6);
+  }
+
+  public void testReadAheadIsDisabledByConfiguration() throws Exception {
+    OGlobalConfiguration.DISK_CACHE_READ_AHEAD_PAGES.setValue(0);
+
+    final OReadAheadPrefetcher disabledPrefetcher = OReadAheadPrefetcher.create(null, null);
+    Assert.assertNull(disabledPrefetcher);
+
+    final OPageReadAhead readAhead = OReadAheadPrefetcher.readAhead(disabledPrefetcher, 1);
+    Assert.assertSame(readAhead, OPageReadAhead.DISABLED);
+
+    for (int i = 0; i < 10; i++)
+      readAhead.pageRead(i);
+
+    assertPrefetchedPages();
+  }
+
+  private void assertPrefetchedPages(final Object... pages) throws InterruptedException {
+    final List<Long> expected = new ArrayList<Long>();
+    for (Object page : pages) {
+      if (page instanceof long[]) {
+        for (long pageIndex : (long[]) page)
+          expected.add(pageIndex);
+      } else
+        expected.add(((Number) page).longValue());
+    }
+
+    // PAGES ARE LOADED BY BACKGROUND THREAD IN ORDER OF REQUESTS
+    final long deadline = System.currentTimeMillis() + 10000;
+    while (getPrefetchedPages().size() < expected.size() && System.currentTimeMillis() < deadline)
+      Thread.sleep(10);
+
+    Thread.sleep(50);
+    Assert.assertEquals(getPrefetchedPages(), expected);
+  }
+
+  private List<Long> getPrefetchedPages() {
+    synchronized (prefetchedPages) {
+      return new ArrayList<Long>(prefetchedPages);
+    }
+  }
+
+  private static long[] range(final long from, final long to) {
+    final long[] pages = new long[(int) (to - from + 1)];
+    for (int i = 0; i < pages.length; i++)
+      pages[i] = from + i;
+
+    return pages;
+  }
+}
@@ -0,0 +1,166 @@
+package com.orientechnologies.orient.core.index.hashindex.local.cache;
+
+import java.io.IOException;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.orientechnologies.common.serialization.types.OIntegerSerializer;
+import com.orientechnologies.common.serialization.types.OLongSerializer;
+import com.orientechnologies.orient.core.Orient;
+import com.orientechnologies.orient.core.config.OGlobalConfiguration;
+import com.orientechnologies.orient.core.storage.impl.local.paginated.OLocalPaginatedStorage;
+
+/**
+ * Checks how pages which are read ahead are placed in queues of 2Q cache.
+ */
+@Test
+public class ReadWriteDiskCacheReadAheadTest {
+  private static final int       CACHE_PAGES  = 128;
+  private static final int       FILE_PAGES   = 32;
+
+  private final int              systemOffset = OIntegerSerializer.INT_SIZE + 3 * OLongSerializer.LONG_SIZE;
+  private final int              pageSize     = 8 + systemOffset;
+
+  private OReadWriteDiskCache    buffer;
+  private OLocalPaginatedStorage storageLocal;
+  private String                 fileName;
+  private int                    oldReadAheadPages;
+
+  @BeforeClass
+  public void beforeClass() throws IOException {
+    OGlobalConfiguration.FILE_LOCK.setValue(Boolean.FALSE);
+    oldReadAheadPages = OGlobalConfiguration.DISK_CACHE_READ_AHEAD_PAGES.getValueAsInteger();
+    OGlobalConfiguration.DISK_CACHE_READ_AHEAD_PAGES.setValue(64);
+
+    String buildDirectory = System.getProperty("buildDirectory");
+    if (buildDirectory == null)
+      buildDirectory = ".";
+
+    storageLocal = (OLocalPaginatedStorage) Orient.instance().loadStorage(
+        "plocal:" + buildDirectory + "/ReadWriteDiskCacheReadAheadTest");
+    storageLocal.create(null);
+    storageLocal.close(true, false);
+
+    fileName = "readWriteDiskCacheReadAheadTest.tst";
+  }
+
+  @AfterClass
+  public void afterClass() throws IOException {
+    storageLocal.delete();
+    OGlobalConfiguration.DISK_CACHE_READ_AHEAD_PAGES.setValue(oldReadAheadPages);
+  }
+
+  @BeforeMethod
+  public void beforeMethod() throws IOException {
+    buffer = new OReadWriteDiskCache(CACHE_PAGES * (pageSize + 2 * OWOWCache.PAGE_PADDING),
+        15000 * (pageSize + 2 * OWOWCache.PAGE_PADDING), pageSize, 10000, -1, storageLocal, null, true, false);
+  }
+
+  @AfterMethod
+  public void afterMethod() throws IOException {
+    buffer.delete();
+    buffer = null;
+  }
+
+  public void testReadAheadPagesArePutInA1In() throws Exception {
+    final long fileId = createFile();
+
+    final OPageReadAhead readAhead = buffer.readAhead(fileId);
+    for (int i = 0; i < 8; i++)
+      readPage(readAhead, fileId, i);
+
+    // PAGES 3..14 ARE REQUESTED, WINDOW IS DOUBLED WHEN PAGE 5 IS READ
+    waitForPage(fileId, 14);
+
+    final LRUList a1in = buffer.getA1in();
+    Assert.assertEquals(buffer.getAm().size(), 0);
+    Assert.assertEquals(buffer.getA1out().size(), 0);
+    Assert.assertEquals(a1in.size(), 15);
+
+    for (int i = 0; i < 15; i++) {
+      final OCacheEntry cacheEntry = a1in.get(fileId, i);
+      Assert.assertNotNull(cacheEntry);
+      Assert.assertEquals(cacheEntry.usagesCount, 0);
+      Assert.assertEquals(getPageValue(cacheEntry), i);
+    }
+  }
+
+  public void testPagesInA1OutAndPinnedPagesAreNotReadAhead() throws Exception {
+    final long fileId = createFile();
+
+    // PAGE 10 WAS RECENTLY REMOVED FROM A1IN, SO ITS NEXT ACCESS SHOULD MOVE IT TO AM
+    buffer.getA1out().putToMRU(new OCacheEntry(fileId, 10, null, false));
+
+    final OCacheEntry pinnedEntry = buffer.load(fileId, 12, false);
+    buffer.pinPage(pinnedEntry);
+    buffer.release(pinnedEntry);
+
+    final OPageReadAhead readAhead = buffer.readAhead(fileId);
+    for (int i = 0; i < 8; i++)
+      readPage(readAhead, fileId, i);
+
+    waitForPage(fileId, 14);
+
+    final LRUList a1in = buffer.getA1in();
+    final LRUList a1out = buffer.getA1out();
+
+    Assert.assertNull(a1in.get(fileId, 10));
+    Assert.assertNotNull(a1out.get(fileId, 10));
+    Assert.assertNull(a1out.get(fileId, 10).dataPointer);
+
+    Assert.assertNull(a1in.get(fileId, 12));
+
+    Assert.assertEquals(a1in.size(), 13);
+    Assert.assertEquals(buffer.getAm().size(), 0);
+
+    // PAGE FROM A1OUT IS LOADED BY READER AND MOVED TO AM AS USUAL
+    final OCacheEntry cacheEntry = buffer.load(fileId, 10, false);
+    Assert.assertEquals(getPageValue(cacheEntry), 10);
+    buffer.release(cacheEntry);
+
+    Assert.assertNotNull(buffer.getAm().get(fileId, 10));
+  }
+
+  private long createFile() throws IOException {
+    final long fileId = buffer.openFile(fileName);
+    for (int i = 0; i < FILE_PAGES; i++) {
+      final OCacheEntry cacheEntry = buffer.load(fileId, i, false);
+      cacheEntry.getCachePointer().acquireExclusiveLock();
+      cacheEntry.markDirty();
+      cacheEntry.getCachePointer().getDataPointer().setByte(systemOffset + OWOWCache.PAGE_PADDING, (byte) i);
+      cacheEntry.getCachePointer().releaseExclusiveLock();
+      buffer.release(cacheEntry);
+    }
+
+    // PAGES ARE FLUSHED AND REMOVED FROM CACHE, SO THEY ARE READ FROM DISK AGAIN
+    buffer.clear();
+    Assert.assertEquals(buffer.getA1in().size(), 0);
+
+    return fileId;
+  }
+
+  private void readPage(final OPageReadAhead readAhead, final long fileId, final long pageIndex) throws IOException {
+    readAhead.pageRead(pageIndex);
+
+    final OCacheEntry cacheEntry = buffer.load(fileId, pageIndex, false);
+    Assert.assertEquals(getPageValue(cacheEntry), pageIndex);
+    buffer.release(cacheEntry);
+  }
+
+  private void waitForPage(final long fileId, final long pageIndex) throws InterruptedException {
+    final long deadline = System.currentTimeMillis() + 10000;
+    while (buffer.getA1in().get(fileId, pageIndex) == null && System.currentTimeMillis() < deadline)
+      Thread.sleep(10);
+
+    Assert.assertNotNull(buffer.getA1in().get(fileId, pageIndex));
+  }
+
+  private int getPageValue(final OCacheEntry cacheEntry) {
+    return cacheEntry.getCachePointer().getDataPointer().getByte(systemOffset + OWOWCache.PAGE_PADDING);
+  }
+}
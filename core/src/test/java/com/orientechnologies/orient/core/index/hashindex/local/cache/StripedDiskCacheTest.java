@@ -0,0 +1,330 @@
+package com.orientechnologies.orient.core.index.hashindex.local.cache;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.orientechnologies.common.serialization.types.OIntegerSerializer;
+import com.orientechnologies.common.serialization.types.OLongSerializer;
+import com.orientechnologies.orient.core.Orient;
+import com.orientechnologies.orient.core.config.OGlobalConfiguration;
+import com.orientechnologies.orient.core.exception.OAllCacheEntriesAreUsedException;
+import com.orientechnologies.orient.core.storage.impl.local.paginated.OLocalPaginatedStorage;
+
+@Test
+public class StripedDiskCacheTest {
+  private static final int       CACHE_SIZE   = 64;
+
+  private int                    systemOffset = OIntegerSerializer.INT_SIZE + 3 * OLongSerializer.LONG_SIZE;
+  private int                    pageSize     = systemOffset + 8;
+
+  private OStripedDiskCache      buffer;
+  private OLocalPaginatedStorage storageLocal;
+  private String                 fileName;
+
+  @BeforeClass
+  public void beforeClass() throws IOException {
+    OGlobalConfiguration.FILE_LOCK.setValue(Boolean.FALSE);
+
+    String buildDirectory = System.getProperty("buildDirectory");
+    if (buildDirectory == null)
+      buildDirectory = ".";
+
+    storageLocal = (OLocalPaginatedStorage) Orient.instance().loadStorage("plocal:" + buildDirectory + "/StripedDiskCacheTest");
+    storageLocal.create(null);
+    storageLocal.close(true, false);
+
+    fileName = "stripedDiskCacheTest.tst";
+  }
+
+  @BeforeMethod
+  public void beforeMethod() throws IOException {
+    closeBufferAndDeleteFile();
+
+    initBuffer();
+  }
+
+  @AfterClass
+  public void afterClass() throws IOException {
+    if (buffer != null) {
+      buffer.delete();
+      buffer = null;
+    }
+
+    storageLocal.delete();
+
+    File file = new File(storageLocal.getConfiguration().getDirectory() + File.separator + fileName);
+    if (file.exists()) {
+      Assert.assertTrue(file.delete());
+      file.getParentFile().delete();
+    }
+  }
+
+  public void testLoadStoreAfterReopen() throws IOException {
+    long fileId = buffer.openFile(fileName);
+
+    for (int i = 0; i < 4 * CACHE_SIZE; i++) {
+      final OCacheEntry cacheEntry = buffer.load(fileId, i, false);
+      setPageValue(cacheEntry, i);
+      buffer.release(cacheEntry);
+
+      Assert.assertTrue(buffer.getSize() <= buffer.getMaxSize());
+    }
+
+    for (int i = 0; i < 4 * CACHE_SIZE; i++) {
+      final OCacheEntry cacheEntry = buffer.load(fileId, i, false);
+      Assert.assertEquals(getPageValue(cacheEntry), i);
+      buffer.release(cacheEntry);
+    }
+
+    buffer.close();
+    initBuffer();
+
+    fileId = buffer.openFile(fileName);
+    for (int i = 0; i < 4 * CACHE_SIZE; i++) {
+      final OCacheEntry cacheEntry = buffer.load(fileId, i, false);
+      Assert.assertEquals(getPageValue(cacheEntry), i);
+      buffer.release(cacheEntry);
+    }
+  }
+
+  public void testFrequentlyUsedPageStaysInCache() throws IOException {
+    final long fileId = buffer.openFile(fileName);
+
+    final OCacheEntry hotEntry = buffer.load(fileId, 0, false);
+    buffer.release(hotEntry);
+
+    for (int i = 1; i < 4 * CACHE_SIZE; i++) {
+      final OCacheEntry cacheEntry = buffer.load(fileId, i, false);
+      buffer.release(cacheEntry);
+
+      Assert.assertSame(buffer.load(fileId, 0, false), hotEntry);
+      buffer.release(hotEntry);
+    }
+
+    Assert.assertNotNull(hotEntry.getCachePointer());
+  }
+
+  public void testUsedPagesAreNotEvicted() throws IOException {
+    final long fileId = buffer.openFile(fileName);
+
+    final List<OCacheEntry> usedEntries = new ArrayList<OCacheEntry>();
+    for (int i = 0; i < 2 * CACHE_SIZE; i++)
+      usedEntries.add(buffer.load(fileId, i, false));
+
+    for (OCacheEntry cacheEntry : usedEntries)
+      Assert.assertNotNull(cacheEntry.getCachePointer());
+
+    Assert.assertTrue(buffer.getMaxSize() >= 2 * CACHE_SIZE);
+
+    for (OCacheEntry cacheEntry : usedEntries)
+      buffer.release(cacheEntry);
+  }
+
+  public void testIfAllPagesAreUsedExceptionShouldBeThrown() throws IOException {
+    final boolean increaseOnDemand = OGlobalConfiguration.SERVER_CACHE_INCREASE_ON_DEMAND.getValueAsBoolean();
+    OGlobalConfiguration.SERVER_CACHE_INCREASE_ON_DEMAND.setValue(false);
+
+    final long fileId = buffer.openFile(fileName);
+    final List<OCacheEntry> usedEntries = new ArrayList<OCacheEntry>();
+    try {
+      for (int i = 0; i < 2 * CACHE_SIZE; i++)
+        usedEntries.add(buffer.load(fileId, i, false));
+
+      Assert.fail();
+    } catch (OAllCacheEntriesAreUsedException e) {
+    } finally {
+      OGlobalConfiguration.SERVER_CACHE_INCREASE_ON_DEMAND.setValue(increaseOnDemand);
+
+      for (OCacheEntry cacheEntry : usedEntries)
+        buffer.release(cacheEntry);
+    }
+  }
+
+  public void testCloseFileShouldRemoveFilePagesFromBuffer() throws IOException {
+    final long fileId = buffer.openFile(fileName);
+
+    final List<OCacheEntry> entries = new ArrayList<OCacheEntry>();
+    for (int i = 0; i < 4; i++) {
+      final OCacheEntry cacheEntry = buffer.load(fileId, i, false);
+      setPageValue(cacheEntry, i);
+      buffer.release(cacheEntry);
+
+      entries.add(cacheEntry);
+    }
+
+    buffer.closeFile(fileId);
+
+    Assert.assertEquals(buffer.getSize(), 0);
+    for (OCacheEntry cacheEntry : entries)
+      Assert.assertNull(cacheEntry.getCachePointer());
+
+    buffer.openFile(fileId);
+    for (int i = 0; i < 4; i++) {
+      final OCacheEntry cacheEntry = buffer.load(fileId, i, false);
+      Assert.assertEquals(getPageValue(cacheEntry), i);
+      buffer.release(cacheEntry);
+    }
+  }
+
+  public void testSequentiallyReadPagesAreReadAhead() throws Exception {
+    long fileId = buffer.openFile(fileName);
+    for (int i = 0; i < 32; i++) {
+      final OCacheEntry cacheEntry = buffer.load(fileId, i, false);
+      setPageValue(cacheEntry, i);
+      buffer.release(cacheEntry);
+    }
+
+    buffer.close();
+    initBuffer();
+
+    fileId = buffer.openFile(fileName);
+    Assert.assertEquals(buffer.getSize(), 0);
+
+    final OPageReadAhead readAhead = buffer.readAhead(fileId);
+    for (int i = 0; i < 8; i++) {
+      readAhead.pageRead(i);
+
+      final OCacheEntry cacheEntry = buffer.load(fileId, i, false);
+      Assert.assertEquals(getPageValue(cacheEntry), i);
+      buffer.release(cacheEntry);
+    }
+
+    // PAGES 3..14 ARE REQUESTED, WINDOW IS DOUBLED WHEN PAGE 5 IS READ
+    final long deadline = System.currentTimeMillis() + 10000;
+    while (buffer.getSize() < 15 && System.currentTimeMillis() < deadline)
+      Thread.sleep(10);
+
+    Assert.assertEquals(buffer.getSize(), 15);
+
+    for (int i = 8; i < 15; i++) {
+      final OCacheEntry cacheEntry = buffer.load(fileId, i, false);
+      Assert.assertEquals(getPageValue(cacheEntry), i);
+      buffer.release(cacheEntry);
+    }
+
+    Assert.assertEquals(buffer.getSize(), 15);
+  }
+
+  public void testConcurrentUpdates() throws Exception {
+    final long fileId = buffer.openFile(fileName);
+    final int pages = 4 * CACHE_SIZE;
+    final int updates = 2000;
+
+    for (int i = 0; i < pages; i++) {
+      final OCacheEntry cacheEntry = buffer.load(fileId, i, false);
+      setPageValue(cacheEntry, 0);
+      buffer.release(cacheEntry);
+    }
+
+    final ExecutorService executor = Executors.newFixedThreadPool(8);
+    final CountDownLatch latch = new CountDownLatch(1);
+    final List<Future<long[]>> futures = new ArrayList<Future<long[]>>();
+
+    for (int n = 0; n < 8; n++) {
+      futures.add(executor.submit(new Callable<long[]>() {
+        @Override
+        public long[] call() throws Exception {
+          final Random random = new Random();
+          final long[] increments = new long[pages];
+
+          latch.await();
+          for (int i = 0; i < updates; i++) {
+            final int pageIndex = random.nextInt(pages);
+            final OCacheEntry cacheEntry = buffer.load(fileId, pageIndex, false);
+            final OCachePointer pointer = cacheEntry.getCachePointer();
+
+            pointer.acquireExclusiveLock();
+            try {
+              final long value = pointer.getDataPointer().getLong(systemOffset + OWOWCache.PAGE_PADDING);
+              pointer.getDataPointer().setLong(systemOffset + OWOWCache.PAGE_PADDING, value + 1);
+              cacheEntry.markDirty();
+            } finally {
+              pointer.releaseExclusiveLock();
+            }
+
+            buffer.release(cacheEntry);
+            increments[pageIndex]++;
+          }
+
+          return increments;
+        }
+      }));
+    }
+
+    latch.countDown();
+
+    final long[] expected = new long[pages];
+    for (Future<long[]> future : futures) {
+      final long[] increments = future.get();
+      for (int i = 0; i < pages; i++)
+        expected[i] += increments[i];
+    }
+
+    executor.shutdown();
+
+    Assert.assertTrue(buffer.getSize() <= buffer.getMaxSize());
+
+    for (int i = 0; i < pages; i++) {
+      final OCacheEntry cacheEntry = buffer.load(fileId, i, false);
+      Assert.assertEquals(getPageValue(cacheEntry), expected[i]);
+      buffer.release(cacheEntry);
+    }
+  }
+
+  private void setPageValue(OCacheEntry cacheEntry, long value) {
+    final OCachePointer pointer = cacheEntry.getCachePointer();
+    pointer.acquireExclusiveLock();
+    try {
+      pointer.getDataPointer().setLong(systemOffset + OWOWCache.PAGE_PADDING, value);
+      cacheEntry.markDirty();
+    } finally {
+      pointer.releaseExclusiveLock();
+    }
+  }
+
+  private long getPageValue(OCacheEntry cacheEntry) {
+    final OCachePointer pointer = cacheEntry.getCachePointer();
+    pointer.acquireSharedLock();
+    try {
+      return pointer.getDataPointer().getLong(systemOffset + OWOWCache.PAGE_PADDING);
+    } finally {
+      pointer.releaseSharedLock();
+    }
+  }
+
+  private void initBuffer() throws IOException {
+    buffer = new OStripedDiskCache(null, CACHE_SIZE * (pageSize + 2 * OWOWCache.PAGE_PADDING),
+        15000 * (pageSize + 2 * OWOWCache.PAGE_PADDING), pageSize, 10000, -1, storageLocal, null, true, false);
+  }
+
+  private void closeBufferAndDeleteFile() throws IOException {
+    if (buffer != null) {
+      buffer.close();
+      buffer = null;
+    }
+
+    File testFile = new File(storageLocal.getConfiguration().getDirectory() + File.separator + fileName);
+    if (testFile.exists()) {
+      Assert.assertTrue(testFile.delete());
+    }
+
+    File idMapFile = new File(storageLocal.getConfiguration().getDirectory() + File.separator + "name_id_map.cm");
+    if (idMapFile.exists()) {
+      Assert.assertTrue(idMapFile.delete());
+    }
+  }
+}
@@ -247,6 +247,47 @@ public class WOWCacheTest {
     }
   }
 
+  public void testLoadFlushedContentAfterReopen() throws Exception {
+    Random random = new Random();
+
+    byte[][] pageData = new byte[200][];
+    long fileId = wowCache.openFile(fileName);
+
+    for (int i = 0; i < pageData.length; i++) {
+      byte[] data = new byte[8];
+      random.nextBytes(data);
+
+      pageData[i] = data;
+
+      final OCachePointer cachePointer = wowCache.load(fileId, i);
+      cachePointer.acquireExclusiveLock();
+      cachePointer.getDataPointer().set(systemOffset + OWOWCache.PAGE_PADDING, data, 0, data.length);
+      cachePointer.releaseExclusiveLock();
+
+      wowCache.store(fileId, i, cachePointer);
+      cachePointer.decrementReferrer();
+    }
+
+    wowCache.flush();
+    wowCache.close();
+
+    initBuffer();
+    fileId = wowCache.openFile(fileName);
+
+    for (int i = 0; i < pageData.length; i++) {
+      OCachePointer cachePointer = wowCache.load(fileId, i);
+
+      byte[] content = cachePointer.getDataPointer().get(0, pageSize + 2 * OWOWCache.PAGE_PADDING);
+      cachePointer.decrementReferrer();
+
+      Assert.assertEquals(OLongSerializer.INSTANCE.deserializeNative(content, 0), 0L);
+      Assert.assertEquals(OLongSerializer.INSTANCE.deserializeNative(content, OWOWCache.PAGE_PADDING), OWOWCache.MAGIC_NUMBER);
+      Assert.assertEquals(Arrays.copyOfRange(content, systemOffset + OWOWCache.PAGE_PADDING, pageSize + OWOWCache.PAGE_PADDING),
+          pageData[i]);
+      Assert.assertEquals(OLongSerializer.INSTANCE.deserializeNative(content, pageSize + OWOWCache.PAGE_PADDING), 0L);
+    }
+  }
+
   private void assertFile(long pageIndex, byte[] value, OLogSequenceNumber lsn) throws IOException {
     String path = storageLocal.getConfiguration().getDirectory() + File.separator + fileName;
 
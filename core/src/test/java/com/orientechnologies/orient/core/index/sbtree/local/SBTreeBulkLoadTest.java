@@ -0,0 +1,276 @@
+package com.orientechnologies.orient.core.index.sbtree.local;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import com.orientechnologies.common.serialization.types.OIntegerSerializer;
+import com.orientechnologies.orient.core.db.document.ODatabaseDocumentTx;
+import com.orientechnologies.orient.core.db.record.OIdentifiable;
+import com.orientechnologies.orient.core.id.ORID;
+import com.orientechnologies.orient.core.id.ORecordId;
+import com.orientechnologies.orient.core.index.OIndex;
+import com.orientechnologies.orient.core.index.OIndexEntriesSorter;
+import com.orientechnologies.orient.core.metadata.schema.OClass;
+import com.orientechnologies.orient.core.metadata.schema.OType;
+import com.orientechnologies.orient.core.record.impl.ODocument;
+import com.orientechnologies.orient.core.serialization.serializer.binary.impl.OLinkSerializer;
+import com.orientechnologies.orient.core.storage.impl.local.OAbstractPaginatedStorage;
+
+/**
+ * Checks that tree which is built from sorted entries at once is the same as tree built by insertion of entries one by one.
+ */
+@Test
+public class SBTreeBulkLoadTest {
+  private static final int                KEYS_COUNT = 200000;
+
+  private OSBTree<Integer, OIdentifiable> sbTree;
+  private ODatabaseDocumentTx             databaseDocumentTx;
+
+  @BeforeClass
+  public void beforeClass() {
+    final String buildDirectory = System.getProperty("buildDirectory", ".");
+
+    databaseDocumentTx = new ODatabaseDocumentTx("plocal:" + buildDirectory + "/localSBTreeBulkLoadTest");
+    if (databaseDocumentTx.exists()) {
+      databaseDocumentTx.open("admin", "admin");
+      databaseDocumentTx.drop();
+    }
+
+    databaseDocumentTx.create();
+
+    sbTree = new OSBTree<Integer, OIdentifiable>(".sbt", false, ".nbt", null);
+    sbTree.create("bulkLoadSBTree", OIntegerSerializer.INSTANCE, OLinkSerializer.INSTANCE, null,
+        (OAbstractPaginatedStorage) databaseDocumentTx.getStorage().getUnderlying(), 1, false);
+  }
+
+  @AfterMethod
+  public void afterMethod() throws Exception {
+    sbTree.clear();
+  }
+
+  @AfterClass
+  public void afterClass() throws Exception {
+    sbTree.clear();
+    sbTree.delete();
+    databaseDocumentTx.drop();
+  }
+
+  public void testBulkLoadSingleLeaf() {
+    assertBulkLoad(10, 0.9f);
+  }
+
+  public void testBulkLoadSeveralLevels() {
+    assertBulkLoad(KEYS_COUNT, 0.9f);
+  }
+
+  public void testBulkLoadLowFillFactor() {
+    assertBulkLoad(KEYS_COUNT, 0.1f);
+  }
+
+  public void testBulkLoadEmpty() {
+    Assert.assertEquals(sbTree.bulkLoad(new ArrayList<Map.Entry<Integer, OIdentifiable>>().iterator(), 0.9f), 0);
+    Assert.assertEquals(sbTree.size(), 0);
+    Assert.assertNull(sbTree.firstKey());
+
+    sbTree.put(1, new ORecordId(1, 1));
+    Assert.assertEquals(sbTree.get(1), new ORecordId(1, 1));
+  }
+
+  public void testModificationsAfterBulkLoad() {
+    final TreeMap<Integer, OIdentifiable> expected = new TreeMap<Integer, OIdentifiable>();
+    for (int i = 0; i < KEYS_COUNT; i += 2)
+      expected.put(i, new ORecordId(i % 32000, i));
+
+    sbTree.bulkLoad(expected.entrySet().iterator(), 1.0f);
+
+    final Random random = new Random();
+    for (int i = 0; i < KEYS_COUNT / 2; i++) {
+      final int key = random.nextInt(KEYS_COUNT);
+      if (random.nextBoolean()) {
+        sbTree.put(key, new ORecordId(key % 32000, key));
+        expected.put(key, new ORecordId(key % 32000, key));
+      } else {
+        Assert.assertEquals(sbTree.remove(key), expected.remove(key));
+      }
+    }
+
+    assertTree(expected);
+  }
+
+  @Test(expectedExceptions = OSBTreeException.class)
+  public void testBulkLoadUnsortedEntries() {
+    final List<Map.Entry<Integer, OIdentifiable>> entries = new ArrayList<Map.Entry<Integer, OIdentifiable>>();
+    entries.add(new AbstractMap.SimpleImmutableEntry<Integer, OIdentifiable>(2, new ORecordId(1, 2)));
+    entries.add(new AbstractMap.SimpleImmutableEntry<Integer, OIdentifiable>(1, new ORecordId(1, 1)));
+
+    sbTree.bulkLoad(entries.iterator(), 0.9f);
+  }
+
+  @Test(expectedExceptions = OSBTreeException.class)
+  public void testBulkLoadIntoNotEmptyTree() {
+    sbTree.put(1, new ORecordId(1, 1));
+
+    final TreeMap<Integer, OIdentifiable> entries = new TreeMap<Integer, OIdentifiable>();
+    entries.put(2, new ORecordId(1, 2));
+
+    sbTree.bulkLoad(entries.entrySet().iterator(), 0.9f);
+  }
+
+  public void testFailedBulkLoadLeavesEmptyTree() {
+    for (int keysCount : new int[] { 10, KEYS_COUNT }) {
+      final List<Map.Entry<Integer, OIdentifiable>> entries = new ArrayList<Map.Entry<Integer, OIdentifiable>>();
+      for (int i = 0; i < keysCount; i++) {
+        // KEY IN THE MIDDLE IS DUPLICATED, SO LOAD FAILS WHEN PART OF ENTRIES IS ALREADY WRITTEN
+        final int key = i == keysCount / 2 ? i - 1 : i;
+        entries.add(new AbstractMap.SimpleImmutableEntry<Integer, OIdentifiable>(key, new ORecordId(1, i)));
+      }
+
+      try {
+        sbTree.bulkLoad(entries.iterator(), 0.9f);
+        Assert.fail();
+      } catch (OSBTreeException e) {
+        // EXPECTED
+      }
+
+      Assert.assertEquals(sbTree.size(), 0);
+      Assert.assertNull(sbTree.firstKey());
+      Assert.assertNull(sbTree.get(0));
+
+      final TreeMap<Integer, OIdentifiable> expected = new TreeMap<Integer, OIdentifiable>();
+      for (int i = 0; i < 1000; i++) {
+        sbTree.put(i, new ORecordId(2, i));
+        expected.put(i, new ORecordId(2, i));
+      }
+
+      assertTree(expected);
+
+      sbTree.clear();
+    }
+  }
+
+  public void testSorterMergesSortedRuns() {
+    final OIndexEntriesSorter sorter = new OIndexEntriesSorter("sorterTest", 1000);
+    try {
+      final Random random = new Random();
+      final TreeMap<Integer, List<ORID>> expected = new TreeMap<Integer, List<ORID>>();
+
+      for (int i = 0; i < 10000; i++) {
+        final int key = random.nextInt(3000);
+        final ORID rid = new ORecordId(key % 32000, i);
+
+        sorter.add(key, rid);
+
+        List<ORID> values = expected.get(key);
+        if (values == null) {
+          values = new ArrayList<ORID>();
+          expected.put(key, values);
+        }
+        values.add(rid);
+      }
+
+      final Iterator<Map.Entry<Integer, List<ORID>>> expectedIterator = expected.entrySet().iterator();
+      final Iterator<Map.Entry<Object, List<ORID>>> sortedIterator = sorter.iterator();
+
+      while (expectedIterator.hasNext()) {
+        Assert.assertTrue(sortedIterator.hasNext());
+
+        final Map.Entry<Integer, List<ORID>> expectedEntry = expectedIterator.next();
+        final Map.Entry<Object, List<ORID>> sortedEntry = sortedIterator.next();
+
+        Assert.assertEquals(sortedEntry.getKey(), expectedEntry.getKey());
+        Assert.assertEquals(sortedEntry.getValue(), expectedEntry.getValue());
+      }
+
+      Assert.assertFalse(sortedIterator.hasNext());
+    } finally {
+      sorter.close();
+    }
+  }
+
+  public void testIndexRebuild() {
+    final OClass bulkLoadClass = databaseDocumentTx.getMetadata().getSchema().createClass("BulkLoadClass");
+    bulkLoadClass.createProperty("id", OType.INTEGER);
+    bulkLoadClass.createProperty("value", OType.INTEGER);
+
+    final Random random = new Random();
+    for (int i = 0; i < 10000; i++) {
+      final ODocument document = new ODocument("BulkLoadClass");
+      document.field("id", i);
+      document.field("value", random.nextBoolean() ? null : random.nextInt(100));
+      document.save();
+    }
+
+    bulkLoadClass.createIndex("BulkLoadClass.id", OClass.INDEX_TYPE.UNIQUE, "id");
+    bulkLoadClass.createIndex("BulkLoadClass.value", OClass.INDEX_TYPE.NOTUNIQUE, "value");
+
+    final OIndex<?> idIndex = databaseDocumentTx.getMetadata().getIndexManager().getIndex("BulkLoadClass.id");
+    final OIndex<?> valueIndex = databaseDocumentTx.getMetadata().getIndexManager().getIndex("BulkLoadClass.value");
+
+    Assert.assertEquals(idIndex.getSize(), 10000);
+
+    for (ODocument document : databaseDocumentTx.browseClass("BulkLoadClass")) {
+      final OIdentifiable indexedRid = (OIdentifiable) idIndex.get(document.field("id"));
+      Assert.assertEquals(indexedRid.getIdentity(), document.getIdentity());
+
+      if (document.field("value") != null) {
+        final Collection<OIdentifiable> indexedRids = (Collection<OIdentifiable>) valueIndex.get(document.field("value"));
+        Assert.assertTrue(indexedRids.contains(document.getIdentity()));
+      }
+    }
+
+    final ODocument document = new ODocument("BulkLoadClass");
+    document.field("id", 10000);
+    document.field("value", 1);
+    document.save();
+
+    Assert.assertEquals(((OIdentifiable) idIndex.get(10000)).getIdentity(), document.getIdentity());
+  }
+
+  private void assertBulkLoad(int keysCount, float fillFactor) {
+    final TreeMap<Integer, OIdentifiable> expected = new TreeMap<Integer, OIdentifiable>();
+    for (int i = 0; i < keysCount; i++)
+      expected.put(i * 3, new ORecordId(i % 32000, i));
+
+    Assert.assertEquals(sbTree.bulkLoad(expected.entrySet().iterator(), fillFactor), keysCount);
+
+    assertTree(expected);
+  }
+
+  private void assertTree(TreeMap<Integer, OIdentifiable> expected) {
+    Assert.assertEquals(sbTree.size(), expected.size());
+    Assert.assertEquals(sbTree.firstKey(), expected.firstKey());
+    Assert.assertEquals(sbTree.lastKey(), expected.lastKey());
+
+    for (Map.Entry<Integer, OIdentifiable> entry : expected.entrySet()) {
+      Assert.assertEquals(sbTree.get(entry.getKey()), entry.getValue());
+      if (!expected.containsKey(entry.getKey() + 1))
+        Assert.assertNull(sbTree.get(entry.getKey() + 1));
+    }
+
+    final OSBTree.OSBTreeCursor<Integer, OIdentifiable> cursor = sbTree.iterateEntriesMajor(expected.firstKey(), true, true);
+    for (Map.Entry<Integer, OIdentifiable> entry : expected.entrySet()) {
+      final Map.Entry<Integer, OIdentifiable> treeEntry = cursor.next(-1);
+      Assert.assertNotNull(treeEntry);
+      Assert.assertEquals(treeEntry.getKey(), entry.getKey());
+      Assert.assertEquals(treeEntry.getValue(), entry.getValue());
+    }
+    Assert.assertNull(cursor.next(-1));
+
+    final OSBTree.OSBTreeCursor<Integer, OIdentifiable> descCursor = sbTree.iterateEntriesMinor(expected.lastKey(), true, false);
+    for (Integer key : expected.descendingKeySet())
+      Assert.assertEquals(descCursor.next(-1).getKey(), key);
+    Assert.assertNull(descCursor.next(-1));
+  }
+}
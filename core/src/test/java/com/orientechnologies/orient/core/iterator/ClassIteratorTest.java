@@ -1,9 +1,12 @@
 package com.orientechnologies.orient.core.iterator;
 
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 import com.orientechnologies.orient.core.db.document.ODatabaseDocumentTx;
+import com.orientechnologies.orient.core.id.ORID;
 import com.orientechnologies.orient.core.metadata.schema.OClass;
 import com.orientechnologies.orient.core.metadata.schema.OSchema;
 import com.orientechnologies.orient.core.metadata.schema.OType;
@@ -89,6 +92,45 @@ public class ClassIteratorTest {
     Assert.assertTrue(names.isEmpty());
   }
 
+  @Test
+  public void testIteratorReadsRecordsChangedWhileBrowsing() {
+    final List<ORID> rids = new ArrayList<ORID>();
+    for (int i = 0; i < 500; i++) {
+      final ODocument personDoc = db.newInstance("Person");
+      personDoc.field("First", "Person" + i);
+      personDoc.save();
+
+      rids.add(personDoc.getIdentity());
+    }
+
+    db.getLocalCache().clear();
+
+    int browsed = 0;
+    for (final ODocument personDoc : db.browseClass("Person")) {
+      final int index = rids.indexOf(personDoc.getIdentity());
+      if (index < 0)
+        continue;
+
+      if (index % 2 == 1)
+        Assert.assertEquals(personDoc.field("First"), "Changed" + index);
+      else
+        Assert.assertEquals(personDoc.field("First"), "Person" + index);
+
+      // CHANGE NEXT RECORD WHICH MAY BE READ ALREADY TOGETHER WITH CURRENT ONE
+      if (index + 1 < rids.size()) {
+        final ODocument nextDoc = db.load(rids.get(index + 1));
+        if (index % 2 == 0)
+          nextDoc.field("First", "Changed" + (index + 1)).save();
+
+        db.getLocalCache().clear();
+      }
+
+      browsed++;
+    }
+
+    Assert.assertEquals(browsed, rids.size());
+  }
+
   private static void initializeDatabase() {
     db = new ODatabaseDocumentTx("memory:" + ClassIteratorTest.class.getSimpleName());
     if (db.exists() && RECREATE_DATABASE) {
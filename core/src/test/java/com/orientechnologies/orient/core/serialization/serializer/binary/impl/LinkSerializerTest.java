@@ -20,6 +20,7 @@ import org.testng.Assert;
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
 
+import com.orientechnologies.common.directmemory.ODirectMemoryPointer;
 import com.orientechnologies.common.serialization.types.OLongSerializer;
 import com.orientechnologies.common.serialization.types.OShortSerializer;
 import com.orientechnologies.orient.core.id.ORecordId;
@@ -52,4 +53,23 @@ public class LinkSerializerTest {
     linkSerializer.serialize(OBJECT, stream, 0);
     Assert.assertEquals(linkSerializer.deserialize(stream, 0), OBJECT);
   }
+
+  @Test
+  public void testCompareInDirectMemory() {
+    final ORecordId[] values = { new ORecordId(1, 0), new ORecordId(1, 255), new ORecordId(1, 256), new ORecordId(5, 100500L),
+        new ORecordId(5, Long.MAX_VALUE), new ORecordId(32000, 1) };
+
+    ODirectMemoryPointer pointer = new ODirectMemoryPointer(FIELD_SIZE);
+    try {
+      for (ORecordId value : values) {
+        linkSerializer.serializeInDirectMemoryObject(value, pointer, 0);
+
+        for (ORecordId other : values)
+          Assert.assertEquals(Integer.signum(linkSerializer.compareInDirectMemory(pointer, 0, other)),
+              Integer.signum(value.compareTo(other)));
+      }
+    } finally {
+      pointer.free();
+    }
+  }
 }
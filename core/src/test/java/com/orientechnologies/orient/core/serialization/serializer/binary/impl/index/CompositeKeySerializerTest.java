@@ -0,0 +1,56 @@
+package com.orientechnologies.orient.core.serialization.serializer.binary.impl.index;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.orientechnologies.common.directmemory.ODirectMemoryPointer;
+import com.orientechnologies.orient.core.id.ORecordId;
+import com.orientechnologies.orient.core.index.OAlwaysGreaterKey;
+import com.orientechnologies.orient.core.index.OAlwaysLessKey;
+import com.orientechnologies.orient.core.index.OCompositeKey;
+
+@Test
+public class CompositeKeySerializerTest {
+  public void testCompareInDirectMemory() {
+    final List<OCompositeKey> keys = new ArrayList<OCompositeKey>();
+    keys.add(new OCompositeKey(1, "a", new ORecordId(1, 1)));
+    keys.add(new OCompositeKey(1, "a", new ORecordId(1, 2)));
+    keys.add(new OCompositeKey(1, "b", new ORecordId(1, 1)));
+    keys.add(new OCompositeKey(2, "", new ORecordId(2, 0)));
+    keys.add(new OCompositeKey(2, null, new ORecordId(2, 0)));
+    keys.add(new OCompositeKey(-1, "abc"));
+
+    final List<OCompositeKey> searchKeys = new ArrayList<OCompositeKey>(keys);
+    searchKeys.add(new OCompositeKey(1));
+    searchKeys.add(new OCompositeKey(1, "a"));
+    searchKeys.add(new OCompositeKey(1, new OAlwaysGreaterKey()));
+    searchKeys.add(new OCompositeKey(1, new OAlwaysLessKey()));
+    searchKeys.add(new OCompositeKey(2, "", new OAlwaysGreaterKey()));
+    searchKeys.add(new OCompositeKey(1, 1L));
+
+    final OCompositeKeySerializer serializer = OCompositeKeySerializer.INSTANCE;
+    for (OCompositeKey key : keys) {
+      final ODirectMemoryPointer pointer = new ODirectMemoryPointer(serializer.getObjectSize(key));
+      try {
+        serializer.serializeInDirectMemoryObject(key, pointer, 0);
+
+        for (OCompositeKey searchKey : searchKeys) {
+          int expected;
+          try {
+            expected = key.compareTo(searchKey);
+          } catch (ClassCastException e) {
+            continue;
+          }
+
+          Assert.assertEquals(Integer.signum(serializer.compareInDirectMemory(pointer, 0, searchKey)), Integer.signum(expected),
+              key + " vs " + searchKey);
+        }
+      } finally {
+        pointer.free();
+      }
+    }
+  }
+}
@@ -2,7 +2,11 @@ package com.orientechnologies.orient.core.sql;
 
 import static org.testng.Assert.*;
 
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import org.testng.annotations.AfterClass;
 import org.testng.annotations.BeforeClass;
@@ -10,8 +14,16 @@ import org.testng.annotations.Test;
 
 import com.orientechnologies.common.profiler.OProfilerMBean;
 import com.orientechnologies.orient.core.Orient;
+import com.orientechnologies.orient.core.command.OBasicCommandContext;
+import com.orientechnologies.orient.core.config.OGlobalConfiguration;
 import com.orientechnologies.orient.core.db.document.ODatabaseDocumentTx;
+import com.orientechnologies.orient.core.id.ORID;
+import com.orientechnologies.orient.core.iterator.ORecordIteratorClass;
+import com.orientechnologies.orient.core.record.ORecord;
 import com.orientechnologies.orient.core.record.impl.ODocument;
+import com.orientechnologies.orient.core.sql.filter.OSQLBinaryFilter;
+import com.orientechnologies.orient.core.sql.filter.OSQLFilter;
+import com.orientechnologies.orient.core.sql.query.OSQLSynchQuery;
 
 @Test
 public class OCommandExecutorSQLSelectTest {
@@ -318,6 +330,278 @@ public class OCommandExecutorSQLSelectTest {
     }
   }
 
+  @Test
+  public void testParallelExecution() {
+    final int partitionSize = OGlobalConfiguration.QUERY_PARALLEL_PARTITION_SIZE.getValueAsInteger();
+    OGlobalConfiguration.QUERY_PARALLEL_PARTITION_SIZE.setValue(100);
+    try {
+      createParallelScanClass();
+
+      final List<ODocument> serialResult = db.query(new OSQLSynchQuery<ODocument>(
+          "select from parallelscan where value = 3 order by id"));
+      final List<ODocument> parallelResult = db.query(new OSQLSynchQuery<ODocument>(
+          "select from parallelscan where value = 3 order by id asc parallel"));
+
+      assertEquals(serialResult.size(), 100);
+      assertEquals(parallelResult.size(), serialResult.size());
+      for (int i = 0; i < serialResult.size(); i++)
+        assertEquals(parallelResult.get(i).getIdentity(), serialResult.get(i).getIdentity());
+
+      final Set<ORID> rids = new HashSet<ORID>();
+      for (ODocument document : db.<List<ODocument>> query(new OSQLSynchQuery<ODocument>("select from parallelscan parallel")))
+        assertTrue(rids.add(document.getIdentity()));
+      assertEquals(rids.size(), 1000);
+    } finally {
+      OGlobalConfiguration.QUERY_PARALLEL_PARTITION_SIZE.setValue(partitionSize);
+    }
+  }
+
+  @Test
+  public void testParallelExecutionLimit() {
+    final int partitionSize = OGlobalConfiguration.QUERY_PARALLEL_PARTITION_SIZE.getValueAsInteger();
+    OGlobalConfiguration.QUERY_PARALLEL_PARTITION_SIZE.setValue(100);
+    try {
+      createParallelScanClass();
+
+      final List<ODocument> result = db.query(new OSQLSynchQuery<ODocument>(
+          "select from parallelscan where value < 5 parallel limit 10"));
+      assertEquals(result.size(), 10);
+      for (ODocument document : result)
+        assertTrue((Integer) document.field("value") < 5);
+    } finally {
+      OGlobalConfiguration.QUERY_PARALLEL_PARTITION_SIZE.setValue(partitionSize);
+    }
+  }
+
+  @Test
+  public void testOrderByWithLimitKeepsOrderOfEqualRecords() {
+    createParallelScanClass();
+
+    final List<ODocument> sorted = db.query(new OSQLSynchQuery<ODocument>("select from parallelscan order by value desc"));
+    assertEquals(sorted.size(), 1000);
+
+    final List<ODocument> limited = db.query(new OSQLSynchQuery<ODocument>(
+        "select from parallelscan order by value desc skip 95 limit 10"));
+    assertEquals(limited.size(), 10);
+    for (int i = 0; i < limited.size(); i++)
+      assertEquals(limited.get(i).getIdentity(), sorted.get(95 + i).getIdentity());
+
+    final List<ODocument> projected = db.query(new OSQLSynchQuery<ODocument>(
+        "select id, value from parallelscan order by value asc, id desc limit 3"));
+    assertEquals(projected.size(), 3);
+    assertEquals(projected.get(0).field("id"), 990);
+    assertEquals(projected.get(1).field("id"), 980);
+    assertEquals(projected.get(2).field("id"), 970);
+  }
+
+  @Test
+  public void testOrderByInTemporaryFiles() {
+    final int sortBufferSize = OGlobalConfiguration.QUERY_ORDER_BY_SORT_BUFFER_SIZE.getValueAsInteger();
+    createParallelScanClass();
+
+    final List<ODocument> expected = db.query(new OSQLSynchQuery<ODocument>("select from parallelscan order by value desc"));
+    final List<ODocument> expectedProjections = db.query(new OSQLSynchQuery<ODocument>(
+        "select id, value from parallelscan order by value asc, id desc"));
+
+    OGlobalConfiguration.QUERY_ORDER_BY_SORT_BUFFER_SIZE.setValue(64);
+    try {
+      final List<ODocument> sorted = db.query(new OSQLSynchQuery<ODocument>("select from parallelscan order by value desc"));
+      assertEquals(sorted.size(), expected.size());
+      for (int i = 0; i < sorted.size(); i++) {
+        assertEquals(sorted.get(i).getIdentity(), expected.get(i).getIdentity());
+        assertEquals(sorted.get(i).field("id"), expected.get(i).field("id"));
+      }
+
+      final List<ODocument> projections = db.query(new OSQLSynchQuery<ODocument>(
+          "select id, value from parallelscan order by value asc, id desc"));
+      assertEquals(projections.size(), expectedProjections.size());
+      for (int i = 0; i < projections.size(); i++)
+        assertEquals(projections.get(i).field("id"), expectedProjections.get(i).field("id"));
+
+      final List<ODocument> limited = db.query(new OSQLSynchQuery<ODocument>(
+          "select from parallelscan order by value desc skip 10 limit 100"));
+      assertEquals(limited.size(), 100);
+      for (int i = 0; i < limited.size(); i++)
+        assertEquals(limited.get(i).getIdentity(), expected.get(10 + i).getIdentity());
+    } finally {
+      OGlobalConfiguration.QUERY_ORDER_BY_SORT_BUFFER_SIZE.setValue(sortBufferSize);
+    }
+  }
+
+  @Test
+  public void testGroupByInTemporaryFiles() {
+    final int groupBufferSize = OGlobalConfiguration.QUERY_GROUP_BY_GROUP_BUFFER_SIZE.getValueAsInteger();
+    createParallelScanClass();
+
+    OGlobalConfiguration.QUERY_GROUP_BY_GROUP_BUFFER_SIZE.setValue(8);
+    try {
+      final List<ODocument> groups = db.query(new OSQLSynchQuery<ODocument>(
+          "select id, count(*) as total, sum(value) as amount from parallelscan group by id"));
+      assertEquals(groups.size(), 1000);
+
+      final Set<Integer> ids = new HashSet<Integer>();
+      for (ODocument group : groups) {
+        final int id = group.<Integer> field("id");
+        assertTrue(ids.add(id));
+        assertEquals(group.<Object> field("total"), 1L);
+        assertEquals(group.<Number> field("amount").intValue(), id % 10);
+      }
+
+      final List<ODocument> values = db.query(new OSQLSynchQuery<ODocument>(
+          "select value, count(*) as total, max(id) as maxId from parallelscan group by value order by value"));
+      assertEquals(values.size(), 10);
+      for (int i = 0; i < values.size(); i++) {
+        assertEquals(values.get(i).field("value"), i);
+        assertEquals(values.get(i).<Object> field("total"), 100L);
+        assertEquals(values.get(i).field("maxId"), 990 + i);
+      }
+    } finally {
+      OGlobalConfiguration.QUERY_GROUP_BY_GROUP_BUFFER_SIZE.setValue(groupBufferSize);
+    }
+  }
+
+  @Test
+  public void testApproximateAggregates() {
+    createParallelScanClass();
+
+    final List<ODocument> result = db.query(new OSQLSynchQuery<ODocument>(
+        "select approxCountDistinct(value) as values, approxMedian(id) as median from parallelscan"));
+    assertEquals(result.size(), 1);
+    assertEquals(result.get(0).<Object> field("values"), 10L);
+    assertEquals(result.get(0).<Number> field("median").doubleValue(), 500, 10);
+  }
+
+  @Test
+  public void testBinaryFilter() {
+    createParallelScanClass();
+    if (!db.getMetadata().getSchema().existsClass("binaryfilter")) {
+      db.getMetadata().getSchema().createClass("binaryfilter");
+      for (int i = 0; i < 100; i++) {
+        final ODocument document = new ODocument("binaryfilter");
+        document.field("id", i);
+        document.field("name", i % 3 == 0 ? null : "name" + (i % 5));
+        document.field("amount", i * 1.5);
+        document.field("tags", new String[] { "t" + i });
+        document.save();
+      }
+    }
+
+    final String[] conditions = { "value = 3", "value <> 3", "value in [1, 2]", "value between 2 and 4", "value > 7",
+        "not (value = 3)", "value = 3 or id < 10", "id > 500 and value = '3'", "value is null", "value is not null",
+        "value = ?", "notExistent = 3" };
+
+    final boolean binaryFilter = OGlobalConfiguration.QUERY_BINARY_FILTER.getValueAsBoolean();
+    try {
+      for (String condition : conditions) {
+        db.getLocalCache().clear();
+        OGlobalConfiguration.QUERY_BINARY_FILTER.setValue(true);
+        final List<ODocument> filtered = db.query(new OSQLSynchQuery<ODocument>("select from parallelscan where " + condition), 3);
+
+        db.getLocalCache().clear();
+        OGlobalConfiguration.QUERY_BINARY_FILTER.setValue(false);
+        final List<ODocument> expected = db.query(new OSQLSynchQuery<ODocument>("select from parallelscan where " + condition), 3);
+
+        assertEquals(filtered, expected, condition);
+      }
+
+      final String[] stringConditions = { "name = 'name1'", "name <> 'name1'", "name in ['name2', 'name4']", "name is null",
+          "name > 'name2'", "amount > 100", "amount between 10 and 20.5", "tags in ['t1']", "name = 'name1' and tags in ['t1']" };
+      for (String condition : stringConditions) {
+        db.getLocalCache().clear();
+        OGlobalConfiguration.QUERY_BINARY_FILTER.setValue(true);
+        final List<ODocument> filtered = db.query(new OSQLSynchQuery<ODocument>("select from binaryfilter where " + condition));
+
+        db.getLocalCache().clear();
+        OGlobalConfiguration.QUERY_BINARY_FILTER.setValue(false);
+        final List<ODocument> expected = db.query(new OSQLSynchQuery<ODocument>("select from binaryfilter where " + condition));
+
+        assertEquals(filtered, expected, condition);
+      }
+
+      // CHANGED BUT NOT SAVED RECORD IS EVALUATED AS IT IS IN LOCAL CACHE
+      OGlobalConfiguration.QUERY_BINARY_FILTER.setValue(true);
+      db.getLocalCache().clear();
+      final List<ODocument> loaded = db.query(new OSQLSynchQuery<ODocument>("select from binaryfilter where id = 1"));
+      final ODocument changed = loaded.get(0);
+      changed.field("name", "changed");
+      assertEquals(db.query(new OSQLSynchQuery<ODocument>("select from binaryfilter where name = 'changed'")).size(), 1);
+      changed.reload();
+    } finally {
+      OGlobalConfiguration.QUERY_BINARY_FILTER.setValue(binaryFilter);
+    }
+
+    final OSQLFilter filter = new OSQLFilter("value = 3 and id < 500", new OBasicCommandContext(), "WHERE");
+    final ORecordIteratorClass<ORecord> iterator = new ORecordIteratorClass<ORecord>(db, db, "parallelscan", false, false, false);
+    iterator.setContentFilter(OSQLBinaryFilter.compile(db, filter.getRootCondition(), new OBasicCommandContext())).begin();
+
+    int browsed = 0;
+    while (iterator.hasNext()) {
+      final ODocument document = (ODocument) iterator.next();
+      assertTrue(document.<Integer> field("id") < 500);
+      assertEquals(document.field("value"), 3);
+      browsed++;
+    }
+    assertEquals(browsed, 50);
+  }
+
+  @Test
+  public void testStatementCache() {
+    final OSQLStatementCache cache = OSQLStatementCache.instance(db);
+    final String text = "select from bar where foo = ? order by name";
+
+    List<ODocument> result = db.query(new OSQLSynchQuery<ODocument>(text), 1);
+    assertEquals(result.size(), 3);
+    assertEquals(result.get(0).field("name"), "a");
+    assertNotNull(cache.get(text, db.getMetadata().getSchema().getVersion()));
+
+    // TEMPLATE IS NOT BOUND TO PARAMETERS OF PREVIOUS EXECUTION
+    result = db.query(new OSQLSynchQuery<ODocument>(text), 2);
+    assertEquals(result.size(), 3);
+    assertEquals(result.get(0).field("name"), "b");
+
+    result = db.query(new OSQLSynchQuery<ODocument>(text, 2), 3);
+    assertEquals(result.size(), 2);
+    assertEquals(result.get(0).field("name"), "c");
+
+    // CONDITIONS WHICH ARE ANSWERED BY INDEX ARE REMOVED ONLY FROM THE FILTER OF CURRENT EXECUTION
+    final String indexed = "select from foo where name = :name limit 2";
+    for (String name : new String[] { "a", "b", "c" }) {
+      final Map<String, Object> params = new HashMap<String, Object>();
+      params.put("name", name);
+      result = db.query(new OSQLSynchQuery<ODocument>(indexed), params);
+      assertEquals(result.size(), 1);
+      assertEquals(result.get(0).field("name"), name);
+    }
+
+    final String aggregate = "select count(*) from bar";
+    assertEquals(db.query(new OSQLSynchQuery<ODocument>(aggregate)).size(), 1);
+    assertEquals(((List<ODocument>) db.query(new OSQLSynchQuery<ODocument>(aggregate))).get(0).field("count"), 15l);
+    assertNull(cache.get(aggregate, db.getMetadata().getSchema().getVersion()));
+
+    // SCHEMA CHANGE DROPS PARSED STATEMENTS
+    final int schemaVersion = db.getMetadata().getSchema().getVersion();
+    db.getMetadata().getSchema().createClass("statementcache");
+    assertNull(cache.get(text, db.getMetadata().getSchema().getVersion()));
+    assertNull(cache.get(text, schemaVersion));
+
+    result = db.query(new OSQLSynchQuery<ODocument>(text), 4);
+    assertEquals(result.size(), 3);
+    assertEquals(result.get(0).field("name"), "d");
+  }
+
+  private void createParallelScanClass() {
+    if (db.getMetadata().getSchema().existsClass("parallelscan"))
+      return;
+
+    db.getMetadata().getSchema().createClass("parallelscan");
+    for (int i = 0; i < 1000; i++) {
+      final ODocument document = new ODocument("parallelscan");
+      document.field("id", i);
+      document.field("value", i % 10);
+      document.save();
+    }
+  }
+
   private long indexUsages(ODatabaseDocumentTx db) {
     final long oldIndexUsage;
     try {
@@ -0,0 +1,74 @@
+package com.orientechnologies.orient.core.sql;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import com.orientechnologies.common.util.OPair;
+import com.orientechnologies.orient.core.command.OBasicCommandContext;
+import com.orientechnologies.orient.core.db.document.ODatabaseDocumentTx;
+import com.orientechnologies.orient.core.db.record.OIdentifiable;
+import com.orientechnologies.orient.core.record.impl.ODocument;
+import com.orientechnologies.orient.core.record.impl.ORecordBytes;
+
+@Test
+public class OOrderBySorterTest {
+  private ODatabaseDocumentTx db;
+
+  @BeforeClass
+  public void beforeClass() {
+    db = new ODatabaseDocumentTx("memory:" + OOrderBySorterTest.class.getSimpleName());
+    db.create();
+  }
+
+  @AfterClass
+  public void afterClass() {
+    db.drop();
+  }
+
+  public void testNonDocumentsAreSortedInTemporaryFiles() {
+    final List<OIdentifiable> records = new ArrayList<OIdentifiable>();
+    for (int i = 0; i < 20; i++) {
+      final ODocument document = new ODocument().field("value", 20 - i);
+      db.save(document, "default");
+      records.add(document);
+
+      final ORecordBytes blob = new ORecordBytes(new byte[] { (byte) i });
+      db.save(blob, "default");
+      records.add(blob);
+    }
+
+    final List<OPair<String, String>> orderedFields = new ArrayList<OPair<String, String>>();
+    orderedFields.add(new OPair<String, String>("value", OCommandExecutorSQLSelect.KEYWORD_ASC));
+
+    final OOrderBySorter sorter = new OOrderBySorter(orderedFields, new OBasicCommandContext(), -1, 4);
+    try {
+      for (OIdentifiable record : records)
+        sorter.add(record);
+
+      final List<OIdentifiable> sorted = new ArrayList<OIdentifiable>();
+      for (OIdentifiable record : sorter.sort())
+        sorted.add(record);
+
+      Assert.assertEquals(sorted.size(), records.size());
+
+      // RECORDS WITHOUT FIELDS GO FIRST IN ORDER OF ADDITION
+      for (int i = 0; i < 20; i++) {
+        Assert.assertTrue(sorted.get(i) instanceof ORecordBytes);
+        Assert.assertEquals(sorted.get(i).getIdentity(), records.get(i * 2 + 1).getIdentity());
+      }
+
+      for (int i = 0; i < 20; i++) {
+        final ODocument document = (ODocument) sorted.get(20 + i);
+        Assert.assertEquals(document.field("value"), i + 1);
+        Assert.assertEquals(document.getIdentity(), records.get(38 - i * 2).getIdentity());
+      }
+    } finally {
+      sorter.close();
+    }
+  }
+}
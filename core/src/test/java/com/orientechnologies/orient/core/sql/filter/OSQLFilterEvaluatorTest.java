@@ -0,0 +1,76 @@
+package com.orientechnologies.orient.core.sql.filter;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.orientechnologies.orient.core.command.OBasicCommandContext;
+import com.orientechnologies.orient.core.record.impl.ODocument;
+import com.orientechnologies.orient.core.sql.OSQLEngine;
+
+public class OSQLFilterEvaluatorTest {
+
+  @Test
+  public void testCompiledFilterMatchesInterpreter() {
+    final ODocument[] documents = new ODocument[] { new ODocument().field("a", 3).field("s", "abc"),
+        new ODocument().field("a", 7).field("s", "b").field("d", 2.5d),
+        new ODocument().field("a", 3L).field("s", 3).field("d", 1.0f),
+        new ODocument().field("a", "3").field("s", "ABC").field("t", new Date(1000)), new ODocument().field("a", 5.5d),
+        new ODocument().field("b", true), new ODocument() };
+
+    final String[] conditions = { "a = 3", "a <> 3", "a > 3", "a >= 3", "a < 5", "a <= 3", "a in [3, 7]", "a in ['3', 5]",
+        "a between 3 and 6", "a between 3.0 and 6", "s = 'abc'", "s > 'abc'", "s in ['b', 'abc']", "d > 2", "d = 1.0",
+        "b = true", "t < '1970-01-02'", "a = 3 and s = 'abc'", "a = 3 or s = 'b'", "not (a = 3)", "(a = 3) and (s <> 'x')",
+        "a = 3 and s.length() = 3", "a = 3 or s.length() = 1", "not (a = 3 or s.length() = 1)", "a is null", "a = 3 and b = true" };
+
+    for (String condition : conditions) {
+      final OSQLFilter filter = OSQLEngine.getInstance().parseCondition(condition, new OBasicCommandContext(), "WHERE");
+
+      for (ODocument document : documents) {
+        filter.decompile();
+        final Object expected = filter.evaluate(document, null, new OBasicCommandContext());
+
+        filter.compile();
+        final Object result = filter.evaluate(document, null, new OBasicCommandContext());
+
+        Assert.assertEquals(result, expected, condition + " on " + document);
+      }
+    }
+  }
+
+  @Test
+  public void testCompile() {
+    Assert.assertTrue(compile("a = 3 and b in ['x', 'y']").isCompiled());
+    Assert.assertTrue(compile("a = 3 and b.toUpperCase() = 'X'").isCompiled());
+    Assert.assertTrue(compile("a between 1 and 5").isCompiled());
+
+    Assert.assertFalse(compile("a = b").isCompiled());
+    Assert.assertFalse(compile("a like 'x%'").isCompiled());
+    Assert.assertFalse(compile("a in [1, 'x']").isCompiled());
+  }
+
+  @Test
+  public void testCompiledFilterIsDroppedWhenParametersAreBound() {
+    final OSQLFilter filter = OSQLEngine.getInstance().parseCondition("a = ?", new OBasicCommandContext(), "WHERE");
+    final Map<Object, Object> parameters = new HashMap<Object, Object>();
+    parameters.put(0, 3);
+    filter.bindParameters(parameters);
+    filter.compile();
+    Assert.assertTrue(filter.isCompiled());
+    Assert.assertEquals(filter.evaluate(new ODocument().field("a", 3), null, new OBasicCommandContext()), true);
+
+    parameters.put(0, 4);
+    filter.bindParameters(parameters);
+    Assert.assertFalse(filter.isCompiled());
+    Assert.assertEquals(filter.evaluate(new ODocument().field("a", 3), null, new OBasicCommandContext()), false);
+  }
+
+  private OSQLFilter compile(final String condition) {
+    final OSQLFilter filter = OSQLEngine.getInstance().parseCondition(condition, new OBasicCommandContext(), "WHERE");
+    filter.compile();
+    return filter;
+  }
+}
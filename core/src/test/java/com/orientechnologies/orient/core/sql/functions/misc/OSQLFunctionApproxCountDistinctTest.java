@@ -0,0 +1,66 @@
+package com.orientechnologies.orient.core.sql.functions.misc;
+
+import static org.testng.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.orientechnologies.orient.core.id.ORecordId;
+
+public class OSQLFunctionApproxCountDistinctTest {
+
+  private OSQLFunctionApproxCountDistinct countDistinct;
+
+  @BeforeMethod
+  public void beforeMethod() {
+    countDistinct = new OSQLFunctionApproxCountDistinct() {
+      @Override
+      protected boolean returnDistributedResult() {
+        return false;
+      }
+    };
+  }
+
+  @Test
+  public void testEmpty() {
+    assertEquals(countDistinct.getResult(), 0L);
+  }
+
+  @Test
+  public void testSmallCardinality() {
+    for (int i = 0; i < 1000; i++)
+      countDistinct.execute(null, null, null, new Object[] { i % 10 }, null);
+    countDistinct.execute(null, null, null, new Object[] { null }, null);
+    countDistinct.execute(null, null, null, new Object[] { Arrays.asList(new ORecordId(5, 1), new ORecordId(5, 1)) }, null);
+
+    assertEquals(countDistinct.getResult(), 11L);
+  }
+
+  @Test
+  public void testLargeCardinality() {
+    for (int i = 0; i < 200000; i++)
+      countDistinct.execute(null, null, null, new Object[] { "value" + (i % 100000) }, null);
+
+    assertEquals(((Long) countDistinct.getResult()).doubleValue(), 100000, 3000);
+  }
+
+  @Test
+  public void testMerge() {
+    final OHyperLogLog first = new OHyperLogLog();
+    final OHyperLogLog second = new OHyperLogLog();
+    for (int i = 0; i < 50000; i++) {
+      first.add(i);
+      second.add(i + 25000);
+    }
+
+    final List<Object> results = new ArrayList<Object>();
+    results.add(first.getRegisters());
+    results.add(second.getRegisters());
+
+    assertEquals(((Long) countDistinct.mergeDistributedResult(results)).doubleValue(), 75000, 2250);
+  }
+}
@@ -0,0 +1,87 @@
+package com.orientechnologies.orient.core.sql.functions.stat;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+public class OSQLFunctionApproxPercentileTest {
+
+  private OSQLFunctionApproxPercentile percentile;
+
+  @BeforeMethod
+  public void beforeMethod() {
+    percentile = new OSQLFunctionApproxPercentile() {
+      @Override
+      protected boolean returnDistributedResult() {
+        return false;
+      }
+    };
+  }
+
+  @Test
+  public void testEmpty() {
+    Object result = percentile.getResult();
+    assertNull(result);
+  }
+
+  @Test
+  public void testSingleValue() {
+    percentile.execute(null, null, null, new Object[] { 10, .25 }, null);
+    assertEquals(percentile.getResult(), 10.0);
+  }
+
+  @Test
+  public void testUniformDistribution() {
+    final List<Integer> scores = new ArrayList<Integer>();
+    for (int i = 0; i < 100000; i++)
+      scores.add(i);
+    Collections.shuffle(scores, new Random(42));
+
+    for (Integer s : scores)
+      percentile.execute(null, null, null, new Object[] { s, .01, .5, .99 }, null);
+
+    final List<Number> result = (List<Number>) percentile.getResult();
+    assertEquals(result.get(0).doubleValue(), 1000, 100);
+    assertEquals(result.get(1).doubleValue(), 50000, 500);
+    assertEquals(result.get(2).doubleValue(), 99000, 100);
+  }
+
+  @Test
+  public void testMerge() {
+    final OTDigest first = new OTDigest();
+    final OTDigest second = new OTDigest();
+    for (int i = 0; i < 10000; i++) {
+      first.add(i);
+      second.add(10000 + i);
+    }
+
+    final List<Object> results = new ArrayList<Object>();
+    results.add(first.toList());
+    results.add(second.toList());
+
+    percentile.execute(null, null, null, new Object[] { null, .5 }, null);
+    assertEquals(((Number) percentile.mergeDistributedResult(results)).doubleValue(), 10000, 200);
+  }
+
+  @Test
+  public void testMedian() {
+    final OSQLFunctionApproxMedian median = new OSQLFunctionApproxMedian() {
+      @Override
+      protected boolean returnDistributedResult() {
+        return false;
+      }
+    };
+
+    for (int i = 1; i <= 5; i++)
+      median.execute(null, null, null, new Object[] { i }, null);
+
+    assertEquals(median.getResult(), 3.0);
+  }
+}
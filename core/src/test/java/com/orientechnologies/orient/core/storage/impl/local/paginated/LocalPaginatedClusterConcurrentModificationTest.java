@@ -0,0 +1,244 @@
+package com.orientechnologies.orient.core.storage.impl.local.paginated;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import com.orientechnologies.orient.core.db.ODatabaseRecordThreadLocal;
+import com.orientechnologies.orient.core.db.document.ODatabaseDocumentTx;
+import com.orientechnologies.orient.core.id.ORID;
+import com.orientechnologies.orient.core.metadata.schema.OClass;
+import com.orientechnologies.orient.core.record.impl.ODocument;
+import com.orientechnologies.orient.core.storage.OCluster;
+import com.orientechnologies.orient.core.storage.OPhysicalPosition;
+import com.orientechnologies.orient.core.storage.OStorage;
+import com.orientechnologies.orient.core.storage.impl.local.OAbstractPaginatedStorage;
+import com.orientechnologies.orient.core.storage.impl.local.paginated.atomicoperations.OAtomicOperationsManager;
+import com.orientechnologies.orient.core.version.OVersionFactory;
+
+/**
+ * Checks that records of single cluster which are created, updated and deleted by several threads in parallel are not broken, both
+ * for records which fit into single page and for records which are split between several pages.
+ */
+@Test
+public class LocalPaginatedClusterConcurrentModificationTest {
+  private static final int    THREADS            = 8;
+  private static final int    RECORDS_PER_THREAD = 500;
+
+  private String              buildDirectory;
+  private ODatabaseDocumentTx databaseDocumentTx;
+  private ExecutorService     executorService    = Executors.newCachedThreadPool();
+
+  @BeforeClass
+  public void beforeClass() {
+    buildDirectory = System.getProperty("buildDirectory", ".");
+  }
+
+  @AfterClass
+  public void afterClass() {
+    executorService.shutdown();
+  }
+
+  public void testConcurrentSmallRecordsModification() throws Exception {
+    assertConcurrentModification("concurrentSmallRecordsModification", 1024);
+  }
+
+  public void testConcurrentBigRecordsModification() throws Exception {
+    assertConcurrentModification("concurrentBigRecordsModification", 3 * OClusterPage.MAX_RECORD_SIZE);
+  }
+
+  public void testInsertsAreNotBlockedByActiveOperation() throws Exception {
+    databaseDocumentTx = new ODatabaseDocumentTx("plocal:" + buildDirectory + "/insertsAreNotBlockedByActiveOperation");
+    if (databaseDocumentTx.exists()) {
+      databaseDocumentTx.open("admin", "admin");
+      databaseDocumentTx.drop();
+    }
+
+    databaseDocumentTx.create();
+    final OClass concurrentClass = databaseDocumentTx.getMetadata().getSchema().createClass("ConcurrentClass");
+
+    final OAbstractPaginatedStorage storage = (OAbstractPaginatedStorage) databaseDocumentTx.getStorage().getUnderlying();
+    final OPaginatedCluster cluster = (OPaginatedCluster) storage.getClusterById(concurrentClass.getDefaultClusterId());
+    final OAtomicOperationsManager atomicOperationsManager = storage.getAtomicOperationsManager();
+
+    final CountDownLatch recordCreated = new CountDownLatch(1);
+    final CountDownLatch operationCompleted = new CountDownLatch(1);
+
+    // OPERATION KEEPS ITS ALLOCATION LOCKS TILL IT IS COMPLETED
+    final Future<Void> activeOperation = executorService.submit(new Callable<Void>() {
+      @Override
+      public Void call() throws Exception {
+        atomicOperationsManager.startAtomicOperation();
+        try {
+          cluster.createRecord(new byte[] { 1, 2, 3 }, OVersionFactory.instance().createVersion(), (byte) 'd');
+          recordCreated.countDown();
+
+          operationCompleted.await();
+        } finally {
+          atomicOperationsManager.endAtomicOperation(false);
+        }
+
+        return null;
+      }
+    });
+
+    Assert.assertTrue(recordCreated.await(10, TimeUnit.SECONDS));
+
+    final Future<Void> parallelInserts = executorService.submit(new Callable<Void>() {
+      @Override
+      public Void call() throws Exception {
+        for (int i = 0; i < 100; i++) {
+          final OPhysicalPosition position = cluster.createRecord(new byte[2 * OClusterPage.MAX_RECORD_SIZE * (i % 2) + 1],
+              OVersionFactory.instance().createVersion(), (byte) 'd');
+
+          if (i % 10 == 0)
+            Assert.assertTrue(cluster.deleteRecord(position.clusterPosition));
+        }
+
+        return null;
+      }
+    });
+
+    try {
+      parallelInserts.get(10, TimeUnit.SECONDS);
+    } finally {
+      operationCompleted.countDown();
+      activeOperation.get();
+    }
+
+    Assert.assertEquals(cluster.getEntries(), 91);
+
+    databaseDocumentTx.drop();
+  }
+
+  private void assertConcurrentModification(String databaseName, int maxValueSize) throws Exception {
+    databaseDocumentTx = new ODatabaseDocumentTx("plocal:" + buildDirectory + "/" + databaseName);
+    if (databaseDocumentTx.exists()) {
+      databaseDocumentTx.open("admin", "admin");
+      databaseDocumentTx.drop();
+    }
+
+    databaseDocumentTx.create();
+    databaseDocumentTx.getMetadata().getSchema().createClass("ConcurrentClass");
+
+    final CountDownLatch latch = new CountDownLatch(1);
+    final List<Future<Map<ORID, String>>> futures = new ArrayList<Future<Map<ORID, String>>>();
+
+    for (int i = 0; i < THREADS; i++)
+      futures.add(executorService.submit(new Modifier(i, maxValueSize, latch)));
+
+    latch.countDown();
+
+    final Map<ORID, String> expected = new HashMap<ORID, String>();
+    for (Future<Map<ORID, String>> future : futures)
+      expected.putAll(future.get());
+
+    ODatabaseRecordThreadLocal.INSTANCE.set(databaseDocumentTx);
+    assertRecords(expected);
+
+    final OStorage storage = databaseDocumentTx.getStorage();
+    databaseDocumentTx.close();
+    storage.close(true, false);
+
+    databaseDocumentTx = new ODatabaseDocumentTx(databaseDocumentTx.getURL());
+    databaseDocumentTx.open("admin", "admin");
+
+    assertRecords(expected);
+
+    databaseDocumentTx.drop();
+  }
+
+  private void assertRecords(Map<ORID, String> expected) {
+    final OClass concurrentClass = databaseDocumentTx.getMetadata().getSchema().getClass("ConcurrentClass");
+    final OCluster cluster = databaseDocumentTx.getStorage().getClusterById(concurrentClass.getDefaultClusterId());
+
+    Assert.assertEquals(cluster.getEntries(), expected.size());
+    Assert.assertEquals(databaseDocumentTx.countClass("ConcurrentClass"), expected.size());
+
+    for (Map.Entry<ORID, String> entry : expected.entrySet()) {
+      final ODocument document = databaseDocumentTx.load(entry.getKey());
+      Assert.assertNotNull(document);
+      Assert.assertEquals(document.field("value"), entry.getValue());
+    }
+  }
+
+  private final class Modifier implements Callable<Map<ORID, String>> {
+    private final int            id;
+    private final int            maxValueSize;
+    private final CountDownLatch latch;
+    private final Random         random = new Random();
+
+    private Modifier(int id, int maxValueSize, CountDownLatch latch) {
+      this.id = id;
+      this.maxValueSize = maxValueSize;
+      this.latch = latch;
+    }
+
+    @Override
+    public Map<ORID, String> call() throws Exception {
+      latch.await();
+
+      final Map<ORID, String> records = new HashMap<ORID, String>();
+      final List<ORID> rids = new ArrayList<ORID>();
+
+      final ODatabaseDocumentTx db = new ODatabaseDocumentTx(databaseDocumentTx.getURL());
+      db.open("admin", "admin");
+      try {
+        for (int i = 0; i < RECORDS_PER_THREAD; i++) {
+          final ODocument document = new ODocument("ConcurrentClass");
+          final String value = generateValue(i);
+          document.field("value", value);
+          document.save();
+
+          rids.add(document.getIdentity());
+          records.put(document.getIdentity(), value);
+
+          if (random.nextDouble() < 0.3) {
+            final ORID updatedRid = rids.get(random.nextInt(rids.size()));
+            final ODocument updated = db.load(updatedRid);
+            final String updatedValue = generateValue(i);
+
+            updated.field("value", updatedValue);
+            updated.save();
+
+            records.put(updatedRid, updatedValue);
+          }
+
+          if (random.nextDouble() < 0.1) {
+            final ORID deletedRid = rids.remove(random.nextInt(rids.size()));
+            db.delete(deletedRid);
+            records.remove(deletedRid);
+          }
+        }
+      } finally {
+        db.close();
+      }
+
+      return records;
+    }
+
+    private String generateValue(int index) {
+      final StringBuilder builder = new StringBuilder();
+      builder.append(id).append('-').append(index).append('-');
+
+      final int size = random.nextInt(maxValueSize);
+      for (int i = 0; i < size; i++)
+        builder.append((char) ('a' + random.nextInt(26)));
+
+      return builder.toString();
+    }
+  }
+}
@@ -553,6 +553,68 @@ public class LocalPaginatedClusterTest {
     }
   }
 
+  public void testReadRecords() throws IOException {
+    final int records = 2000;
+    long seed = System.currentTimeMillis();
+    MersenneTwisterFast mersenneTwisterFast = new MersenneTwisterFast(seed);
+
+    System.out.println("testReadRecords seed : " + seed);
+
+    ORecordVersion recordVersion = OVersionFactory.instance().createVersion();
+    recordVersion.increment();
+
+    Map<Long, byte[]> positionRecordMap = new HashMap<Long, byte[]>();
+    for (int i = 0; i < records; i++) {
+      // MOSTLY SMALL RECORDS WHICH SHARE PAGES AND SOME RECORDS WHICH ARE SPLIT BETWEEN PAGES
+      final int recordSize = mersenneTwisterFast.nextInt(10) == 0 ? mersenneTwisterFast.nextInt(3 * OClusterPage.MAX_RECORD_SIZE) + 1
+          : mersenneTwisterFast.nextInt(200) + 1;
+
+      byte[] record = new byte[recordSize];
+      mersenneTwisterFast.nextBytes(record);
+
+      final OPhysicalPosition physicalPosition = paginatedCluster.createRecord(record, recordVersion, (byte) 2);
+      positionRecordMap.put(physicalPosition.clusterPosition, record);
+    }
+
+    long modificationsCount = paginatedCluster.getModificationsCount();
+    for (long position = 0; position < records; position += 3) {
+      Assert.assertTrue(paginatedCluster.deleteRecord(position));
+      positionRecordMap.remove(position);
+    }
+
+    Assert.assertTrue(paginatedCluster.getModificationsCount() > modificationsCount);
+    modificationsCount = paginatedCluster.getModificationsCount();
+
+    paginatedCluster.updateRecord(1, new byte[] { 1, 2, 3 }, recordVersion, (byte) 2);
+    positionRecordMap.put(1L, new byte[] { 1, 2, 3 });
+    Assert.assertTrue(paginatedCluster.getModificationsCount() > modificationsCount);
+
+    final long[] positions = new long[records + 10];
+    for (int i = 0; i < positions.length; i++)
+      positions[i] = i;
+
+    final ORawBuffer[] rawBuffers = paginatedCluster.readRecords(positions);
+    Assert.assertEquals(rawBuffers.length, positions.length);
+
+    for (int i = 0; i < positions.length; i++) {
+      final byte[] record = positionRecordMap.get(positions[i]);
+      if (record == null) {
+        Assert.assertNull(rawBuffers[i]);
+        continue;
+      }
+
+      Assert.assertEquals(rawBuffers[i].buffer, record);
+      Assert.assertEquals(rawBuffers[i].version, paginatedCluster.readRecord(positions[i]).version);
+      Assert.assertEquals(rawBuffers[i].recordType, 2);
+    }
+
+    // POSITIONS DO NOT HAVE TO BE ORDERED
+    final ORawBuffer[] reversed = paginatedCluster.readRecords(new long[] { 5, 4, 2 });
+    Assert.assertEquals(reversed[0].buffer, positionRecordMap.get(5L));
+    Assert.assertEquals(reversed[1].buffer, positionRecordMap.get(4L));
+    Assert.assertEquals(reversed[2].buffer, positionRecordMap.get(2L));
+  }
+
   public void testHideHalfRecords() throws IOException {
     final int records = 10000;
     long seed = System.currentTimeMillis();
@@ -0,0 +1,189 @@
+package com.orientechnologies.orient.core.storage.impl.local.paginated;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import com.orientechnologies.orient.core.config.OGlobalConfiguration;
+import com.orientechnologies.orient.core.db.document.ODatabaseDocumentTx;
+import com.orientechnologies.orient.core.metadata.schema.OClass;
+import com.orientechnologies.orient.core.metadata.schema.OSchema;
+import com.orientechnologies.orient.core.metadata.schema.OType;
+import com.orientechnologies.orient.core.record.impl.ODocument;
+import com.orientechnologies.orient.core.storage.ORecordDuplicatedException;
+import com.orientechnologies.orient.core.storage.impl.local.OAbstractPaginatedStorage;
+import com.orientechnologies.orient.core.storage.impl.local.paginated.atomicoperations.OAtomicOperationsManager;
+
+/**
+ * Checks that transactions which are committed in parallel with {@link OGlobalConfiguration#STORAGE_CONCURRENT_TX_COMMIT} switched
+ * on keep data and indexes consistent, including transactions which are rolled back.
+ */
+@Test
+public class LocalPaginatedStorageConcurrentTxCommitTest {
+  private static final int    THREADS         = 8;
+  private static final int    TX_PER_THREAD   = 200;
+  private static final int    RECORDS_PER_TX  = 5;
+
+  private ODatabaseDocumentTx databaseDocumentTx;
+  private boolean             oldConcurrentTxCommit;
+  private ExecutorService     executorService = Executors.newCachedThreadPool();
+
+  @BeforeClass
+  public void beforeClass() {
+    oldConcurrentTxCommit = OGlobalConfiguration.STORAGE_CONCURRENT_TX_COMMIT.getValueAsBoolean();
+    OGlobalConfiguration.STORAGE_CONCURRENT_TX_COMMIT.setValue(true);
+
+    String buildDirectory = System.getProperty("buildDirectory", ".");
+    databaseDocumentTx = new ODatabaseDocumentTx("plocal:" + buildDirectory + "/localPaginatedStorageConcurrentTxCommitTest");
+    if (databaseDocumentTx.exists()) {
+      databaseDocumentTx.open("admin", "admin");
+      databaseDocumentTx.drop();
+    }
+
+    databaseDocumentTx.create();
+
+    final OSchema schema = databaseDocumentTx.getMetadata().getSchema();
+    for (int i = 0; i < THREADS; i++) {
+      final OClass threadClass = schema.createClass("ThreadClass" + i);
+      threadClass.createProperty("key", OType.STRING).createIndex(OClass.INDEX_TYPE.UNIQUE);
+    }
+
+    final OClass sharedClass = schema.createClass("SharedClass");
+    sharedClass.createProperty("key", OType.STRING).createIndex(OClass.INDEX_TYPE.UNIQUE);
+  }
+
+  @AfterClass
+  public void afterClass() {
+    databaseDocumentTx.drop();
+    OGlobalConfiguration.STORAGE_CONCURRENT_TX_COMMIT.setValue(oldConcurrentTxCommit);
+  }
+
+  public void testParallelCommitOfDisjointTransactions() throws Exception {
+    final CountDownLatch latch = new CountDownLatch(1);
+    final List<Future<Void>> futures = new ArrayList<Future<Void>>();
+    final AtomicInteger[] committed = new AtomicInteger[THREADS];
+
+    for (int i = 0; i < THREADS; i++) {
+      committed[i] = new AtomicInteger();
+      futures.add(executorService.submit(new Writer("ThreadClass" + i, i, latch, committed[i])));
+    }
+
+    latch.countDown();
+
+    for (Future<Void> future : futures)
+      future.get();
+
+    for (int i = 0; i < THREADS; i++) {
+      Assert.assertEquals(committed[i].get(), TX_PER_THREAD - TX_PER_THREAD / 10 + 1);
+      Assert.assertEquals(databaseDocumentTx.countClass("ThreadClass" + i), committed[i].get() * RECORDS_PER_TX);
+      Assert.assertEquals(databaseDocumentTx.getMetadata().getIndexManager().getIndex("ThreadClass" + i + ".key").getSize(),
+          committed[i].get() * RECORDS_PER_TX);
+    }
+  }
+
+  public void testParallelCommitWithRollbacks() throws Exception {
+    final CountDownLatch latch = new CountDownLatch(1);
+    final List<Future<Void>> futures = new ArrayList<Future<Void>>();
+    final AtomicInteger committed = new AtomicInteger();
+
+    for (int i = 0; i < THREADS; i++)
+      futures.add(executorService.submit(new Writer("SharedClass", i, latch, committed)));
+
+    latch.countDown();
+
+    for (Future<Void> future : futures)
+      future.get();
+
+    Assert.assertEquals(databaseDocumentTx.countClass("SharedClass"), committed.get() * RECORDS_PER_TX);
+    Assert.assertEquals(databaseDocumentTx.getMetadata().getIndexManager().getIndex("SharedClass.key").getSize(), committed.get()
+        * RECORDS_PER_TX);
+
+    for (ODocument document : databaseDocumentTx.browseClass("SharedClass"))
+      Assert.assertEquals(
+          databaseDocumentTx.getMetadata().getIndexManager().getIndex("SharedClass.key").get(document.field("key")),
+          document.getIdentity());
+  }
+
+  public void testLocksAreNotKeptAfterOperationsComplete() throws Exception {
+    final OClass lockClass = databaseDocumentTx.getMetadata().getSchema().createClass("LockClass");
+    lockClass.createProperty("key", OType.STRING).createIndex(OClass.INDEX_TYPE.UNIQUE);
+
+    final CountDownLatch latch = new CountDownLatch(1);
+    final List<Future<Void>> futures = new ArrayList<Future<Void>>();
+    final AtomicInteger committed = new AtomicInteger();
+
+    for (int i = 0; i < THREADS; i++)
+      futures.add(executorService.submit(new Writer("LockClass", i, latch, committed)));
+
+    latch.countDown();
+
+    for (Future<Void> future : futures)
+      future.get();
+
+    final OAtomicOperationsManager atomicOperationsManager = ((OAbstractPaginatedStorage) databaseDocumentTx.getStorage()
+        .getUnderlying()).getAtomicOperationsManager();
+    Assert.assertEquals(atomicOperationsManager.getLockedObjectsCount(), 0);
+
+    databaseDocumentTx.getMetadata().getSchema().dropClass("LockClass");
+    Assert.assertEquals(atomicOperationsManager.getLockedObjectsCount(), 0);
+  }
+
+  private final class Writer implements Callable<Void> {
+    private final String         className;
+    private final int            id;
+    private final CountDownLatch latch;
+    private final AtomicInteger  committed;
+
+    private Writer(String className, int id, CountDownLatch latch, AtomicInteger committed) {
+      this.className = className;
+      this.id = id;
+      this.latch = latch;
+      this.committed = committed;
+    }
+
+    @Override
+    public Void call() throws Exception {
+      latch.await();
+
+      final ODatabaseDocumentTx db = new ODatabaseDocumentTx(databaseDocumentTx.getURL());
+      db.open("admin", "admin");
+      try {
+        for (int n = 0; n < TX_PER_THREAD; n++) {
+          db.begin();
+
+          for (int i = 0; i < RECORDS_PER_TX; i++) {
+            final ODocument document = new ODocument(className);
+            // EVERY TENTH TRANSACTION EXCEPT OF THE FIRST ONE VIOLATES UNIQUE INDEX AND SHOULD BE ROLLED BACK
+            if (n % 10 == 9 && i == RECORDS_PER_TX - 1)
+              document.field("key", "duplicate");
+            else
+              document.field("key", id + "-" + n + "-" + i);
+
+            document.save();
+          }
+
+          try {
+            db.commit();
+            committed.incrementAndGet();
+          } catch (ORecordDuplicatedException e) {
+            db.rollback();
+          }
+        }
+      } finally {
+        db.close();
+      }
+
+      return null;
+    }
+  }
+}
@@ -0,0 +1,344 @@
+package com.orientechnologies.orient.core.storage.impl.local.paginated;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import com.orientechnologies.common.io.OFileUtils;
+import com.orientechnologies.orient.core.command.OCommandOutputListener;
+import com.orientechnologies.orient.core.config.OGlobalConfiguration;
+import com.orientechnologies.orient.core.db.document.ODatabaseDocumentTx;
+import com.orientechnologies.orient.core.db.tool.ODatabaseCompare;
+import com.orientechnologies.orient.core.exception.OStorageException;
+import com.orientechnologies.orient.core.id.ORID;
+import com.orientechnologies.orient.core.metadata.schema.OClass;
+import com.orientechnologies.orient.core.metadata.schema.OType;
+import com.orientechnologies.orient.core.record.impl.ODocument;
+import com.orientechnologies.orient.core.storage.OStorage;
+import com.orientechnologies.orient.core.storage.impl.local.paginated.wal.OLogSequenceNumber;
+import com.orientechnologies.orient.core.storage.impl.local.paginated.wal.OWriteAheadLog;
+import com.orientechnologies.orient.core.version.ORecordVersion;
+
+/**
+ * Checks that fuzzy checkpoints which are started because of WAL size truncate WAL while data are modified by several threads and
+ * that data which are restored after such checkpoints are the same as data of the database which was not closed properly.
+ */
+@Test
+public class LocalPaginatedStorageFuzzyCheckpointTest {
+  private static final int THREADS = 4;
+
+  private File             buildDir;
+  private int              oldMaxSegmentSize;
+  private int              oldMaxSize;
+  private int              oldCheckpointSizeThreshold;
+  private int              oldCheckpointFlushRate;
+
+  private ExecutorService  executorService = Executors.newCachedThreadPool();
+
+  @BeforeClass
+  public void beforeClass() {
+    oldMaxSegmentSize = OGlobalConfiguration.WAL_MAX_SEGMENT_SIZE.getValueAsInteger();
+    oldMaxSize = OGlobalConfiguration.WAL_MAX_SIZE.getValueAsInteger();
+    oldCheckpointSizeThreshold = OGlobalConfiguration.WAL_FUZZY_CHECKPOINT_SIZE_THRESHOLD.getValueAsInteger();
+    oldCheckpointFlushRate = OGlobalConfiguration.WAL_FUZZY_CHECKPOINT_FLUSH_RATE.getValueAsInteger();
+
+    // CHECKPOINT IS STARTED ONCE WAL EXCEEDS 2 MEGABYTES
+    OGlobalConfiguration.WAL_MAX_SEGMENT_SIZE.setValue(1);
+    OGlobalConfiguration.WAL_MAX_SIZE.setValue(100);
+    OGlobalConfiguration.WAL_FUZZY_CHECKPOINT_SIZE_THRESHOLD.setValue(2);
+    OGlobalConfiguration.WAL_FUZZY_CHECKPOINT_FLUSH_RATE.setValue(1000);
+
+    String buildDirectory = System.getProperty("buildDirectory", ".");
+    buildDir = new File(buildDirectory, "localPaginatedStorageFuzzyCheckpointTest");
+    if (buildDir.exists())
+      OFileUtils.deleteRecursively(buildDir);
+
+    buildDir.mkdir();
+  }
+
+  @AfterClass
+  public void afterClass() {
+    executorService.shutdown();
+
+    OGlobalConfiguration.WAL_MAX_SEGMENT_SIZE.setValue(oldMaxSegmentSize);
+    OGlobalConfiguration.WAL_MAX_SIZE.setValue(oldMaxSize);
+    OGlobalConfiguration.WAL_FUZZY_CHECKPOINT_SIZE_THRESHOLD.setValue(oldCheckpointSizeThreshold);
+    OGlobalConfiguration.WAL_FUZZY_CHECKPOINT_FLUSH_RATE.setValue(oldCheckpointFlushRate);
+
+    OFileUtils.deleteRecursively(buildDir);
+  }
+
+  public void testRestoreAfterFuzzyCheckpoints() throws Exception {
+    final ODatabaseDocumentTx baseDocumentTx = new ODatabaseDocumentTx("plocal:" + buildDir.getAbsolutePath()
+        + "/baseFuzzyCheckpoint");
+    baseDocumentTx.create();
+
+    final OClass testClass = baseDocumentTx.getMetadata().getSchema().createClass("TestClass");
+    testClass.createProperty("key", OType.INTEGER).createIndex(OClass.INDEX_TYPE.UNIQUE);
+    testClass.createProperty("value", OType.STRING);
+
+    final List<Future<Void>> futures = new ArrayList<Future<Void>>();
+    for (int i = 0; i < THREADS; i++)
+      futures.add(executorService.submit(new DataPropagationTask(baseDocumentTx.getURL(), i)));
+
+    for (Future<Void> future : futures)
+      future.get();
+
+    // wait till WAL is flushed and the last checkpoint is completed by background tasks
+    Thread.sleep(3000);
+
+    final File storageDir = new File(baseDocumentTx.getURL().substring("plocal:".length()));
+    Assert.assertFalse(new File(storageDir, baseDocumentTx.getName() + ".0.wal").exists());
+
+    copyStorageWithoutClose(baseDocumentTx, "testFuzzyCheckpoint");
+
+    final OStorage baseStorage = baseDocumentTx.getStorage();
+    baseDocumentTx.close();
+    baseStorage.close();
+
+    final ODatabaseDocumentTx testDocumentTx = new ODatabaseDocumentTx("plocal:" + buildDir.getAbsolutePath()
+        + "/testFuzzyCheckpoint");
+    testDocumentTx.open("admin", "admin");
+    testDocumentTx.close();
+
+    final ODatabaseCompare databaseCompare = new ODatabaseCompare(testDocumentTx.getURL(), baseDocumentTx.getURL(), "admin",
+        "admin", new OCommandOutputListener() {
+          @Override
+          public void onMessage(String text) {
+            System.out.println(text);
+          }
+        });
+
+    Assert.assertTrue(databaseCompare.compare());
+
+    testDocumentTx.open("admin", "admin");
+    testDocumentTx.drop();
+
+    baseDocumentTx.open("admin", "admin");
+    baseDocumentTx.drop();
+  }
+
+  public void testRestoreOfRolledBackOperationWhichSpansCheckpoint() throws Exception {
+    // CHECKPOINT IS STARTED ONLY BY TEST, SO IT IS STARTED WHILE TRANSACTION IS COMMITTED
+    final int checkpointSizeThreshold = OGlobalConfiguration.WAL_FUZZY_CHECKPOINT_SIZE_THRESHOLD.getValueAsInteger();
+    OGlobalConfiguration.WAL_FUZZY_CHECKPOINT_SIZE_THRESHOLD.setValue(100);
+    try {
+      final ODatabaseDocumentTx baseDocumentTx = new ODatabaseDocumentTx("plocal:" + buildDir.getAbsolutePath()
+          + "/baseRolledBackCheckpoint");
+      baseDocumentTx.create();
+
+      baseDocumentTx.getMetadata().getSchema().createClass("TestClass");
+
+      final Random random = new Random();
+
+      // OPERATION IS STARTED IN ONE OF THE NEXT WAL SEGMENTS, SO SEGMENTS WHICH ARE TRUNCATED BY CHECKPOINT ARE SEEN
+      for (int i = 0; i < 512; i++) {
+        final ODocument document = new ODocument("TestClass");
+        document.field("value", generateValue(random, 4096));
+        document.save();
+      }
+
+      final ODocument existing = new ODocument("TestClass");
+      existing.field("value", "original");
+      existing.save();
+
+      final long count = baseDocumentTx.countClass("TestClass");
+
+      final ODocument changed = existing.copy();
+      changed.field("value", "rolled back");
+      final byte[] changedContent = changed.toStream();
+
+      final OLocalPaginatedStorage storage = (OLocalPaginatedStorage) baseDocumentTx.getStorage();
+      final OWriteAheadLog writeAheadLog = storage.getWALInstance();
+      final OLogSequenceNumber lastCheckpoint = writeAheadLog.getLastCheckpoint();
+      final AtomicReference<OLogSequenceNumber> operationStartLSN = new AtomicReference<OLogSequenceNumber>();
+
+      // RECORDS OF TRANSACTION TAKE SEVERAL WAL SEGMENTS, SO START OF OPERATION WOULD BE TRUNCATED BY CHECKPOINT
+      baseDocumentTx.begin();
+      for (int i = 0; i < 512; i++) {
+        final ODocument document = new ODocument("TestClass");
+        document.field("value", generateValue(random, 4096));
+        document.save();
+      }
+
+      try {
+        storage.commit(baseDocumentTx.getTransaction(), new Runnable() {
+          @Override
+          public void run() {
+            operationStartLSN.set(storage.getAtomicOperationsManager().getCurrentOperation().getStartLSN());
+
+            storage.scheduleFuzzyCheckpoint();
+            waitTill(new Callable<Boolean>() {
+              @Override
+              public Boolean call() throws Exception {
+                final OLogSequenceNumber checkpoint = writeAheadLog.getLastCheckpoint();
+                return checkpoint != null && !checkpoint.equals(lastCheckpoint);
+              }
+            });
+
+            // CHANGES WHICH ARE LOGGED AFTER START OF CHECKPOINT ARE APPLIED AGAIN DURING RESTORE
+            try {
+              final ORID rid = existing.getIdentity();
+              final ORecordVersion version = existing.getRecordVersion().copy();
+              version.increment();
+
+              ((OPaginatedCluster) storage.getClusterById(rid.getClusterId())).updateRecord(rid.getClusterPosition(),
+                  changedContent, version, ODocument.RECORD_TYPE);
+            } catch (IOException e) {
+              throw new IllegalStateException(e);
+            }
+
+            throw new IllegalStateException("Transaction is rolled back by test");
+          }
+        });
+        Assert.fail();
+      } catch (OStorageException e) {
+        baseDocumentTx.rollback();
+      }
+
+      waitTill(new Callable<Boolean>() {
+        @Override
+        public Boolean call() throws Exception {
+          // CHECKPOINT IS COMPLETED ONCE SEGMENTS WHICH PRECEDE START OF OPERATION ARE TRUNCATED
+          return writeAheadLog.begin().getSegment() >= operationStartLSN.get().getSegment();
+        }
+      });
+
+      copyStorageWithoutClose(baseDocumentTx, "testRolledBackCheckpoint");
+
+      baseDocumentTx.close();
+      storage.close();
+
+      final ODatabaseDocumentTx testDocumentTx = new ODatabaseDocumentTx("plocal:" + buildDir.getAbsolutePath()
+          + "/testRolledBackCheckpoint");
+      testDocumentTx.open("admin", "admin");
+
+      Assert.assertEquals(testDocumentTx.countClass("TestClass"), count);
+      final ODocument restored = testDocumentTx.load(existing.getIdentity());
+      Assert.assertEquals(restored.field("value"), "original");
+
+      testDocumentTx.drop();
+
+      baseDocumentTx.open("admin", "admin");
+      baseDocumentTx.drop();
+    } finally {
+      OGlobalConfiguration.WAL_FUZZY_CHECKPOINT_SIZE_THRESHOLD.setValue(checkpointSizeThreshold);
+    }
+  }
+
+  private static void waitTill(Callable<Boolean> condition) {
+    final long timeout = System.currentTimeMillis() + 30000;
+    try {
+      while (!condition.call()) {
+        Assert.assertTrue(System.currentTimeMillis() < timeout);
+        Thread.sleep(10);
+      }
+    } catch (RuntimeException e) {
+      throw e;
+    } catch (Exception e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private void copyStorageWithoutClose(ODatabaseDocumentTx databaseDocumentTx, String copyName) throws IOException {
+    final String baseName = databaseDocumentTx.getName();
+    final File storageDir = new File(databaseDocumentTx.getURL().substring("plocal:".length()));
+    final File copyToDir = new File(buildDir, copyName);
+
+    Assert.assertTrue(copyToDir.mkdir());
+
+    final File[] storageFiles = storageDir.listFiles();
+    Assert.assertNotNull(storageFiles);
+
+    for (File storageFile : storageFiles) {
+      String fileName = storageFile.getName();
+      if (fileName.startsWith(baseName + "."))
+        fileName = copyName + fileName.substring(baseName.length());
+
+      copyFile(storageFile, new File(copyToDir, fileName));
+    }
+  }
+
+  private static void copyFile(File from, File to) throws IOException {
+    final FileInputStream inputStream = new FileInputStream(from);
+    try {
+      final FileOutputStream outputStream = new FileOutputStream(to);
+      try {
+        final byte[] data = new byte[64 * 1024];
+        int bytesRead = inputStream.read(data);
+        while (bytesRead > 0) {
+          outputStream.write(data, 0, bytesRead);
+          bytesRead = inputStream.read(data);
+        }
+      } finally {
+        outputStream.close();
+      }
+    } finally {
+      inputStream.close();
+    }
+  }
+
+  private static final class DataPropagationTask implements Callable<Void> {
+    private final String url;
+    private final int    id;
+
+    private DataPropagationTask(String url, int id) {
+      this.url = url;
+      this.id = id;
+    }
+
+    @Override
+    public Void call() throws Exception {
+      final Random random = new Random();
+      final List<ORID> rids = new ArrayList<ORID>();
+
+      final ODatabaseDocumentTx db = new ODatabaseDocumentTx(url);
+      db.open("admin", "admin");
+      try {
+        for (int i = 0; i < 5000; i++) {
+          final ODocument document = new ODocument("TestClass");
+          document.field("key", id * 5000 + i);
+          document.field("value", generateValue(random, 256));
+          document.save();
+
+          rids.add(document.getIdentity());
+
+          if (random.nextDouble() < 0.2) {
+            final ODocument updated = db.load(rids.get(random.nextInt(rids.size())));
+            updated.field("value", generateValue(random, 256));
+            updated.save();
+          }
+
+          if (random.nextDouble() < 0.1)
+            db.delete(rids.remove(random.nextInt(rids.size())));
+        }
+      } finally {
+        db.close();
+      }
+
+      return null;
+    }
+  }
+
+  private static String generateValue(Random random, int length) {
+    final StringBuilder builder = new StringBuilder();
+    for (int i = 0; i < length; i++)
+      builder.append((char) ('a' + random.nextInt(26)));
+
+    return builder.toString();
+  }
+}
@@ -0,0 +1,219 @@
+package com.orientechnologies.orient.core.storage.impl.local.paginated;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import com.orientechnologies.common.io.OFileUtils;
+import com.orientechnologies.orient.core.command.OCommandOutputListener;
+import com.orientechnologies.orient.core.db.document.ODatabaseDocumentTx;
+import com.orientechnologies.orient.core.db.tool.ODatabaseCompare;
+import com.orientechnologies.orient.core.exception.OStorageException;
+import com.orientechnologies.orient.core.id.ORID;
+import com.orientechnologies.orient.core.metadata.schema.OClass;
+import com.orientechnologies.orient.core.metadata.schema.OType;
+import com.orientechnologies.orient.core.record.impl.ODocument;
+import com.orientechnologies.orient.core.storage.OStorage;
+
+/**
+ * Checks that database restored from full backup and chain of incremental backups is the same as original one, when the first
+ * incremental backup is made while data are modified by other thread.
+ */
+@Test
+public class LocalPaginatedStorageIncrementalBackupTest {
+  private static final Map<String, Object> INCREMENTAL = Collections.<String, Object> singletonMap(
+                                                           OLocalPaginatedStorage.INCREMENTAL_BACKUP_OPTION, true);
+
+  private File                             buildDir;
+  private ExecutorService                  executorService = Executors.newCachedThreadPool();
+
+  @BeforeClass
+  public void beforeClass() {
+    String buildDirectory = System.getProperty("buildDirectory", ".");
+    buildDir = new File(buildDirectory, "localPaginatedStorageIncrementalBackupTest");
+    if (buildDir.exists())
+      OFileUtils.deleteRecursively(buildDir);
+
+    buildDir.mkdir();
+  }
+
+  @AfterClass
+  public void afterClass() {
+    executorService.shutdown();
+    OFileUtils.deleteRecursively(buildDir);
+  }
+
+  public void testRestoreFromIncrementalBackups() throws Exception {
+    final ODatabaseDocumentTx baseDocumentTx = new ODatabaseDocumentTx("plocal:" + buildDir.getAbsolutePath()
+        + "/baseIncrementalBackup");
+    baseDocumentTx.create();
+
+    final OClass testClass = baseDocumentTx.getMetadata().getSchema().createClass("TestClass");
+    testClass.createProperty("key", OType.INTEGER).createIndex(OClass.INDEX_TYPE.UNIQUE);
+    testClass.createProperty("value", OType.STRING);
+
+    final AtomicInteger keyCounter = new AtomicInteger();
+    final Random random = new Random();
+    final List<ORID> rids = new ArrayList<ORID>();
+
+    modifyData(baseDocumentTx, keyCounter, rids, random, 2000);
+    final File fullBackup = backup(baseDocumentTx, "full.zip", null);
+
+    modifyData(baseDocumentTx, keyCounter, rids, random, 2000);
+
+    final AtomicBoolean stop = new AtomicBoolean();
+    final Future<Void> modifier = executorService.submit(new DataModificationTask(baseDocumentTx.getURL(), keyCounter, stop));
+    final File firstIncrementalBackup;
+    try {
+      firstIncrementalBackup = backup(baseDocumentTx, "incremental1.zip", INCREMENTAL);
+    } finally {
+      stop.set(true);
+    }
+    modifier.get();
+
+    modifyData(baseDocumentTx, keyCounter, rids, random, 2000);
+    final File secondIncrementalBackup = backup(baseDocumentTx, "incremental2.zip", INCREMENTAL);
+
+    // ONLY PAGES WHICH ARE CHANGED AFTER THE PREVIOUS BACKUP ARE COPIED
+    final File thirdIncrementalBackup = backup(baseDocumentTx, "incremental3.zip", INCREMENTAL);
+    Assert.assertTrue(thirdIncrementalBackup.length() * 10 < fullBackup.length());
+
+    final OStorage baseStorage = baseDocumentTx.getStorage();
+    baseDocumentTx.close();
+    baseStorage.close();
+
+    final File restoredDir = new File(buildDir, "restoredIncrementalBackup");
+    Assert.assertTrue(restoredDir.mkdir());
+
+    final ODatabaseDocumentTx restoredDocumentTx = new ODatabaseDocumentTx("plocal:" + restoredDir.getAbsolutePath());
+    restore(restoredDocumentTx, fullBackup);
+
+    // BACKUP CAN NOT BE RESTORED IF PREVIOUS ONE IS NOT RESTORED
+    try {
+      restore(restoredDocumentTx, secondIncrementalBackup);
+      Assert.fail();
+    } catch (OStorageException e) {
+    }
+
+    restore(restoredDocumentTx, firstIncrementalBackup);
+    restore(restoredDocumentTx, secondIncrementalBackup);
+    restore(restoredDocumentTx, thirdIncrementalBackup);
+
+    restoredDocumentTx.open("admin", "admin");
+    restoredDocumentTx.close();
+
+    final ODatabaseCompare databaseCompare = new ODatabaseCompare(restoredDocumentTx.getURL(), baseDocumentTx.getURL(), "admin",
+        "admin", new OCommandOutputListener() {
+          @Override
+          public void onMessage(String text) {
+            System.out.println(text);
+          }
+        });
+
+    Assert.assertTrue(databaseCompare.compare());
+
+    restoredDocumentTx.open("admin", "admin");
+    restoredDocumentTx.drop();
+
+    baseDocumentTx.open("admin", "admin");
+    baseDocumentTx.drop();
+  }
+
+  private File backup(ODatabaseDocumentTx databaseDocumentTx, String fileName, Map<String, Object> options) throws IOException {
+    final File backupFile = new File(buildDir, fileName);
+
+    final FileOutputStream outputStream = new FileOutputStream(backupFile);
+    try {
+      databaseDocumentTx.backup(outputStream, options, null, null, 9, 64 * 1024);
+    } finally {
+      outputStream.close();
+    }
+
+    return backupFile;
+  }
+
+  private void restore(ODatabaseDocumentTx databaseDocumentTx, File backupFile) throws IOException {
+    final FileInputStream inputStream = new FileInputStream(backupFile);
+    try {
+      databaseDocumentTx.restore(inputStream, null, null, null);
+    } finally {
+      inputStream.close();
+    }
+  }
+
+  private static void modifyData(ODatabaseDocumentTx db, AtomicInteger keyCounter, List<ORID> rids, Random random, int count) {
+    for (int i = 0; i < count; i++) {
+      final ODocument document = new ODocument("TestClass");
+      document.field("key", keyCounter.getAndIncrement());
+      document.field("value", generateValue(random));
+      document.save();
+
+      rids.add(document.getIdentity());
+
+      if (random.nextDouble() < 0.2) {
+        final ODocument updated = db.load(rids.get(random.nextInt(rids.size())));
+        updated.field("value", generateValue(random));
+        updated.save();
+      }
+
+      if (random.nextDouble() < 0.1)
+        db.delete(rids.remove(random.nextInt(rids.size())));
+    }
+  }
+
+  private static String generateValue(Random random) {
+    final StringBuilder builder = new StringBuilder();
+    for (int i = 0; i < 256; i++)
+      builder.append((char) ('a' + random.nextInt(26)));
+
+    return builder.toString();
+  }
+
+  private static final class DataModificationTask implements Callable<Void> {
+    private final String        url;
+    private final AtomicInteger keyCounter;
+    private final AtomicBoolean stop;
+
+    private DataModificationTask(String url, AtomicInteger keyCounter, AtomicBoolean stop) {
+      this.url = url;
+      this.keyCounter = keyCounter;
+      this.stop = stop;
+    }
+
+    @Override
+    public Void call() throws Exception {
+      final Random random = new Random();
+      final List<ORID> rids = new ArrayList<ORID>();
+
+      final ODatabaseDocumentTx db = new ODatabaseDocumentTx(url);
+      db.open("admin", "admin");
+      try {
+        while (!stop.get()) {
+          modifyData(db, keyCounter, rids, random, 10);
+          Thread.sleep(5);
+        }
+      } finally {
+        db.close();
+      }
+
+      return null;
+    }
+  }
+}
@@ -0,0 +1,151 @@
+package com.orientechnologies.orient.core.storage.impl.local.paginated;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import com.orientechnologies.common.io.OFileUtils;
+import com.orientechnologies.orient.core.command.OCommandOutputListener;
+import com.orientechnologies.orient.core.config.OGlobalConfiguration;
+import com.orientechnologies.orient.core.db.document.ODatabaseDocumentTx;
+import com.orientechnologies.orient.core.db.tool.ODatabaseCompare;
+import com.orientechnologies.orient.core.id.ORID;
+import com.orientechnologies.orient.core.metadata.schema.OClass;
+import com.orientechnologies.orient.core.metadata.schema.OType;
+import com.orientechnologies.orient.core.record.impl.ODocument;
+import com.orientechnologies.orient.core.storage.OStorage;
+
+/**
+ * Checks that data which are restored from WAL by several threads ({@link OGlobalConfiguration#WAL_RESTORE_THREADS}) are the same
+ * as data of the database which was not closed properly.
+ */
+@Test
+public class LocalPaginatedStorageParallelRestoreTest {
+  private File buildDir;
+  private int  oldRestoreThreads;
+
+  @BeforeClass
+  public void beforeClass() {
+    oldRestoreThreads = OGlobalConfiguration.WAL_RESTORE_THREADS.getValueAsInteger();
+    OGlobalConfiguration.WAL_RESTORE_THREADS.setValue(4);
+
+    String buildDirectory = System.getProperty("buildDirectory", ".");
+    buildDir = new File(buildDirectory, "localPaginatedStorageParallelRestoreTest");
+    if (buildDir.exists())
+      OFileUtils.deleteRecursively(buildDir);
+
+    buildDir.mkdir();
+  }
+
+  @AfterClass
+  public void afterClass() {
+    OGlobalConfiguration.WAL_RESTORE_THREADS.setValue(oldRestoreThreads);
+    OFileUtils.deleteRecursively(buildDir);
+  }
+
+  public void testParallelRestore() throws Exception {
+    final ODatabaseDocumentTx baseDocumentTx = new ODatabaseDocumentTx("plocal:" + buildDir.getAbsolutePath() + "/baseParallelRestore");
+    baseDocumentTx.create();
+
+    final OClass testClass = baseDocumentTx.getMetadata().getSchema().createClass("TestClass");
+    testClass.createProperty("key", OType.INTEGER).createIndex(OClass.INDEX_TYPE.UNIQUE);
+    testClass.createProperty("value", OType.STRING);
+
+    final Random random = new Random();
+    final List<ORID> rids = new ArrayList<ORID>();
+
+    for (int i = 0; i < 10000; i++) {
+      final ODocument document = new ODocument(testClass);
+      document.field("key", i);
+      document.field("value", "value" + random.nextInt());
+      document.save();
+
+      rids.add(document.getIdentity());
+
+      if (random.nextDouble() < 0.2) {
+        final ODocument updated = baseDocumentTx.load(rids.get(random.nextInt(rids.size())));
+        updated.field("value", "updated" + random.nextInt());
+        updated.save();
+      }
+
+      if (random.nextDouble() < 0.1)
+        baseDocumentTx.delete(rids.remove(random.nextInt(rids.size())));
+    }
+
+    // wait till WAL is flushed by background task
+    Thread.sleep(1500);
+    copyStorageWithoutClose(baseDocumentTx, "testParallelRestore");
+
+    final OStorage baseStorage = baseDocumentTx.getStorage();
+    baseDocumentTx.close();
+    baseStorage.close();
+
+    final ODatabaseDocumentTx testDocumentTx = new ODatabaseDocumentTx("plocal:" + buildDir.getAbsolutePath()
+        + "/testParallelRestore");
+    testDocumentTx.open("admin", "admin");
+    testDocumentTx.close();
+
+    final ODatabaseCompare databaseCompare = new ODatabaseCompare(testDocumentTx.getURL(), baseDocumentTx.getURL(), "admin",
+        "admin", new OCommandOutputListener() {
+          @Override
+          public void onMessage(String text) {
+            System.out.println(text);
+          }
+        });
+
+    Assert.assertTrue(databaseCompare.compare());
+
+    testDocumentTx.open("admin", "admin");
+    testDocumentTx.drop();
+
+    baseDocumentTx.open("admin", "admin");
+    baseDocumentTx.drop();
+  }
+
+  private void copyStorageWithoutClose(ODatabaseDocumentTx databaseDocumentTx, String copyName) throws IOException {
+    final String baseName = databaseDocumentTx.getName();
+    final File storageDir = new File(databaseDocumentTx.getURL().substring("plocal:".length()));
+    final File copyToDir = new File(buildDir, copyName);
+
+    Assert.assertTrue(copyToDir.mkdir());
+
+    final File[] storageFiles = storageDir.listFiles();
+    Assert.assertNotNull(storageFiles);
+
+    for (File storageFile : storageFiles) {
+      String fileName = storageFile.getName();
+      if (fileName.startsWith(baseName + "."))
+        fileName = copyName + fileName.substring(baseName.length());
+
+      copyFile(storageFile, new File(copyToDir, fileName));
+    }
+  }
+
+  private static void copyFile(File from, File to) throws IOException {
+    final FileInputStream inputStream = new FileInputStream(from);
+    try {
+      final FileOutputStream outputStream = new FileOutputStream(to);
+      try {
+        final byte[] data = new byte[64 * 1024];
+        int bytesRead = inputStream.read(data);
+        while (bytesRead > 0) {
+          outputStream.write(data, 0, bytesRead);
+          bytesRead = inputStream.read(data);
+        }
+      } finally {
+        outputStream.close();
+      }
+    } finally {
+      inputStream.close();
+    }
+  }
+}
@@ -8,9 +8,16 @@ import java.io.IOException;
 import java.io.RandomAccessFile;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.testng.Assert;
 import org.testng.annotations.AfterClass;
@@ -570,6 +577,76 @@ public class WriteAheadLogTest {
     Assert.assertEquals(end.compareTo(lsn), -1);
   }
 
+  public void testFlushTill() throws Exception {
+    OWALRecord walRecord = new TestRecord(ONE_KB, false);
+    OLogSequenceNumber lsn = writeAheadLog.log(walRecord);
+
+    Assert.assertNull(writeAheadLog.getFlushedLSN());
+
+    writeAheadLog.flushTill(lsn);
+    Assert.assertEquals(writeAheadLog.getFlushedLSN(), lsn);
+
+    walRecord = new TestRecord(OWALPage.PAGE_SIZE + ONE_KB, false);
+    lsn = writeAheadLog.log(walRecord);
+
+    OLogSequenceNumber end = writeAheadLog.log(new TestRecord(ONE_KB, false));
+
+    writeAheadLog.flushTill(lsn);
+    Assert.assertEquals(writeAheadLog.getFlushedLSN(), end);
+
+    writeAheadLog.close();
+
+    writeAheadLog = createWAL();
+    Assert.assertTrue(writeAheadLog.getFlushedLSN().compareTo(end) >= 0);
+  }
+
+  public void testConcurrentFlushTill() throws Exception {
+    final ExecutorService executor = Executors.newCachedThreadPool();
+    final CountDownLatch latch = new CountDownLatch(1);
+    final List<Future<List<TestRecord>>> futures = new ArrayList<Future<List<TestRecord>>>();
+
+    for (int i = 0; i < 8; i++) {
+      final long seed = System.currentTimeMillis() + i;
+      futures.add(executor.submit(new Callable<List<TestRecord>>() {
+        @Override
+        public List<TestRecord> call() throws Exception {
+          final Random random = new Random(seed);
+          final List<TestRecord> records = new ArrayList<TestRecord>();
+
+          latch.await();
+          for (int n = 0; n < 100; n++) {
+            final TestRecord record = new TestRecord(random.nextInt(2 * OWALPage.PAGE_SIZE) + 16, false);
+            final OLogSequenceNumber lsn = writeAheadLog.log(record);
+
+            writeAheadLog.flushTill(lsn);
+            Assert.assertTrue(writeAheadLog.getFlushedLSN().compareTo(lsn) >= 0);
+
+            records.add(record);
+          }
+
+          return records;
+        }
+      }));
+    }
+
+    latch.countDown();
+
+    final List<OWALRecord> writtenRecords = new ArrayList<OWALRecord>();
+    for (Future<List<TestRecord>> future : futures)
+      writtenRecords.addAll(future.get());
+
+    executor.shutdown();
+
+    Collections.sort(writtenRecords, new Comparator<OWALRecord>() {
+      @Override
+      public int compare(OWALRecord recordOne, OWALRecord recordTwo) {
+        return recordOne.getLsn().compareTo(recordTwo.getLsn());
+      }
+    });
+
+    assertLogContent(writeAheadLog, writtenRecords);
+  }
+
   public void testFlushedLSNOnePageWithLessThanMinRecordSpace() throws Exception {
     OWALRecord walRecord = new TestRecord(ONE_KB, false);
     writeAheadLog.log(walRecord);
@@ -0,0 +1,69 @@
+/*
+  *
+  *  *  Copyright 2014 Orient Technologies LTD (info(at)orientechnologies.com)
+  *  *
+  *  *  Licensed under the Apache License, Version 2.0 (the "License");
+  *  *  you may not use this file except in compliance with the License.
+  *  *  You may obtain a copy of the License at
+  *  *
+  *  *       http://www.apache.org/licenses/LICENSE-2.0
+  *  *
+  *  *  Unless required by applicable law or agreed to in writing, software
+  *  *  distributed under the License is distributed on an "AS IS" BASIS,
+  *  *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  *  *  See the License for the specific language governing permissions and
+  *  *  limitations under the License.
+  *  *
+  *  * For more information: http://www.orientechnologies.com
+  *
+  */
+package com.orientechnologies.orient.enterprise.channel;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+
+/**
+ * Reads data from socket channel which is kept in non-blocking mode, so the same channel can be registered in selector which waits
+ * for requests of idle connections. If there are no data to read current thread waits for them on its own selector, so for its
+ * users stream behaves as usual blocking stream of socket.
+ * 
+ * @see OSocketChannelOutputStream
+ */
+public class OSocketChannelInputStream extends InputStream {
+  private final SocketChannel channel;
+  private final byte[]        singleByte = new byte[1];
+
+  public OSocketChannelInputStream(final SocketChannel channel) {
+    this.channel = channel;
+  }
+
+  @Override
+  public int read() throws IOException {
+    if (read(singleByte, 0, 1) < 0)
+      return -1;
+
+    return singleByte[0] & 0xFF;
+  }
+
+  @Override
+  public int read(final byte[] b, final int off, final int len) throws IOException {
+    if (len == 0)
+      return 0;
+
+    final ByteBuffer buffer = ByteBuffer.wrap(b, off, len);
+    while (true) {
+      final int read = channel.read(buffer);
+      if (read != 0)
+        return read;
+
+      OSocketChannelSelector.waitFor(channel, OSocketChannelSelector.READ);
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    channel.close();
+  }
+}
@@ -0,0 +1,67 @@
+/*
+  *
+  *  *  Copyright 2014 Orient Technologies LTD (info(at)orientechnologies.com)
+  *  *
+  *  *  Licensed under the Apache License, Version 2.0 (the "License");
+  *  *  you may not use this file except in compliance with the License.
+  *  *  You may obtain a copy of the License at
+  *  *
+  *  *       http://www.apache.org/licenses/LICENSE-2.0
+  *  *
+  *  *  Unless required by applicable law or agreed to in writing, software
+  *  *  distributed under the License is distributed on an "AS IS" BASIS,
+  *  *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  *  *  See the License for the specific language governing permissions and
+  *  *  limitations under the License.
+  *  *
+  *  * For more information: http://www.orientechnologies.com
+  *
+  */
+package com.orientechnologies.orient.enterprise.channel;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.SocketTimeoutException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+
+/**
+ * Blocks current thread until non-blocking socket channel is ready for read or write. Every thread uses its own selector, so
+ * channel which is registered in the selector of network listener can be read and written by several threads.
+ */
+final class OSocketChannelSelector {
+  static final int                           READ      = SelectionKey.OP_READ;
+  static final int                           WRITE     = SelectionKey.OP_WRITE;
+
+  private static final ThreadLocal<Selector> SELECTORS = new ThreadLocal<Selector>();
+
+  private OSocketChannelSelector() {
+  }
+
+  static void waitFor(final SocketChannel channel, final int operation) throws IOException {
+    // SELECTOR RETURNS IMMEDIATELY FOR INTERRUPTED THREAD, SO WE WOULD SPIN FOREVER
+    if (Thread.currentThread().isInterrupted())
+      throw new InterruptedIOException("Thread was interrupted during waiting for socket channel " + channel);
+
+    Selector selector = SELECTORS.get();
+    if (selector == null || !selector.isOpen()) {
+      selector = Selector.open();
+      SELECTORS.set(selector);
+    }
+
+    final SelectionKey key = channel.keyFor(selector);
+    if (key == null)
+      channel.register(selector, operation);
+    else
+      key.interestOps(operation);
+
+    final int timeout = channel.socket().getSoTimeout();
+    try {
+      if (selector.select(timeout) == 0 && timeout > 0)
+        throw new SocketTimeoutException("Timeout of " + timeout + "ms is reached during waiting for socket channel " + channel);
+    } finally {
+      selector.selectedKeys().clear();
+    }
+  }
+}
@@ -72,6 +72,7 @@ public class OChannelBinaryProtocol {
   public static final byte  REQUEST_COMMAND                         = 41;
   public static final byte  REQUEST_POSITIONS_CEILING               = 42; // since 1.3.0
   public static final byte  REQUEST_RECORD_HIDE                     = 43; // since 1.7
+  public static final byte  REQUEST_RECORD_LOAD_MULTI               = 44; // since 2.0
 
   public static final byte  REQUEST_TX_COMMIT                       = 60;
 
@@ -117,7 +118,8 @@ public class OChannelBinaryProtocol {
 
   public static final int   PROTOCOL_VERSION_24                     = 24;
   public static final int   PROTOCOL_VERSION_25                     = 25;
-  public static final int   CURRENT_PROTOCOL_VERSION                = 26; // SENT AS SHORT AS FIRST PACKET AFTER SOCKET CONNECTION
+  public static final int   PROTOCOL_VERSION_26                     = 26;
+  public static final int   CURRENT_PROTOCOL_VERSION                = 27; // SENT AS SHORT AS FIRST PACKET AFTER SOCKET CONNECTION
 
   public static OIdentifiable readIdentifiable(final OChannelBinaryAsynchClient network) throws IOException {
     final int classId = network.readShort();
@@ -27,16 +27,26 @@ import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
 import java.net.Socket;
+import java.nio.channels.SocketChannel;
 
 import com.orientechnologies.orient.core.config.OContextConfiguration;
+import com.orientechnologies.orient.enterprise.channel.OSocketChannelInputStream;
+import com.orientechnologies.orient.enterprise.channel.OSocketChannelOutputStream;
 
 public class OChannelBinaryServer extends OChannelBinary {
 
 	public OChannelBinaryServer(final Socket iSocket, final OContextConfiguration iConfig) throws IOException {
 		super(iSocket, iConfig);
 
-		inStream = new BufferedInputStream(socket.getInputStream(), socketBufferSize);
-		outStream = new BufferedOutputStream(socket.getOutputStream(), socketBufferSize);
+		final SocketChannel socketChannel = socket.getChannel();
+		if (socketChannel != null && !socketChannel.isBlocking()) {
+			// CHANNEL IS SERVED BY SELECTOR, IT CAN NOT BE READ BY STREAMS OF SOCKET
+			inStream = new BufferedInputStream(new OSocketChannelInputStream(socketChannel), socketBufferSize);
+			outStream = new BufferedOutputStream(new OSocketChannelOutputStream(socketChannel), socketBufferSize);
+		} else {
+			inStream = new BufferedInputStream(socket.getInputStream(), socketBufferSize);
+			outStream = new BufferedOutputStream(socket.getOutputStream(), socketBufferSize);
+		}
 
 		out = new DataOutputStream(outStream);
 		in = new DataInputStream(inStream);
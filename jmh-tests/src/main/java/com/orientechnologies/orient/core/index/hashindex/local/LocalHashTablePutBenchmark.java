@@ -0,0 +1,126 @@
+package com.orientechnologies.orient.core.index.hashindex.local;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+
+import com.orientechnologies.common.serialization.types.OLongSerializer;
+import com.orientechnologies.orient.core.db.document.ODatabaseDocumentTx;
+import com.orientechnologies.orient.core.metadata.schema.OType;
+import com.orientechnologies.orient.core.serialization.serializer.binary.OBinarySerializerFactory;
+import com.orientechnologies.orient.core.storage.impl.local.OAbstractPaginatedStorage;
+
+/**
+ * Measures throughput of puts into single hash table when every thread adds its own keys and then reads one of previously added
+ * keys. Keys of different threads are placed in different buckets, so threads which change different buckets do not wait for each
+ * other unless bucket should be split.
+ *
+ * To run this benchmark run {@link org.openjdk.jmh.Main}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class LocalHashTablePutBenchmark {
+  private static final long KEYS_PER_THREAD = 1L << 40;
+
+  private long              firstKey        = -1;
+  private long              counter;
+
+  @State(Scope.Benchmark)
+  public static class PreparedHashTable {
+    @Param({ "true", "false" })
+    private boolean                       durableInNonTxMode;
+
+    private final AtomicInteger           threadCounter = new AtomicInteger();
+    private ODatabaseDocumentTx           db;
+    private OLocalHashTable<Long, String> localHashTable;
+
+    @Setup(Level.Trial)
+    public void up() {
+      final String buildDirectory = System.getProperty("buildDirectory", "target");
+      db = new ODatabaseDocumentTx("plocal:" + new File(buildDirectory).getAbsolutePath() + "/localHashTablePutBenchmark");
+      if (db.exists()) {
+        db.open("admin", "admin");
+        db.drop();
+      }
+
+      db.create();
+
+      final OMurmurHash3HashFunction<Long> murmurHash3HashFunction = new OMurmurHash3HashFunction<Long>();
+      murmurHash3HashFunction.setValueSerializer(OLongSerializer.INSTANCE);
+
+      localHashTable = new OLocalHashTable<Long, String>(".imc", ".tsc", ".obf", ".nbh", murmurHash3HashFunction,
+          durableInNonTxMode, null);
+      localHashTable.create("localHashTablePutBenchmark", OLongSerializer.INSTANCE, OBinarySerializerFactory.getInstance()
+          .<String> getObjectSerializer(OType.STRING), null, (OAbstractPaginatedStorage) db.getStorage(), false);
+    }
+
+    @TearDown(Level.Trial)
+    public void down() {
+      localHashTable.delete();
+      db.drop();
+    }
+
+    public long nextFirstKey() {
+      return threadCounter.getAndIncrement() * KEYS_PER_THREAD;
+    }
+  }
+
+  @Benchmark
+  @Threads(1)
+  public String put_1thread(PreparedHashTable hashTable) {
+    return putAndGet(hashTable);
+  }
+
+  @Benchmark
+  @Threads(2)
+  public String put_2thread(PreparedHashTable hashTable) {
+    return putAndGet(hashTable);
+  }
+
+  @Benchmark
+  @Threads(4)
+  public String put_4thread(PreparedHashTable hashTable) {
+    return putAndGet(hashTable);
+  }
+
+  @Benchmark
+  @Threads(8)
+  public String put_8thread(PreparedHashTable hashTable) {
+    return putAndGet(hashTable);
+  }
+
+  @Benchmark
+  @Threads(16)
+  public String put_16thread(PreparedHashTable hashTable) {
+    return putAndGet(hashTable);
+  }
+
+  @Benchmark
+  @Threads(32)
+  public String put_32thread(PreparedHashTable hashTable) {
+    return putAndGet(hashTable);
+  }
+
+  private String putAndGet(PreparedHashTable hashTable) {
+    if (firstKey < 0)
+      firstKey = hashTable.nextFirstKey();
+
+    final long key = firstKey + counter++;
+    hashTable.localHashTable.put(key, "value" + key);
+
+    return hashTable.localHashTable.get(firstKey + (key * 31) % counter);
+  }
+}
@@ -0,0 +1,125 @@
+package com.orientechnologies.orient.core.index.hashindex.local.cache;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+
+import com.orientechnologies.common.io.OFileUtils;
+import com.orientechnologies.orient.core.Orient;
+import com.orientechnologies.orient.core.config.OGlobalConfiguration;
+import com.orientechnologies.orient.core.storage.impl.local.paginated.OLocalPaginatedStorage;
+
+/**
+ * Compares page loads from {@link OReadWriteDiskCache} and {@link OStripedDiskCache}. Amount of pages in file is twice bigger than
+ * cache size, so both hits and evictions are measured.
+ *
+ * To run this benchmark run {@link org.openjdk.jmh.Main}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class DiskCacheBenchmark_Load {
+  private static final int       PAGE_SIZE  = 4 * 1024;
+  private static final int       CACHE_SIZE = 1024;
+  private static final int       PAGES      = 2 * CACHE_SIZE;
+
+  @Param({ "2q", "striped" })
+  private String                 cacheType;
+
+  private File                   buildDir;
+  private OLocalPaginatedStorage storage;
+  private ODiskCache             diskCache;
+  private long                   fileId;
+
+  @Setup(Level.Trial)
+  public void setup() throws IOException {
+    OGlobalConfiguration.FILE_LOCK.setValue(Boolean.FALSE);
+
+    buildDir = new File(System.getProperty("buildDirectory", "target"), "diskCacheBenchmark").getAbsoluteFile();
+    if (buildDir.exists())
+      OFileUtils.deleteRecursively(buildDir);
+
+    storage = (OLocalPaginatedStorage) Orient.instance().loadStorage("plocal:" + buildDir.getAbsolutePath());
+    storage.create(null);
+    storage.close(true, false);
+
+    final long readCacheSize = (long) CACHE_SIZE * (PAGE_SIZE + 2 * OWOWCache.PAGE_PADDING);
+    final long writeCacheSize = (long) PAGES * (PAGE_SIZE + 2 * OWOWCache.PAGE_PADDING);
+
+    if (OStripedDiskCache.TYPE.equals(cacheType))
+      diskCache = new OStripedDiskCache(null, readCacheSize, writeCacheSize, PAGE_SIZE, 10000, -1, storage, null, false, false);
+    else
+      diskCache = new OReadWriteDiskCache(readCacheSize, writeCacheSize, PAGE_SIZE, 10000, -1, storage, null, false, false);
+
+    fileId = diskCache.openFile("diskCacheBenchmark.tst");
+    for (int i = 0; i < PAGES; i++) {
+      final OCacheEntry cacheEntry = diskCache.load(fileId, i, false);
+      cacheEntry.markDirty();
+      diskCache.release(cacheEntry);
+    }
+
+    diskCache.flushBuffer();
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException {
+    diskCache.delete();
+    storage.delete();
+    OFileUtils.deleteRecursively(buildDir);
+  }
+
+  @State(Scope.Thread)
+  public static class PageGenerator {
+    private final Random random = new Random();
+
+    public long next() {
+      // half of loads goes to the hot quarter of pages
+      if (random.nextBoolean())
+        return random.nextInt(PAGES / 4);
+
+      return random.nextInt(PAGES);
+    }
+  }
+
+  @Benchmark
+  @Threads(1)
+  public void testLoad_1thread(PageGenerator generator) throws IOException {
+    load(generator.next());
+  }
+
+  @Benchmark
+  @Threads(2)
+  public void testLoad_2thread(PageGenerator generator) throws IOException {
+    load(generator.next());
+  }
+
+  @Benchmark
+  @Threads(4)
+  public void testLoad_4thread(PageGenerator generator) throws IOException {
+    load(generator.next());
+  }
+
+  @Benchmark
+  @Threads(8)
+  public void testLoad_8thread(PageGenerator generator) throws IOException {
+    load(generator.next());
+  }
+
+  private void load(long pageIndex) throws IOException {
+    final OCacheEntry cacheEntry = diskCache.load(fileId, pageIndex, false);
+    diskCache.release(cacheEntry);
+  }
+}
@@ -0,0 +1,139 @@
+package com.orientechnologies.orient.core.storage.impl.local.paginated;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+
+import com.orientechnologies.orient.core.config.OGlobalConfiguration;
+import com.orientechnologies.orient.core.db.ODatabaseRecordThreadLocal;
+import com.orientechnologies.orient.core.db.document.ODatabaseDocumentTx;
+import com.orientechnologies.orient.core.metadata.schema.OClass;
+import com.orientechnologies.orient.core.metadata.schema.OSchema;
+import com.orientechnologies.orient.core.metadata.schema.OType;
+import com.orientechnologies.orient.core.record.impl.ODocument;
+
+/**
+ * Measures throughput of transaction commit when every thread writes into its own class, so transactions touch disjoint clusters
+ * and indexes. Compares commit under storage exclusive lock with parallel commit enabled by
+ * {@link OGlobalConfiguration#STORAGE_CONCURRENT_TX_COMMIT}.
+ *
+ * To run this benchmark run {@link org.openjdk.jmh.Main}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ConcurrentTxCommitBenchmark {
+  private static final int MAX_THREADS    = 8;
+  private static final int RECORDS_PER_TX = 10;
+
+  private ODatabaseDocumentTx db;
+  private String              className;
+  private long                counter;
+
+  @State(Scope.Benchmark)
+  public static class PreparedDatabase {
+    @Param({ "concurrent", "exclusive" })
+    private String              commitType;
+
+    private final AtomicInteger threadCounter = new AtomicInteger();
+    private ODatabaseDocumentTx db;
+    private String              url;
+
+    @Setup(Level.Trial)
+    public void up() {
+      OGlobalConfiguration.STORAGE_CONCURRENT_TX_COMMIT.setValue("concurrent".equals(commitType));
+
+      final String buildDirectory = System.getProperty("buildDirectory", "target");
+      url = "plocal:" + new File(buildDirectory).getAbsolutePath() + "/concurrentTxCommitBenchmark";
+
+      db = new ODatabaseDocumentTx(url);
+      if (db.exists()) {
+        db.open("admin", "admin");
+        db.drop();
+      }
+
+      db.create();
+
+      final OSchema schema = db.getMetadata().getSchema();
+      for (int i = 0; i < MAX_THREADS; i++) {
+        final OClass cls = schema.createClass("CommitBenchmark" + i);
+        cls.createProperty("key", OType.LONG).createIndex(OClass.INDEX_TYPE.UNIQUE);
+      }
+    }
+
+    @TearDown(Level.Trial)
+    public void down() {
+      ODatabaseRecordThreadLocal.INSTANCE.set(db);
+      db.drop();
+    }
+
+    public String nextClassName() {
+      return "CommitBenchmark" + (threadCounter.getAndIncrement() % MAX_THREADS);
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void closeDatabase() {
+    if (db == null)
+      return;
+
+    ODatabaseRecordThreadLocal.INSTANCE.set(db);
+    db.close();
+    db = null;
+  }
+
+  @Benchmark
+  @Threads(1)
+  public void commit_1thread(PreparedDatabase database) {
+    commitTx(database);
+  }
+
+  @Benchmark
+  @Threads(2)
+  public void commit_2thread(PreparedDatabase database) {
+    commitTx(database);
+  }
+
+  @Benchmark
+  @Threads(4)
+  public void commit_4thread(PreparedDatabase database) {
+    commitTx(database);
+  }
+
+  @Benchmark
+  @Threads(8)
+  public void commit_8thread(PreparedDatabase database) {
+    commitTx(database);
+  }
+
+  private void commitTx(PreparedDatabase database) {
+    if (db == null) {
+      className = database.nextClassName();
+      counter = 0;
+
+      db = new ODatabaseDocumentTx(database.url);
+      db.open("admin", "admin");
+    } else
+      ODatabaseRecordThreadLocal.INSTANCE.set(db);
+
+    db.begin();
+    for (int i = 0; i < RECORDS_PER_TX; i++) {
+      final ODocument document = new ODocument(className);
+      document.field("key", counter++);
+      document.save();
+    }
+    db.commit();
+  }
+}
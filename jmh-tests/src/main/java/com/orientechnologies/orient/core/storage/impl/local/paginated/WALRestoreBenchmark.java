@@ -0,0 +1,141 @@
+package com.orientechnologies.orient.core.storage.impl.local.paginated;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import com.orientechnologies.common.io.OFileUtils;
+import com.orientechnologies.orient.core.config.OGlobalConfiguration;
+import com.orientechnologies.orient.core.db.document.ODatabaseDocumentTx;
+import com.orientechnologies.orient.core.metadata.schema.OClass;
+import com.orientechnologies.orient.core.metadata.schema.OType;
+import com.orientechnologies.orient.core.record.impl.ODocument;
+import com.orientechnologies.orient.core.storage.OStorage;
+import com.orientechnologies.orient.core.storage.impl.local.paginated.wal.ODiskWriteAheadLog;
+
+/**
+ * Measures time of data restore from WAL after crash depending on size of WAL and on amount of threads which apply page changes
+ * ({@link OGlobalConfiguration#WAL_RESTORE_THREADS}). Size of WAL of each trial is printed during its setup.
+ *
+ * To run this benchmark run {@link org.openjdk.jmh.Main}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class WALRestoreBenchmark {
+  private static final String SOURCE_NAME = "walRestoreBenchmarkSource";
+  private static final String TARGET_NAME = "walRestoreBenchmarkTarget";
+
+  @Param({ "10000", "100000" })
+  private int                 records;
+
+  @Param({ "1", "4" })
+  private int                 restoreThreads;
+
+  private File                buildDir;
+  private File                sourceDir;
+
+  @Setup(Level.Trial)
+  public void createCrashedDatabase() throws Exception {
+    OGlobalConfiguration.WAL_RESTORE_THREADS.setValue(restoreThreads);
+
+    buildDir = new File(System.getProperty("buildDirectory", "target"), "walRestoreBenchmark").getAbsoluteFile();
+    if (buildDir.exists())
+      OFileUtils.deleteRecursively(buildDir);
+    buildDir.mkdirs();
+
+    final ODatabaseDocumentTx db = new ODatabaseDocumentTx("plocal:" + buildDir.getAbsolutePath() + "/walRestoreBenchmarkBase");
+    db.create();
+
+    final OClass cls = db.getMetadata().getSchema().createClass("RestoreBenchmark");
+    cls.createProperty("key", OType.INTEGER).createIndex(OClass.INDEX_TYPE.UNIQUE);
+
+    for (int i = 0; i < records; i++) {
+      final ODocument document = new ODocument(cls);
+      document.field("key", i);
+      document.field("value", "value" + i);
+      document.save();
+    }
+
+    // wait till WAL is flushed by background task, data files are copied as they are, so restore is needed on open
+    Thread.sleep(1500);
+
+    sourceDir = new File(buildDir, SOURCE_NAME);
+    copyStorage(new File(buildDir, db.getName()), db.getName(), sourceDir, SOURCE_NAME);
+
+    final OStorage storage = db.getStorage();
+    db.drop();
+    storage.close();
+
+    long walSize = 0;
+    for (File file : sourceDir.listFiles())
+      if (file.getName().endsWith(ODiskWriteAheadLog.WAL_SEGMENT_EXTENSION))
+        walSize += file.length();
+
+    System.out.printf("%nWAL size for %d records is %d kb%n", records, walSize / 1024);
+  }
+
+  @Setup(Level.Iteration)
+  public void prepareCopy() throws IOException {
+    copyStorage(sourceDir, SOURCE_NAME, new File(buildDir, TARGET_NAME), TARGET_NAME);
+  }
+
+  @TearDown(Level.Iteration)
+  public void dropCopy() {
+    final ODatabaseDocumentTx db = new ODatabaseDocumentTx("plocal:" + buildDir.getAbsolutePath() + "/" + TARGET_NAME);
+    db.open("admin", "admin");
+    db.drop();
+  }
+
+  @TearDown(Level.Trial)
+  public void deleteFiles() {
+    OFileUtils.deleteRecursively(buildDir);
+  }
+
+  @Benchmark
+  public void restore() {
+    final ODatabaseDocumentTx db = new ODatabaseDocumentTx("plocal:" + buildDir.getAbsolutePath() + "/" + TARGET_NAME);
+    db.open("admin", "admin");
+    db.close();
+  }
+
+  private static void copyStorage(File fromDir, String fromName, File toDir, String toName) throws IOException {
+    toDir.mkdirs();
+
+    for (File file : fromDir.listFiles()) {
+      String fileName = file.getName();
+      if (fileName.startsWith(fromName + "."))
+        fileName = toName + fileName.substring(fromName.length());
+
+      final FileInputStream inputStream = new FileInputStream(file);
+      try {
+        final FileOutputStream outputStream = new FileOutputStream(new File(toDir, fileName));
+        try {
+          final byte[] data = new byte[64 * 1024];
+          int bytesRead = inputStream.read(data);
+          while (bytesRead > 0) {
+            outputStream.write(data, 0, bytesRead);
+            bytesRead = inputStream.read(data);
+          }
+        } finally {
+          outputStream.close();
+        }
+      } finally {
+        inputStream.close();
+      }
+    }
+  }
+}
@@ -33,6 +33,7 @@ import com.orientechnologies.orient.server.config.OServerCommandConfiguration;
 import com.orientechnologies.orient.server.config.OServerParameterConfiguration;
 import com.orientechnologies.orient.server.distributed.ODistributedServerManager;
 import com.orientechnologies.orient.server.network.protocol.ONetworkProtocol;
+import com.orientechnologies.orient.server.network.protocol.binary.OBinaryNetworkProtocolAbstract;
 import com.orientechnologies.orient.server.network.protocol.http.command.OServerCommand;
 
 import java.io.IOException;
@@ -44,6 +45,7 @@ import java.net.ServerSocket;
 import java.net.Socket;
 import java.net.SocketException;
 import java.net.UnknownHostException;
+import java.nio.channels.ServerSocketChannel;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -59,6 +61,7 @@ public class OServerNetworkListener extends Thread {
   private OContextConfiguration             configuration;
   private OServer                           server;
   private int                               protocolVersion   = -1;
+  private OServerNetworkSelector            selector;
 
   public OServerNetworkListener(final OServer iServer, final OServerSocketFactory iSocketFactory, final String iHostName,
       final String iHostPortRange, final String iProtocolName, final Class<? extends ONetworkProtocol> iProtocol,
@@ -77,11 +80,22 @@ public class OServerNetworkListener extends Thread {
       OLogManager.instance().error(this, "Error on reading protocol version for %s", e, ONetworkProtocolException.class, iProtocol);
     }
 
+    readParameters(iServer.getContextConfiguration(), iParameters);
+
+    // CONNECTIONS OF BINARY PROTOCOL ARE SERVED BY SELECTOR, BUT ONLY PLAIN SOCKETS HAVE CHANNELS WHICH CAN BE SELECTED
+    if (OBinaryNetworkProtocolAbstract.class.isAssignableFrom(iProtocol)
+        && configuration.getValueAsBoolean(OGlobalConfiguration.NETWORK_BINARY_NIO)
+        && socketFactory == OServerSocketFactory.getDefault())
+      try {
+        selector = new OServerNetworkSelector("OrientDB " + iProtocol.getSimpleName() + " selector at " + iHostName + ":"
+            + iHostPortRange, configuration.getValueAsInteger(OGlobalConfiguration.NETWORK_BINARY_NIO_WORKERS));
+      } catch (IOException e) {
+        OLogManager.instance().error(this, "Error on creation of selector, connections will be served by their own threads", e);
+      }
+
     listen(iHostName, iHostPortRange, iProtocolName);
     protocolType = iProtocol;
 
-    readParameters(iServer.getContextConfiguration(), iParameters);
-
     if (iCommands != null) {
       for (int i = 0; i < iCommands.length; ++i) {
         if (iCommands[i].stateful)
@@ -171,6 +185,9 @@ public class OServerNetworkListener extends Thread {
   public void shutdown() {
     this.active = false;
 
+    if (selector != null)
+      selector.shutdown();
+
     if (serverSocket != null)
       try {
         serverSocket.close();
@@ -182,6 +199,13 @@ public class OServerNetworkListener extends Thread {
     return active;
   }
 
+  /**
+   * @return Selector which serves connections of this listener or <code>null</code> if every connection is served by its own thread.
+   */
+  public OServerNetworkSelector getSelector() {
+    return selector;
+  }
+
   @Override
   public void run() {
     try {
@@ -221,6 +245,9 @@ public class OServerNetworkListener extends Thread {
           socket.setSendBufferSize(socketBufferSize);
           socket.setReceiveBufferSize(socketBufferSize);
 
+          if (selector != null && socket.getChannel() != null)
+            socket.getChannel().configureBlocking(false);
+
           // CREATE A NEW PROTOCOL INSTANCE
           ONetworkProtocol protocol = protocolType.newInstance();
 
@@ -299,7 +326,19 @@ public class OServerNetworkListener extends Thread {
     for (int port : ports) {
       inboundAddr = new InetSocketAddress(iHostName, port);
       try {
-        serverSocket = socketFactory.createServerSocket(port, 0, InetAddress.getByName(iHostName));
+        if (selector != null) {
+          // SOCKETS WHICH ARE ACCEPTED BY CHANNEL CAN BE SERVED BY SELECTOR
+          final ServerSocketChannel serverSocketChannel = ServerSocketChannel.open();
+          try {
+            serverSocketChannel.socket().bind(new InetSocketAddress(InetAddress.getByName(iHostName), port), 0);
+          } catch (IOException e) {
+            serverSocketChannel.close();
+            throw e;
+          }
+
+          serverSocket = serverSocketChannel.socket();
+        } else
+          serverSocket = socketFactory.createServerSocket(port, 0, InetAddress.getByName(iHostName));
 
         if (serverSocket.isBound()) {
           OLogManager.instance().info(
@@ -0,0 +1,180 @@
+/*
+  *
+  *  *  Copyright 2014 Orient Technologies LTD (info(at)orientechnologies.com)
+  *  *
+  *  *  Licensed under the Apache License, Version 2.0 (the "License");
+  *  *  you may not use this file except in compliance with the License.
+  *  *  You may obtain a copy of the License at
+  *  *
+  *  *       http://www.apache.org/licenses/LICENSE-2.0
+  *  *
+  *  *  Unless required by applicable law or agreed to in writing, software
+  *  *  distributed under the License is distributed on an "AS IS" BASIS,
+  *  *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  *  *  See the License for the specific language governing permissions and
+  *  *  limitations under the License.
+  *  *
+  *  * For more information: http://www.orientechnologies.com
+  *
+  */
+package com.orientechnologies.orient.server.network;
+
+import java.io.IOException;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.orientechnologies.common.log.OLogManager;
+import com.orientechnologies.orient.core.Orient;
+import com.orientechnologies.orient.server.network.protocol.binary.OBinaryNetworkProtocolAbstract;
+
+/**
+ * Waits for requests of idle binary connections on single selector and passes connections which received data to fixed pool of
+ * workers, so number of server threads does not depend on number of connections. Worker executes requests of connection by usual
+ * request handlers of protocol and then returns connection back to selector.
+ */
+public class OServerNetworkSelector extends Thread {
+  private final Selector                              selector;
+  private final ExecutorService                       workers;
+  private final Queue<OBinaryNetworkProtocolAbstract> registrations = new ConcurrentLinkedQueue<OBinaryNetworkProtocolAbstract>();
+  private volatile boolean                            active        = true;
+
+  public OServerNetworkSelector(final String iName, final int iWorkers) throws IOException {
+    super(Orient.instance().getThreadGroup(), iName);
+    setDaemon(true);
+
+    selector = Selector.open();
+    workers = Executors.newFixedThreadPool(iWorkers, new ThreadFactory() {
+      private final AtomicInteger counter = new AtomicInteger();
+
+      @Override
+      public Thread newThread(Runnable r) {
+        final Thread thread = new Thread(Orient.instance().getThreadGroup(), r, iName + " worker #" + counter.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+      }
+    });
+
+    start();
+  }
+
+  /**
+   * Waits for next request of connection, once it is received connection is served by one of workers.
+   */
+  public void register(final OBinaryNetworkProtocolAbstract iProtocol) {
+    // KEYS ARE CHANGED ONLY BY SELECTOR THREAD, OTHERWISE CALLER COULD WAIT TILL SELECTION IS FINISHED
+    registrations.add(iProtocol);
+    selector.wakeup();
+  }
+
+  /**
+   * Interrupts current selection, so keys of connections which were closed are dropped and their sockets are released.
+   */
+  public void wakeup() {
+    selector.wakeup();
+  }
+
+  public void shutdown() {
+    active = false;
+    selector.wakeup();
+    workers.shutdown();
+  }
+
+  @Override
+  public void run() {
+    try {
+      while (active) {
+        selector.select();
+
+        registerConnections();
+
+        final Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+        while (keys.hasNext()) {
+          final SelectionKey key = keys.next();
+          keys.remove();
+
+          final OBinaryNetworkProtocolAbstract protocol = (OBinaryNetworkProtocolAbstract) key.attachment();
+          try {
+            try {
+              // CONNECTION IS NOT WATCHED WHILE WORKER EXECUTES ITS REQUESTS
+              key.interestOps(0);
+            } catch (CancelledKeyException e) {
+              // CONNECTION IS CLOSED, WORKER WILL RELEASE IT
+            }
+
+            execute(protocol);
+          } catch (RuntimeException e) {
+            close(protocol, e);
+          }
+        }
+      }
+    } catch (Exception e) {
+      if (active)
+        OLogManager.instance().error(this, "Error on selection of binary connections", e);
+    } finally {
+      try {
+        selector.close();
+      } catch (IOException e) {
+        OLogManager.instance().error(this, "Error on closing of selector of binary connections", e);
+      }
+    }
+  }
+
+  private void registerConnections() {
+    OBinaryNetworkProtocolAbstract protocol;
+    while ((protocol = registrations.poll()) != null) {
+      try {
+        final SocketChannel channel = protocol.getSocketChannel();
+
+        final SelectionKey key = channel.keyFor(selector);
+        if (key == null)
+          channel.register(selector, SelectionKey.OP_READ, protocol);
+        else
+          key.interestOps(SelectionKey.OP_READ);
+      } catch (ClosedChannelException e) {
+        execute(protocol);
+      } catch (CancelledKeyException e) {
+        execute(protocol);
+      } catch (RuntimeException e) {
+        close(protocol, e);
+      }
+    }
+  }
+
+  /**
+   * Closes connection which can not be served by selector, so the error does not affect other connections.
+   */
+  private void close(final OBinaryNetworkProtocolAbstract protocol, final Exception error) {
+    OLogManager.instance().error(this, "Error on serving of binary connection by selector, connection will be closed", error);
+
+    try {
+      protocol.shutdown();
+    } catch (Exception e) {
+      OLogManager.instance().error(this, "Error on closing of binary connection", e);
+    }
+  }
+
+  private void execute(final OBinaryNetworkProtocolAbstract protocol) {
+    try {
+      workers.execute(new Runnable() {
+        @Override
+        public void run() {
+          protocol.executeRequests();
+        }
+      });
+    } catch (RejectedExecutionException e) {
+      if (active)
+        throw e;
+    }
+  }
+}
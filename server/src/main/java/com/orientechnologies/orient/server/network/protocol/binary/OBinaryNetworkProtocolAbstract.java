@@ -20,7 +20,9 @@
 package com.orientechnologies.orient.server.network.protocol.binary;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.Socket;
+import java.nio.channels.SocketChannel;
 import java.util.logging.Level;
 
 import com.orientechnologies.common.exception.OException;
@@ -63,6 +65,7 @@ import com.orientechnologies.orient.enterprise.channel.binary.OChannelBinaryServ
 import com.orientechnologies.orient.enterprise.channel.binary.ONetworkProtocolException;
 import com.orientechnologies.orient.server.OServer;
 import com.orientechnologies.orient.server.network.OServerNetworkListener;
+import com.orientechnologies.orient.server.network.OServerNetworkSelector;
 import com.orientechnologies.orient.server.network.protocol.ONetworkProtocol;
 
 /**
@@ -78,6 +81,9 @@ public abstract class OBinaryNetworkProtocolAbstract extends ONetworkProtocol {
   protected int                  requestType;
   protected int                  clientTxId;
   protected boolean              okSent;
+  private OServerNetworkSelector selector;
+  private SocketChannel          socketChannel;
+  private volatile Thread        worker;
 
   public OBinaryNetworkProtocolAbstract(final String iThreadName) {
     super(Orient.instance().getThreadGroup(), iThreadName);
@@ -97,6 +103,82 @@ public abstract class OBinaryNetworkProtocolAbstract extends ONetworkProtocol {
     return OChannelBinaryProtocol.CURRENT_PROTOCOL_VERSION;
   }
 
+  /**
+   * Starts to serve requests of connection. If listener has selector, connection waits for requests there and they are executed by
+   * workers of selector, otherwise connection is served by its own thread.
+   */
+  protected void startServing(final OServerNetworkListener iListener, final Socket iSocket) {
+    final SocketChannel socketChannel = iSocket.getChannel();
+    if (iListener.getSelector() != null && socketChannel != null && !socketChannel.isBlocking()) {
+      this.selector = iListener.getSelector();
+      this.socketChannel = socketChannel;
+
+      startup();
+      selector.register(this);
+    } else
+      start();
+  }
+
+  public SocketChannel getSocketChannel() {
+    return socketChannel;
+  }
+
+  /**
+   * Executes requests of connection which is served by selector till all received data are processed and then returns connection to
+   * selector. Called by worker of selector.
+   */
+  public void executeRequests() {
+    worker = Thread.currentThread();
+    try {
+      while (!isShutdownFlag()) {
+        try {
+          beforeExecution();
+          execute();
+          afterExecution();
+        } catch (Throwable t) {
+          OLogManager.instance().error(this, "Error on execution of request of binary connection", t);
+        }
+
+        // NEXT REQUEST IS ALREADY READ IN BUFFER OF CHANNEL, SELECTOR WILL NOT NOTIFY ABOUT IT
+        if (!hasBufferedInput())
+          break;
+      }
+    } finally {
+      worker = null;
+
+      // INTERRUPTION WAS ADDRESSED TO THIS CONNECTION, NOT TO OTHER CONNECTIONS SERVED BY THE SAME WORKER
+      Thread.interrupted();
+    }
+
+    if (isShutdownFlag())
+      shutdown();
+    else
+      selector.register(this);
+  }
+
+  @Override
+  public void interrupt() {
+    if (selector == null) {
+      super.interrupt();
+      return;
+    }
+
+    final Thread currentWorker = worker;
+    if (currentWorker != null)
+      currentWorker.interrupt();
+  }
+
+  @Override
+  public void sendShutdown() {
+    super.sendShutdown();
+
+    // IDLE CONNECTION WAITS IN SELECTOR AND NOBODY CHECKS THE FLAG, SO IT IS CLOSED HERE AND ITS KEY IS DROPPED BY SELECTOR
+    if (selector != null && worker == null) {
+      channel.close();
+      selector.wakeup();
+    }
+  }
+
   @Override
   public void shutdown() {
     channel.close();
@@ -224,6 +306,15 @@ public abstract class OBinaryNetworkProtocolAbstract extends ONetworkProtocol {
     }
   }
 
+  private boolean hasBufferedInput() {
+    final InputStream inStream = channel.inStream;
+    try {
+      return inStream != null && inStream.available() > 0;
+    } catch (IOException e) {
+      return false;
+    }
+  }
+
   protected void sendOk(final int iClientTxId) throws IOException {
     channel.writeByte(OChannelBinaryProtocol.RESPONSE_STATUS_OK);
     channel.writeInt(iClientTxId);
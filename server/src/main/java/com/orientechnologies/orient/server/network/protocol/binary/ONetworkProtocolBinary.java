@@ -23,7 +23,9 @@ import java.io.IOException;
 import java.io.ObjectOutputStream;
 import java.net.Socket;
 import java.net.SocketException;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Comparator;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -127,7 +129,7 @@ public class ONetworkProtocolBinary extends OBinaryNetworkProtocolAbstract {
     channel.writeShort((short) getVersion());
 
     channel.flush();
-    start();
+    startServing(iListener, iSocket);
 
     setName("OrientDB <- BinaryClient (" + iSocket.getRemoteSocketAddress() + ")");
   }
@@ -299,6 +301,10 @@ public class ONetworkProtocolBinary extends OBinaryNetworkProtocolAbstract {
         readRecord();
         break;
 
+      case OChannelBinaryProtocol.REQUEST_RECORD_LOAD_MULTI:
+        readRecords();
+        break;
+
       case OChannelBinaryProtocol.REQUEST_RECORD_CREATE:
         createRecord();
         break;
@@ -1412,6 +1418,96 @@ public class ONetworkProtocolBinary extends OBinaryNetworkProtocolAbstract {
     }
   }
 
+  /**
+   * Loads several records in single request. Records are loaded in order of their cluster ids and positions, so records of the same
+   * cluster page are read together, but are sent back in the order in which they were requested.
+   */
+  protected void readRecords() throws IOException {
+    setDataCommandInfo("Load records");
+
+    if (!isConnectionAlive())
+      return;
+
+    final int size = channel.readInt();
+    final ORecordId[] rids = new ORecordId[size];
+    for (int i = 0; i < size; i++)
+      rids[i] = channel.readRID();
+
+    final String fetchPlanString = channel.readString();
+    final boolean ignoreCache = channel.readByte() == 1;
+    final boolean loadTombstones = channel.readByte() > 0;
+
+    OFetchHelper.checkFetchPlanValid(fetchPlanString);
+
+    final Integer[] order = new Integer[size];
+    for (int i = 0; i < size; i++)
+      order[i] = i;
+
+    Arrays.sort(order, new Comparator<Integer>() {
+      @Override
+      public int compare(Integer first, Integer second) {
+        return rids[first].compareTo(rids[second]);
+      }
+    });
+
+    final ORecord[] records = new ORecord[size];
+    for (int index : order)
+      records[index] = connection.database.load(rids[index], fetchPlanString, ignoreCache, loadTombstones,
+          OStorage.LOCKING_STRATEGY.DEFAULT);
+
+    beginResponse();
+    try {
+      sendOk(clientTxId);
+
+      for (ORecord record : records) {
+        if (record != null) {
+          channel.writeByte((byte) 1); // HAS RECORD
+          channel.writeBytes(getRecordBytes(record));
+          channel.writeVersion(record.getRecordVersion());
+          channel.writeByte(ORecordInternal.getRecordType(record));
+        } else
+          channel.writeByte((byte) 0); // NO RECORD
+      }
+
+      if (fetchPlanString.length() > 0) {
+        final OFetchPlan fetchPlan = OFetchHelper.buildFetchPlan(fetchPlanString);
+
+        final Set<ORecord> recordsToSend = new HashSet<ORecord>();
+        final OFetchListener listener = new ORemoteFetchListener() {
+          @Override
+          protected void sendRecord(ORecord iLinked) {
+            recordsToSend.add(iLinked);
+          }
+        };
+
+        for (ORecord record : records) {
+          if (record instanceof ODocument) {
+            final ODocument doc = (ODocument) record;
+            OFetchHelper.fetch(doc, doc, fetchPlan, listener, new ORemoteFetchContext(), "");
+          }
+        }
+
+        // LOADED RECORDS ARE ALREADY SENT
+        for (ORecord record : records)
+          recordsToSend.remove(record);
+
+        // SEND RECORDS TO LOAD IN CLIENT CACHE
+        for (ORecord d : recordsToSend) {
+          if (d.getIdentity().isValid()) {
+            channel.writeByte((byte) 2); // CLIENT CACHE
+            // RECORD. IT ISN'T PART OF THE RESULT SET
+            writeIdentifiable(d);
+          }
+        }
+      }
+
+      channel.writeByte((byte) 0); // NO MORE RECORDS
+
+    } finally {
+      endResponse();
+    }
+  }
+
   protected void beginResponse() {
     channel.acquireWriteLock();
   }
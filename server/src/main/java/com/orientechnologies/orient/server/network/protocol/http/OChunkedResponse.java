@@ -39,10 +39,13 @@ public class OChunkedResponse extends OutputStream {
        writeContent();
    }
 
+   /**
+    * Sends the buffered content as a chunk without ending the response, that is ended by {@link #close()}.
+    */
    @Override
    public void flush() throws IOException {
      writeContent();
-     response.flush();
+     response.getOutputStream().flush();
    }
 
    @Override
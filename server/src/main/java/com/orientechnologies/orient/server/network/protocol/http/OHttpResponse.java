@@ -19,12 +19,15 @@
  */
 package com.orientechnologies.orient.server.network.protocol.http;
 
+import java.io.BufferedWriter;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.io.OutputStreamWriter;
 import java.io.StringWriter;
+import java.io.Writer;
 import java.nio.charset.Charset;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -68,6 +71,7 @@ public class OHttpResponse {
   public String                content;
   public int                   code;
   public boolean               keepAlive     = true;
+  public boolean               streaming     = false;
 
   public OHttpResponse(final OutputStream iOutStream, final String iHttpVersion, final String[] iAdditionalHeaders,
       final String iResponseCharSet, final String iServerInfo, final String iSessionId, final String iCallbackFunction,
@@ -290,12 +294,17 @@ public class OHttpResponse {
       else
         iFormat = JSON_FORMAT + "," + iFormat;
 
+      final String format = iFetchPlan != null ? iFormat + ",fetchPlan:" + iFetchPlan : iFormat;
+
+      if (streaming) {
+        sendRecordsStream(it, iFormat, format);
+        return;
+      }
+
       final StringWriter buffer = new StringWriter();
       final OJSONWriter json = new OJSONWriter(buffer, iFormat);
       json.beginObject();
 
-      final String format = iFetchPlan != null ? iFormat + ",fetchPlan:" + iFetchPlan : iFormat;
-
       // WRITE RECORDS
       json.beginCollection(-1, true, "result");
       formatMultiValue(it, buffer, format);
@@ -307,6 +316,10 @@ public class OHttpResponse {
   }
 
   public void formatMultiValue(final Iterator<?> iIterator, final StringWriter buffer, final String format) throws IOException {
+    formatMultiValue(iIterator, (Writer) buffer, format);
+  }
+
+  public void formatMultiValue(final Iterator<?> iIterator, final Writer buffer, final String format) throws IOException {
     if (iIterator != null) {
       int counter = 0;
       String objectJson;
@@ -410,6 +423,62 @@ public class OHttpResponse {
     flush();
   }
 
+  /**
+   * Sends the records as JSON object using chunked transfer encoding. Every record is serialized and written as soon as it is read
+   * from the iterator, so the whole response is never kept in memory. The stream is compressed on the fly if client accepts gzip.
+   */
+  private void sendRecordsStream(final Iterator<Object> iIterator, final String iFormat, final String iRecordFormat)
+      throws IOException {
+    // ERRORS CAN NOT BE SENT ONCE THE HEADERS ARE WRITTEN
+    sendStarted = true;
+
+    try {
+      writeStatus(code > 0 ? code : OHttpUtils.STATUS_OK_CODE, "OK");
+      writeHeaders(callbackFunction != null ? "text/javascript" : OHttpUtils.CONTENT_JSON, keepAlive);
+      writeLine("Set-Cookie: " + OHttpUtils.OSESSIONID + "=" + (sessionId != null ? sessionId : "-") + "; Path=/; HttpOnly");
+      writeLine("Transfer-Encoding: chunked");
+      writeLine(null);
+
+      final OChunkedResponse chunkedOutput = new OChunkedResponse(this);
+      final GZIPOutputStream gzipOutput;
+      if (contentEncoding != null && contentEncoding.equals(OHttpUtils.CONTENT_ACCEPT_GZIP_ENCODED))
+        gzipOutput = new GZIPOutputStream(chunkedOutput, 16384); // 16KB
+      else
+        gzipOutput = null;
+
+      final Writer writer = new BufferedWriter(new OutputStreamWriter(gzipOutput != null ? gzipOutput : chunkedOutput, utf8));
+      if (callbackFunction != null)
+        writer.write(callbackFunction + "(");
+
+      final OJSONWriter json = new OJSONWriter(writer, iFormat);
+      json.beginObject();
+      json.beginCollection(-1, true, "result");
+      formatMultiValue(iIterator, writer, iRecordFormat);
+      json.endCollection(-1, true);
+      json.endObject();
+
+      if (callbackFunction != null)
+        writer.write(")");
+
+      writer.flush();
+      if (gzipOutput != null)
+        gzipOutput.finish();
+      chunkedOutput.close();
+
+      flush();
+    } catch (Exception e) {
+      // RESPONSE CAN NOT BE TERMINATED PROPERLY: CLOSE THE CONNECTION, SO THE CLIENT SEES THAT THE RESULT IS INCOMPLETE
+      OLogManager.instance().error(this, "HTTP response: error on streaming records, the connection is closed", e);
+
+      keepAlive = false;
+      try {
+        out.close();
+      } catch (IOException ioe) {
+        // IGNORE IT, THE CONNECTION IS BROKEN ALREADY
+      }
+    }
+  }
+
   // Compress content string
   public byte[] compress(String jsonStr) {
     if (jsonStr == null || jsonStr.length() == 0)
@@ -472,6 +541,14 @@ public class OHttpResponse {
     this.contentEncoding = contentEncoding;
   }
 
+  public boolean isStreaming() {
+    return streaming;
+  }
+
+  public void setStreaming(boolean streaming) {
+    this.streaming = streaming;
+  }
+
   public void setSessionId(String sessionId) {
     this.sessionId = sessionId;
   }
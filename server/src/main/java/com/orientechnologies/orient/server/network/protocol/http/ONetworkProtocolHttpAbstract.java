@@ -94,6 +94,7 @@ public abstract class ONetworkProtocolHttpAbstract extends ONetworkProtocol {
   protected OHttpResponse              response;
   protected OHttpNetworkCommandManager cmdManager;
   private String                       responseCharSet;
+  private boolean                      responseStreaming;
   private String[]                     additionalResponseHeaders;
   private String                       listeningAddress  = "?";
 
@@ -117,6 +118,7 @@ public abstract class ONetworkProtocolHttpAbstract extends ONetworkProtocol {
     requestMaxContentLength = iConfiguration.getValueAsInteger(OGlobalConfiguration.NETWORK_HTTP_MAX_CONTENT_LENGTH);
     socketTimeout = iConfiguration.getValueAsInteger(OGlobalConfiguration.NETWORK_SOCKET_TIMEOUT);
     responseCharSet = iConfiguration.getValueAsString(OGlobalConfiguration.NETWORK_HTTP_CONTENT_CHARSET);
+    responseStreaming = iConfiguration.getValueAsBoolean(OGlobalConfiguration.NETWORK_HTTP_STREAMING);
 
     channel = new OChannelTextServer(iSocket, iConfiguration);
     channel.connected();
@@ -146,6 +148,8 @@ public abstract class ONetworkProtocolHttpAbstract extends ONetworkProtocol {
     if (request.contentEncoding != null && request.contentEncoding.equals(OHttpUtils.CONTENT_ACCEPT_GZIP_ENCODED)) {
       response.setContentEncoding(OHttpUtils.CONTENT_ACCEPT_GZIP_ENCODED);
     }
+    // CHUNKED TRANSFER ENCODING IS NOT SUPPORTED BY HTTP/1.0 CLIENTS
+    response.setStreaming(responseStreaming && "HTTP/1.1".equals(request.httpVersion));
 
     waitNodeIsOnline();
 
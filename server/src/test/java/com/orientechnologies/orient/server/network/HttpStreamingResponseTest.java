@@ -0,0 +1,204 @@
+package com.orientechnologies.orient.server.network;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLEncoder;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.GZIPInputStream;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import com.orientechnologies.orient.client.remote.OServerAdmin;
+import com.orientechnologies.orient.core.config.OGlobalConfiguration;
+import com.orientechnologies.orient.core.db.document.ODatabaseDocumentTx;
+import com.orientechnologies.orient.core.exception.OConfigurationException;
+import com.orientechnologies.orient.core.record.impl.ODocument;
+import com.orientechnologies.orient.core.serialization.OBase64Utils;
+import com.orientechnologies.orient.server.OServer;
+import com.orientechnologies.orient.server.network.protocol.http.OHttpResponse;
+import com.orientechnologies.orient.server.network.protocol.http.ONetworkProtocolHttpDb;
+
+/**
+ * Checks that results of queries and commands are sent over HTTP in chunks, plain and compressed, when streaming is enabled.
+ */
+@Test
+public class HttpStreamingResponseTest {
+  private static final String SERVER_DIRECTORY = "./target/httpStreaming";
+  private static final String URL              = "remote:localhost/httpStreaming";
+  private static final int    RECORDS          = 3000;
+
+  private OServer             server;
+  private boolean             oldStreaming;
+  private int                 port;
+
+  @BeforeClass
+  public void before() throws Exception {
+    oldStreaming = OGlobalConfiguration.NETWORK_HTTP_STREAMING.getValueAsBoolean();
+    OGlobalConfiguration.NETWORK_HTTP_STREAMING.setValue(true);
+
+    server = new OServer();
+    server.setServerRootDirectory(SERVER_DIRECTORY);
+    server.startup(getClass().getResourceAsStream("orientdb-server-config.xml"));
+    server.activate();
+
+    port = server.getListenerByProtocol(ONetworkProtocolHttpDb.class).getInboundAddr().getPort();
+
+    final OServerAdmin admin = new OServerAdmin(URL);
+    admin.connect("root", "D2AFD02F20640EC8B7A5140F34FCA49D2289DB1F0D0598BB9DE8AAA75A0792F3");
+    admin.createDatabase("document", "plocal");
+    admin.close();
+
+    final ODatabaseDocumentTx db = new ODatabaseDocumentTx(URL);
+    db.open("admin", "admin");
+    try {
+      for (int i = 0; i < RECORDS; i++) {
+        final ODocument document = new ODocument("Streamed");
+        document.field("value", i);
+        document.field("text", "Streamed record number " + i);
+        document.save();
+      }
+    } finally {
+      db.close();
+    }
+  }
+
+  @AfterClass
+  public void after() throws IOException {
+    final OServerAdmin admin = new OServerAdmin(URL);
+    admin.connect("root", "D2AFD02F20640EC8B7A5140F34FCA49D2289DB1F0D0598BB9DE8AAA75A0792F3");
+    admin.dropDatabase("plocal");
+    admin.close();
+
+    server.shutdown();
+    deleteDirectory(new File(SERVER_DIRECTORY));
+
+    OGlobalConfiguration.NETWORK_HTTP_STREAMING.setValue(oldStreaming);
+  }
+
+  public void testQuery() throws Exception {
+    final String body = request("query/httpStreaming/sql/" + URLEncoder.encode("select from Streamed", "UTF-8") + "/-1", false);
+    assertResult(body);
+  }
+
+  public void testCompressedCommand() throws Exception {
+    final String body = request("command/httpStreaming/sql/" + URLEncoder.encode("select from Streamed order by value", "UTF-8"),
+        true);
+    assertResult(body);
+  }
+
+  public void testErrorDuringStreamingClosesConnection() throws Exception {
+    final AtomicBoolean closed = new AtomicBoolean();
+    final ByteArrayOutputStream output = new ByteArrayOutputStream() {
+      @Override
+      public void close() {
+        closed.set(true);
+      }
+    };
+
+    final OHttpResponse response = new OHttpResponse(output, "HTTP/1.1", null, "utf-8", "OrientDB", null, null, true);
+    response.setStreaming(true);
+
+    response.writeRecords(new Iterator<Object>() {
+      private int counter = 0;
+
+      @Override
+      public boolean hasNext() {
+        return true;
+      }
+
+      @Override
+      public Object next() {
+        if (counter++ == RECORDS)
+          throw new IllegalStateException("Result can not be read");
+        return counter;
+      }
+
+      @Override
+      public void remove() {
+        throw new UnsupportedOperationException("remove");
+      }
+    });
+
+    Assert.assertTrue(closed.get());
+    Assert.assertFalse(response.keepAlive);
+
+    // TERMINATING CHUNK IS NOT SENT, SO THE CLIENT CAN NOT TAKE INCOMPLETE RESULT FOR THE WHOLE ONE
+    final String sent = output.toString("UTF-8");
+    Assert.assertTrue(sent.contains("Transfer-Encoding: chunked"));
+    Assert.assertFalse(sent.endsWith("0\r\n\r\n"));
+  }
+
+  private String request(final String iPath, final boolean iCompressed) throws IOException {
+    final HttpURLConnection connection = (HttpURLConnection) new URL("http://localhost:" + port + "/" + iPath).openConnection();
+    connection.setRequestProperty("Authorization", "Basic " + OBase64Utils.encodeBytes("admin:admin".getBytes("UTF-8")));
+    if (iCompressed)
+      connection.setRequestProperty("Accept-Encoding", "gzip");
+
+    try {
+      Assert.assertEquals(connection.getResponseCode(), 200);
+      Assert.assertEquals(connection.getHeaderField("Transfer-Encoding"), "chunked");
+      Assert.assertNull(connection.getHeaderField("Content-Length"));
+
+      InputStream in = connection.getInputStream();
+      if (iCompressed) {
+        Assert.assertEquals(connection.getHeaderField("Content-Encoding"), "gzip");
+        in = new GZIPInputStream(in);
+      }
+
+      final ByteArrayOutputStream out = new ByteArrayOutputStream();
+      final byte[] buffer = new byte[4096];
+      int read;
+      while ((read = in.read(buffer)) > -1)
+        out.write(buffer, 0, read);
+      in.close();
+
+      return new String(out.toByteArray(), "UTF-8");
+    } finally {
+      connection.disconnect();
+    }
+  }
+
+  private static void assertResult(final String iBody) {
+    // DATABASE IS NEEDED TO PARSE DOCUMENTS OF SCHEMA CLASS
+    final ODatabaseDocumentTx db = new ODatabaseDocumentTx(URL);
+    db.open("admin", "admin");
+    try {
+      final ODocument response = new ODocument();
+      response.fromJSON(iBody);
+
+      final List<ODocument> result = response.field("result");
+      Assert.assertEquals(result.size(), RECORDS);
+
+      final boolean[] found = new boolean[RECORDS];
+      for (ODocument document : result) {
+        final int value = document.<Integer> field("value");
+        Assert.assertEquals(document.field("text"), "Streamed record number " + value);
+        found[value] = true;
+      }
+
+      for (boolean f : found)
+        Assert.assertTrue(f);
+    } finally {
+      db.close();
+    }
+  }
+
+  private void deleteDirectory(File iDirectory) {
+    if (iDirectory.isDirectory())
+      for (File f : iDirectory.listFiles()) {
+        if (f.isDirectory())
+          deleteDirectory(f);
+        else if (!f.delete())
+          throw new OConfigurationException("Can't delete the file: " + f);
+      }
+  }
+}
@@ -0,0 +1,237 @@
+package com.orientechnologies.orient.server.network;
+
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import com.orientechnologies.orient.client.remote.OServerAdmin;
+import com.orientechnologies.orient.core.config.OGlobalConfiguration;
+import com.orientechnologies.orient.core.db.document.ODatabaseDocumentTx;
+import com.orientechnologies.orient.core.exception.OConfigurationException;
+import com.orientechnologies.orient.core.id.ORID;
+import com.orientechnologies.orient.core.record.impl.ODocument;
+import com.orientechnologies.orient.enterprise.channel.binary.OChannelBinaryProtocol;
+import com.orientechnologies.orient.server.OClientConnection;
+import com.orientechnologies.orient.server.OClientConnectionManager;
+import com.orientechnologies.orient.server.OServer;
+import com.orientechnologies.orient.server.network.protocol.binary.ONetworkProtocolBinary;
+
+/**
+ * Checks that binary connections are served by selector and fixed number of workers: idle connections do not get their own
+ * threads and requests of several clients are executed correctly.
+ */
+@Test
+public class OServerNetworkSelectorTest {
+  private static final String SERVER_DIRECTORY = "./target/networkSelector";
+  private static final String URL              = "remote:localhost/networkSelector";
+  private static final int    WORKERS          = 4;
+
+  private OServer             server;
+  private boolean             oldNio;
+  private int                 oldWorkers;
+
+  @BeforeClass
+  public void before() throws Exception {
+    oldNio = OGlobalConfiguration.NETWORK_BINARY_NIO.getValueAsBoolean();
+    oldWorkers = OGlobalConfiguration.NETWORK_BINARY_NIO_WORKERS.getValueAsInteger();
+
+    OGlobalConfiguration.NETWORK_BINARY_NIO.setValue(true);
+    OGlobalConfiguration.NETWORK_BINARY_NIO_WORKERS.setValue(WORKERS);
+
+    server = new OServer();
+    server.setServerRootDirectory(SERVER_DIRECTORY);
+    server.startup(getClass().getResourceAsStream("orientdb-server-config.xml"));
+    server.activate();
+
+    final OServerAdmin admin = new OServerAdmin(URL);
+    admin.connect("root", "D2AFD02F20640EC8B7A5140F34FCA49D2289DB1F0D0598BB9DE8AAA75A0792F3");
+    admin.createDatabase("document", "plocal");
+    admin.close();
+
+    final ODatabaseDocumentTx db = new ODatabaseDocumentTx(URL);
+    db.open("admin", "admin");
+    try {
+      db.getMetadata().getSchema().createClass("SelectorTest");
+    } finally {
+      db.close();
+    }
+  }
+
+  @AfterClass
+  public void after() throws IOException {
+    final OServerAdmin admin = new OServerAdmin(URL);
+    admin.connect("root", "D2AFD02F20640EC8B7A5140F34FCA49D2289DB1F0D0598BB9DE8AAA75A0792F3");
+    admin.dropDatabase("plocal");
+    admin.close();
+
+    server.shutdown();
+    deleteDirectory(new File(SERVER_DIRECTORY));
+
+    OGlobalConfiguration.NETWORK_BINARY_NIO.setValue(oldNio);
+    OGlobalConfiguration.NETWORK_BINARY_NIO_WORKERS.setValue(oldWorkers);
+  }
+
+  public void testIdleConnectionsHaveNoThreads() throws Exception {
+    final OServerNetworkListener listener = server.getListenerByProtocol(ONetworkProtocolBinary.class);
+    Assert.assertNotNull(listener.getSelector());
+
+    final int port = listener.getInboundAddr().getPort();
+
+    final int threadsBefore = Thread.activeCount();
+
+    final List<Socket> sockets = new ArrayList<Socket>();
+    try {
+      for (int i = 0; i < 300; i++) {
+        final Socket socket = new Socket("localhost", port);
+        sockets.add(socket);
+
+        // SERVER SENDS PROTOCOL VERSION TO EVERY ACCEPTED CONNECTION
+        Assert.assertEquals(new DataInputStream(socket.getInputStream()).readShort(), OChannelBinaryProtocol.CURRENT_PROTOCOL_VERSION);
+      }
+
+      Assert.assertTrue(Thread.activeCount() - threadsBefore < 50, "Threads before " + threadsBefore + ", after "
+          + Thread.activeCount());
+    } finally {
+      for (Socket socket : sockets)
+        socket.close();
+    }
+  }
+
+  public void testKilledIdleConnectionIsClosed() throws Exception {
+    final int port = server.getListenerByProtocol(ONetworkProtocolBinary.class).getInboundAddr().getPort();
+
+    final Socket socket = new Socket("localhost", port);
+    try {
+      socket.setSoTimeout(10000);
+
+      final DataInputStream in = new DataInputStream(socket.getInputStream());
+      Assert.assertEquals(in.readShort(), OChannelBinaryProtocol.CURRENT_PROTOCOL_VERSION);
+
+      OClientConnection idleConnection = null;
+      for (OClientConnection connection : OClientConnectionManager.instance().getConnections()) {
+        final Socket serverSocket = connection.protocol.getChannel() != null ? connection.protocol.getChannel().socket : null;
+        if (serverSocket != null && serverSocket.getPort() == socket.getLocalPort())
+          idleConnection = connection;
+      }
+
+      Assert.assertNotNull(idleConnection);
+      OClientConnectionManager.instance().kill(idleConnection);
+
+      // CONNECTION IS CLOSED WITHOUT WAITING FOR NEXT REQUEST OF CLIENT
+      Assert.assertEquals(in.read(), -1);
+    } finally {
+      socket.close();
+    }
+  }
+
+  public void testSelectorSurvivesBrokenConnection() throws Exception {
+    final OServerNetworkSelector selector = server.getListenerByProtocol(ONetworkProtocolBinary.class).getSelector();
+
+    // PROTOCOL WITHOUT SOCKET CHANNEL FAILS TO BE REGISTERED
+    selector.register(new ONetworkProtocolBinary());
+
+    final ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      final Future<Long> count = executor.submit(new Callable<Long>() {
+        @Override
+        public Long call() throws Exception {
+          final ODatabaseDocumentTx db = new ODatabaseDocumentTx(URL);
+          db.open("admin", "admin");
+          try {
+            new ODocument("SelectorBrokenTest").field("value", 1).save();
+            return db.countClass("SelectorBrokenTest");
+          } finally {
+            db.close();
+          }
+        }
+      });
+
+      Assert.assertEquals(count.get(30, TimeUnit.SECONDS).longValue(), 1L);
+      Assert.assertTrue(selector.isAlive());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  public void testConcurrentClients() throws Exception {
+    final ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      final List<Future<Void>> futures = new ArrayList<Future<Void>>();
+      for (int i = 0; i < 8; i++) {
+        final int id = i;
+        futures.add(executor.submit(new Callable<Void>() {
+          @Override
+          public Void call() throws Exception {
+            final ODatabaseDocumentTx db = new ODatabaseDocumentTx(URL);
+            db.open("admin", "admin");
+            try {
+              final List<ORID> rids = new ArrayList<ORID>();
+              for (int n = 0; n < 200; n++) {
+                final ODocument document = new ODocument("SelectorTest");
+                document.field("client", id);
+                document.field("value", n);
+                document.save();
+
+                rids.add(document.getIdentity());
+              }
+
+              db.getLocalCache().clear();
+              for (int n = 0; n < rids.size(); n++) {
+                final ODocument document = db.load(rids.get(n));
+                Assert.assertEquals(document.field("client"), id);
+                Assert.assertEquals(document.field("value"), n);
+              }
+            } finally {
+              db.close();
+            }
+
+            return null;
+          }
+        }));
+      }
+
+      for (Future<Void> future : futures)
+        future.get();
+    } finally {
+      executor.shutdown();
+    }
+
+    final ODatabaseDocumentTx db = new ODatabaseDocumentTx(URL);
+    db.open("admin", "admin");
+    try {
+      Assert.assertEquals(db.countClass("SelectorTest"), 8 * 200);
+    } finally {
+      db.close();
+    }
+
+    int workers = 0;
+    for (Thread thread : Thread.getAllStackTraces().keySet())
+      if (thread.getName().contains("selector") && thread.getName().contains("worker #"))
+        workers++;
+
+    Assert.assertTrue(workers <= WORKERS, "Workers " + workers);
+  }
+
+  private void deleteDirectory(File iDirectory) {
+    if (iDirectory.isDirectory())
+      for (File f : iDirectory.listFiles()) {
+        if (f.isDirectory())
+          deleteDirectory(f);
+        else if (!f.delete())
+          throw new OConfigurationException("Can't delete the file: " + f);
+      }
+  }
+}
@@ -0,0 +1,229 @@
+package com.orientechnologies.orient.server.network;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import com.orientechnologies.orient.client.remote.OEngineRemote;
+import com.orientechnologies.orient.client.remote.OServerAdmin;
+import com.orientechnologies.orient.core.Orient;
+import com.orientechnologies.orient.core.db.document.ODatabaseDocumentTx;
+import com.orientechnologies.orient.core.db.record.OIdentifiable;
+import com.orientechnologies.orient.core.exception.OConfigurationException;
+import com.orientechnologies.orient.core.id.ORID;
+import com.orientechnologies.orient.core.id.ORecordId;
+import com.orientechnologies.orient.core.record.ORecord;
+import com.orientechnologies.orient.core.record.impl.ODocument;
+import com.orientechnologies.orient.server.OServer;
+
+/**
+ * Checks that several records are loaded from remote database in single request in the requested order, including records which
+ * are not cached by client and links of lazy lists.
+ */
+@Test
+public class RemoteMultiRecordLoadTest {
+  private static final String SERVER_DIRECTORY = "./target/multiLoad";
+  private static final String URL              = "remote:localhost/multiLoad";
+  private static final int    THREADS          = 8;
+
+  private OServer             server;
+
+  @BeforeClass
+  public void before() throws Exception {
+    server = new OServer();
+    server.setServerRootDirectory(SERVER_DIRECTORY);
+    server.startup(getClass().getResourceAsStream("orientdb-server-config.xml"));
+    server.activate();
+
+    final OServerAdmin admin = new OServerAdmin(URL);
+    admin.connect("root", "D2AFD02F20640EC8B7A5140F34FCA49D2289DB1F0D0598BB9DE8AAA75A0792F3");
+    admin.createDatabase("document", "plocal");
+    admin.close();
+  }
+
+  @AfterClass
+  public void after() throws IOException {
+    final OServerAdmin admin = new OServerAdmin(URL);
+    admin.connect("root", "D2AFD02F20640EC8B7A5140F34FCA49D2289DB1F0D0598BB9DE8AAA75A0792F3");
+    admin.dropDatabase("plocal");
+    admin.close();
+
+    server.shutdown();
+    deleteDirectory(new File(SERVER_DIRECTORY));
+  }
+
+  public void testLoadRecords() {
+    final List<ORID> rids = new ArrayList<ORID>();
+
+    ODatabaseDocumentTx db = new ODatabaseDocumentTx(URL);
+    db.open("admin", "admin");
+    try {
+      for (int i = 0; i < 20; i++) {
+        final ODocument document = new ODocument("MultiLoad");
+        document.field("value", i);
+        document.save();
+
+        rids.add(document.getIdentity());
+      }
+    } finally {
+      db.close();
+    }
+
+    db = new ODatabaseDocumentTx(URL);
+    db.open("admin", "admin");
+    try {
+      db.getLocalCache().clear();
+
+      final List<OIdentifiable> toLoad = new ArrayList<OIdentifiable>();
+      for (int i = rids.size() - 1; i >= 0; i--)
+        toLoad.add(rids.get(i));
+
+      toLoad.add(new ORecordId(rids.get(0).getClusterId(), 1000));
+      toLoad.add(rids.get(3));
+
+      // ONE RECORD IS CACHED ALREADY
+      db.load(rids.get(5));
+
+      final List<ORecord> records = db.load(toLoad, null);
+      Assert.assertEquals(records.size(), toLoad.size());
+
+      for (int i = 0; i < rids.size(); i++) {
+        final ODocument document = (ODocument) records.get(i);
+        Assert.assertEquals(document.getIdentity(), toLoad.get(i));
+        Assert.assertEquals(document.field("value"), rids.size() - 1 - i);
+      }
+
+      Assert.assertNull(records.get(rids.size()));
+      Assert.assertEquals(((ODocument) records.get(rids.size() + 1)).field("value"), 3);
+    } finally {
+      db.close();
+    }
+  }
+
+  public void testConcurrentLoadOfRecords() throws Exception {
+    final List<OIdentifiable> rids = new ArrayList<OIdentifiable>();
+
+    ODatabaseDocumentTx db = new ODatabaseDocumentTx(URL);
+    db.open("admin", "admin");
+    try {
+      for (int i = 0; i < 50; i++) {
+        final ODocument document = new ODocument("MultiLoadConcurrent");
+        document.field("value", i);
+        document.save();
+
+        rids.add(document.getIdentity());
+      }
+    } finally {
+      db.close();
+    }
+
+    final int channelsBefore = getCreatedChannels();
+
+    final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+    try {
+      final List<Future<Void>> futures = new ArrayList<Future<Void>>();
+      for (int i = 0; i < THREADS; i++)
+        futures.add(executor.submit(new Callable<Void>() {
+          @Override
+          public Void call() throws Exception {
+            final ODatabaseDocumentTx db = new ODatabaseDocumentTx(URL);
+            db.open("admin", "admin");
+            try {
+              for (int n = 0; n < 100; n++) {
+                db.getLocalCache().clear();
+
+                final List<ORecord> records = db.load(rids, null);
+                Assert.assertEquals(records.size(), rids.size());
+                for (int i = 0; i < records.size(); i++)
+                  Assert.assertEquals(((ODocument) records.get(i)).field("value"), i);
+              }
+            } finally {
+              db.close();
+            }
+
+            return null;
+          }
+        }));
+
+      for (Future<Void> future : futures)
+        future.get();
+    } finally {
+      executor.shutdown();
+    }
+
+    // CHANNELS ARE REUSED BY ALL THE THREADS, NONE OF THEM IS DISCARDED BECAUSE IT IS LEFT LOCKED
+    final int created = getCreatedChannels() - channelsBefore;
+    Assert.assertTrue(created <= THREADS, "Channels " + created);
+  }
+
+  public void testLoadLinksOfLazyList() {
+    ODatabaseDocumentTx db = new ODatabaseDocumentTx(URL);
+    db.open("admin", "admin");
+
+    final ORID rid;
+    try {
+      final List<ODocument> linked = new ArrayList<ODocument>();
+      for (int i = 0; i < 10; i++) {
+        final ODocument document = new ODocument("MultiLoadLinked");
+        document.field("value", i);
+        document.save();
+
+        linked.add(document);
+      }
+
+      final ODocument document = new ODocument("MultiLoadOwner");
+      document.field("links", linked);
+      document.save();
+
+      rid = document.getIdentity();
+    } finally {
+      db.close();
+    }
+
+    db = new ODatabaseDocumentTx(URL);
+    db.open("admin", "admin");
+    try {
+      db.getLocalCache().clear();
+
+      final ODocument document = db.load(rid);
+      final List<OIdentifiable> links = document.field("links");
+
+      final Object[] records = links.toArray();
+      Assert.assertEquals(records.length, 10);
+      for (int i = 0; i < records.length; i++)
+        Assert.assertEquals(((ODocument) records[i]).field("value"), i);
+    } finally {
+      db.close();
+    }
+  }
+
+  private static int getCreatedChannels() {
+    final OEngineRemote engine = (OEngineRemote) Orient.instance().getEngine(OEngineRemote.NAME);
+    int channels = 0;
+    for (String url : engine.getConnectionManager().getURLs())
+      if (url.endsWith("/multiLoad"))
+        channels += engine.getConnectionManager().getCreatedInstancesInPool(url);
+
+    return channels;
+  }
+
+  private void deleteDirectory(File iDirectory) {
+    if (iDirectory.isDirectory())
+      for (File f : iDirectory.listFiles()) {
+        if (f.isDirectory())
+          deleteDirectory(f);
+        else if (!f.delete())
+          throw new OConfigurationException("Can't delete the file: " + f);
+      }
+  }
+}
@@ -0,0 +1,155 @@
+package com.orientechnologies.orient.server.network;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import com.orientechnologies.orient.client.remote.OEngineRemote;
+import com.orientechnologies.orient.client.remote.OServerAdmin;
+import com.orientechnologies.orient.core.Orient;
+import com.orientechnologies.orient.core.config.OGlobalConfiguration;
+import com.orientechnologies.orient.core.db.document.ODatabaseDocumentTx;
+import com.orientechnologies.orient.core.exception.OConfigurationException;
+import com.orientechnologies.orient.core.id.ORID;
+import com.orientechnologies.orient.core.record.impl.ODocument;
+import com.orientechnologies.orient.core.sql.query.OSQLSynchQuery;
+import com.orientechnologies.orient.server.OServer;
+
+/**
+ * Checks that synchronous requests of several sessions share the same channels when pipelining is enabled and every session gets
+ * its own responses.
+ */
+@Test
+public class RemotePipelinedRequestsTest {
+  private static final String SERVER_DIRECTORY = "./target/pipelinedRequests";
+  private static final String URL              = "remote:localhost/pipelinedRequests";
+  private static final int    THREADS          = 16;
+
+  private OServer             server;
+  private int                 oldMaxPipelinedRequests;
+
+  @BeforeClass
+  public void before() throws Exception {
+    oldMaxPipelinedRequests = OGlobalConfiguration.CLIENT_CHANNEL_MAX_PIPELINED_REQUESTS.getValueAsInteger();
+    OGlobalConfiguration.CLIENT_CHANNEL_MAX_PIPELINED_REQUESTS.setValue(8);
+
+    server = new OServer();
+    server.setServerRootDirectory(SERVER_DIRECTORY);
+    server.startup(getClass().getResourceAsStream("orientdb-server-config.xml"));
+    server.activate();
+
+    final OServerAdmin admin = new OServerAdmin(URL);
+    admin.connect("root", "D2AFD02F20640EC8B7A5140F34FCA49D2289DB1F0D0598BB9DE8AAA75A0792F3");
+    admin.createDatabase("document", "plocal");
+    admin.close();
+
+    final ODatabaseDocumentTx db = new ODatabaseDocumentTx(URL);
+    db.open("admin", "admin");
+    try {
+      db.getMetadata().getSchema().createClass("PipelinedTest");
+    } finally {
+      db.close();
+    }
+  }
+
+  @AfterClass
+  public void after() throws IOException {
+    final OServerAdmin admin = new OServerAdmin(URL);
+    admin.connect("root", "D2AFD02F20640EC8B7A5140F34FCA49D2289DB1F0D0598BB9DE8AAA75A0792F3");
+    admin.dropDatabase("plocal");
+    admin.close();
+
+    server.shutdown();
+    deleteDirectory(new File(SERVER_DIRECTORY));
+
+    OGlobalConfiguration.CLIENT_CHANNEL_MAX_PIPELINED_REQUESTS.setValue(oldMaxPipelinedRequests);
+  }
+
+  public void testConcurrentSessions() throws Exception {
+    final CountDownLatch opened = new CountDownLatch(THREADS);
+    final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+    try {
+      final List<Future<Void>> futures = new ArrayList<Future<Void>>();
+      for (int i = 0; i < THREADS; i++) {
+        final int id = i;
+        futures.add(executor.submit(new Callable<Void>() {
+          @Override
+          public Void call() throws Exception {
+            final ODatabaseDocumentTx db = new ODatabaseDocumentTx(URL);
+            db.open("admin", "admin");
+            try {
+              opened.countDown();
+              opened.await();
+
+              final List<ORID> rids = new ArrayList<ORID>();
+              for (int n = 0; n < 200; n++) {
+                final ODocument document = new ODocument("PipelinedTest");
+                document.field("session", id);
+                document.field("value", n);
+                document.save();
+
+                rids.add(document.getIdentity());
+              }
+
+              db.getLocalCache().clear();
+              for (int n = 0; n < rids.size(); n++) {
+                final ODocument document = db.load(rids.get(n));
+                Assert.assertEquals(document.field("session"), id);
+                Assert.assertEquals(document.field("value"), n);
+              }
+
+              Assert.assertEquals(db.query(new OSQLSynchQuery<ODocument>(
+                  "select from PipelinedTest where session = " + id)).size(), rids.size());
+            } finally {
+              db.close();
+            }
+
+            return null;
+          }
+        }));
+      }
+
+      for (Future<Void> future : futures)
+        future.get();
+    } finally {
+      executor.shutdown();
+    }
+
+    final ODatabaseDocumentTx db = new ODatabaseDocumentTx(URL);
+    db.open("admin", "admin");
+    try {
+      Assert.assertEquals(db.countClass("PipelinedTest"), THREADS * 200);
+    } finally {
+      db.close();
+    }
+
+    final OEngineRemote engine = (OEngineRemote) Orient.instance().getEngine(OEngineRemote.NAME);
+    int channels = 0;
+    for (String url : engine.getConnectionManager().getURLs())
+      if (url.endsWith("/pipelinedRequests"))
+        channels += engine.getConnectionManager().getCreatedInstancesInPool(url);
+
+    Assert.assertTrue(channels > 0 && channels < THREADS, "Channels " + channels);
+  }
+
+  private void deleteDirectory(File iDirectory) {
+    if (iDirectory.isDirectory())
+      for (File f : iDirectory.listFiles()) {
+        if (f.isDirectory())
+          deleteDirectory(f);
+        else if (!f.delete())
+          throw new OConfigurationException("Can't delete the file: " + f);
+      }
+  }
+}